@@ -0,0 +1,77 @@
+package com.example.miniclouddrive.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 自適應並行上限切面
+ * FileService 的公開方法需先取得 {@link AdaptiveLimiter} 名額；
+ * 儲存層與資料庫 repository 的每次呼叫則記錄延遲，作為調整上限的依據
+ */
+@Aspect
+@RequiredArgsConstructor
+public class AdaptiveLimitAspect {
+
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final AdaptiveLimiter adaptiveLimiter;
+
+    /**
+     * 背景工作呼叫的方法（帶有 JobProgress 參數）不受限制，避免拒絕時消耗重試次數
+     */
+    @Around("execution(public * com.example.miniclouddrive.service.FileService.*(..)) " +
+            "&& !execution(* *(.., com.example.miniclouddrive.service.JobProgress))")
+    public Object limitFileService(ProceedingJoinPoint joinPoint) throws Throwable {
+        adaptiveLimiter.acquire();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            adaptiveLimiter.release();
+        }
+    }
+
+    /**
+     * 只量測最外層的儲存裝飾器，避免同一次呼叫被內層重複記錄
+     */
+    @Around("execution(* com.example.miniclouddrive.service.FileStorageService.*(..)) && bean(fileStorageService)")
+    public Object measureStorage(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        long throttledBefore = BandwidthLimiter.currentThreadThrottledNanos();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            // 扣除頻寬限制造成的等待，只量測儲存層本身的延遲
+            long elapsed = System.nanoTime() - start
+                    - (BandwidthLimiter.currentThreadThrottledNanos() - throttledBefore);
+            // 寫入延遲與檔案大小成正比，換算為每 MB 的延遲才能跨不同大小比較
+            long megabytes = Math.max(1, payloadSize(joinPoint.getArgs()) / BYTES_PER_MEGABYTE);
+            adaptiveLimiter.recordLatency("storage", Math.max(0, elapsed) / megabytes);
+        }
+    }
+
+    @Around("execution(* com.example.miniclouddrive.repository..*.*(..))")
+    public Object measureRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            adaptiveLimiter.recordLatency("database", System.nanoTime() - start);
+        }
+    }
+
+    private static long payloadSize(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof MultipartFile file) {
+                return file.getSize();
+            }
+        }
+        // store(InputStream, String, long size, Long userId)
+        if (args.length == 4 && args[2] instanceof Long size) {
+            return size;
+        }
+        return 0;
+    }
+}
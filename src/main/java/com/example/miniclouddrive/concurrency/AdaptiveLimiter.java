@@ -0,0 +1,189 @@
+package com.example.miniclouddrive.concurrency;
+
+import com.example.miniclouddrive.config.AdaptiveLimitProperties;
+import com.example.miniclouddrive.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 自適應並行上限（gradient 演算法）
+ * 每個下游依賴（儲存層、資料庫）各自維護短期與長期的延遲平均，
+ * 短期延遲高於長期平均代表下游開始變慢，梯度 = 長期 / 短期（介於 0.5 ~ 1）；
+ * 定期以「上限 × 最小梯度 + √上限」重新計算上限：下游正常時逐步放寬，變慢時按比例縮小，
+ * 超過上限的請求立即以 503 拒絕，而不是堆積到執行緒或記憶體耗盡
+ */
+public class AdaptiveLimiter implements MeterBinder {
+
+    private final AdaptiveLimitProperties properties;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, LatencyGradient> dependencies = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+    private volatile long lastUpdateNanos;
+
+    public AdaptiveLimiter(AdaptiveLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AdaptiveLimiter(AdaptiveLimitProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.limit = properties.getInitialLimit();
+        this.lastUpdateNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * 取得執行名額，已達上限時拋出 {@link ServiceOverloadedException}；成功後必須呼叫 {@link #release()}
+     */
+    public void acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                throw new ServiceOverloadedException("服務繁忙，請稍後再試", properties.getRetryAfter());
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+        maybeUpdateLimit();
+    }
+
+    /**
+     * 記錄下游依賴的單次延遲
+     *
+     * @param dependency 依賴名稱，例如 storage、database
+     * @param nanos      延遲（奈秒）
+     */
+    public void recordLatency(String dependency, long nanos) {
+        dependencies.computeIfAbsent(dependency, name -> new LatencyGradient()).record(nanos);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    double gradient(String dependency) {
+        LatencyGradient gradient = dependencies.get(dependency);
+        return gradient == null ? 1.0 : gradient.gradient();
+    }
+
+    void maybeUpdateLimit() {
+        long now = nanoClock.getAsLong();
+        long interval = properties.getUpdateInterval().toNanos();
+        if (now - lastUpdateNanos < interval || !updateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (now - lastUpdateNanos < interval) {
+                return;
+            }
+            lastUpdateNanos = now;
+
+            double gradient = dependencies.values().stream()
+                    .mapToDouble(LatencyGradient::gradient)
+                    .min()
+                    .orElse(1.0);
+            double current = limit;
+            double target = current * gradient + Math.sqrt(current);
+            // 使用量未達上限一半時不放寬，避免閒置期間上限無限制成長
+            if (target > current && peakInFlight.getAndSet(inFlight.get()) < current / 2) {
+                return;
+            }
+            double smoothed = current * (1 - properties.getSmoothing()) + target * properties.getSmoothing();
+            limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), smoothed));
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("adaptive.limit", this, AdaptiveLimiter::getLimit)
+                .description("FileService 目前的並行上限")
+                .register(registry);
+        Gauge.builder("adaptive.limit.inflight", this, AdaptiveLimiter::inFlight)
+                .description("FileService 執行中的請求數")
+                .register(registry);
+        FunctionCounter.builder("adaptive.limit.rejected", rejected, AtomicLong::get)
+                .description("超過並行上限而被拒絕的請求數")
+                .register(registry);
+        for (String dependency : new String[] { "storage", "database" }) {
+            Gauge.builder("adaptive.limit.gradient", this, limiter -> limiter.gradient(dependency))
+                    .tag("dependency", dependency)
+                    .description("下游延遲梯度（長期 / 短期平均），小於 1 表示變慢")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 單一下游依賴的延遲梯度
+     */
+    private static class LatencyGradient {
+
+        private static final double SHORT_ALPHA = 0.2;
+        private static final double LONG_ALPHA = 0.01;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private double shortRtt;
+        private double longRtt;
+
+        void record(long nanos) {
+            lock.lock();
+            try {
+                if (longRtt == 0) {
+                    shortRtt = nanos;
+                    longRtt = nanos;
+                    return;
+                }
+                shortRtt += (nanos - shortRtt) * SHORT_ALPHA;
+                longRtt += (nanos - longRtt) * LONG_ALPHA;
+                // 延遲已恢復時長期平均會明顯偏高，加速收斂以免上限恢復過慢
+                if (longRtt > shortRtt * 2) {
+                    longRtt *= 0.95;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double gradient() {
+            lock.lock();
+            try {
+                if (shortRtt == 0) {
+                    return 1.0;
+                }
+                return Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
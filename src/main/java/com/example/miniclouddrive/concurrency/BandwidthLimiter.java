@@ -0,0 +1,178 @@
+package com.example.miniclouddrive.concurrency;
+
+import com.example.miniclouddrive.config.BandwidthProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 每位使用者的頻寬限制
+ * 每位使用者的上傳與下載各有一個 {@link TokenBucket}，同一使用者的所有並行傳輸共用，
+ * 開再多連線也只能使用所屬等級的頻寬，其他使用者的傳輸不受影響；
+ * 等級依使用者的儲存配額決定，bucket 在閒置逾時（最後一次取用 token 之後）後釋放，下次傳輸時重新決定等級；
+ * 傳輸進行中持續更新使用時間，長時間的傳輸不會被釋放而讓新連線取得另一個全新的 bucket
+ */
+public class BandwidthLimiter {
+
+    public enum Direction {
+        UPLOAD, DOWNLOAD
+    }
+
+    /** 目前執行緒累計的等待時間，供量測儲存層延遲時扣除 */
+    private static final ThreadLocal<long[]> THROTTLED_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final BandwidthProperties properties;
+    private final Function<Long, Long> quotaLookup;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+
+    private final Map<Key, UserBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param quotaLookup 以使用者 ID 查詢儲存配額，查無使用者時回傳 null
+     */
+    public BandwidthLimiter(BandwidthProperties properties, Function<Long, Long> quotaLookup,
+            MeterRegistry meterRegistry) {
+        this(properties, quotaLookup, meterRegistry, System::nanoTime);
+    }
+
+    BandwidthLimiter(BandwidthProperties properties, Function<Long, Long> quotaLookup,
+            MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.quotaLookup = quotaLookup;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 以使用者的頻寬限制包裝串流；未啟用或無法識別使用者時回傳原串流
+     */
+    public InputStream throttle(InputStream inputStream, Long userId, Direction direction) {
+        if (!properties.isEnabled() || userId == null) {
+            return inputStream;
+        }
+        return new ThrottledInputStream(inputStream, bucket(userId, direction));
+    }
+
+    /**
+     * 目前執行緒因頻寬限制而等待的累計時間（奈秒）
+     */
+    public static long currentThreadThrottledNanos() {
+        return THROTTLED_NANOS.get()[0];
+    }
+
+    /**
+     * 釋放閒置的 bucket
+     */
+    @Scheduled(fixedDelayString = "${bandwidth.idle-timeout:PT10M}")
+    public void evictIdle() {
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> now - bucket.lastUsedNanos > idleNanos);
+    }
+
+    public int activeBuckets() {
+        return buckets.size();
+    }
+
+    /**
+     * 依儲存配額選出頻寬等級
+     */
+    BandwidthProperties.Tier tierFor(Long quota) {
+        if (quota == null) {
+            return properties.getDefaultTier();
+        }
+        return properties.getTiers().stream()
+                .filter(tier -> tier.getMinQuota().toBytes() <= quota)
+                .max(Comparator.comparingLong(tier -> tier.getMinQuota().toBytes()))
+                .orElse(properties.getDefaultTier());
+    }
+
+    UserBucket bucket(Long userId, Direction direction) {
+        UserBucket bucket = buckets.computeIfAbsent(new Key(userId, direction), key -> {
+            BandwidthProperties.Tier tier = tierFor(quotaLookup.apply(userId));
+            return new UserBucket(
+                    new TokenBucket(tier.getRate().toBytes(), tier.getBurst().toBytes(), nanoClock),
+                    meterRegistry.counter("file.storage.bandwidth.bytes",
+                            "user", userId.toString(), "direction", direction.name().toLowerCase()),
+                    meterRegistry.timer("file.storage.bandwidth.throttled",
+                            "direction", direction.name().toLowerCase()),
+                    nanoClock);
+        });
+        bucket.lastUsedNanos = nanoClock.getAsLong();
+        return bucket;
+    }
+
+    private record Key(Long userId, Direction direction) {
+    }
+
+    static final class UserBucket {
+
+        final TokenBucket tokenBucket;
+        final Counter bytes;
+        final Timer throttled;
+        private final LongSupplier nanoClock;
+        volatile long lastUsedNanos;
+
+        UserBucket(TokenBucket tokenBucket, Counter bytes, Timer throttled, LongSupplier nanoClock) {
+            this.tokenBucket = tokenBucket;
+            this.bytes = bytes;
+            this.throttled = throttled;
+            this.nanoClock = nanoClock;
+        }
+
+        void consume(long count) throws IOException {
+            long waited = tokenBucket.acquire(count);
+            lastUsedNanos = nanoClock.getAsLong();
+            bytes.increment(count);
+            if (waited > 0) {
+                throttled.record(waited, TimeUnit.NANOSECONDS);
+                THROTTLED_NANOS.get()[0] += waited;
+            }
+        }
+    }
+
+    /**
+     * 每次讀取後依讀到的位元組數取用 token；單次讀取不超過 burst，讓等待分散在整個傳輸過程
+     */
+    private static final class ThrottledInputStream extends FilterInputStream {
+
+        private final UserBucket bucket;
+        private final int maxChunk;
+
+        ThrottledInputStream(InputStream in, UserBucket bucket) {
+            super(in);
+            this.bucket = bucket;
+            this.maxChunk = (int) Math.min(Integer.MAX_VALUE, bucket.tokenBucket.getCapacity());
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                bucket.consume(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, Math.min(len, maxChunk));
+            if (read > 0) {
+                bucket.consume(read);
+            }
+            return read;
+        }
+    }
+}
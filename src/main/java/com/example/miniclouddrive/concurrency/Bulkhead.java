@@ -0,0 +1,116 @@
+package com.example.miniclouddrive.concurrency;
+
+import com.example.miniclouddrive.config.BulkheadProperties;
+import com.example.miniclouddrive.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 隔艙（bulkhead）
+ * 以 Semaphore 限制同時執行數，並限制等待名額的數量與時間；
+ * 等待佇列已滿時立即拒絕，等待逾時亦拒絕，讓過載時快速失敗而不是拖住執行緒
+ */
+public class Bulkhead implements MeterBinder {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(String name, BulkheadProperties.Limit limit) {
+        this.name = name;
+        this.maxConcurrent = limit.getMaxConcurrent();
+        this.maxQueue = limit.getMaxQueue();
+        this.maxWait = limit.getMaxWait();
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * 取得執行名額，失敗時拋出 {@link ServiceOverloadedException}；成功後必須呼叫 {@link #release()}
+     */
+    public void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            throw reject();
+        }
+        try {
+            if (!permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw reject();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 在取得名額後執行
+     */
+    public <T> T execute(Supplier<T> action) {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    private ServiceOverloadedException reject() {
+        rejected.incrementAndGet();
+        return new ServiceOverloadedException("服務繁忙（" + name + "），請稍後再試", maxWait);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bulkhead.active", this, Bulkhead::active)
+                .tag("name", name)
+                .description("隔艙中執行中的請求數")
+                .register(registry);
+        Gauge.builder("bulkhead.waiting", this, Bulkhead::waiting)
+                .tag("name", name)
+                .description("隔艙中等待名額的請求數")
+                .register(registry);
+        FunctionCounter.builder("bulkhead.rejected", rejected, AtomicLong::get)
+                .tag("name", name)
+                .description("隔艙拒絕的請求數")
+                .register(registry);
+    }
+}
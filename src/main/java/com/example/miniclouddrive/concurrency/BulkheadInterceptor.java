@@ -0,0 +1,38 @@
+package com.example.miniclouddrive.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 依隔艙限制請求並行數
+ * 在進入 Controller 前取得名額，請求結束後釋放；
+ * 搭配 multipart resolve-lazily，上傳內容在取得名額後才開始讀取
+ */
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private final Bulkhead bulkhead;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        bulkhead.acquire();
+        request.setAttribute(attributeName(), Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        // 只有成功取得名額的請求才釋放
+        if (request.getAttribute(attributeName()) != null) {
+            request.removeAttribute(attributeName());
+            bulkhead.release();
+        }
+    }
+
+    private String attributeName() {
+        return BulkheadInterceptor.class.getName() + "." + bulkhead.getName();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.miniclouddrive.concurrency;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket 流量限制
+ * 以固定速率補充 token，最多累積 burst 個；取用超過現有數量時先行預支，
+ * 呼叫端依欠額等待補足，後到的請求排在欠額之後，同一 bucket 的多個串流依到達順序分享頻寬
+ */
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final long capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(long tokensPerSecond, long capacity) {
+        this(tokensPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(long tokensPerSecond, long capacity, LongSupplier nanoClock) {
+        if (tokensPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("速率與容量需大於 0");
+        }
+        this.tokensPerNano = tokensPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * 取用 token，不足時等待補足
+     *
+     * @return 等待的時間（奈秒）
+     * @throws InterruptedIOException 等待期間被中斷
+     */
+    public long acquire(long permits) throws InterruptedIOException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待頻寬時被中斷");
+            }
+        }
+        return waitNanos;
+    }
+
+    /**
+     * 預支 token
+     *
+     * @return 需等待多久才能補足欠額（奈秒），不需等待時為 0
+     */
+    synchronized long reserve(long permits) {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+}
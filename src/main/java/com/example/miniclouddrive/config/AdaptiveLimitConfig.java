@@ -0,0 +1,26 @@
+package com.example.miniclouddrive.config;
+
+import com.example.miniclouddrive.concurrency.AdaptiveLimitAspect;
+import com.example.miniclouddrive.concurrency.AdaptiveLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 自適應並行上限配置
+ * 可透過 adaptive-limit.enabled=false 關閉
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "adaptive-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptiveLimitConfig {
+
+    @Bean
+    public AdaptiveLimiter adaptiveLimiter(AdaptiveLimitProperties adaptiveLimitProperties) {
+        return new AdaptiveLimiter(adaptiveLimitProperties);
+    }
+
+    @Bean
+    public AdaptiveLimitAspect adaptiveLimitAspect(AdaptiveLimiter adaptiveLimiter) {
+        return new AdaptiveLimitAspect(adaptiveLimiter);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "adaptive-limit")
+public class AdaptiveLimitProperties {
+    /** 是否啟用 FileService 的自適應並行上限 */
+    private boolean enabled = true;
+
+    /** 初始上限 */
+    private int initialLimit = 20;
+
+    /** 上限的下界，延遲再高也至少允許此數量 */
+    private int minLimit = 4;
+
+    /** 上限的上界 */
+    private int maxLimit = 200;
+
+    /** 重新計算上限的最短間隔 */
+    private Duration updateInterval = Duration.ofSeconds(1);
+
+    /** 每次調整時新值所佔的權重（0~1），越小調整越平緩 */
+    private double smoothing = 0.2;
+
+    /** 拒絕時建議客戶端重試前等待的時間 */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
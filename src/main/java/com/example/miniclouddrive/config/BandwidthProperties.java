@@ -0,0 +1,52 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "bandwidth")
+public class BandwidthProperties {
+
+    /** 是否限制每位使用者的上傳與下載頻寬 */
+    private boolean enabled = false;
+
+    /** 未符合任何等級時套用的預設頻寬 */
+    private Tier defaultTier = new Tier(DataSize.ofBytes(0), DataSize.ofMegabytes(10), DataSize.ofMegabytes(4));
+
+    /** 依儲存配額區分的頻寬等級，套用 minQuota 不超過使用者配額的最高等級 */
+    private List<Tier> tiers = new ArrayList<>();
+
+    /** 使用者閒置超過此時間即釋放其 token bucket，下次傳輸時依最新配額重新決定等級 */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    @Setter
+    @Getter
+    public static class Tier {
+        /** 適用此等級的最低儲存配額 */
+        private DataSize minQuota;
+
+        /** 每秒可傳輸的位元組數（上傳與下載分開計算） */
+        private DataSize rate;
+
+        /** 閒置後可瞬間傳輸的位元組數上限 */
+        private DataSize burst;
+
+        public Tier() {
+        }
+
+        public Tier(DataSize minQuota, DataSize rate, DataSize burst) {
+            this.minQuota = minQuota;
+            this.rate = rate;
+            this.burst = burst;
+        }
+    }
+}
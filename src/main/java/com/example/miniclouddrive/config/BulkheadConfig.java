@@ -0,0 +1,60 @@
+package com.example.miniclouddrive.config;
+
+import com.example.miniclouddrive.concurrency.Bulkhead;
+import com.example.miniclouddrive.concurrency.BulkheadInterceptor;
+import com.example.miniclouddrive.controller.LiveEventController;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 請求隔艙配置
+ * 傳輸類請求（上傳等）、下載與 metadata 類請求使用各自的並行名額，
+ * 少數慢速的大檔上傳最多只佔用 transfer 的名額（以及同數量的資料庫連線），不會拖慢列表與登入；
+ * 下載串流時不持有資料庫連線，名額另外計算，不會被上傳佔滿
+ */
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadProperties bulkheadProperties;
+    private final Bulkhead transferBulkhead;
+    private final Bulkhead downloadBulkhead;
+    private final Bulkhead metadataBulkhead;
+
+    public BulkheadConfig(BulkheadProperties bulkheadProperties) {
+        this.bulkheadProperties = bulkheadProperties;
+        this.transferBulkhead = new Bulkhead("transfer", bulkheadProperties.getTransfer());
+        this.downloadBulkhead = new Bulkhead("download", bulkheadProperties.getDownload());
+        this.metadataBulkhead = new Bulkhead("metadata", bulkheadProperties.getMetadata());
+    }
+
+    @Bean
+    public Bulkhead transferBulkhead() {
+        return transferBulkhead;
+    }
+
+    @Bean
+    public Bulkhead downloadBulkhead() {
+        return downloadBulkhead;
+    }
+
+    @Bean
+    public Bulkhead metadataBulkhead() {
+        return metadataBulkhead;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(transferBulkhead))
+                .addPathPatterns(bulkheadProperties.getTransfer().getPaths());
+        registry.addInterceptor(new BulkheadInterceptor(downloadBulkhead))
+                .addPathPatterns(bulkheadProperties.getDownload().getPaths());
+        registry.addInterceptor(new BulkheadInterceptor(metadataBulkhead))
+                .addPathPatterns("/api/**")
+                .excludePathPatterns(bulkheadProperties.getTransfer().getPaths())
+                .excludePathPatterns(bulkheadProperties.getDownload().getPaths())
+                // 即時事件的連線長時間保持，閒置時不佔用執行緒，不應佔用並行名額
+                .excludePathPatterns(LiveEventController.PATH);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    /** BCrypt 雜湊運算的並行上限 */
+    private Limit bcrypt = new Limit(Runtime.getRuntime().availableProcessors(), Integer.MAX_VALUE,
+            Duration.ofSeconds(2));
+
+    /** 大量傳輸請求（上傳）的並行上限 */
+    private Transfer transfer = new Transfer();
+
+    /** 下載請求的並行上限；串流時不佔用資料庫連線，不受連線池大小限制 */
+    private Download download = new Download();
+
+    /** 其餘 API 請求（列表、資料夾操作、登入等）的並行上限 */
+    private Limit metadata = new Limit(64, 128, Duration.ofSeconds(1));
+
+    @Setter
+    @Getter
+    public static class Limit {
+        /** 同時執行的上限 */
+        private int maxConcurrent;
+
+        /** 等待執行名額的請求數上限，超過即直接拒絕 */
+        private int maxQueue;
+
+        /** 等待執行名額的時間上限，逾時回傳 503 */
+        private Duration maxWait;
+
+        public Limit() {
+        }
+
+        public Limit(int maxConcurrent, int maxQueue, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxWait = maxWait;
+        }
+    }
+
+    @Setter
+    @Getter
+    public static class Transfer extends Limit {
+        /** 屬於傳輸類的請求路徑（Spring PathPattern），其餘 /api/** 皆為 metadata 類 */
+        private List<String> paths = new ArrayList<>(List.of("/api/files/upload", "/api/files/upload/batch", "/api/files/content",
+                "/api/files/multipart/*/parts/*", "/api/files/multipart/*/complete"));
+
+        public Transfer() {
+            super(4, 8, Duration.ofSeconds(5));
+        }
+    }
+
+    @Setter
+    @Getter
+    public static class Download extends Limit {
+        /** 屬於下載類的請求路徑（Spring PathPattern） */
+        private List<String> paths = new ArrayList<>(List.of("/api/files/*/download", "/api/files/*/content/*"));
+
+        public Download() {
+            super(64, 128, Duration.ofSeconds(5));
+        }
+    }
+}
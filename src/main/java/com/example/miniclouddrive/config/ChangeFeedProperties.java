@@ -0,0 +1,26 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "change-feed")
+public class ChangeFeedProperties {
+    /** 變更紀錄的保留期限，游標早於保留範圍的客戶端需重新完整同步 */
+    private Duration retention = Duration.ofDays(30);
+
+    /** 未指定筆數時每頁回傳的變更數 */
+    private int defaultPageSize = 500;
+
+    /** 每頁變更數上限 */
+    private int maxPageSize = 1000;
+
+    /** 清除過期變更紀錄的執行間隔 */
+    private Duration cleanupInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,61 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "content-search")
+public class ContentSearchProperties {
+    /** 是否建立檔案內容的全文索引 */
+    private boolean enabled = true;
+
+    /** 本地索引目錄（每個節點各自維護，依資料庫的變更紀錄更新，因此包含所有節點的異動） */
+    private String indexDir = "./content-index";
+
+    /** 擷取文字的背景執行緒數，同一檔案固定由同一執行緒處理以維持順序 */
+    private int workerThreads = 2;
+
+    /** 每個執行緒待處理的檔案數上限，超過時捨棄並記錄於指標 */
+    private int queueCapacity = 10000;
+
+    /** 每個檔案最多索引的內容大小，超過的部分不索引 */
+    private DataSize maxExtractSize = DataSize.ofMegabytes(1);
+
+    /** 讀取變更紀錄的間隔 */
+    private Duration catchUpInterval = Duration.ofSeconds(2);
+
+    /**
+     * 變更紀錄的 ID 在寫入時配發、提交順序可能不同；寫入超過此時間的變更視為已提交，
+     * 之前的變更都已讀取後才推進檢查點，較新的變更每次重新讀取以免遺漏較晚提交者
+     */
+    private Duration catchUpLag = Duration.ofMinutes(1);
+
+    /** 每次讀取的變更數 */
+    private int catchUpBatchSize = 1000;
+
+    /** 新索引的內容可被查詢的延遲上限 */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+
+    /** 索引寫入磁碟的間隔，重新啟動時最多遺失此間隔內的更新 */
+    private Duration commitInterval = Duration.ofSeconds(30);
+
+    /** 建立全文索引的副檔名（不分大小寫） */
+    private List<String> extensions = new ArrayList<>(List.of(
+            "txt", "md", "csv", "tsv", "json", "xml", "yml", "yaml", "log", "html", "css", "sql",
+            "java", "kt", "js", "ts", "py", "go", "rs", "c", "h", "cpp", "cs", "rb", "php", "sh"));
+
+    /** 未指定筆數時回傳的結果數 */
+    private int defaultLimit = 20;
+
+    /** 回傳結果數上限 */
+    private int maxLimit = 100;
+}
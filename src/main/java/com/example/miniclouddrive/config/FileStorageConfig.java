@@ -0,0 +1,67 @@
+package com.example.miniclouddrive.config;
+
+import com.example.miniclouddrive.concurrency.BandwidthLimiter;
+import com.example.miniclouddrive.entity.User;
+import com.example.miniclouddrive.repository.UserRepository;
+import com.example.miniclouddrive.service.BlobCache;
+import com.example.miniclouddrive.service.CachingFileStorageService;
+import com.example.miniclouddrive.service.CompressingFileStorageService;
+import com.example.miniclouddrive.service.FileStorageService;
+import com.example.miniclouddrive.service.LocalFileStorageService;
+import com.example.miniclouddrive.service.PackFileStore;
+import com.example.miniclouddrive.service.PackingFileStorageService;
+import com.example.miniclouddrive.service.ThrottlingFileStorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * 儲存層組裝配置
+ * 以裝飾器方式在 LocalFileStorageService 外層疊加各項儲存功能，
+ * 業務層注入的 FileStorageService 即為最外層的裝飾器
+ */
+@Configuration
+public class FileStorageConfig {
+
+    @Bean
+    @Primary
+    public FileStorageService fileStorageService(LocalFileStorageService localFileStorageService,
+            PackFileStore packFileStore,
+            BlobCache blobCache,
+            BandwidthLimiter bandwidthLimiter,
+            FileStorageProperties fileStorageProperties,
+            BandwidthProperties bandwidthProperties) {
+        FileStorageService storage = localFileStorageService;
+        storage = new PackingFileStorageService(storage, packFileStore, fileStorageProperties.getPack());
+        storage = new CompressingFileStorageService(storage, fileStorageProperties.getCompression());
+        if (fileStorageProperties.getCache().isEnabled()) {
+            storage = new CachingFileStorageService(storage, blobCache);
+        }
+        // 快取命中的讀取同樣佔用網路頻寬，頻寬限制放在最外層
+        if (bandwidthProperties.isEnabled()) {
+            storage = new ThrottlingFileStorageService(storage, bandwidthLimiter);
+        }
+        return storage;
+    }
+
+    /**
+     * 熱門小檔案快取，同時作為 MeterBinder 提供 Actuator 指標
+     */
+    @Bean
+    public BlobCache blobCache(FileStorageProperties fileStorageProperties) {
+        FileStorageProperties.Cache cache = fileStorageProperties.getCache();
+        return new BlobCache(cache.getMaxSize().toBytes(), cache.getMaxEntrySize().toBytes());
+    }
+
+    /**
+     * 每位使用者的上傳與下載頻寬限制，等級依使用者的儲存配額決定
+     */
+    @Bean
+    public BandwidthLimiter bandwidthLimiter(BandwidthProperties bandwidthProperties, UserRepository userRepository,
+            MeterRegistry meterRegistry) {
+        return new BandwidthLimiter(bandwidthProperties,
+                userId -> userRepository.findById(userId).map(User::getStorageQuota).orElse(null),
+                meterRegistry);
+    }
+}
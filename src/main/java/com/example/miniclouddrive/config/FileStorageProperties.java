@@ -4,6 +4,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Setter
 @Getter
@@ -11,4 +14,115 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "file")
 public class FileStorageProperties {
     private String uploadDir;
-}
\ No newline at end of file
+
+    /** 小檔案打包儲存設定 */
+    private Pack pack = new Pack();
+
+    /** 透明壓縮設定 */
+    private Compression compression = new Compression();
+
+    /** 熱門小檔案讀取快取設定 */
+    private Cache cache = new Cache();
+
+    /** 批次上傳設定 */
+    private BatchUpload batchUpload = new BatchUpload();
+
+    /** 分段上傳設定 */
+    private Multipart multipart = new Multipart();
+
+    /** 寫入本地儲存時使用的直接緩衝區 */
+    private TransferBuffer transferBuffer = new TransferBuffer();
+
+    @Setter
+    @Getter
+    public static class Pack {
+        /** 是否將小檔案寫入打包檔（關閉後仍可讀取既有的打包檔） */
+        private boolean enabled = false;
+
+        /** 小於等於此大小的檔案寫入打包檔 */
+        private DataSize threshold = DataSize.ofKilobytes(64);
+
+        /** 單一打包檔的最大大小，超過後切換至新的打包檔 */
+        private DataSize maxPackSize = DataSize.ofMegabytes(256);
+
+        /** 已刪除資料佔打包檔比例達此值時進行壓實 */
+        private double compactionThreshold = 0.5;
+
+        /** 背景壓實的執行間隔 */
+        private Duration compactionInterval = Duration.ofMinutes(10);
+
+        /**
+         * 打包檔最後寫入後、以及壓實淘汰後保留的時間
+         * 需大於上傳交易的最長時間：未提交的資料不會被壓實搬移，舊位置的讀取也仍可完成
+         */
+        private Duration retiredGracePeriod = Duration.ofMinutes(10);
+    }
+
+    @Setter
+    @Getter
+    public static class Compression {
+        /** 是否在寫入時壓縮可壓縮的內容（關閉後仍可讀取既有的壓縮檔） */
+        private boolean enabled = false;
+
+        /** Deflate 壓縮等級（1-9） */
+        private int level = 6;
+
+        /** 小於等於此大小的檔案於記憶體中壓縮，並在節省比例不足時改存原始內容 */
+        private DataSize inMemoryLimit = DataSize.ofMegabytes(1);
+
+        /** 最低節省比例，壓縮後未能節省此比例的空間則存原始內容 */
+        private double minSavingRatio = 0.1;
+    }
+
+    @Setter
+    @Getter
+    public static class Cache {
+        /** 是否啟用讀取快取 */
+        private boolean enabled = false;
+
+        /** 快取內容的總大小上限（堆外記憶體，需小於 -XX:MaxDirectMemorySize） */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        /** 單一檔案大小上限，超過者不快取 */
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+    }
+
+    @Setter
+    @Getter
+    public static class BatchUpload {
+        /** 同時寫入儲存層的檔案數（所有批次上傳請求共用） */
+        private int parallelism = 4;
+
+        /** 單一批次的檔案數上限 */
+        private int maxFiles = 1000;
+    }
+
+    @Setter
+    @Getter
+    public static class Multipart {
+        /** 分段上傳的有效期限，逾期未完成即清除已上傳的分段 */
+        private Duration ttl = Duration.ofHours(24);
+
+        /** 單一分段的大小上限 */
+        private DataSize maxPartSize = DataSize.ofMegabytes(64);
+
+        /** 分段編號上限（編號自 1 起） */
+        private int maxParts = 10000;
+
+        /** 每位使用者同時進行中的分段上傳上限 */
+        private int maxOpenUploads = 20;
+
+        /** 清除逾期分段上傳的執行間隔 */
+        private Duration cleanupInterval = Duration.ofMinutes(10);
+    }
+
+    @Setter
+    @Getter
+    public static class TransferBuffer {
+        /** 單一緩衝區大小 */
+        private DataSize size = DataSize.ofKilobytes(256);
+
+        /** 池中保留的緩衝區數量上限，同時寫入數超過時改用一般堆積緩衝區 */
+        private int poolSize = 16;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "job")
+public class JobProperties {
+    /** 每個節點的 worker 執行緒數 */
+    private int workerThreads = 2;
+
+    /** 每位使用者同時執行中的工作上限 */
+    private int perUserConcurrency = 1;
+
+    /** 每個工作最多執行次數（含租約逾時後的重新執行） */
+    private int maxAttempts = 3;
+
+    /** 租約長度，節點停止後最晚經過此時間由其他節點接手 */
+    private Duration leaseDuration = Duration.ofSeconds(60);
+
+    /** 續約間隔，需明顯短於租約長度 */
+    private Duration heartbeatInterval = Duration.ofSeconds(20);
+
+    /** 查詢待執行工作的間隔 */
+    private Duration pollInterval = Duration.ofSeconds(2);
+}
@@ -0,0 +1,29 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "live-events")
+public class LiveEventsProperties {
+    /** 每個連線待送出的事件上限，客戶端跟不上時關閉連線並要求以變更紀錄重新同步 */
+    private int queueCapacity = 256;
+
+    /** 每位使用者同時訂閱的連線上限，超過時關閉最舊的連線 */
+    private int maxSubscriptionsPerUser = 8;
+
+    /** 送出事件的執行緒數，閒置的連線不佔用執行緒 */
+    private int dispatchThreads = 4;
+
+    /** 連線逾時，逾時後由客戶端重新連線 */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /** 心跳間隔，讓反向代理保持連線並及早偵測已斷線的客戶端 */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,33 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "namespace")
+public class NamespaceProperties {
+    /** 是否以記憶體內的資料夾命名空間解析路徑；關閉時逐層查詢資料庫 */
+    private boolean enabled = true;
+
+    /** 所有使用者命名空間的記憶體預算，超過時釋放最久未使用的使用者命名空間 */
+    private DataSize maxMemory = DataSize.ofMegabytes(128);
+
+    /** 命名空間有效期限；異動事件只通知本節點，其他節點的重新命名與搬移最多延遲此期限才會反映 */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /** 單一使用者的命名空間超過記憶體預算後，多久內改為逐層查詢資料庫，期限過後重新嘗試建立 */
+    private Duration oversizedRetry = Duration.ofMinutes(30);
+
+    /** 建立命名空間時每次從資料庫讀取的筆數 */
+    private int buildBatchSize = 10000;
+
+    /** 路徑片段數上限 */
+    private int maxDepth = 64;
+}
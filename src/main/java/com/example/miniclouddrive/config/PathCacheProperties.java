@@ -0,0 +1,23 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "path-cache")
+public class PathCacheProperties {
+    /** 快取的資料夾路徑數上限，超過時淘汰最久未使用者 */
+    private int maxEntries = 10000;
+
+    /** 快取有效期限；重新命名與搬移只通知本節點，其他節點的快取最多延遲此期限 */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /** 單次批次查詢路徑的項目數上限 */
+    private int maxBatchSize = 500;
+}
@@ -0,0 +1,33 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+    /** 是否使用記憶體內的檔名索引；關閉時以資料庫 LIKE 查詢 */
+    private boolean indexEnabled = true;
+
+    /** 所有使用者索引的記憶體預算，超過時釋放最久未查詢的使用者索引 */
+    private DataSize maxMemory = DataSize.ofMegabytes(512);
+
+    /** 單一使用者的索引超過記憶體預算後，多久內改以資料庫查詢，期限過後重新嘗試建立 */
+    private Duration oversizedRetry = Duration.ofMinutes(30);
+
+    /** 建立索引時每次從資料庫讀取的筆數 */
+    private int buildBatchSize = 10000;
+
+    /** 未指定筆數時回傳的結果數 */
+    private int defaultLimit = 20;
+
+    /** 回傳結果數上限 */
+    private int maxLimit = 100;
+}
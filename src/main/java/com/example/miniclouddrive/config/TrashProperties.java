@@ -0,0 +1,29 @@
+package com.example.miniclouddrive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "trash")
+public class TrashProperties {
+    /** 回收筒項目的保留期限，逾期後由背景排程永久刪除 */
+    private Duration retention = Duration.ofDays(30);
+
+    /** 永久刪除時每批刪除的項目數 */
+    private int purgeBatchSize = 500;
+
+    /** 每批永久刪除之間的間隔，避免大量刪除佔滿資料庫與儲存層 */
+    private Duration purgeBatchDelay = Duration.ofMillis(100);
+
+    /** 每次排程最多永久刪除的逾期回收筒項目數 */
+    private int sweepBatchSize = 100;
+
+    /** 清除逾期回收筒項目的執行間隔 */
+    private Duration sweepInterval = Duration.ofHours(1);
+}
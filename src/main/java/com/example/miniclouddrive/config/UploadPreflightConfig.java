@@ -0,0 +1,55 @@
+package com.example.miniclouddrive.config;
+
+import com.example.miniclouddrive.interceptor.UploadPreflightInterceptor;
+import com.example.miniclouddrive.service.FileService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 上傳前檢查配置
+ * 檢查在隔艙之前執行，被拒絕的上傳不佔用 transfer 名額；
+ * 單一檔案上傳以 max-file-size 為上限，只有批次上傳才適用較大的 max-request-size
+ */
+@Configuration
+public class UploadPreflightConfig implements WebMvcConfigurer {
+
+    private final FileService fileService;
+    private final DataSize maxFileSize;
+    private final DataSize maxRequestSize;
+
+    public UploadPreflightConfig(FileService fileService,
+            @Value("${spring.servlet.multipart.max-file-size:-1B}") DataSize maxFileSize,
+            @Value("${spring.servlet.multipart.max-request-size:-1B}") DataSize maxRequestSize) {
+        this.fileService = fileService;
+        this.maxFileSize = maxFileSize;
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        long maxSingleUpload = maxFileSize.toBytes() > 0
+                ? maxFileSize.toBytes() + UploadPreflightInterceptor.MULTIPART_OVERHEAD
+                : -1;
+        registry.addInterceptor(new UploadPreflightInterceptor(fileService, maxSingleUpload))
+                .addPathPatterns("/api/files/upload")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+        registry.addInterceptor(new UploadPreflightInterceptor(fileService, maxRequestSize.toBytes()))
+                .addPathPatterns("/api/files/upload/batch")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    /**
+     * 收到 Expect: 100-continue 時，等應用程式開始讀取內容才回覆 100 Continue；
+     * 預設會立即回覆，客戶端便會在檢查結果出來前送出整個內容
+     */
+    @Bean
+    public TomcatConnectorCustomizer continueOnReadCustomizer() {
+        return connector -> connector.setProperty("continueResponseTiming", "onRead");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.miniclouddrive.controller;
+
+import com.example.miniclouddrive.dto.response.ApiResponseCode;
+import com.example.miniclouddrive.dto.response.ChangeFeedResponse;
+import com.example.miniclouddrive.service.ChangeFeedService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 變更紀錄 API
+ * 同步客戶端以游標增量取得檔案異動，不需重新列出所有資料夾
+ */
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+@Tag(name = "變更紀錄 API", description = "增量同步用的檔案變更紀錄")
+public class ChangeFeedController {
+
+        private final ChangeFeedService changeFeedService;
+
+        @Operation(summary = "查詢變更紀錄", description = "回傳游標之後的變更，每個項目只保留最新的一筆。\n" +
+                        "- 首次同步：不帶 cursor 取得目前的游標，再完整列出資料夾\n" +
+                        "- 增量同步：帶入上次回傳的 cursor；hasMore 為 true 時以新的 cursor 繼續查詢\n" +
+                        "- 回傳 410 時代表游標之後的部分紀錄已超過保留期限，需重新完整同步")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功"),
+                        @ApiResponse(responseCode = "400", description = "游標或筆數無效", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "410", description = "游標已過期", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @GetMapping
+        public ResponseEntity<ApiResponseCode<ChangeFeedResponse>> getChanges(
+                        @RequestParam(required = false) Long cursor,
+                        @RequestParam(required = false) Integer limit) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                ChangeFeedResponse response = changeFeedService.getChanges(userId, cursor, limit);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+}
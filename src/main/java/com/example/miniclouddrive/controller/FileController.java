@@ -1,14 +1,29 @@
 package com.example.miniclouddrive.controller;
 
+import com.example.miniclouddrive.dto.request.BatchUploadRequest;
+import com.example.miniclouddrive.dto.request.CheckExistsRequest;
+import com.example.miniclouddrive.dto.request.CopyFilesRequest;
 import com.example.miniclouddrive.dto.request.CreateFolderRequest;
 import com.example.miniclouddrive.dto.request.DeleteFolderRequest;
+import com.example.miniclouddrive.dto.request.FilePathsRequest;
 import com.example.miniclouddrive.dto.request.FileUploadRequest;
+import com.example.miniclouddrive.dto.request.MoveFilesRequest;
 import com.example.miniclouddrive.dto.request.RenameFolderRequest;
 import com.example.miniclouddrive.dto.response.ApiResponseCode;
+import com.example.miniclouddrive.dto.response.BatchUploadResponse;
+import com.example.miniclouddrive.dto.response.BreadcrumbResponse;
 import com.example.miniclouddrive.dto.response.CreateFolderResponse;
+import com.example.miniclouddrive.dto.response.FileExistenceResponse;
 import com.example.miniclouddrive.dto.response.FileResponse;
 import com.example.miniclouddrive.dto.response.FileUploadResponse;
+import com.example.miniclouddrive.dto.response.JobResponse;
+import com.example.miniclouddrive.dto.response.StorageUsageResponse;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import com.example.miniclouddrive.service.BatchUploadService;
+import com.example.miniclouddrive.service.FileDownload;
 import com.example.miniclouddrive.service.FileService;
+import com.example.miniclouddrive.service.FolderPathService;
+import com.example.miniclouddrive.service.StreamingUploadService;
 import com.example.miniclouddrive.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,12 +31,27 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 檔案管理 API
@@ -34,6 +64,12 @@ import org.springframework.web.bind.annotation.*;
 public class FileController {
 
         private final FileService fileService;
+        private final BatchUploadService batchUploadService;
+        private final StreamingUploadService streamingUploadService;
+        private final FolderPathService folderPathService;
+
+        /** 內容定址網址的快取期限 */
+        private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
 
         @Operation(summary = "上傳檔案", description = "上傳檔案到指定資料夾，可設定重複檔案處理方式：\n" +
                         "- duplicateAction = null：拒絕上傳，回傳錯誤讓前端顯示選項\n" +
@@ -78,21 +114,21 @@ public class FileController {
                 return ResponseEntity.ok(ApiResponseCode.success(response));
         }
 
-        @Operation(summary = "刪除資料夾", description = "軟刪除資料夾及其所有子項目（遞迴刪除）")
+        @Operation(summary = "刪除資料夾", description = "軟刪除資料夾及其所有子項目；刪除於背景執行，回傳的工作可由 GET /api/jobs/{id} 查詢進度")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "刪除成功"),
+                        @ApiResponse(responseCode = "202", description = "已建立刪除工作"),
                         @ApiResponse(responseCode = "404", description = "資料夾不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
         })
         @PostMapping("/deleteFolder")
-        public ResponseEntity<ApiResponseCode<Void>> deleteFolder(
+        public ResponseEntity<ApiResponseCode<JobResponse>> deleteFolder(
                         @Valid @RequestBody DeleteFolderRequest request) {
 
                 Long userId = SecurityUtils.getCurrentUserId();
                 Long id = request.getId();
 
-                fileService.deleteFolder(id, userId);
+                JobResponse job = fileService.requestFolderDelete(id, userId);
 
-                return ResponseEntity.ok(ApiResponseCode.success(null));
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponseCode.success(job));
         }
 
         @Operation(summary = "重新命名資料夾", description = "修改指定資料夾的名稱，同一層級不可有重複名稱")
@@ -112,17 +148,322 @@ public class FileController {
                 return ResponseEntity.ok(ApiResponseCode.success(null));
         }
 
-        @Operation(summary = "查詢檔案列表", description = "分頁查詢指定資料夾下的檔案與子資料夾")
+        @Operation(summary = "複製檔案/資料夾", description = "將檔案或整個資料夾子樹複製到目標資料夾，只建立新的資料庫記錄並共用既有的實體檔案，不重新寫入內容；\n" +
+                        "- duplicateAction = null：目標已有同名項目時拒絕複製\n" +
+                        "- duplicateAction = 1：自動加後綴（如 file(1).pdf）")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "複製成功，回傳複製後的最上層項目"),
+                        @ApiResponse(responseCode = "400", description = "請求驗證失敗或將資料夾複製到自身子資料夾", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "來源項目或目標資料夾不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "409", description = "目標資料夾已有同名項目且未指定處理方式", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "507", description = "儲存空間不足", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping("/copy")
+        public ResponseEntity<ApiResponseCode<List<FileResponse>>> copyFiles(
+                        @Valid @RequestBody CopyFilesRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                List<FileResponse> response = fileService.copyFiles(
+                                request.getIds(),
+                                request.getTargetFolderId(),
+                                request.getDuplicateAction(),
+                                userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "搬移檔案/資料夾", description = "將檔案或資料夾搬移到目標資料夾，子樹的路徑以單一批次更新改寫；\n" +
+                        "- duplicateAction = null：目標已有同名項目時拒絕搬移\n" +
+                        "- duplicateAction = 1：自動加後綴（如 file(1).pdf）")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "搬移成功，回傳搬移後的項目"),
+                        @ApiResponse(responseCode = "400", description = "請求驗證失敗或將資料夾搬移到自身子資料夾", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "來源項目或目標資料夾不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "409", description = "目標資料夾已有同名項目且未指定處理方式", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping("/move")
+        public ResponseEntity<ApiResponseCode<List<FileResponse>>> moveFiles(
+                        @Valid @RequestBody MoveFilesRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                List<FileResponse> response = fileService.moveFiles(
+                                request.getIds(),
+                                request.getTargetFolderId(),
+                                request.getDuplicateAction(),
+                                userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "批次上傳檔案", description = "一個請求上傳多個檔案（files 欄位重複多次），整批做一次配額檢查，" +
+                        "檔案並行寫入後在單一交易中建立記錄；個別檔案失敗不影響其他檔案，結果逐一回報：\n" +
+                        "- duplicateAction = null：同名檔案標記為失敗\n" +
+                        "- duplicateAction = 0：覆蓋現有檔案\n" +
+                        "- duplicateAction = 1：自動加後綴（如 file(1).pdf）")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "處理完成，回傳各檔案的結果"),
+                        @ApiResponse(responseCode = "400", description = "請求驗證失敗或超過單批檔案數上限", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "目標資料夾不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "507", description = "整批檔案超過剩餘儲存空間", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        public ResponseEntity<ApiResponseCode<BatchUploadResponse>> uploadFiles(
+                        @Valid @ModelAttribute BatchUploadRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                BatchUploadResponse response = batchUploadService.uploadFiles(
+                                request.getFiles(),
+                                request.getFolderId(),
+                                request.getDuplicateAction(),
+                                userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "串流上傳檔案", description = "請求內容即為檔案的原始位元組，直接寫入儲存層，不經過 multipart 解析；" +
+                        "不受 50MB 的 multipart 上限限制，大小以剩餘配額為上限。重複檔案處理方式與 /upload 相同")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "上傳成功"),
+                        @ApiResponse(responseCode = "400", description = "參數錯誤或內容長度不符", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "目標資料夾不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "409", description = "檔案已存在且未指定處理方式", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "507", description = "超過剩餘儲存空間", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PutMapping(value = "/content", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+        public ResponseEntity<ApiResponseCode<FileUploadResponse>> uploadContent(
+                        @RequestParam String name,
+                        @RequestParam(required = false) Long folderId,
+                        @RequestParam(required = false) Integer duplicateAction,
+                        HttpServletRequest request) throws IOException {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                FileUploadResponse response;
+                try (InputStream inputStream = request.getInputStream()) {
+                        response = streamingUploadService.upload(inputStream, name, folderId, duplicateAction,
+                                        request.getContentLengthLong(), userId);
+                }
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "批次檢查檔案是否存在", description = "上傳前一次檢查多個檔名在目標資料夾中的狀態：\n" +
+                        "- NEW：不存在，可直接上傳\n" +
+                        "- IDENTICAL：已有同名檔案且 SHA-256（與大小）相同，可略過上傳\n" +
+                        "- CONFLICT：已有同名項目，上傳時需指定 duplicateAction")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "檢查完成，結果順序與請求相同"),
+                        @ApiResponse(responseCode = "400", description = "請求驗證失敗", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "目標資料夾不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping("/exists")
+        public ResponseEntity<ApiResponseCode<List<FileExistenceResponse>>> checkExists(
+                        @Valid @RequestBody CheckExistsRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                List<FileExistenceResponse> response = fileService.checkExists(
+                                request.getFolderId(),
+                                request.getItems(),
+                                userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "查詢檔案列表", description = "分頁查詢指定資料夾下的檔案與子資料夾。\n" +
+                        "回應帶有依資料夾版本產生的 ETag，以 If-None-Match 重新查詢時若資料夾內容未變更則回傳 304")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功"),
+                        @ApiResponse(responseCode = "304", description = "列表未變更", content = @Content)
+        })
         @GetMapping("/list")
         public ResponseEntity<ApiResponseCode<Page<FileResponse>>> getFileList(
                         @RequestParam(required = false) Long folderId,
                         @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "10") int size) {
+                        @RequestParam(defaultValue = "10") int size,
+                        WebRequest webRequest) {
 
                 Long userId = SecurityUtils.getCurrentUserId();
+
+                // 先取得版本再查詢列表：期間若有異動，列表只會比 ETag 新，下次查詢仍會取得最新內容
+                long version = fileService.getListingVersion(userId, folderId);
+                String eTag = "W/\"" + userId + "-" + (folderId == null ? "root" : folderId) + "-" + version + "\"";
+                if (webRequest.checkNotModified(eTag)) {
+                        return null;
+                }
+
                 Page<FileResponse> fileList = fileService
                                 .getFileList(userId, folderId, page, size);
 
-                return ResponseEntity.ok(ApiResponseCode.success(fileList));
+                return ResponseEntity.ok()
+                                .eTag(eTag)
+                                .cacheControl(CacheControl.noCache().cachePrivate())
+                                .body(ApiResponseCode.success(fileList));
+        }
+
+        @Operation(summary = "搜尋檔案", description = "依名稱搜尋檔案與資料夾（不分大小寫，支援前綴與子字串）。\n" +
+                        "結果依相關性排序：名稱完全相同、前綴相符、單字開頭相符、其他位置相符")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功"),
+                        @ApiResponse(responseCode = "400", description = "關鍵字為空或筆數無效", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @GetMapping("/search")
+        public ResponseEntity<ApiResponseCode<List<FileResponse>>> searchFiles(
+                        @RequestParam String q,
+                        @RequestParam(required = false) Integer limit) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                List<FileResponse> results = fileService.searchFiles(userId, q, limit);
+
+                return ResponseEntity.ok(ApiResponseCode.success(results));
+        }
+
+        @Operation(summary = "搜尋檔案內容", description = "搜尋文字類檔案（txt、md、csv、json、原始碼等）的內容，多個關鍵字需全部出現，依相關性排序。\n" +
+                        "索引在上傳完成後於背景更新，剛上傳的檔案可能需數秒後才能搜尋到")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功"),
+                        @ApiResponse(responseCode = "400", description = "關鍵字為空、筆數無效或未啟用內容搜尋", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @GetMapping("/search/content")
+        public ResponseEntity<ApiResponseCode<List<FileResponse>>> searchContent(
+                        @RequestParam String q,
+                        @RequestParam(required = false) Integer limit) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                List<FileResponse> results = fileService.searchContent(userId, q, limit);
+
+                return ResponseEntity.ok(ApiResponseCode.success(results));
+        }
+
+        @Operation(summary = "依路徑取得項目", description = "以 /docs/2025/report.pdf 形式的路徑取得檔案或資料夾，不需先查詢各層資料夾 ID。\n" +
+                        "資料夾部分在記憶體中比對，不論路徑深度只需一次資料庫查詢")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功"),
+                        @ApiResponse(responseCode = "400", description = "路徑為空或包含 . / ..", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "路徑不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @GetMapping("/resolve")
+        public ResponseEntity<ApiResponseCode<FileResponse>> resolvePath(@RequestParam String path) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                FileResponse result = fileService.resolvePath(userId, path);
+
+                return ResponseEntity.ok(ApiResponseCode.success(result));
+        }
+
+        @Operation(summary = "查詢完整路徑", description = "回傳由根目錄往下排列的祖先資料夾與項目本身，可作為麵包屑；" +
+                        "任意深度皆以單一查詢取得")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功"),
+                        @ApiResponse(responseCode = "404", description = "項目不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @GetMapping("/{fileId}/path")
+        public ResponseEntity<ApiResponseCode<List<BreadcrumbResponse>>> getPath(@PathVariable Long fileId) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                List<BreadcrumbResponse> path = folderPathService.getPath(fileId, userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(path));
+        }
+
+        @Operation(summary = "批次查詢完整路徑", description = "一次查詢多個項目（例如一頁搜尋結果）的完整路徑，" +
+                        "所有祖先資料夾以單一查詢取得；不存在的項目不會出現在結果中")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功，回傳項目 ID 對應的路徑"),
+                        @ApiResponse(responseCode = "400", description = "請求驗證失敗或超過單次查詢上限", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping("/paths")
+        public ResponseEntity<ApiResponseCode<Map<Long, List<BreadcrumbResponse>>>> getPaths(
+                        @Valid @RequestBody FilePathsRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                Map<Long, List<BreadcrumbResponse>> paths = folderPathService.getPaths(request.getIds(), userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(paths));
+        }
+
+        @Operation(summary = "下載檔案", description = "回應帶有以內容雜湊產生的 ETag 與 Last-Modified，" +
+                        "以 If-None-Match / If-Modified-Since 重新查詢時若內容未變更則回傳 304。\n" +
+                        "同一檔案 ID 的內容可能被覆蓋，每次使用快取前都需重新驗證")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "檔案內容"),
+                        @ApiResponse(responseCode = "304", description = "內容未變更", content = @Content),
+                        @ApiResponse(responseCode = "404", description = "檔案不存在", content = @Content)
+        })
+        @GetMapping("/{fileId}/download")
+        public ResponseEntity<Resource> downloadFile(@PathVariable Long fileId, WebRequest webRequest) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                FileDownload download = fileService.getFileDownload(fileId, userId);
+
+                return serveContent(download, CacheControl.noCache().cachePrivate(), webRequest);
+        }
+
+        @Operation(summary = "以內容雜湊下載檔案", description = "網址帶有內容的 SHA-256，同一網址的內容永不改變，" +
+                        "回應標記為 private、immutable，瀏覽器可長期快取而不需再向伺服器驗證；共用的反向代理不會快取。\n" +
+                        "檔案內容已被覆蓋（雜湊不符）時回傳 404，請改用檔案列表中最新的 contentHash")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "檔案內容"),
+                        @ApiResponse(responseCode = "304", description = "內容未變更", content = @Content),
+                        @ApiResponse(responseCode = "404", description = "檔案不存在或內容已變更", content = @Content)
+        })
+        @GetMapping("/{fileId}/content/{contentHash}")
+        public ResponseEntity<Resource> downloadContent(
+                        @PathVariable Long fileId,
+                        @PathVariable String contentHash,
+                        WebRequest webRequest) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                FileDownload download = fileService.getFileDownload(fileId, userId);
+                if (!download.hasContentHash(contentHash)) {
+                        throw new InvalidFileException("檔案內容已變更或不存在: " + fileId);
+                }
+
+                // 內容需驗證身分才能取得，只允許瀏覽器快取；共用代理可能將內容提供給未帶 token 的請求，
+                // 且在檔案刪除或永久刪除後仍繼續提供
+                return serveContent(download,
+                                CacheControl.maxAge(IMMUTABLE_MAX_AGE).cachePrivate().immutable(),
+                                webRequest);
+        }
+
+        /**
+         * 以內容雜湊作為強 ETag（未計算雜湊的檔案只提供 Last-Modified），條件式請求符合時不讀取內容直接回傳 304
+         */
+        private ResponseEntity<Resource> serveContent(FileDownload download, CacheControl cacheControl,
+                        WebRequest webRequest) {
+                String eTag = download.contentHash() == null ? null : "\"" + download.contentHash() + "\"";
+                long lastModified = download.lastModifiedMillis();
+                boolean notModified = eTag == null
+                                ? webRequest.checkNotModified(lastModified)
+                                : webRequest.checkNotModified(eTag, lastModified);
+                if (notModified) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                        .cacheControl(cacheControl)
+                                        .build();
+                }
+
+                Resource resource = fileService.loadContent(download);
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                .lastModified(lastModified)
+                                .cacheControl(cacheControl)
+                                .contentType(MediaTypeFactory.getMediaType(download.fileName())
+                                                .orElse(MediaType.APPLICATION_OCTET_STREAM))
+                                .contentLength(download.size())
+                                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                                .filename(download.fileName(), StandardCharsets.UTF_8)
+                                                .build()
+                                                .toString());
+                if (eTag != null) {
+                        response.eTag(eTag);
+                }
+                return response.body(resource);
+        }
+
+        @Operation(summary = "查詢儲存空間使用量", description = "回傳配額、以原始大小計算的使用量，以及壓縮後實際佔用的磁碟空間")
+        @GetMapping("/storage")
+        public ResponseEntity<ApiResponseCode<StorageUsageResponse>> getStorageUsage() {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                StorageUsageResponse response = fileService.getStorageUsage(userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
         }
 }
@@ -0,0 +1,45 @@
+package com.example.miniclouddrive.controller;
+
+import com.example.miniclouddrive.dto.response.ApiResponseCode;
+import com.example.miniclouddrive.dto.response.JobResponse;
+import com.example.miniclouddrive.service.JobService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 背景工作 API
+ * 查詢耗時操作（例如刪除資料夾）的執行進度
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@Tag(name = "背景工作 API", description = "查詢背景工作狀態與進度")
+public class JobController {
+
+        private final JobService jobService;
+
+        @Operation(summary = "查詢背景工作", description = "回傳工作狀態、已處理項目數與完成百分比")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功"),
+                        @ApiResponse(responseCode = "404", description = "工作不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @GetMapping("/{id}")
+        public ResponseEntity<ApiResponseCode<JobResponse>> getJob(@PathVariable Long id) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                JobResponse response = jobService.getJob(id, userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+}
@@ -0,0 +1,46 @@
+package com.example.miniclouddrive.controller;
+
+import com.example.miniclouddrive.service.LiveEventBroadcaster;
+import com.example.miniclouddrive.util.SecurityUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 即時事件 API
+ * 以 Server-Sent Events 推送檔案異動，網頁介面不需輪詢列表
+ */
+@RestController
+@RequestMapping(LiveEventController.PATH)
+@RequiredArgsConstructor
+@Tag(name = "即時事件 API", description = "以 Server-Sent Events 推送檔案異動")
+public class LiveEventController {
+
+        /** 長連線路徑，不計入請求隔艙的並行名額 */
+        public static final String PATH = "/api/events";
+
+        private final LiveEventBroadcaster liveEventBroadcaster;
+
+        @Operation(summary = "訂閱檔案異動", description = "以 Server-Sent Events 推送交易提交後的檔案異動。\n" +
+                        "- ready：連線建立，data 為目前的變更紀錄游標\n" +
+                        "- changes：data 為變更陣列，格式同 /api/changes，事件 id 為最後一筆的序號\n" +
+                        "- resync：客戶端跟不上事件速度，伺服器關閉連線；以最後處理的序號呼叫 /api/changes 補齊後重新訂閱\n" +
+                        "未指定 folderId 與 root 時接收所有異動")
+        @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter subscribe(
+                        @RequestParam(required = false) List<Long> folderId,
+                        @RequestParam(defaultValue = "false") boolean root) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                return liveEventBroadcaster.subscribe(userId, folderId == null ? Set.of() : Set.copyOf(folderId), root);
+        }
+}
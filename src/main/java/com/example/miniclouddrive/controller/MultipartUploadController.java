@@ -0,0 +1,113 @@
+package com.example.miniclouddrive.controller;
+
+import com.example.miniclouddrive.dto.request.CompleteMultipartUploadRequest;
+import com.example.miniclouddrive.dto.request.InitiateMultipartUploadRequest;
+import com.example.miniclouddrive.dto.response.ApiResponseCode;
+import com.example.miniclouddrive.dto.response.FileUploadResponse;
+import com.example.miniclouddrive.dto.response.MultipartUploadResponse;
+import com.example.miniclouddrive.dto.response.UploadPartResponse;
+import com.example.miniclouddrive.service.MultipartUploadService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 分段上傳 API
+ * 大型檔案可拆成多個分段同時上傳，完成時於伺服器端組合
+ */
+@RestController
+@RequestMapping("/api/files/multipart")
+@RequiredArgsConstructor
+@Tag(name = "分段上傳 API", description = "大型檔案的分段並行上傳")
+public class MultipartUploadController {
+
+        private final MultipartUploadService multipartUploadService;
+
+        @Operation(summary = "開始分段上傳", description = "檢查配額、目標資料夾與同名衝突後回傳上傳 ID，逾期未完成的上傳會自動清除")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "已開始上傳"),
+                        @ApiResponse(responseCode = "400", description = "請求驗證失敗", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "409", description = "檔案已存在且未指定處理方式", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "507", description = "宣告的檔案大小超過剩餘儲存空間", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping
+        public ResponseEntity<ApiResponseCode<MultipartUploadResponse>> initiate(
+                        @Valid @RequestBody InitiateMultipartUploadRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                MultipartUploadResponse response = multipartUploadService.initiate(
+                                request.getFileName(),
+                                request.getFolderId(),
+                                request.getDuplicateAction(),
+                                request.getSize(),
+                                userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "上傳分段", description = "請求內容即為分段的原始位元組；不同分段可同時上傳，同一編號重複上傳時取代舊內容")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "分段已儲存"),
+                        @ApiResponse(responseCode = "400", description = "分段編號無效或分段超過大小上限", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "上傳不存在或已到期", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PutMapping(value = "/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+        public ResponseEntity<ApiResponseCode<UploadPartResponse>> uploadPart(
+                        @PathVariable Long uploadId,
+                        @PathVariable int partNumber,
+                        HttpServletRequest request) throws IOException {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                UploadPartResponse response;
+                try (InputStream inputStream = request.getInputStream()) {
+                        response = multipartUploadService.uploadPart(uploadId, partNumber, inputStream, userId);
+                }
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "完成分段上傳", description = "依指定順序組合分段並建立檔案記錄")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "上傳完成"),
+                        @ApiResponse(responseCode = "400", description = "分段編號無效或分段尚未上傳", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "上傳不存在或已到期", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "409", description = "檔案已存在且未指定處理方式", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping("/{uploadId}/complete")
+        public ResponseEntity<ApiResponseCode<FileUploadResponse>> complete(
+                        @PathVariable Long uploadId,
+                        @Valid @RequestBody CompleteMultipartUploadRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                FileUploadResponse response = multipartUploadService.complete(uploadId, request.getPartNumbers(), userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "取消分段上傳", description = "刪除已上傳的分段")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "已取消"),
+                        @ApiResponse(responseCode = "404", description = "上傳不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @DeleteMapping("/{uploadId}")
+        public ResponseEntity<ApiResponseCode<Void>> abort(@PathVariable Long uploadId) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                multipartUploadService.abort(uploadId, userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(null));
+        }
+}
@@ -0,0 +1,91 @@
+package com.example.miniclouddrive.controller;
+
+import com.example.miniclouddrive.dto.request.TrashItemsRequest;
+import com.example.miniclouddrive.dto.response.ApiResponseCode;
+import com.example.miniclouddrive.dto.response.FileResponse;
+import com.example.miniclouddrive.dto.response.JobResponse;
+import com.example.miniclouddrive.dto.response.TrashItemResponse;
+import com.example.miniclouddrive.service.FileService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 回收筒 API
+ * 列出、還原與永久刪除已刪除的項目；資料夾的子樹隨資料夾一起還原或永久刪除
+ */
+@RestController
+@RequestMapping("/api/trash")
+@RequiredArgsConstructor
+@Tag(name = "回收筒 API", description = "回收筒列表、還原與永久刪除")
+public class TrashController {
+
+        private final FileService fileService;
+
+        @Operation(summary = "查詢回收筒", description = "列出已刪除的檔案與資料夾（資料夾內的項目不另外列出），最近刪除的排在前面")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "查詢成功")
+        })
+        @GetMapping
+        public ResponseEntity<ApiResponseCode<Page<TrashItemResponse>>> getTrash(
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "10") int size) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                Page<TrashItemResponse> response = fileService.getTrash(userId, page, size);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "還原", description = "將回收筒項目連同子樹還原到原資料夾，原資料夾已不存在時還原到根目錄；\n" +
+                        "目標已有同名項目時自動加後綴（如 file(1).pdf）")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "還原成功，回傳還原後的項目"),
+                        @ApiResponse(responseCode = "400", description = "請求驗證失敗", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "回收筒項目不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "507", description = "儲存空間不足", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping("/restore")
+        public ResponseEntity<ApiResponseCode<List<FileResponse>>> restore(
+                        @Valid @RequestBody TrashItemsRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                List<FileResponse> response = fileService.restoreTrash(request.getIds(), userId);
+
+                return ResponseEntity.ok(ApiResponseCode.success(response));
+        }
+
+        @Operation(summary = "永久刪除", description = "永久刪除回收筒項目及其子樹，並釋放不再被引用的儲存空間；\n" +
+                        "每個項目建立一個背景工作，可由 GET /api/jobs/{id} 查詢進度")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "已建立永久刪除工作"),
+                        @ApiResponse(responseCode = "400", description = "請求驗證失敗", content = @Content(schema = @Schema(implementation = ApiResponseCode.class))),
+                        @ApiResponse(responseCode = "404", description = "回收筒項目不存在", content = @Content(schema = @Schema(implementation = ApiResponseCode.class)))
+        })
+        @PostMapping("/purge")
+        public ResponseEntity<ApiResponseCode<List<JobResponse>>> purge(
+                        @Valid @RequestBody TrashItemsRequest request) {
+
+                Long userId = SecurityUtils.getCurrentUserId();
+                List<JobResponse> jobs = fileService.requestTrashPurge(request.getIds(), userId);
+
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponseCode.success(jobs));
+        }
+}
@@ -0,0 +1,32 @@
+package com.example.miniclouddrive.dto.request;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * 批次上傳請求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次上傳請求")
+public class BatchUploadRequest {
+
+    @ArraySchema(schema = @Schema(type = "string", format = "binary"), arraySchema = @Schema(description = "上傳的檔案（同一欄位名稱可重複多次）", requiredMode = Schema.RequiredMode.REQUIRED))
+    @NotEmpty(message = "上傳檔案不能為空")
+    private List<MultipartFile> files;
+
+    @Schema(description = "目標資料夾 ID（null 表示上傳到根目錄）", example = "1", nullable = true)
+    private Long folderId;
+
+    @Schema(description = "重複檔案處理方式：null=該檔案失敗, 0=覆蓋, 1=自動加後綴", example = "1", nullable = true, allowableValues = { "0",
+            "1" })
+    private Integer duplicateAction;
+}
@@ -0,0 +1,57 @@
+package com.example.miniclouddrive.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批次檢查檔案是否存在請求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次檢查檔案是否存在請求")
+public class CheckExistsRequest {
+
+    /** 單次檢查的檔案數上限 */
+    public static final int MAX_ITEMS = 1000;
+
+    @Schema(description = "目標資料夾 ID（null 表示根目錄）", example = "3", nullable = true)
+    private Long folderId;
+
+    @Schema(description = "要檢查的檔案", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "檢查項目不能為空")
+    @Size(max = MAX_ITEMS, message = "單次最多檢查 " + MAX_ITEMS + " 個檔案")
+    private List<@Valid Item> items;
+
+    /**
+     * 單一待檢查檔案
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "待檢查檔案")
+    public static class Item {
+
+        @Schema(description = "檔案名稱", example = "report.pdf", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotBlank(message = "檔案名稱不能為空")
+        private String name;
+
+        @Schema(description = "檔案大小（bytes），提供時一併比對", example = "1024", nullable = true)
+        private Long size;
+
+        @Schema(description = "檔案內容的 SHA-256（十六進位），提供時用於判斷內容是否相同", nullable = true)
+        @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "sha256 格式錯誤")
+        private String sha256;
+    }
+}
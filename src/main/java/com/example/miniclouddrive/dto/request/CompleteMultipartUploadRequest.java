@@ -0,0 +1,23 @@
+package com.example.miniclouddrive.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 完成分段上傳請求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "完成分段上傳請求")
+public class CompleteMultipartUploadRequest {
+
+    @Schema(description = "要組合的分段編號，需遞增排列", example = "[1, 2, 3]", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "分段編號不能為空")
+    private List<Integer> partNumbers;
+}
@@ -0,0 +1,29 @@
+package com.example.miniclouddrive.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 複製檔案/資料夾請求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "複製檔案/資料夾請求")
+public class CopyFilesRequest {
+
+    @Schema(description = "要複製的檔案或資料夾 ID", example = "[1, 2]", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "複製項目不能為空")
+    private List<Long> ids;
+
+    @Schema(description = "目標資料夾 ID（null 表示根目錄）", example = "3", nullable = true)
+    private Long targetFolderId;
+
+    @Schema(description = "同名處理方式：null=拒絕複製, 1=自動加後綴", example = "1", nullable = true, allowableValues = { "1" })
+    private Integer duplicateAction;
+}
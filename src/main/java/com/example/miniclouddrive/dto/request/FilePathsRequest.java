@@ -0,0 +1,23 @@
+package com.example.miniclouddrive.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批次查詢完整路徑請求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次查詢完整路徑請求")
+public class FilePathsRequest {
+
+    @Schema(description = "要查詢路徑的檔案或資料夾 ID", example = "[10, 11]", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "查詢項目不能為空")
+    private List<Long> ids;
+}
@@ -0,0 +1,33 @@
+package com.example.miniclouddrive.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 開始分段上傳請求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "開始分段上傳請求")
+public class InitiateMultipartUploadRequest {
+
+    @Schema(description = "檔案名稱", example = "video.mp4", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "檔案名稱不能為空")
+    private String fileName;
+
+    @Schema(description = "目標資料夾 ID（null 表示上傳到根目錄）", example = "1", nullable = true)
+    private Long folderId;
+
+    @Schema(description = "重複檔案處理方式：null=拒絕上傳, 0=覆蓋, 1=自動加後綴", example = "1", nullable = true, allowableValues = { "0",
+            "1" })
+    private Integer duplicateAction;
+
+    @Schema(description = "檔案大小（bytes），提供時於開始前檢查配額", example = "2147483648", nullable = true)
+    @PositiveOrZero(message = "檔案大小不能為負數")
+    private Long size;
+}
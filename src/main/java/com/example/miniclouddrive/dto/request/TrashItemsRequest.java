@@ -0,0 +1,23 @@
+package com.example.miniclouddrive.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 還原或永久刪除回收筒項目請求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "還原或永久刪除回收筒項目請求")
+public class TrashItemsRequest {
+
+    @Schema(description = "回收筒項目 ID（回收筒列表中的 fileId）", example = "[10, 11]", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "回收筒項目不能為空")
+    private List<Long> ids;
+}
@@ -14,6 +14,8 @@ public enum ApiReturnCode {
     INSUFFICIENT_STORAGE("1007", "儲存空間不足"),
     FILE_STORAGE_ERROR("1008", "檔案儲存失敗"),
     INVALID_FOLDER("1009", "無效的資料夾"),
+    SERVICE_OVERLOADED("1010", "服務繁忙，請稍後再試"),
+    CHANGE_CURSOR_EXPIRED("1011", "同步游標已過期"),
     SERVER_ERROR("9999", "伺服器錯誤"),
     JWT_ERROR("2001", "JWT處理錯誤");
 
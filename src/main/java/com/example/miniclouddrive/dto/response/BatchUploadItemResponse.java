@@ -0,0 +1,44 @@
+package com.example.miniclouddrive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批次上傳中單一檔案的結果 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次上傳單一檔案結果")
+public class BatchUploadItemResponse {
+
+    @Schema(description = "上傳時的原始檔名", example = "photo.jpg")
+    private String originalName;
+
+    @Schema(description = "是否成功", example = "true")
+    private boolean success;
+
+    @Schema(description = "檔案 ID", example = "1", nullable = true)
+    private Long fileId;
+
+    @Schema(description = "儲存後的檔案名稱（自動加後綴時與原始檔名不同）", example = "photo(1).jpg", nullable = true)
+    private String fileName;
+
+    @Schema(description = "檔案大小（bytes）", example = "1048576", nullable = true)
+    private Long size;
+
+    @Schema(description = "上傳時間", example = "2024-01-15T10:30:00", nullable = true)
+    private LocalDateTime uploadTime;
+
+    @Schema(description = "失敗時的錯誤代碼", example = "1006", nullable = true)
+    private String errorCode;
+
+    @Schema(description = "失敗原因", example = "檔案已存在: photo.jpg", nullable = true)
+    private String errorMessage;
+}
@@ -0,0 +1,29 @@
+package com.example.miniclouddrive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批次上傳回應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批次上傳回應")
+public class BatchUploadResponse {
+
+    @Schema(description = "成功的檔案數", example = "9")
+    private int succeeded;
+
+    @Schema(description = "失敗的檔案數", example = "1")
+    private int failed;
+
+    @Schema(description = "各檔案的結果，順序與上傳順序相同")
+    private List<BatchUploadItemResponse> items;
+}
@@ -0,0 +1,24 @@
+package com.example.miniclouddrive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 路徑中的單一節點 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "路徑中的單一節點（由根目錄往下排列）")
+public class BreadcrumbResponse {
+
+    @Schema(description = "檔案或資料夾 ID", example = "5")
+    private Long id;
+
+    @Schema(description = "名稱", example = "我的文件")
+    private String name;
+}
@@ -0,0 +1,26 @@
+package com.example.miniclouddrive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "變更紀錄查詢結果")
+public class ChangeFeedResponse {
+
+    @Schema(description = "游標之後的變更，每個項目只保留最新的一筆")
+    private List<FileChangeResponse> changes;
+
+    @Schema(description = "下次查詢使用的游標")
+    private Long cursor;
+
+    @Schema(description = "是否還有更多變更，為 true 時應立即以新游標再次查詢")
+    private boolean hasMore;
+}
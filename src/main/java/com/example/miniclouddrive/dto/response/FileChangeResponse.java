@@ -0,0 +1,46 @@
+package com.example.miniclouddrive.dto.response;
+
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "單一項目的最新變更")
+public class FileChangeResponse {
+
+    @Schema(description = "變更序號")
+    private Long seq;
+
+    @Schema(description = "檔案/資料夾 ID")
+    private Long fileId;
+
+    @Schema(description = "最後一次異動的類型")
+    private ChangeType changeType;
+
+    @Schema(description = "檔案類型")
+    private FileType type;
+
+    @Schema(description = "異動後的名稱")
+    private String name;
+
+    @Schema(description = "異動後的父資料夾 ID，根目錄為 null")
+    private Long parentId;
+
+    @Schema(description = "異動後的檔案大小 (Bytes)")
+    private Long size;
+
+    @Schema(description = "異動後的內容 SHA-256")
+    private String contentHash;
+
+    @Schema(description = "異動時間")
+    private LocalDateTime changedAt;
+}
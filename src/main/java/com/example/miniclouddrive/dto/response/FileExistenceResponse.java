@@ -0,0 +1,40 @@
+package com.example.miniclouddrive.dto.response;
+
+import com.example.miniclouddrive.enums.ExistenceStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批次存在檢查的單一檔案結果 DTO
+ * 已存在時附上與 FileExistsResponse 相同的既有檔案資訊
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "檔案存在檢查結果")
+public class FileExistenceResponse {
+
+    @Schema(description = "檢查的檔案名稱", example = "report.pdf")
+    private String name;
+
+    @Schema(description = "檢查結果：NEW=不存在, IDENTICAL=內容相同, CONFLICT=同名但內容不同或無法比對", example = "CONFLICT")
+    private ExistenceStatus status;
+
+    @Schema(description = "已存在檔案的 ID", example = "1", nullable = true)
+    private Long existingFileId;
+
+    @Schema(description = "已存在檔案的名稱", example = "report.pdf", nullable = true)
+    private String existingFileName;
+
+    @Schema(description = "已存在檔案的上傳時間", example = "2024-01-15T10:30:00", nullable = true)
+    private LocalDateTime uploadTime;
+
+    @Schema(description = "已存在檔案的大小（bytes）", example = "1024", nullable = true)
+    private Long existingSize;
+}
@@ -1,5 +1,6 @@
 package com.example.miniclouddrive.dto.response;
 
+import com.example.miniclouddrive.enums.FileType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Data;
@@ -17,9 +18,18 @@ public class FileResponse {
     @Schema(description = "檔案名稱")
     private String fileName;
 
-    @Schema(description = "檔案大小 (Bytes)")
+    @Schema(description = "類型（FILE 或 FOLDER）")
+    private FileType type;
+
+    @Schema(description = "檔案大小 (Bytes)；資料夾為子樹中所有檔案的大小總和")
     private Long size;
 
+    @Schema(description = "資料夾子樹中的項目數（檔案與資料夾），檔案為 null")
+    private Long itemCount;
+
     @Schema(description = "上傳時間")
     private LocalDateTime uploadTime;
+
+    @Schema(description = "內容的 SHA-256，可組成內容定址的下載網址 /api/files/{fileId}/content/{contentHash}")
+    private String contentHash;
 }
@@ -0,0 +1,49 @@
+package com.example.miniclouddrive.dto.response;
+
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 背景工作狀態回應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "背景工作狀態")
+public class JobResponse {
+
+    @Schema(description = "工作 ID", example = "1")
+    private Long jobId;
+
+    @Schema(description = "工作類型", example = "FOLDER_DELETE")
+    private JobType type;
+
+    @Schema(description = "工作狀態", example = "RUNNING")
+    private JobStatus status;
+
+    @Schema(description = "已處理項目數", example = "500")
+    private Long processedItems;
+
+    @Schema(description = "預計處理項目數，尚未統計時為 null", example = "1200", nullable = true)
+    private Long totalItems;
+
+    @Schema(description = "完成百分比，尚未統計時為 null", example = "41", nullable = true)
+    private Integer progress;
+
+    @Schema(description = "最後一次失敗的錯誤訊息", nullable = true)
+    private String errorMessage;
+
+    @Schema(description = "建立時間", example = "2024-01-01T12:00:00")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "完成時間", example = "2024-01-01T12:00:05", nullable = true)
+    private LocalDateTime finishedAt;
+}
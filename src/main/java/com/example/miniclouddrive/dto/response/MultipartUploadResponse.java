@@ -0,0 +1,35 @@
+package com.example.miniclouddrive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分段上傳資訊回應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "分段上傳資訊")
+public class MultipartUploadResponse {
+
+    @Schema(description = "上傳 ID", example = "1")
+    private Long uploadId;
+
+    @Schema(description = "檔案名稱", example = "video.mp4")
+    private String fileName;
+
+    @Schema(description = "單一分段的大小上限（bytes）", example = "67108864")
+    private Long maxPartSize;
+
+    @Schema(description = "分段編號上限（編號自 1 起）", example = "10000")
+    private Integer maxParts;
+
+    @Schema(description = "到期時間，逾期未完成即清除已上傳的分段", example = "2024-01-16T10:30:00")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.example.miniclouddrive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 儲存空間使用量回應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "儲存空間使用量")
+public class StorageUsageResponse {
+
+    @Schema(description = "儲存配額（bytes）", example = "5368709120")
+    private Long quota;
+
+    @Schema(description = "已使用空間，以檔案原始大小計算（bytes）", example = "10485760")
+    private Long usedSize;
+
+    @Schema(description = "實際佔用的磁碟空間，壓縮後大小（bytes）", example = "4194304")
+    private Long storedSize;
+}
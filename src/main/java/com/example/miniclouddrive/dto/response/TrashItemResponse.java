@@ -0,0 +1,35 @@
+package com.example.miniclouddrive.dto.response;
+
+import com.example.miniclouddrive.enums.FileType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Schema(description = "回收筒項目回應")
+public class TrashItemResponse {
+
+    @Schema(description = "檔案或資料夾 ID")
+    private Long fileId;
+
+    @Schema(description = "名稱")
+    private String fileName;
+
+    @Schema(description = "類型（FILE 或 FOLDER）")
+    private FileType type;
+
+    @Schema(description = "大小 (Bytes)；資料夾為子樹中所有檔案的大小總和")
+    private Long size;
+
+    @Schema(description = "資料夾子樹中的項目數（檔案與資料夾），檔案為 null")
+    private Long itemCount;
+
+    @Schema(description = "原所在資料夾 ID（null 表示根目錄）；還原時若原資料夾已不存在則還原到根目錄")
+    private Long parentId;
+
+    @Schema(description = "刪除時間")
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,24 @@
+package com.example.miniclouddrive.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分段上傳結果回應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "分段上傳結果")
+public class UploadPartResponse {
+
+    @Schema(description = "分段編號", example = "1")
+    private Integer partNumber;
+
+    @Schema(description = "分段大小（bytes）", example = "67108864")
+    private Long size;
+}
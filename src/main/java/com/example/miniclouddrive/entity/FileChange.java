@@ -0,0 +1,81 @@
+package com.example.miniclouddrive.entity;
+
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 檔案變更紀錄（append-only）
+ * 與異動在同一交易中寫入，記錄異動後的項目狀態；同步客戶端以 seq 作為游標只取得上次同步後的變更
+ */
+@Entity
+@Table(name = "file_changes", indexes = {
+        @Index(name = "uk_file_changes_owner_seq", columnList = "owner_id, seq", unique = true),
+        @Index(name = "idx_file_changes_owner_file_seq", columnList = "owner_id, file_id, seq"),
+        @Index(name = "idx_file_changes_created_at", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileChange {
+    /** 主鍵 */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** 擁有者ID */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    /**
+     * 使用者的變更序號，由 users.change_seq 配發；
+     * 配發時鎖定使用者列直到交易提交，同一使用者的變更依序號順序提交，游標之前不會再出現新的變更
+     */
+    @Column(nullable = false)
+    private Long seq;
+
+    /** 異動的檔案/資料夾ID */
+    @Column(name = "file_id", nullable = false)
+    private Long fileId;
+
+    /** 異動類型 */
+    @Column(name = "change_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ChangeType changeType;
+
+    /** 檔案類型 */
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private FileType type;
+
+    /** 異動後的名稱 */
+    @Column(nullable = false)
+    private String name;
+
+    /** 異動後的父資料夾ID，根目錄為NULL */
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    /** 異動後的檔案大小 */
+    private Long size;
+
+    /** 異動後的內容雜湊 */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /** 異動時間 */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
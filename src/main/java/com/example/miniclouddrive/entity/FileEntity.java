@@ -10,12 +10,20 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "files")
+@Table(name = "files", indexes = {
+        @Index(name = "idx_files_file_path", columnList = "file_path"),
+        @Index(name = "idx_files_owner_ancestor_path", columnList = "owner_id, ancestor_path"),
+        @Index(name = "idx_files_parent_name", columnList = "parent_id, name"),
+        @Index(name = "idx_files_owner_trash_root", columnList = "owner_id, trash_root_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class FileEntity {
+    /** 根目錄的祖先路徑 */
+    public static final String ROOT_PATH = "/";
+
     /** 主鍵 */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,19 +38,52 @@ public class FileEntity {
     @Enumerated(EnumType.STRING)
     private FileType type;
 
-    /** 檔案大小（以位元組為單位），資料夾預設為0 */
+    /** 檔案大小（以位元組為單位），資料夾預設為0；配額以此邏輯大小計算 */
     @Column(nullable = false)
     private Long size;
 
-    /** 檔案儲存路徑，資料夾為NULL */
+    /** 實際佔用的儲存空間（壓縮後的大小），資料夾為NULL */
+    @Column(name = "stored_size")
+    private Long storedSize;
+
+    /** 檔案儲存路徑，資料夾為NULL；複製產生的多筆記錄可共用同一路徑 */
     @Column(name = "file_path")
     private String filePath;
 
+    /** 檔案內容的 SHA-256（十六進位），上傳時計算；資料夾為NULL */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * 子項目版本，資料夾內任何子項目異動時遞增，作為列表的 ETag；檔案固定為0
+     * 只以遞增的 UPDATE 維護，寫回實體時不會以記憶體中的舊版本覆蓋並行的遞增
+     */
+    @Column(name = "children_version", nullable = false, updatable = false)
+    private Long childrenVersion;
+
+    /**
+     * 資料夾子樹中所有檔案的大小總和（bytes），檔案固定為0
+     * 只以 {@link com.example.miniclouddrive.service.FolderRollupService} 的增量 UPDATE 維護，寫回實體時不會覆蓋
+     */
+    @Column(name = "tree_size", nullable = false, updatable = false)
+    private Long treeSize;
+
+    /** 資料夾子樹中的項目數（檔案與資料夾，不含自身），檔案固定為0；維護方式同 treeSize */
+    @Column(name = "descendant_count", nullable = false, updatable = false)
+    private Long descendantCount;
+
     /** 父資料夾，根目錄為NULL */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
     private FileEntity parent;
 
+    /**
+     * 祖先路徑（materialized path），由根目錄到父資料夾的 ID 串列，例如 /12/45/；根目錄下的項目為 /
+     * 子樹查詢與循環檢查皆以此欄位的前綴比對完成，不需逐層查詢父資料夾
+     */
+    @Column(name = "ancestor_path", nullable = false, length = 700)
+    private String ancestorPath;
+
     /** 擁有者ID */
     @Column(name = "owner_id", nullable = false)
     private Long ownerId;
@@ -59,6 +100,13 @@ public class FileEntity {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    /**
+     * 所屬回收筒項目的 ID（被刪除的子樹根），未刪除時為NULL
+     * 同一次刪除的整個子樹共用此值，還原與回收筒列表皆以此欄位的單一條件完成，不需走訪子樹
+     */
+    @Column(name = "trash_root_id")
+    private Long trashRootId;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -66,10 +114,30 @@ public class FileEntity {
         if (size == null) {
             size = 0L;
         }
+        if (childrenVersion == null) {
+            childrenVersion = 0L;
+        }
+        if (treeSize == null) {
+            treeSize = 0L;
+        }
+        if (descendantCount == null) {
+            descendantCount = 0L;
+        }
+        if (ancestorPath == null) {
+            ancestorPath = parent == null ? ROOT_PATH : parent.getChildAncestorPath();
+        }
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    /**
+     * 子項目的祖先路徑（本身的祖先路徑加上自身 ID）
+     * 所有子孫項目的祖先路徑皆以此為前綴
+     */
+    public String getChildAncestorPath() {
+        return ancestorPath + id + "/";
+    }
 }
@@ -0,0 +1,105 @@
+package com.example.miniclouddrive.entity;
+
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 背景工作
+ * worker 以條件式 UPDATE 租用（lease）工作並定期續約；節點停止後租約到期，其他節點即可接手重新執行
+ */
+@Entity
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_status_lease", columnList = "status, lease_expires_at"),
+        @Index(name = "idx_jobs_owner_status", columnList = "owner_id, status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Job {
+    /** 主鍵 */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** 工作類型 */
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private JobType type;
+
+    /** 工作狀態 */
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+
+    /** 發起工作的使用者ID */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    /** 工作目標（例如要刪除的資料夾ID） */
+    @Column(name = "target_id")
+    private Long targetId;
+
+    /** 已處理項目數 */
+    @Column(name = "processed_items", nullable = false)
+    private Long processedItems;
+
+    /** 預計處理項目數，尚未統計時為NULL */
+    @Column(name = "total_items")
+    private Long totalItems;
+
+    /** 已執行次數（每次租用加一） */
+    @Column(nullable = false)
+    private Integer attempts;
+
+    /** 目前持有租約的 worker 節點 */
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    /** 租約到期時間，到期後其他 worker 可接手 */
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    /** 最後一次失敗的錯誤訊息 */
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    /** 創建時間 */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /** 更新時間 */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /** 完成時間（成功或最終失敗） */
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (status == null) {
+            status = JobStatus.PENDING;
+        }
+        if (processedItems == null) {
+            processedItems = 0L;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
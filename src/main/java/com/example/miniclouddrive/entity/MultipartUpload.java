@@ -0,0 +1,72 @@
+package com.example.miniclouddrive.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 進行中的分段上傳
+ * 各分段寫入暫存目錄，完成時依序組合後建立檔案記錄；逾期未完成者由排程清除
+ */
+@Entity
+@Table(name = "multipart_uploads", indexes = {
+        @Index(name = "idx_multipart_uploads_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_multipart_uploads_owner_id", columnList = "owner_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultipartUpload {
+    /** 主鍵（即 uploadId） */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** 發起上傳的使用者ID */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    /** 目標資料夾ID，根目錄為NULL */
+    @Column(name = "folder_id")
+    private Long folderId;
+
+    /** 檔案名稱 */
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    /** 重複檔案處理方式：NULL=拒絕, 0=覆蓋, 1=自動加後綴 */
+    @Column(name = "duplicate_action")
+    private Integer duplicateAction;
+
+    /** 客戶端宣告的檔案大小，未提供時為NULL */
+    @Column(name = "declared_size")
+    private Long declaredSize;
+
+    /**
+     * 已暫存的分段大小總和（含上傳中分段的預留量），計入使用者配額
+     * 只以 {@link com.example.miniclouddrive.repository.MultipartUploadRepository#addStagedBytes} 的增量 UPDATE 維護
+     */
+    @Column(name = "staged_bytes", nullable = false, updatable = false)
+    private Long stagedBytes;
+
+    /** 創建時間 */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /** 到期時間，逾期未完成即清除已上傳的分段 */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (stagedBytes == null) {
+            stagedBytes = 0L;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.miniclouddrive.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 打包檔內的小檔案索引
+ * 以 (packId, offset, length) 定位打包檔中的一段資料
+ */
+@Entity
+@Table(name = "pack_blobs", indexes = @Index(name = "idx_pack_blobs_pack_id", columnList = "pack_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackBlob {
+    /** 主鍵 */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** 打包檔編號 */
+    @Column(name = "pack_id", nullable = false)
+    private Long packId;
+
+    /** 資料在打包檔中的起始位置 */
+    @Column(name = "blob_offset", nullable = false)
+    private Long offset;
+
+    /** 資料長度（bytes） */
+    @Column(name = "blob_length", nullable = false)
+    private Long length;
+}
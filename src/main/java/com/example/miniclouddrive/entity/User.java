@@ -36,6 +36,14 @@ public class User {
     @Column(name = "storage_quota")
     private Long storageQuota;
 
+    /** 根目錄的子項目版本，根目錄下任何項目異動時遞增，作為根目錄列表的 ETag；維護方式同 FileEntity.childrenVersion */
+    @Column(name = "root_version", nullable = false, updatable = false)
+    private Long rootVersion;
+
+    /** 最後配發的變更序號（變更紀錄的游標），每筆變更遞增 */
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
     /** 帳號創建時間 */
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -46,5 +54,11 @@ public class User {
         //ex. 執行 userRepository.save(user) 時，JPA 會在 INSERT 之前自動呼叫 onCreate()，將 createdAt 設為當前時間，以及將 storageQuota 設為5GB
         createdAt = LocalDateTime.now();
         storageQuota = 5368709120L; // 確保預設為5GB
+        if (rootVersion == null) {
+            rootVersion = 0L;
+        }
+        if (changeSeq == null) {
+            changeSeq = 0L;
+        }
     }
 }
@@ -0,0 +1,19 @@
+package com.example.miniclouddrive.enums;
+
+/**
+ * 檔案異動類型（變更紀錄）
+ */
+public enum ChangeType {
+    /** 新建立（上傳、建立資料夾、複製） */
+    CREATED,
+    /** 內容被覆蓋 */
+    UPDATED,
+    /** 重新命名 */
+    RENAMED,
+    /** 搬移至其他資料夾（子樹隨之搬移） */
+    MOVED,
+    /** 刪除（資料夾的子樹一併刪除） */
+    DELETED,
+    /** 從回收筒還原（資料夾的子樹一併還原） */
+    RESTORED
+}
@@ -0,0 +1,13 @@
+package com.example.miniclouddrive.enums;
+
+/**
+ * 批次存在檢查結果枚舉
+ * NEW - 目標資料夾中沒有同名項目，可直接上傳
+ * IDENTICAL - 已有同名檔案且內容相同（雜湊一致），可略過上傳
+ * CONFLICT - 已有同名項目但內容不同或無法比對，上傳時需指定處理方式
+ */
+public enum ExistenceStatus {
+    NEW,
+    IDENTICAL,
+    CONFLICT
+}
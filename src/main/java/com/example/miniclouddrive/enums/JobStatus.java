@@ -0,0 +1,15 @@
+package com.example.miniclouddrive.enums;
+
+/**
+ * 背景工作狀態枚舉
+ * PENDING - 等待執行（含失敗後等待重試）
+ * RUNNING - 已被 worker 租用並執行中
+ * SUCCEEDED - 執行成功
+ * FAILED - 重試次數用盡後失敗
+ */
+public enum JobStatus {
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
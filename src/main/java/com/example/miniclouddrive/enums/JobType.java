@@ -0,0 +1,11 @@
+package com.example.miniclouddrive.enums;
+
+/**
+ * 背景工作類型枚舉
+ * FOLDER_DELETE - 刪除資料夾及其子樹
+ * TRASH_PURGE - 永久刪除回收筒項目及其子樹，並釋放儲存空間
+ */
+public enum JobType {
+    FOLDER_DELETE,
+    TRASH_PURGE
+}
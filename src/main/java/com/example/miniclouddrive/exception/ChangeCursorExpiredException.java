@@ -0,0 +1,12 @@
+package com.example.miniclouddrive.exception;
+
+/**
+ * 同步游標過期例外
+ * 游標之後的部分變更紀錄已超過保留期限被清除，客戶端需重新完整同步
+ */
+public class ChangeCursorExpiredException extends RuntimeException {
+
+    public ChangeCursorExpiredException(long cursor) {
+        super("同步游標已過期，請重新完整同步: " + cursor);
+    }
+}
@@ -5,8 +5,10 @@ import com.example.miniclouddrive.dto.response.ApiReturnCode;
 import com.example.miniclouddrive.dto.response.FileExistsResponse;
 import com.example.miniclouddrive.dto.response.StorageQuotaResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -88,6 +90,79 @@ public class GlobalExceptionHandler {
                                                                 ex.getMessage()));
         }
 
+        /** 無效檔案例外 */
+        @ExceptionHandler(InvalidFileException.class)
+        public ResponseEntity<ApiResponseCode<Void>> handleInvalidFileException(InvalidFileException ex) {
+                return ResponseEntity
+                                .status(HttpStatus.NOT_FOUND)
+                                .body(
+                                                ApiResponseCode.failure(
+                                                                ApiReturnCode.NOT_FOUND.getCode(),
+                                                                ex.getMessage()));
+        }
+
+        /** 背景工作不存在例外 */
+        @ExceptionHandler(JobNotFoundException.class)
+        public ResponseEntity<ApiResponseCode<Void>> handleJobNotFoundException(JobNotFoundException ex) {
+                return ResponseEntity
+                                .status(HttpStatus.NOT_FOUND)
+                                .body(
+                                                ApiResponseCode.failure(
+                                                                ApiReturnCode.NOT_FOUND.getCode(),
+                                                                ex.getMessage()));
+        }
+
+        /** 分段上傳不存在例外 */
+        @ExceptionHandler(MultipartUploadNotFoundException.class)
+        public ResponseEntity<ApiResponseCode<Void>> handleMultipartUploadNotFoundException(
+                        MultipartUploadNotFoundException ex) {
+                return ResponseEntity
+                                .status(HttpStatus.NOT_FOUND)
+                                .body(
+                                                ApiResponseCode.failure(
+                                                                ApiReturnCode.NOT_FOUND.getCode(),
+                                                                ex.getMessage()));
+        }
+
+        /** 同步游標過期，客戶端需重新完整同步 */
+        @ExceptionHandler(ChangeCursorExpiredException.class)
+        public ResponseEntity<ApiResponseCode<Void>> handleChangeCursorExpiredException(
+                        ChangeCursorExpiredException ex) {
+                return ResponseEntity
+                                .status(HttpStatus.GONE)
+                                .body(
+                                                ApiResponseCode.failure(
+                                                                ApiReturnCode.CHANGE_CURSOR_EXPIRED.getCode(),
+                                                                ex.getMessage()));
+        }
+
+        /** 並行上限已滿，回應 503 並告知客戶端稍後重試 */
+        @ExceptionHandler(ServiceOverloadedException.class)
+        public ResponseEntity<ApiResponseCode<Void>> handleServiceOverloadedException(ServiceOverloadedException ex) {
+                return ResponseEntity
+                                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER,
+                                                String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                                .body(
+                                                ApiResponseCode.failure(
+                                                                ApiReturnCode.SERVICE_OVERLOADED.getCode(),
+                                                                ex.getMessage()));
+        }
+
+        /** 資料庫連線池在 connection-timeout 內無法取得連線 */
+        @ExceptionHandler(CannotCreateTransactionException.class)
+        public ResponseEntity<ApiResponseCode<Void>> handleCannotCreateTransactionException(
+                        CannotCreateTransactionException ex) {
+                log.warn("無法取得資料庫連線: {}", ex.getMessage());
+                return ResponseEntity
+                                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(
+                                                ApiResponseCode.failure(
+                                                                ApiReturnCode.SERVICE_OVERLOADED.getCode(),
+                                                                ApiReturnCode.SERVICE_OVERLOADED.getMessage()));
+        }
+
         /** 檔案上傳大小超過限制 */
         @ExceptionHandler(MaxUploadSizeExceededException.class)
         public ResponseEntity<ApiResponseCode<Void>> handleMaxUploadSizeExceededException(
@@ -0,0 +1,16 @@
+package com.example.miniclouddrive.exception;
+
+/**
+ * 無效檔案例外
+ * 當指定的檔案/資料夾 ID 不存在或不屬於該使用者時拋出
+ */
+public class InvalidFileException extends RuntimeException {
+
+    public InvalidFileException(String message) {
+        super(message);
+    }
+
+    public InvalidFileException(Long fileId) {
+        super("無效的檔案 ID: " + fileId);
+    }
+}
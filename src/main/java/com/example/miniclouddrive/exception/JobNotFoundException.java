@@ -0,0 +1,12 @@
+package com.example.miniclouddrive.exception;
+
+/**
+ * 背景工作不存在例外
+ * 當指定的 jobId 不存在或不屬於該使用者時拋出
+ */
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(Long jobId) {
+        super("無效的工作 ID: " + jobId);
+    }
+}
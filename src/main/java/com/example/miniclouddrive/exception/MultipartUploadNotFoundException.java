@@ -0,0 +1,12 @@
+package com.example.miniclouddrive.exception;
+
+/**
+ * 分段上傳不存在例外
+ * 當指定的 uploadId 不存在、已到期或不屬於該使用者時拋出
+ */
+public class MultipartUploadNotFoundException extends RuntimeException {
+
+    public MultipartUploadNotFoundException(Long uploadId) {
+        super("無效的上傳 ID: " + uploadId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.miniclouddrive.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 服務過載例外
+ * 當並行上限已滿且等待逾時時拋出，回應 503 並附帶 Retry-After
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    /** 建議客戶端重試前等待的時間 */
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
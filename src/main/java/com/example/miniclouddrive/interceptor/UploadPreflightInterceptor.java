@@ -0,0 +1,93 @@
+package com.example.miniclouddrive.interceptor;
+
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.service.FileService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 上傳前檢查
+ * 在讀取 multipart 內容之前，依 Content-Length、宣告大小標頭與查詢參數驗證上傳請求，
+ * 被拒絕的上傳只花費標頭的流量；搭配 Expect: 100-continue 時客戶端完全不會送出內容
+ * 
+ * 可提前檢查的參數需放在查詢字串或標頭（表單欄位位於內容中，讀取即會消耗整個上傳內容）：
+ * - X-Upload-Size 標頭：檔案大小，未提供時以 Content-Length 估計
+ * - X-Upload-Filename 標頭（URL 編碼）或 fileName 查詢參數：檔案名稱，用於同名檢查
+ * - folderId、duplicateAction 查詢參數
+ * 
+ * Content-Length 上限依路徑而定：單一檔案上傳為 max-file-size 加上 multipart 額外長度，
+ * 批次上傳為 max-request-size，由 UploadPreflightConfig 分別註冊
+ */
+@RequiredArgsConstructor
+public class UploadPreflightInterceptor implements HandlerInterceptor {
+
+    public static final String DECLARED_SIZE_HEADER = "X-Upload-Size";
+    public static final String FILE_NAME_HEADER = "X-Upload-Filename";
+
+    /** multipart 邊界與欄位標頭的估計上限，只有 Content-Length 時扣除此值作為檔案大小 */
+    public static final long MULTIPART_OVERHEAD = 16 * 1024;
+
+    private final FileService fileService;
+
+    /** 請求內容長度上限（bytes），0 或負數表示不限制 */
+    private final long maxContentLength;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long contentLength = request.getContentLengthLong();
+        if (maxContentLength > 0 && contentLength > maxContentLength) {
+            throw new MaxUploadSizeExceededException(maxContentLength);
+        }
+
+        // 不可使用 request.getParameter()，multipart 請求會因此解析整個內容
+        MultiValueMap<String, String> query = UriComponentsBuilder.newInstance()
+                .query(request.getQueryString())
+                .build()
+                .getQueryParams();
+
+        String fileName = request.getHeader(FILE_NAME_HEADER);
+        if (fileName == null) {
+            fileName = query.getFirst("fileName");
+        }
+
+        long declaredSize = -1;
+        String declaredSizeHeader = request.getHeader(DECLARED_SIZE_HEADER);
+        if (declaredSizeHeader != null) {
+            declaredSize = parseLong(declaredSizeHeader, DECLARED_SIZE_HEADER);
+        } else if (contentLength > 0) {
+            declaredSize = Math.max(0, contentLength - MULTIPART_OVERHEAD);
+        }
+
+        String folderId = query.getFirst("folderId");
+        String duplicateAction = query.getFirst("duplicateAction");
+        fileService.preflightUpload(
+                fileName == null ? null : decode(fileName),
+                folderId == null ? null : parseLong(decode(folderId), "folderId"),
+                duplicateAction == null ? null : (int) parseLong(decode(duplicateAction), "duplicateAction"),
+                declaredSize,
+                SecurityUtils.getCurrentUserId());
+        return true;
+    }
+
+    private static String decode(String value) {
+        return UriUtils.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "無效的 " + name + ": " + value);
+        }
+    }
+}
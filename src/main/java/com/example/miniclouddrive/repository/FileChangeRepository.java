@@ -0,0 +1,61 @@
+package com.example.miniclouddrive.repository;
+
+import com.example.miniclouddrive.entity.FileChange;
+import lombok.NonNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface FileChangeRepository extends JpaRepository<@NonNull FileChange, @NonNull Long> {
+
+        /**
+         * 查詢游標之後的變更，每個項目只保留最新的一筆（較舊的變更已被取代）
+         * 
+         * @param ownerId 使用者 ID
+         * @param cursor  上次同步的序號（不含）
+         * @param upTo    本次查詢的序號上限（含）
+         * @return 依序號排序的變更
+         */
+        @Query("SELECT c FROM FileChange c WHERE c.ownerId = :ownerId " +
+                        "AND c.seq > :cursor AND c.seq <= :upTo " +
+                        "AND NOT EXISTS (SELECT 1 FROM FileChange n WHERE n.ownerId = c.ownerId " +
+                        "AND n.fileId = c.fileId AND n.seq > c.seq) " +
+                        "ORDER BY c.seq")
+        List<FileChange> findLatestChanges(@Param("ownerId") Long ownerId,
+                        @Param("cursor") long cursor,
+                        @Param("upTo") long upTo,
+                        Pageable pageable);
+
+        /**
+         * 依寫入順序查詢所有使用者在指定 ID 之後的變更（供各節點的本地索引追上其他節點的異動）
+         */
+        @Query("SELECT c FROM FileChange c WHERE c.id > :afterId ORDER BY c.id")
+        List<FileChange> findAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+        /**
+         * 查詢使用者仍保留的最小序號，沒有任何變更紀錄時為 null
+         */
+        @Query("SELECT MIN(c.seq) FROM FileChange c WHERE c.ownerId = :ownerId")
+        Long findMinSeq(@Param("ownerId") Long ownerId);
+
+        /**
+         * 分批查詢超過保留期限的變更 ID
+         */
+        @Query("SELECT c.id FROM FileChange c WHERE c.createdAt < :cutoff")
+        List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+        /**
+         * 批次刪除變更紀錄，每次呼叫獨立提交
+         */
+        @Transactional
+        @Modifying
+        @Query("DELETE FROM FileChange c WHERE c.id IN :ids")
+        int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,11 @@
+package com.example.miniclouddrive.repository;
+
+/**
+ * 只含 ID 與名稱的檔案投影，用於建立檔名索引
+ */
+public interface FileNameView {
+
+        Long getId();
+
+        String getName();
+}
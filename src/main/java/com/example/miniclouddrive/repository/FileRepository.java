@@ -4,11 +4,15 @@ import com.example.miniclouddrive.entity.FileEntity;
 import com.example.miniclouddrive.enums.FileType;
 import lombok.NonNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +40,16 @@ public interface FileRepository extends JpaRepository<@NonNull FileEntity, @NonN
         @Query("SELECT COALESCE(SUM(f.size), 0) FROM FileEntity f WHERE f.ownerId = :ownerId AND f.deletedAt IS NULL")
         Long calculateUsedStorageByOwnerId(@Param("ownerId") Long ownerId);
 
+        /**
+         * 計算使用者實際佔用的儲存空間（壓縮後）
+         * 
+         * @param ownerId 使用者 ID
+         * @return 實際佔用空間（bytes），未記錄實際大小的檔案以邏輯大小計算
+         */
+        @Query("SELECT COALESCE(SUM(COALESCE(f.storedSize, f.size)), 0) FROM FileEntity f " +
+                        "WHERE f.ownerId = :ownerId AND f.deletedAt IS NULL")
+        Long calculateStoredBytesByOwnerId(@Param("ownerId") Long ownerId);
+
         /**
          * 查詢指定資料夾下是否有重複檔名的檔案
          * 
@@ -74,4 +88,292 @@ public interface FileRepository extends JpaRepository<@NonNull FileEntity, @NonN
          * @return 子項目列表
          */
         List<FileEntity> findByParentAndDeletedAtIsNull(FileEntity parent);
+
+        /**
+         * 查詢指定使用者的多個檔案/資料夾
+         * 
+         * @param ids     檔案/資料夾 ID
+         * @param ownerId 使用者 ID
+         * @return 符合條件的檔案/資料夾
+         */
+        List<FileEntity> findByIdInAndOwnerIdAndDeletedAtIsNull(Collection<Long> ids, Long ownerId);
+
+        /**
+         * 查詢子樹中的所有子孫項目（未刪除），依深度排序，父資料夾必定排在子項目之前
+         * 
+         * @param ownerId 使用者 ID
+         * @param prefix  子樹根的子項目祖先路徑（{@link FileEntity#getChildAncestorPath()}）
+         * @return 子孫項目
+         */
+        @Query("SELECT f FROM FileEntity f WHERE f.ownerId = :ownerId " +
+                        "AND f.ancestorPath LIKE CONCAT(:prefix, '%') " +
+                        "AND f.deletedAt IS NULL " +
+                        "ORDER BY LENGTH(f.ancestorPath), f.id")
+        List<FileEntity> findDescendants(@Param("ownerId") Long ownerId, @Param("prefix") String prefix);
+
+        /**
+         * 統計子樹中未刪除的子孫項目數
+         */
+        @Query("SELECT COUNT(f) FROM FileEntity f WHERE f.ownerId = :ownerId " +
+                        "AND f.ancestorPath LIKE CONCAT(:prefix, '%') " +
+                        "AND f.deletedAt IS NULL")
+        long countDescendants(@Param("ownerId") Long ownerId, @Param("prefix") String prefix);
+
+        /**
+         * 分批查詢子樹中未刪除的子孫項目 ID
+         */
+        @Query("SELECT f.id FROM FileEntity f WHERE f.ownerId = :ownerId " +
+                        "AND f.ancestorPath LIKE CONCAT(:prefix, '%') " +
+                        "AND f.deletedAt IS NULL")
+        List<Long> findDescendantIds(@Param("ownerId") Long ownerId, @Param("prefix") String prefix,
+                        Pageable pageable);
+
+        /**
+         * 批次軟刪除，每次呼叫獨立提交
+         *
+         * @param ids         項目 ID
+         * @param deletedAt   刪除時間
+         * @param trashRootId 被刪除的子樹根 ID，還原時以此找回同一次刪除的所有項目
+         * @return 刪除筆數
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE FileEntity f SET f.deletedAt = :deletedAt, f.trashRootId = :trashRootId " +
+                        "WHERE f.id IN :ids AND f.deletedAt IS NULL")
+        int softDeleteByIds(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt,
+                        @Param("trashRootId") Long trashRootId);
+
+        /**
+         * 查詢回收筒列表（被刪除的子樹根），最近刪除的排在前面
+         * 
+         * @param ownerId  使用者 ID
+         * @param pageable 分頁
+         * @return 回收筒項目
+         */
+        @Query("SELECT f FROM FileEntity f WHERE f.ownerId = :ownerId AND f.trashRootId = f.id " +
+                        "ORDER BY f.deletedAt DESC, f.id DESC")
+        Page<FileEntity> findTrash(@Param("ownerId") Long ownerId, Pageable pageable);
+
+        /**
+         * 查詢使用者的多個回收筒項目
+         * 
+         * @param ids     回收筒項目 ID
+         * @param ownerId 使用者 ID
+         * @return 符合條件的回收筒項目
+         */
+        @Query("SELECT f FROM FileEntity f WHERE f.id IN :ids AND f.ownerId = :ownerId AND f.trashRootId = f.id")
+        List<FileEntity> findTrashRoots(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId);
+
+        /**
+         * 分批查詢刪除時間早於指定時間的回收筒項目（所有使用者）
+         * 
+         * @param cutoff   刪除時間上限
+         * @param pageable 批次大小
+         * @return 逾期的回收筒項目，較早刪除的排在前面
+         */
+        @Query("SELECT f FROM FileEntity f WHERE f.trashRootId = f.id AND f.deletedAt < :cutoff " +
+                        "ORDER BY f.deletedAt")
+        List<FileEntity> findExpiredTrash(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+        /**
+         * 以單一 UPDATE 還原回收筒項目的整個子樹（同一次刪除的項目共用 trashRootId）
+         * 
+         * @param ownerId 使用者 ID
+         * @param rootIds 回收筒項目 ID
+         * @return 還原筆數
+         */
+        @Modifying(flushAutomatically = true)
+        @Query("UPDATE FileEntity f SET f.deletedAt = NULL, f.trashRootId = NULL " +
+                        "WHERE f.ownerId = :ownerId AND f.trashRootId IN :rootIds")
+        int restoreTrash(@Param("ownerId") Long ownerId, @Param("rootIds") Collection<Long> rootIds);
+
+        /**
+         * 統計子樹中已刪除的子孫項目數
+         */
+        @Query("SELECT COUNT(f) FROM FileEntity f WHERE f.ownerId = :ownerId " +
+                        "AND f.ancestorPath LIKE CONCAT(:prefix, '%') " +
+                        "AND f.deletedAt IS NOT NULL")
+        long countDeletedDescendants(@Param("ownerId") Long ownerId, @Param("prefix") String prefix);
+
+        /**
+         * 分批查詢子樹中已刪除的子孫項目，最深的排在前面：
+         * 子項目的祖先路徑必定比父資料夾長，同一批中的資料夾其剩餘的子孫項目必定也在同一批中
+         * 
+         * @param ownerId  使用者 ID
+         * @param prefix   子樹根的子項目祖先路徑
+         * @param pageable 批次大小
+         * @return 項目 ID 與儲存路徑
+         */
+        @Query("SELECT f.id AS id, f.filePath AS filePath FROM FileEntity f WHERE f.ownerId = :ownerId " +
+                        "AND f.ancestorPath LIKE CONCAT(:prefix, '%') " +
+                        "AND f.deletedAt IS NOT NULL " +
+                        "ORDER BY LENGTH(f.ancestorPath) DESC, f.id")
+        List<StoredFileView> findDeletedDescendants(@Param("ownerId") Long ownerId, @Param("prefix") String prefix,
+                        Pageable pageable);
+
+        /**
+         * 解除父資料夾參照，使同一批中的父子項目可以任意順序刪除；每次呼叫獨立提交
+         * 
+         * @param ids 項目 ID
+         * @return 更新筆數
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE FileEntity f SET f.parent = NULL WHERE f.id IN :ids AND f.deletedAt IS NOT NULL")
+        int detachParents(@Param("ids") Collection<Long> ids);
+
+        /**
+         * 永久刪除已軟刪除的項目，每次呼叫獨立提交
+         * 
+         * @param ids 項目 ID
+         * @return 刪除筆數
+         */
+        @Transactional
+        @Modifying
+        @Query("DELETE FROM FileEntity f WHERE f.id IN :ids AND f.deletedAt IS NOT NULL")
+        int purgeByIds(@Param("ids") Collection<Long> ids);
+
+        /**
+         * 查詢仍被任何記錄（含軟刪除）引用的儲存路徑
+         * 
+         * @param filePaths 檔案儲存路徑
+         * @return 仍被引用者
+         */
+        @Query("SELECT DISTINCT f.filePath FROM FileEntity f WHERE f.filePath IN :filePaths")
+        List<String> findReferencedFilePaths(@Param("filePaths") Collection<String> filePaths);
+
+        /**
+         * 依 ID 順序分批查詢子樹中未刪除的檔案 ID，用於重新建立內容索引
+         * 
+         * @param ownerId  使用者 ID
+         * @param prefix   子樹根的子項目祖先路徑
+         * @param afterId  上一批的最後一個 ID（第一批傳 0）
+         * @param pageable 批次大小
+         * @return ID 大於 afterId 的檔案
+         */
+        @Query("SELECT f.id FROM FileEntity f WHERE f.ownerId = :ownerId " +
+                        "AND f.ancestorPath LIKE CONCAT(:prefix, '%') " +
+                        "AND f.type = com.example.miniclouddrive.enums.FileType.FILE " +
+                        "AND f.id > :afterId AND f.deletedAt IS NULL ORDER BY f.id")
+        List<Long> findDescendantFileIdsAfter(@Param("ownerId") Long ownerId, @Param("prefix") String prefix,
+                        @Param("afterId") Long afterId, Pageable pageable);
+
+        /**
+         * 查詢資料夾下名稱符合的項目（未刪除），用於批次檢查同名衝突
+         * 
+         * @param parent  父資料夾（null 表示根目錄）
+         * @param ownerId 使用者 ID
+         * @param names   名稱列表
+         * @return 同名項目
+         */
+        @Query("SELECT f FROM FileEntity f WHERE " +
+                        "(:parent IS NULL AND f.parent IS NULL OR f.parent = :parent) " +
+                        "AND f.ownerId = :ownerId " +
+                        "AND f.name IN :names " +
+                        "AND f.deletedAt IS NULL")
+        List<FileEntity> findByParentAndNameIn(@Param("parent") FileEntity parent,
+                        @Param("ownerId") Long ownerId,
+                        @Param("names") Collection<String> names);
+
+        /**
+         * 搬移子樹時批次改寫所有子孫項目（含已軟刪除者）的祖先路徑前綴
+         * 
+         * @param ownerId   使用者 ID
+         * @param oldPrefix 搬移前的子項目祖先路徑
+         * @param newPrefix 搬移後的子項目祖先路徑
+         * @return 更新筆數
+         */
+        @Modifying(flushAutomatically = true)
+        @Query("UPDATE FileEntity f SET f.ancestorPath = CONCAT(:newPrefix, SUBSTRING(f.ancestorPath, LENGTH(:oldPrefix) + 1)) " +
+                        "WHERE f.ownerId = :ownerId AND f.ancestorPath LIKE CONCAT(:oldPrefix, '%')")
+        int rewriteAncestorPaths(@Param("ownerId") Long ownerId,
+                        @Param("oldPrefix") String oldPrefix,
+                        @Param("newPrefix") String newPrefix);
+
+        /**
+         * 只查詢資料夾的子項目版本（主鍵查詢），用於判斷資料夾列表是否有變更
+         * 
+         * @param id      資料夾 ID
+         * @param ownerId 使用者 ID
+         * @return 子項目版本，資料夾不存在或已刪除時為空
+         */
+        @Query("SELECT f.childrenVersion FROM FileEntity f WHERE f.id = :id AND f.ownerId = :ownerId " +
+                        "AND f.type = com.example.miniclouddrive.enums.FileType.FOLDER AND f.deletedAt IS NULL")
+        Optional<Long> findChildrenVersion(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+        /**
+         * 遞增資料夾的子項目版本（以單一 UPDATE 原子性遞增，並行異動不會互相覆蓋）
+         * 
+         * @param ids 資料夾 ID
+         * @return 更新筆數
+         */
+        @Transactional
+        @Modifying(flushAutomatically = true)
+        @Query("UPDATE FileEntity f SET f.childrenVersion = f.childrenVersion + 1 WHERE f.id IN :ids")
+        int incrementChildrenVersion(@Param("ids") Collection<Long> ids);
+
+        /**
+         * 以增量更新資料夾的子樹大小與項目數（單一 UPDATE 原子性累加，並行異動不會互相覆蓋），
+         * 同時遞增子項目版本，使列出這些資料夾的上層列表 ETag 失效
+         * 
+         * @param ids        資料夾 ID
+         * @param sizeDelta  子樹大小的變化量（bytes）
+         * @param countDelta 子樹項目數的變化量
+         * @return 更新筆數
+         */
+        @Transactional
+        @Modifying(flushAutomatically = true)
+        @Query("UPDATE FileEntity f SET f.treeSize = f.treeSize + :sizeDelta, " +
+                        "f.descendantCount = f.descendantCount + :countDelta, " +
+                        "f.childrenVersion = f.childrenVersion + 1 WHERE f.id IN :ids")
+        int addToRollups(@Param("ids") Collection<Long> ids, @Param("sizeDelta") long sizeDelta,
+                        @Param("countDelta") long countDelta);
+
+        /**
+         * 依 ID 順序分批讀取使用者未刪除項目的名稱，用於建立檔名索引
+         * 
+         * @param ownerId  使用者 ID
+         * @param afterId  上一批的最後一個 ID（第一批傳 0）
+         * @param pageable 批次大小
+         * @return ID 大於 afterId 的項目
+         */
+        @Query("SELECT f.id AS id, f.name AS name FROM FileEntity f WHERE f.ownerId = :ownerId " +
+                        "AND f.id > :afterId AND f.deletedAt IS NULL ORDER BY f.id")
+        List<FileNameView> findNamesAfter(@Param("ownerId") Long ownerId, @Param("afterId") Long afterId,
+                        Pageable pageable);
+
+        /**
+         * 依 ID 順序分批讀取使用者未刪除的資料夾，用於建立資料夾命名空間
+         * 
+         * @param ownerId  使用者 ID
+         * @param afterId  上一批的最後一個 ID（第一批傳 0）
+         * @param pageable 批次大小
+         * @return ID 大於 afterId 的資料夾
+         */
+        @Query("SELECT f.id AS id, f.name AS name, p.id AS parentId FROM FileEntity f LEFT JOIN f.parent p " +
+                        "WHERE f.ownerId = :ownerId AND f.type = com.example.miniclouddrive.enums.FileType.FOLDER " +
+                        "AND f.id > :afterId AND f.deletedAt IS NULL ORDER BY f.id")
+        List<FolderNameView> findFoldersAfter(@Param("ownerId") Long ownerId, @Param("afterId") Long afterId,
+                        Pageable pageable);
+
+        /**
+         * 以 LIKE 查詢名稱包含關鍵字的項目（索引停用或超過記憶體預算時使用），較短的名稱排在前面
+         * 
+         * @param ownerId  使用者 ID
+         * @param pattern  已跳脫萬用字元的小寫 LIKE 樣式
+         * @param pageable 筆數上限
+         * @return 符合的項目
+         */
+        @Query("SELECT f FROM FileEntity f WHERE f.ownerId = :ownerId AND f.deletedAt IS NULL " +
+                        "AND LOWER(f.name) LIKE :pattern ESCAPE '\\' ORDER BY LENGTH(f.name), f.name")
+        List<FileEntity> searchByName(@Param("ownerId") Long ownerId, @Param("pattern") String pattern,
+                        Pageable pageable);
+
+        /**
+         * 計算引用同一儲存路徑的記錄數（含軟刪除，以便還原），作為實體檔案的引用計數
+         * 
+         * @param filePath 檔案儲存路徑
+         * @return 引用數
+         */
+        long countByFilePath(String filePath);
 }
@@ -0,0 +1,14 @@
+package com.example.miniclouddrive.repository;
+
+/**
+ * 只含 ID、名稱與上層資料夾 ID 的資料夾投影，用於建立資料夾命名空間
+ */
+public interface FolderNameView {
+
+        Long getId();
+
+        String getName();
+
+        /** 上層資料夾 ID，根目錄為 null */
+        Long getParentId();
+}
@@ -0,0 +1,113 @@
+package com.example.miniclouddrive.repository;
+
+import com.example.miniclouddrive.entity.Job;
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import lombok.NonNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface JobRepository extends JpaRepository<@NonNull Job, @NonNull Long> {
+
+        /**
+         * 查詢使用者的工作
+         */
+        Optional<Job> findByIdAndOwnerId(Long id, Long ownerId);
+
+        /**
+         * 查詢可租用的工作：等待中，或執行中但租約已過期（原 worker 已停止）
+         */
+        @Query("SELECT j FROM Job j WHERE j.status = com.example.miniclouddrive.enums.JobStatus.PENDING " +
+                        "OR (j.status = com.example.miniclouddrive.enums.JobStatus.RUNNING AND j.leaseExpiresAt < :now) " +
+                        "ORDER BY j.id")
+        List<Job> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+        /**
+         * 查詢已有未完成工作（等待中或執行中）的目標 ID
+         */
+        @Query("SELECT j.targetId FROM Job j WHERE j.type = :type AND j.targetId IN :targetIds " +
+                        "AND j.status IN (com.example.miniclouddrive.enums.JobStatus.PENDING, " +
+                        "com.example.miniclouddrive.enums.JobStatus.RUNNING)")
+        List<Long> findUnfinishedTargetIds(@Param("type") JobType type, @Param("targetIds") Collection<Long> targetIds);
+
+        /**
+         * 租用工作
+         * 以原狀態為條件更新，多個 worker 同時嘗試時只有一個會成功；
+         * 使用者租約有效的執行中工作數也在同一個 UPDATE 的條件中檢查，多個節點同時租用同一使用者的工作時不會超過上限。
+         * MySQL 不允許 UPDATE 的子查詢直接讀取同一張表，計數放在衍生資料表中（含聚合函數，不會被合併回外層查詢）
+         *
+         * @param ownerId   工作擁有者 ID
+         * @param maxActive 使用者同時執行中的工作上限
+         * @return 1 表示租用成功，0 表示已被其他 worker 租用或使用者已達上限
+         */
+        @Transactional
+        @Modifying
+        @Query(value = "UPDATE jobs SET status = 'RUNNING', lease_owner = :leaseOwner, " +
+                        "lease_expires_at = :leaseExpiresAt, attempts = attempts + 1, updated_at = :now " +
+                        "WHERE id = :id AND (status = 'PENDING' OR (status = 'RUNNING' AND lease_expires_at < :now)) " +
+                        "AND (SELECT active.total FROM (SELECT COUNT(*) AS total FROM jobs a WHERE a.owner_id = :ownerId " +
+                        "AND a.status = 'RUNNING' AND a.lease_expires_at >= :now) active) < :maxActive",
+                        nativeQuery = true)
+        int tryLease(@Param("id") Long id,
+                        @Param("ownerId") Long ownerId,
+                        @Param("maxActive") int maxActive,
+                        @Param("leaseOwner") String leaseOwner,
+                        @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+                        @Param("now") LocalDateTime now);
+
+        /**
+         * 續約（heartbeat），只更新仍由此 worker 持有的工作
+         *
+         * @return 續約成功的筆數
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE Job j SET j.leaseExpiresAt = :leaseExpiresAt " +
+                        "WHERE j.id IN :ids AND j.leaseOwner = :leaseOwner " +
+                        "AND j.status = com.example.miniclouddrive.enums.JobStatus.RUNNING")
+        int renewLeases(@Param("ids") Collection<Long> ids,
+                        @Param("leaseOwner") String leaseOwner,
+                        @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+        /**
+         * 更新進度，租約已被其他 worker 接手時不會更新
+         *
+         * @return 1 表示仍持有租約
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE Job j SET j.processedItems = :processedItems, j.totalItems = :totalItems, j.updatedAt = :now " +
+                        "WHERE j.id = :id AND j.leaseOwner = :leaseOwner " +
+                        "AND j.status = com.example.miniclouddrive.enums.JobStatus.RUNNING")
+        int updateProgress(@Param("id") Long id,
+                        @Param("leaseOwner") String leaseOwner,
+                        @Param("processedItems") Long processedItems,
+                        @Param("totalItems") Long totalItems,
+                        @Param("now") LocalDateTime now);
+
+        /**
+         * 結束租用並寫入結果狀態（成功、失敗或回到等待重試）
+         *
+         * @return 1 表示仍持有租約並已更新
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE Job j SET j.status = :status, j.errorMessage = :errorMessage, j.finishedAt = :finishedAt, " +
+                        "j.leaseOwner = NULL, j.leaseExpiresAt = NULL, j.updatedAt = :now " +
+                        "WHERE j.id = :id AND j.leaseOwner = :leaseOwner")
+        int release(@Param("id") Long id,
+                        @Param("leaseOwner") String leaseOwner,
+                        @Param("status") JobStatus status,
+                        @Param("errorMessage") String errorMessage,
+                        @Param("finishedAt") LocalDateTime finishedAt,
+                        @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,55 @@
+package com.example.miniclouddrive.repository;
+
+import com.example.miniclouddrive.entity.MultipartUpload;
+import lombok.NonNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface MultipartUploadRepository extends JpaRepository<@NonNull MultipartUpload, @NonNull Long> {
+
+        /**
+         * 查詢使用者尚未到期的分段上傳
+         */
+        Optional<MultipartUpload> findByIdAndOwnerIdAndExpiresAtAfter(Long id, Long ownerId, LocalDateTime now);
+
+        /**
+         * 查詢使用者的分段上傳（含已到期者，用於取消）
+         */
+        Optional<MultipartUpload> findByIdAndOwnerId(Long id, Long ownerId);
+
+        /**
+         * 查詢已到期的分段上傳
+         */
+        List<MultipartUpload> findByExpiresAtBefore(LocalDateTime now, Pageable pageable);
+
+        /**
+         * 統計使用者進行中（尚未到期）的分段上傳數
+         */
+        long countByOwnerIdAndExpiresAtAfter(Long ownerId, LocalDateTime now);
+
+        /**
+         * 計算使用者所有分段上傳已暫存的大小（含已到期但尚未清除者，其分段仍佔用磁碟）
+         */
+        @Query("SELECT COALESCE(SUM(u.stagedBytes), 0) FROM MultipartUpload u WHERE u.ownerId = :ownerId")
+        long sumStagedBytesByOwnerId(@Param("ownerId") Long ownerId);
+
+        /**
+         * 以增量更新上傳已暫存的大小（單一 UPDATE 原子性累加，並行上傳的分段不會互相覆蓋）；每次呼叫獨立提交
+         *
+         * @param id    上傳 ID
+         * @param delta 變化量（bytes）
+         * @return 更新筆數，上傳已取消或完成時為 0
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE MultipartUpload u SET u.stagedBytes = u.stagedBytes + :delta WHERE u.id = :id")
+        int addStagedBytes(@Param("id") Long id, @Param("delta") long delta);
+}
@@ -0,0 +1,47 @@
+package com.example.miniclouddrive.repository;
+
+import com.example.miniclouddrive.entity.PackBlob;
+import lombok.NonNull;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface PackBlobRepository extends JpaRepository<@NonNull PackBlob, @NonNull Long> {
+
+        /**
+         * 統計每個打包檔中仍被引用的資料量
+         *
+         * @return 每筆為 [packId, liveBytes]
+         */
+        @Query("SELECT b.packId, SUM(b.length) FROM PackBlob b GROUP BY b.packId")
+        List<Object[]> sumLiveBytesGroupByPackId();
+
+        /**
+         * 查詢打包檔內的所有資料
+         */
+        List<PackBlob> findByPackId(Long packId);
+
+        /**
+         * 打包檔是否仍有資料被引用（包含淘汰後才提交的上傳）
+         */
+        boolean existsByPackId(Long packId);
+
+        /**
+         * 壓實時搬移資料位置
+         * 以舊的 packId 作為條件，若資料已在搬移期間被刪除則不會有任何影響
+         *
+         * @return 更新筆數
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE PackBlob b SET b.packId = :newPackId, b.offset = :newOffset " +
+                        "WHERE b.id = :id AND b.packId = :oldPackId")
+        int relocate(@Param("id") Long id,
+                        @Param("oldPackId") Long oldPackId,
+                        @Param("newPackId") Long newPackId,
+                        @Param("newOffset") Long newOffset);
+}
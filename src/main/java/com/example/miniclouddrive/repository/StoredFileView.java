@@ -0,0 +1,12 @@
+package com.example.miniclouddrive.repository;
+
+/**
+ * 只含 ID 與儲存路徑的檔案投影，用於永久刪除時釋放實體檔案
+ */
+public interface StoredFileView {
+
+        Long getId();
+
+        /** 檔案儲存路徑，資料夾為 null */
+        String getFilePath();
+}
@@ -1,12 +1,53 @@
 package com.example.miniclouddrive.repository;
 
 import com.example.miniclouddrive.entity.User;
+import jakarta.persistence.LockModeType;
 import lombok.NonNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<@NonNull User, @NonNull Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    /**
+     * 查詢使用者並鎖定該列（交易結束前其他交易無法再鎖定），用於序列化同一使用者的配額保留
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * 只查詢根目錄的子項目版本（主鍵查詢），用於判斷根目錄列表是否有變更
+     */
+    @Query("SELECT u.rootVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findRootVersion(@Param("id") Long id);
+
+    /**
+     * 遞增根目錄的子項目版本（以單一 UPDATE 原子性遞增，並行異動不會互相覆蓋）
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.rootVersion = u.rootVersion + 1 WHERE u.id = :id")
+    int incrementRootVersion(@Param("id") Long id);
+
+    /**
+     * 查詢最後配發的變更序號
+     */
+    @Query("SELECT u.changeSeq FROM User u WHERE u.id = :id")
+    Optional<Long> findChangeSeq(@Param("id") Long id);
+
+    /**
+     * 配發連續的變更序號；UPDATE 鎖定使用者列直到交易提交，同一使用者的變更因此依序號順序提交
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.changeSeq = u.changeSeq + :count WHERE u.id = :id")
+    int incrementChangeSeq(@Param("id") Long id, @Param("count") long count);
 }
@@ -0,0 +1,35 @@
+package com.example.miniclouddrive.security;
+
+import com.example.miniclouddrive.concurrency.Bulkhead;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * 限制並行數的密碼編碼器
+ * BCrypt 為 CPU 密集運算；使用 virtual thread 時請求數不再受 Tomcat 執行緒池限制，
+ * 大量登入會同時進行雜湊而拖慢所有請求，因此以隔艙將並行數限制在核心數附近，等待逾時即拒絕
+ */
+public class BulkheadPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Bulkhead bulkhead;
+
+    public BulkheadPasswordEncoder(PasswordEncoder delegate, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bulkhead.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return bulkhead.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.entity.FileEntity;
+import lombok.Getter;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 批次上傳中的單一檔案
+ * 依序經過規劃（決定檔名與是否覆蓋）、寫入儲存層、寫入資料庫三個階段，任一階段失敗即記錄錯誤並略過後續階段
+ */
+@Getter
+public class BatchUploadItem {
+
+    private final MultipartFile file;
+
+    /** 寫入資料庫時使用的名稱（自動加後綴時與原始檔名不同） */
+    private String targetName;
+
+    /** 要覆蓋的既有檔案，新增時為 null */
+    private FileEntity existing;
+
+    /** 被覆蓋檔案原本的儲存路徑，寫入資料庫後若已無記錄引用即刪除 */
+    private String replacedFilePath;
+
+    /** 已寫入儲存層的內容 */
+    private StoredContent stored;
+
+    /** 已寫入資料庫的記錄 */
+    private FileEntity saved;
+
+    private String errorCode;
+    private String errorMessage;
+
+    BatchUploadItem(MultipartFile file) {
+        this.file = file;
+    }
+
+    public String getOriginalName() {
+        return file.getOriginalFilename();
+    }
+
+    public boolean isFailed() {
+        return errorCode != null;
+    }
+
+    void plan(String targetName, FileEntity existing) {
+        this.targetName = targetName;
+        this.existing = existing;
+        this.replacedFilePath = existing == null ? null : existing.getFilePath();
+    }
+
+    void stored(StoredContent stored) {
+        this.stored = stored;
+    }
+
+    void saved(FileEntity saved) {
+        this.saved = saved;
+    }
+
+    void fail(ApiReturnCode code, String message) {
+        this.errorCode = code.getCode();
+        this.errorMessage = message;
+    }
+}
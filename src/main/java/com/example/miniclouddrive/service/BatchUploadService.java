@@ -0,0 +1,166 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.dto.response.BatchUploadItemResponse;
+import com.example.miniclouddrive.dto.response.BatchUploadResponse;
+import com.example.miniclouddrive.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批次上傳服務
+ * 一個請求上傳多個檔案：先一次規劃名稱與配額，再以固定大小的執行緒池並行寫入儲存層，
+ * 最後在單一交易中寫入所有資料庫記錄；個別檔案失敗不影響其他檔案，結果逐一回報
+ */
+@Service
+@Slf4j
+public class BatchUploadService {
+
+    private final FileService fileService;
+    private final FileStorageService fileStorageService;
+    private final int maxFiles;
+    private final ExecutorService executor;
+
+    public BatchUploadService(FileService fileService, FileStorageService fileStorageService,
+            FileStorageProperties fileStorageProperties) {
+        this.fileService = fileService;
+        this.fileStorageService = fileStorageService;
+
+        FileStorageProperties.BatchUpload batchUpload = fileStorageProperties.getBatchUpload();
+        this.maxFiles = batchUpload.getMaxFiles();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(batchUpload.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "batch-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 批次上傳檔案
+     * 
+     * @param files           上傳的檔案
+     * @param folderId        目標資料夾 ID（null 表示根目錄）
+     * @param duplicateAction 重複檔案處理方式：null=該檔案失敗, 0=覆蓋, 1=自動加後綴
+     * @param userId          當前使用者 ID
+     * @return 各檔案的上傳結果
+     */
+    public BatchUploadResponse uploadFiles(List<MultipartFile> files, Long folderId, Integer duplicateAction,
+            Long userId) {
+        if (files.size() > maxFiles) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "單一批次最多上傳 " + maxFiles + " 個檔案");
+        }
+
+        List<BatchUploadItem> items = fileService.planBatchUpload(files, folderId, duplicateAction, userId);
+        storeAll(items, userId);
+
+        try {
+            fileService.saveBatchUpload(items, folderId, userId);
+        } catch (RuntimeException e) {
+            // 資料庫寫入失敗：已寫入儲存層的內容不會被任何記錄引用，直接刪除
+            discardStored(items);
+            throw e;
+        }
+
+        discardUnsaved(items);
+        return buildResponse(items);
+    }
+
+    /**
+     * 並行寫入儲存層，並行數由共用的執行緒池大小限制
+     */
+    private void storeAll(List<BatchUploadItem> items, Long userId) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (BatchUploadItem item : items) {
+            if (!item.isFailed()) {
+                futures.add(CompletableFuture.runAsync(() -> store(item, userId), executor));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void store(BatchUploadItem item, Long userId) {
+        MultipartFile file = item.getFile();
+        try {
+            item.stored(StoredContent.store(fileStorageService, file.getInputStream(), file.getOriginalFilename(),
+                    file.getSize(), userId));
+        } catch (IOException | RuntimeException e) {
+            log.warn("批次上傳寫入失敗: userId={}, fileName={}", userId, file.getOriginalFilename(), e);
+            item.fail(ApiReturnCode.FILE_STORAGE_ERROR, "儲存檔案失敗: " + e.getMessage());
+        }
+    }
+
+    private void discardStored(List<BatchUploadItem> items) {
+        for (BatchUploadItem item : items) {
+            if (item.getStored() != null) {
+                deleteQuietly(item.getStored().filePath());
+            }
+        }
+    }
+
+    /**
+     * 刪除寫入資料庫時才失敗的項目（例如覆蓋目標已變更）已寫入的內容，這些內容不會被任何記錄引用
+     */
+    private void discardUnsaved(List<BatchUploadItem> items) {
+        for (BatchUploadItem item : items) {
+            if (item.getStored() != null && item.getSaved() == null) {
+                deleteQuietly(item.getStored().filePath());
+            }
+        }
+    }
+
+    private void deleteQuietly(String filePath) {
+        try {
+            fileStorageService.delete(filePath);
+        } catch (IOException e) {
+            log.warn("刪除儲存內容失敗: {}", filePath, e);
+        }
+    }
+
+    private BatchUploadResponse buildResponse(List<BatchUploadItem> items) {
+        List<BatchUploadItemResponse> results = new ArrayList<>(items.size());
+        int succeeded = 0;
+        for (BatchUploadItem item : items) {
+            BatchUploadItemResponse.BatchUploadItemResponseBuilder result = BatchUploadItemResponse.builder()
+                    .originalName(item.getOriginalName());
+            if (item.getSaved() != null) {
+                succeeded++;
+                result.success(true)
+                        .fileId(item.getSaved().getId())
+                        .fileName(item.getSaved().getName())
+                        .size(item.getSaved().getSize())
+                        .uploadTime(item.getSaved().getCreatedAt());
+            } else {
+                result.success(false)
+                        .errorCode(item.getErrorCode())
+                        .errorMessage(item.getErrorMessage());
+            }
+            results.add(result.build());
+        }
+        return BatchUploadResponse.builder()
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .items(results)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
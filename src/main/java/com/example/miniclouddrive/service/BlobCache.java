@@ -0,0 +1,252 @@
+package com.example.miniclouddrive.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 以位元組預算控制的熱門小檔案快取
+ * 內容存放於 direct ByteBuffer（堆外記憶體），不增加 GC 掃描負擔
+ * 淘汰採 LRU 順序搭配 TinyLFU 准入：新項目需比被淘汰項目更常被存取才會放入
+ */
+public class BlobCache implements MeterBinder {
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final FrequencySketch sketch;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long residentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    /**
+     * @param maxBytes      快取內容的總位元組上限
+     * @param maxEntryBytes 單一項目的大小上限
+     */
+    public BlobCache(long maxBytes, long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        // 以「預算可容納的最小項目數」估計 sketch 大小，至少 1024 個計數器
+        this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(1024, maxBytes / 1024)));
+    }
+
+    /**
+     * 取得快取內容（唯讀），未命中時回傳 null
+     */
+    public ByteBuffer get(String key) {
+        lock.lock();
+        try {
+            sketch.increment(key);
+            ByteBuffer buffer = entries.get(key);
+            if (buffer == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return buffer.asReadOnlyBuffer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 嘗試放入快取，若超過單項上限或未通過准入則不放入
+     *
+     * @return 是否已放入
+     */
+    public boolean put(String key, byte[] data) {
+        if (data.length > maxEntryBytes || data.length > maxBytes) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            if (entries.containsKey(key)) {
+                return true;
+            }
+
+            // 找出需要淘汰的最舊項目，候選項目的存取頻率須高於所有被淘汰者
+            List<String> victims = new ArrayList<>();
+            long freed = 0;
+            int candidateFrequency = sketch.frequency(key);
+            Iterator<Map.Entry<String, ByteBuffer>> iterator = entries.entrySet().iterator();
+            while (residentBytes - freed + data.length > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, ByteBuffer> eldest = iterator.next();
+                if (sketch.frequency(eldest.getKey()) >= candidateFrequency) {
+                    rejections.incrementAndGet();
+                    return false;
+                }
+                victims.add(eldest.getKey());
+                freed += eldest.getValue().capacity();
+            }
+
+            for (String victim : victims) {
+                residentBytes -= entries.remove(victim).capacity();
+                evictions.incrementAndGet();
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+            buffer.put(data).flip();
+            entries.put(key, buffer);
+            residentBytes += data.length;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 移除快取項目（檔案刪除或覆蓋時呼叫）
+     */
+    public void invalidate(String key) {
+        lock.lock();
+        try {
+            ByteBuffer removed = entries.remove(key);
+            if (removed != null) {
+                residentBytes -= removed.capacity();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public long residentBytes() {
+        lock.lock();
+        try {
+            return residentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("file.storage.cache.hit.ratio", this, BlobCache::hitRatio)
+                .description("檔案快取命中率")
+                .register(registry);
+        Gauge.builder("file.storage.cache.resident.bytes", this, BlobCache::residentBytes)
+                .description("檔案快取佔用的堆外記憶體")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("file.storage.cache.entries", this, BlobCache::size)
+                .description("檔案快取項目數")
+                .register(registry);
+        FunctionCounter.builder("file.storage.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("file.storage.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("file.storage.cache.evictions", evictions, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("file.storage.cache.admission.rejections", rejections, AtomicLong::get)
+                .register(registry);
+    }
+
+    /**
+     * Count-Min Sketch 頻率估計（4 列 4-bit 計數器）
+     * 累計次數達取樣上限後所有計數減半，讓舊的熱門項目逐漸老化
+     */
+    static class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0x97cb3127L, 0xe0a2a3a7L, 0xd7beb6b3L, 0x2b5d3f8dL };
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int size = Integer.highestOneBit(Math.max(64, expectedEntries) - 1) << 1;
+            this.table = new long[size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * size;
+        }
+
+        int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = counterOffset(hash, i);
+                frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 0xFL));
+            }
+            return frequency;
+        }
+
+        void increment(String key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = counterOffset(hash, i);
+                if (((table[index] >>> offset) & 0xFL) != 0xFL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        /** 每個 long 存放 16 個 4-bit 計數器，每列使用不同的計數器位置 */
+        private static int counterOffset(int hash, int row) {
+            return (((hash >>> (row << 3)) & 0x3) + (row << 2)) << 2;
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
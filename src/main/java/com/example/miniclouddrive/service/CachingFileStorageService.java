@@ -0,0 +1,136 @@
+package com.example.miniclouddrive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * 讀取快取裝飾器
+ * 將熱門小檔案的內容保存在 {@link BlobCache}，避免每次 load() 都從磁碟讀取
+ * 儲存路徑在寫入後不會被改寫（覆蓋檔案會產生新路徑並刪除舊路徑），因此刪除時失效即可保持一致
+ */
+@RequiredArgsConstructor
+public class CachingFileStorageService implements FileStorageService {
+
+    private final FileStorageService delegate;
+    private final BlobCache blobCache;
+
+    @Override
+    public String store(InputStream inputStream, String originalFilename, long size, Long userId) throws IOException {
+        return delegate.store(inputStream, originalFilename, size, userId);
+    }
+
+    @Override
+    public String store(Path source, String originalFilename, Long userId) throws IOException {
+        return delegate.store(source, originalFilename, userId);
+    }
+
+    @Override
+    public Resource load(String filePath) throws IOException {
+        return load(filePath, -1);
+    }
+
+    /**
+     * 先以已知大小判斷是否可快取，大檔案直接交給下層，不讀取（或解壓縮）任何內容；
+     * 大小未知時以實際佔用空間判斷（壓縮後只會更小），仍無法排除時才讀取內容確認
+     */
+    @Override
+    public Resource load(String filePath, long size) throws IOException {
+        ByteBuffer cached = blobCache.get(filePath);
+        if (cached != null) {
+            return new ByteBufferResource(cached, filePath);
+        }
+
+        long maxEntryBytes = blobCache.getMaxEntryBytes();
+        if (size > maxEntryBytes || (size < 0 && delegate.getStoredSize(filePath) > maxEntryBytes)) {
+            return delegate.load(filePath, size);
+        }
+
+        // 最多讀取上限 + 1 bytes 判斷是否為小檔案，大檔案直接回傳原始資源
+        Resource resource = delegate.load(filePath, size);
+        byte[] content;
+        try (InputStream inputStream = resource.getInputStream()) {
+            content = inputStream.readNBytes(Math.toIntExact(maxEntryBytes + 1));
+        }
+        if (content.length > maxEntryBytes) {
+            return resource;
+        }
+        blobCache.put(filePath, content);
+        return new ByteArrayResource(content, filePath);
+    }
+
+    @Override
+    public void delete(String filePath) throws IOException {
+        blobCache.invalidate(filePath);
+        delegate.delete(filePath);
+    }
+
+    @Override
+    public long getStoredSize(String filePath) throws IOException {
+        return delegate.getStoredSize(filePath);
+    }
+
+    /**
+     * 以堆外快取內容提供讀取的資源
+     */
+    private static class ByteBufferResource extends AbstractResource {
+
+        private final ByteBuffer buffer;
+        private final String description;
+
+        ByteBufferResource(ByteBuffer buffer, String description) {
+            this.buffer = buffer;
+            this.description = description;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            ByteBuffer view = buffer.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (len == 0) {
+                        return 0;
+                    }
+                    if (!view.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(len, view.remaining());
+                    view.get(b, off, count);
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return view.remaining();
+                }
+            };
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return "cached blob [" + description + "]";
+        }
+    }
+}
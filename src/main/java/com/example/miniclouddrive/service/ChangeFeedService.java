@@ -0,0 +1,176 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.ChangeFeedProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.dto.response.ChangeFeedResponse;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.entity.FileChange;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.ChangeCursorExpiredException;
+import com.example.miniclouddrive.repository.FileChangeRepository;
+import com.example.miniclouddrive.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 變更紀錄服務
+ * FileService 在每次異動的同一交易中寫入變更紀錄；同步客戶端以游標查詢上次同步後的變更，
+ * 不需重新列出所有資料夾
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedService {
+
+    /** 每次清除的過期變更數 */
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
+    private final FileChangeRepository fileChangeRepository;
+    private final UserRepository userRepository;
+    private final ChangeFeedProperties changeFeedProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 記錄單一項目的異動
+     */
+    @Transactional
+    public void record(Long userId, ChangeType changeType, FileEntity item) {
+        record(userId, changeType, List.of(item));
+    }
+
+    /**
+     * 記錄多個項目的異動（加入呼叫端的交易）
+     * 以單一 UPDATE 配發連續的序號，使用者列的鎖定持續到交易提交，因此同一使用者的變更依序號順序提交；
+     * 同時發布 {@link FileChangeEvent}，交易提交後才推送給即時訂閱的客戶端
+     */
+    @Transactional
+    public void record(Long userId, ChangeType changeType, Collection<FileEntity> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        userRepository.incrementChangeSeq(userId, items.size());
+        long seq = userRepository.findChangeSeq(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在")) - items.size();
+
+        List<FileChange> changes = new ArrayList<>(items.size());
+        for (FileEntity item : items) {
+            changes.add(FileChange.builder()
+                    .ownerId(userId)
+                    .seq(++seq)
+                    .fileId(item.getId())
+                    .changeType(changeType)
+                    .type(item.getType())
+                    .name(item.getName())
+                    .parentId(item.getParent() == null ? null : item.getParent().getId())
+                    .size(item.getSize())
+                    .contentHash(item.getContentHash())
+                    .build());
+        }
+        fileChangeRepository.saveAll(changes);
+        eventPublisher.publishEvent(new FileChangeEvent(userId, changes.stream().map(this::toResponse).toList()));
+    }
+
+    /**
+     * 查詢游標之後的變更
+     * 每個項目只回傳最新的一筆變更（即目前狀態）；未提供游標時只回傳目前的游標，
+     * 客戶端應先取得游標再完整列出資料夾，之後以游標增量同步
+     *
+     * @param userId 使用者 ID
+     * @param cursor 上次同步取得的游標（null 表示首次同步）
+     * @param limit  每頁變更數（null 使用預設值）
+     * @return 變更與下次查詢的游標
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse getChanges(Long userId, Long cursor, Integer limit) {
+        int pageSize = limit == null ? changeFeedProperties.getDefaultPageSize() : limit;
+        if (pageSize < 1 || pageSize > changeFeedProperties.getMaxPageSize()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "limit 需介於 1 與 " + changeFeedProperties.getMaxPageSize() + " 之間");
+        }
+
+        long current = currentCursor(userId);
+        if (cursor == null) {
+            return ChangeFeedResponse.builder()
+                    .changes(List.of())
+                    .cursor(current)
+                    .hasMore(false)
+                    .build();
+        }
+        if (cursor < 0 || cursor > current) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "無效的游標: " + cursor);
+        }
+
+        // 游標之後的變更已有部分被清除時，無法保證增量同步的正確性
+        Long minSeq = fileChangeRepository.findMinSeq(userId);
+        if (minSeq == null ? cursor < current : cursor < minSeq - 1) {
+            throw new ChangeCursorExpiredException(cursor);
+        }
+
+        List<FileChange> changes = fileChangeRepository.findLatestChanges(userId, cursor, current,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        return ChangeFeedResponse.builder()
+                .changes(changes.stream().map(this::toResponse).toList())
+                .cursor(hasMore ? changes.get(changes.size() - 1).getSeq() : current)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * 使用者目前的游標（最後配發的序號）
+     */
+    @Transactional(readOnly = true)
+    public long currentCursor(Long userId) {
+        return userRepository.findChangeSeq(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+    }
+
+    /**
+     * 清除超過保留期限的變更紀錄
+     */
+    @Scheduled(fixedDelayString = "${change-feed.cleanup-interval:PT1H}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(changeFeedProperties.getRetention());
+        List<Long> ids;
+        long purged = 0;
+        do {
+            ids = fileChangeRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, CLEANUP_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                purged += fileChangeRepository.deleteByIds(ids);
+            }
+        } while (ids.size() == CLEANUP_BATCH_SIZE);
+        if (purged > 0) {
+            log.info("已清除過期的變更紀錄: {} 筆", purged);
+        }
+    }
+
+    private FileChangeResponse toResponse(FileChange change) {
+        return FileChangeResponse.builder()
+                .seq(change.getSeq())
+                .fileId(change.getFileId())
+                .changeType(change.getChangeType())
+                .type(change.getType())
+                .name(change.getName())
+                .parentId(change.getParentId())
+                .size(change.getSize())
+                .contentHash(change.getContentHash())
+                .changedAt(change.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 透明壓縮裝飾器
+ * 寫入時以 Deflate 壓縮可壓縮的內容，讀取時自動解壓縮
+ * 壓縮後的檔案路徑加上 z/ 前綴，已壓縮格式（依檔頭 magic bytes 判斷）則直接交給下層儲存
+ */
+@RequiredArgsConstructor
+public class CompressingFileStorageService implements FileStorageService {
+
+    /** 壓縮資料的路徑前綴 */
+    public static final String PATH_PREFIX = "z/";
+
+    private static final int HEADER_LENGTH = 16;
+
+    private final FileStorageService delegate;
+    private final FileStorageProperties.Compression compressionProperties;
+
+    @Override
+    public String store(InputStream inputStream, String originalFilename, long size, Long userId) throws IOException {
+        if (!compressionProperties.isEnabled()) {
+            return delegate.store(inputStream, originalFilename, size, userId);
+        }
+
+        byte[] header = inputStream.readNBytes(HEADER_LENGTH);
+        InputStream content = new SequenceInputStream(new ByteArrayInputStream(header), inputStream);
+        if (isAlreadyCompressed(header)) {
+            return delegate.store(content, originalFilename, size, userId);
+        }
+
+        // 小檔案在記憶體中壓縮，可確認壓縮效益並讓下層（如打包儲存）取得確切大小
+        if (size >= 0 && size <= compressionProperties.getInMemoryLimit().toBytes()) {
+            byte[] original = content.readAllBytes();
+            byte[] compressed = deflate(original);
+            if (compressed.length > original.length * (1 - compressionProperties.getMinSavingRatio())) {
+                return delegate.store(new ByteArrayInputStream(original), originalFilename, original.length, userId);
+            }
+            return PATH_PREFIX + delegate.store(new ByteArrayInputStream(compressed), originalFilename,
+                    compressed.length, userId);
+        }
+
+        // 大檔案以串流方式邊讀邊壓縮，不佔用額外記憶體
+        Deflater deflater = new Deflater(compressionProperties.getLevel());
+        try {
+            return PATH_PREFIX + delegate.store(new DeflaterInputStream(content, deflater), originalFilename, -1,
+                    userId);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public String store(Path source, String originalFilename, Long userId) throws IOException {
+        if (!compressionProperties.isEnabled()) {
+            return delegate.store(source, originalFilename, userId);
+        }
+        return FileStorageService.super.store(source, originalFilename, userId);
+    }
+
+    @Override
+    public Resource load(String filePath) throws IOException {
+        return load(filePath, -1);
+    }
+
+    @Override
+    public Resource load(String filePath, long size) throws IOException {
+        if (isCompressedPath(filePath)) {
+            // 下層儲存的是壓縮後的內容，原始大小對下層沒有意義
+            return new InflatingResource(delegate.load(stripPrefix(filePath)), size);
+        }
+        return delegate.load(filePath, size);
+    }
+
+    @Override
+    public void delete(String filePath) throws IOException {
+        delegate.delete(isCompressedPath(filePath) ? stripPrefix(filePath) : filePath);
+    }
+
+    @Override
+    public long getStoredSize(String filePath) throws IOException {
+        return delegate.getStoredSize(isCompressedPath(filePath) ? stripPrefix(filePath) : filePath);
+    }
+
+    /**
+     * 依檔頭 magic bytes 判斷內容是否已是壓縮格式
+     */
+    static boolean isAlreadyCompressed(byte[] header) {
+        return startsWith(header, 0, 0x1F, 0x8B) // gzip
+                || startsWith(header, 0, 0x50, 0x4B, 0x03, 0x04) // zip、docx、xlsx、jar
+                || startsWith(header, 0, 0x89, 0x50, 0x4E, 0x47) // png
+                || startsWith(header, 0, 0xFF, 0xD8, 0xFF) // jpeg
+                || startsWith(header, 0, 0x47, 0x49, 0x46, 0x38) // gif
+                || startsWith(header, 0, 0x25, 0x50, 0x44, 0x46) // pdf
+                || startsWith(header, 0, 0x37, 0x7A, 0xBC, 0xAF, 0x27, 0x1C) // 7z
+                || startsWith(header, 0, 0x52, 0x61, 0x72, 0x21, 0x1A, 0x07) // rar
+                || startsWith(header, 0, 0xFD, 0x37, 0x7A, 0x58, 0x5A, 0x00) // xz
+                || startsWith(header, 0, 0x42, 0x5A, 0x68) // bzip2
+                || startsWith(header, 0, 0x28, 0xB5, 0x2F, 0xFD) // zstd
+                || startsWith(header, 0, 0x04, 0x22, 0x4D, 0x18) // lz4
+                || startsWith(header, 0, 0x1A, 0x45, 0xDF, 0xA3) // mkv、webm
+                || startsWith(header, 0, 0x4F, 0x67, 0x67, 0x53) // ogg
+                || startsWith(header, 0, 0x66, 0x4C, 0x61, 0x43) // flac
+                || startsWith(header, 0, 0x49, 0x44, 0x33) // mp3 (ID3)
+                || startsWith(header, 4, 0x66, 0x74, 0x79, 0x70) // mp4、mov、heic (ftyp)
+                || (startsWith(header, 0, 0x52, 0x49, 0x46, 0x46) // webp (RIFF....WEBP)
+                        && startsWith(header, 8, 0x57, 0x45, 0x42, 0x50));
+    }
+
+    private static boolean startsWith(byte[] header, int offset, int... magic) {
+        if (header.length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] deflate(byte[] data) throws IOException {
+        Deflater deflater = new Deflater(compressionProperties.getLevel());
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+        try (DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(output, deflater)) {
+            deflaterOutput.write(data);
+        } finally {
+            deflater.end();
+        }
+        return output.toByteArray();
+    }
+
+    private static boolean isCompressedPath(String filePath) {
+        return filePath != null && filePath.startsWith(PATH_PREFIX);
+    }
+
+    private static String stripPrefix(String filePath) {
+        return filePath.substring(PATH_PREFIX.length());
+    }
+
+    /**
+     * 讀取時即時解壓縮的資源
+     * 已知原始大小時直接回報內容長度，Range 請求與頻寬限制不必先解壓縮整個內容計算長度
+     */
+    private static class InflatingResource extends AbstractResource {
+
+        private final Resource compressed;
+        private final long size;
+
+        InflatingResource(Resource compressed, long size) {
+            this.compressed = compressed;
+            this.size = size;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new InflaterInputStream(compressed.getInputStream());
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return size >= 0 ? size : super.contentLength();
+        }
+
+        @Override
+        public boolean exists() {
+            return compressed.exists();
+        }
+
+        @Override
+        public String getFilename() {
+            return compressed.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "inflating " + compressed.getDescription();
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.ContentSearchProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.entity.FileChange;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.repository.FileChangeRepository;
+import com.example.miniclouddrive.repository.FileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 檔案內容全文索引
+ * 每個節點定期讀取資料庫中的變更紀錄（所有節點寫入的異動），只把檔案 ID 放入有界佇列，
+ * 由背景執行緒依資料庫目前的狀態擷取文字並更新本地 Lucene 索引，上傳的寫入路徑不會因索引而變慢，
+ * 不論由哪個節點回應，搜尋結果都包含所有節點的異動；佇列已滿時捨棄該次更新並記錄於指標。
+ * 讀取到的位置（檢查點）隨索引一起寫入磁碟，重新啟動後從該處繼續；停機超過變更紀錄的保留期限時，期間的異動不會被索引。
+ * 同一檔案固定由同一執行緒處理，重複排入的檔案只處理一次。
+ * 刪除資料夾只記錄子樹根，被刪除的子孫項目在查詢時由資料庫確認並從索引移除；
+ * 還原資料夾同樣只記錄子樹根，子樹中的檔案由背景執行緒分批排入
+ */
+@Service
+@Slf4j
+public class ContentIndexService {
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_OWNER = "owner";
+    static final String FIELD_CONTENT = "content";
+
+    /** 索引提交資料中記錄變更紀錄檢查點的鍵 */
+    static final String CHECKPOINT_KEY = "change-checkpoint";
+
+    /** 還原資料夾時每批排入的檔案數 */
+    private static final int SUBTREE_BATCH_SIZE = 500;
+
+    /** 判斷為二進位內容時檢查的開頭位元組數 */
+    private static final int BINARY_SNIFF_BYTES = 8192;
+
+    private final FileRepository fileRepository;
+    private final FileChangeRepository fileChangeRepository;
+    private final FileStorageService fileStorageService;
+    private final ContentSearchProperties properties;
+    private final Set<String> extensions;
+    private final Counter droppedCounter;
+    private final Counter indexedCounter;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor[] workers;
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    /** 此 ID（含）以前的變更都已排入 */
+    private long checkpoint;
+    /** 檢查點之後已排入的變更 ID，重新讀取未推進的範圍時不重複排入 */
+    private final Set<Long> seenChanges = new HashSet<>();
+    /** 上次寫入磁碟時的檢查點，於下次寫入磁碟時才記錄，期間已排入的更新應已處理完 */
+    private long checkpointToCommit;
+
+    public ContentIndexService(FileRepository fileRepository, FileChangeRepository fileChangeRepository,
+            FileStorageService fileStorageService, ContentSearchProperties properties, MeterRegistry meterRegistry) {
+        this.fileRepository = fileRepository;
+        this.fileChangeRepository = fileChangeRepository;
+        this.fileStorageService = fileStorageService;
+        this.properties = properties;
+        this.extensions = properties.getExtensions().stream()
+                .map(extension -> extension.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        this.droppedCounter = meterRegistry.counter("file.content-index.dropped");
+        this.indexedCounter = meterRegistry.counter("file.content-index.indexed");
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        directory = FSDirectory.open(Path.of(properties.getIndexDir()));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        String committed = committedCheckpoint();
+        checkpoint = committed == null ? 0 : Long.parseLong(committed);
+        checkpointToCommit = checkpoint;
+
+        workers = new ThreadPoolExecutor[properties.getWorkerThreads()];
+        int perWorkerCapacity = Math.max(1, properties.getQueueCapacity() / workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            String name = "content-index-" + (i + 1);
+            workers[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(perWorkerCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * 讀取檢查點之後的變更紀錄並排入索引更新；只放入佇列，不在此讀取內容
+     * 寫入超過 catch-up-lag 的變更視為已提交，連續的已提交變更才推進檢查點；
+     * 佇列已有一半待處理時停止讀取，下次再從檢查點繼續
+     */
+    @Scheduled(fixedDelayString = "${content-search.catch-up-interval:PT2S}")
+    public synchronized void catchUp() {
+        if (writer == null) {
+            return;
+        }
+        LocalDateTime settledBefore = LocalDateTime.now().minus(properties.getCatchUpLag());
+        PageRequest batch = PageRequest.of(0, properties.getCatchUpBatchSize());
+        long afterId = checkpoint;
+        boolean settled = true;
+        List<FileChange> changes;
+        do {
+            changes = fileChangeRepository.findAfterId(afterId, batch);
+            for (FileChange change : changes) {
+                if (seenChanges.add(change.getId())) {
+                    apply(change);
+                }
+                settled = settled && change.getCreatedAt().isBefore(settledBefore);
+                if (settled) {
+                    checkpoint = change.getId();
+                }
+                afterId = change.getId();
+            }
+        } while (changes.size() == batch.getPageSize() && pending.size() < properties.getQueueCapacity() / 2);
+        seenChanges.removeIf(id -> id <= checkpoint);
+    }
+
+    private void apply(FileChange change) {
+        if (change.getType() == FileType.FILE) {
+            enqueue(change.getFileId());
+        } else if (change.getChangeType() == ChangeType.RESTORED) {
+            enqueueSubtree(change.getFileId(), 0L);
+        }
+    }
+
+    /**
+     * 搜尋使用者檔案內容，依相關性排序
+     *
+     * @param userId 使用者 ID
+     * @param query  關鍵字（多個關鍵字需全部出現）
+     * @param limit  回傳筆數（null 使用預設值）
+     * @return 依相關性排序的檔案
+     */
+    public List<FileEntity> search(Long userId, String query, Integer limit) {
+        if (writer == null) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "內容搜尋未啟用");
+        }
+        if (query == null || query.isBlank()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "搜尋關鍵字不能為空");
+        }
+        int size = limit == null ? properties.getDefaultLimit() : limit;
+        if (size < 1 || size > properties.getMaxLimit()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "limit 需介於 1 與 " + properties.getMaxLimit() + " 之間");
+        }
+
+        Query contentQuery = new QueryBuilder(analyzer).createBooleanQuery(FIELD_CONTENT, query,
+                BooleanClause.Occur.MUST);
+        if (contentQuery == null) {
+            // 關鍵字全為停用詞或標點
+            return List.of();
+        }
+        Query ownedQuery = new BooleanQuery.Builder()
+                .add(contentQuery, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(FIELD_OWNER, userId.toString())), BooleanClause.Occur.FILTER)
+                .build();
+
+        List<Long> ids = new ArrayList<>();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                for (ScoreDoc scoreDoc : searcher.search(ownedQuery, size).scoreDocs) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(scoreDoc.doc).get(FIELD_ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, FileEntity> found = fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(ids, userId).stream()
+                .collect(Collectors.toMap(FileEntity::getId, Function.identity()));
+        // 已不存在的項目（例如所在資料夾已刪除）排入更新，從索引移除
+        ids.stream().filter(id -> !found.containsKey(id)).forEach(this::enqueue);
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * 讓新寫入的索引可被查詢
+     */
+    @Scheduled(fixedDelayString = "${content-search.refresh-interval:PT1S}")
+    public void refresh() throws IOException {
+        if (searcherManager != null) {
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    /**
+     * 將索引寫入磁碟，並記錄上次寫入時的檢查點
+     * 檢查點落後一個寫入間隔，重新啟動時重新排入的變更可能已索引過，但不會遺漏已排入卻尚未處理的變更
+     */
+    @Scheduled(fixedDelayString = "${content-search.commit-interval:PT30S}")
+    public void commit() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        long committable;
+        synchronized (this) {
+            committable = checkpointToCommit;
+            checkpointToCommit = checkpoint;
+        }
+        if (!String.valueOf(committable).equals(committedCheckpoint())) {
+            writer.setLiveCommitData(Map.of(CHECKPOINT_KEY, String.valueOf(committable)).entrySet());
+        }
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    private String committedCheckpoint() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (CHECKPOINT_KEY.equals(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor worker : workers) {
+                worker.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 排入指定檔案的索引更新；已在佇列中的檔案不重複排入
+     */
+    void enqueue(Long fileId) {
+        if (!pending.add(fileId)) {
+            return;
+        }
+        ThreadPoolExecutor worker = workers[Math.floorMod(fileId.hashCode(), workers.length)];
+        try {
+            worker.execute(() -> {
+                pending.remove(fileId);
+                reindex(fileId);
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(fileId);
+            droppedCounter.increment();
+            log.warn("內容索引佇列已滿，略過: fileId={}", fileId);
+        }
+    }
+
+    /**
+     * 排入還原資料夾子樹中的下一批檔案
+     * 每批排入後，下一批排在同一執行緒的佇列尾端，前一批處理到此才繼續，大型子樹不會一次塞滿佇列
+     */
+    void enqueueSubtree(Long folderId, long afterId) {
+        ThreadPoolExecutor worker = workers[Math.floorMod(folderId.hashCode(), workers.length)];
+        try {
+            worker.execute(() -> enqueueSubtreeBatch(folderId, afterId));
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+            log.warn("內容索引佇列已滿，略過還原的資料夾: folderId={}, afterId={}", folderId, afterId);
+        }
+    }
+
+    void enqueueSubtreeBatch(Long folderId, long afterId) {
+        try {
+            FileEntity folder = fileRepository.findById(folderId).orElse(null);
+            if (folder == null || folder.getDeletedAt() != null) {
+                return;
+            }
+            List<Long> fileIds = fileRepository.findDescendantFileIdsAfter(folder.getOwnerId(),
+                    folder.getChildAncestorPath(), afterId, PageRequest.of(0, SUBTREE_BATCH_SIZE));
+            fileIds.forEach(this::enqueue);
+            if (fileIds.size() == SUBTREE_BATCH_SIZE) {
+                enqueueSubtree(folderId, fileIds.get(fileIds.size() - 1));
+            }
+        } catch (RuntimeException e) {
+            log.warn("排入還原資料夾的內容索引失敗: folderId={}", folderId, e);
+        }
+    }
+
+    /**
+     * 依資料庫目前的狀態更新索引：檔案存在且為文字類型時重新索引，否則從索引移除
+     */
+    void reindex(Long fileId) {
+        try {
+            FileEntity file = fileRepository.findById(fileId).orElse(null);
+            String text = file == null || file.getDeletedAt() != null || !isIndexable(file) ? null : extract(file);
+            Term idTerm = new Term(FIELD_ID, fileId.toString());
+            if (text == null) {
+                writer.deleteDocuments(idTerm);
+                return;
+            }
+            Document document = new Document();
+            document.add(new StringField(FIELD_ID, fileId.toString(), Field.Store.YES));
+            document.add(new StringField(FIELD_OWNER, file.getOwnerId().toString(), Field.Store.NO));
+            document.add(new TextField(FIELD_CONTENT, text, Field.Store.NO));
+            writer.updateDocument(idTerm, document);
+            indexedCounter.increment();
+        } catch (IOException | RuntimeException e) {
+            log.warn("更新內容索引失敗: fileId={}", fileId, e);
+        }
+    }
+
+    private boolean isIndexable(FileEntity file) {
+        if (file.getType() != FileType.FILE || file.getFilePath() == null) {
+            return false;
+        }
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            return false;
+        }
+        String extension = name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return extensions.contains(extension);
+    }
+
+    /**
+     * 以 UTF-8 讀取內容開頭（最多 maxExtractSize），無法解碼的位元組以替代字元取代；含 NUL 的內容視為二進位不索引
+     */
+    private String extract(FileEntity file) throws IOException {
+        Resource resource = fileStorageService.load(file.getFilePath(), file.getSize() == null ? -1 : file.getSize());
+        byte[] content;
+        try (InputStream inputStream = resource.getInputStream()) {
+            content = inputStream.readNBytes(Math.toIntExact(properties.getMaxExtractSize().toBytes()));
+        }
+        for (int i = 0; i < Math.min(content.length, BINARY_SNIFF_BYTES); i++) {
+            if (content[i] == 0) {
+                return null;
+            }
+        }
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return decoder.decode(ByteBuffer.wrap(content)).toString();
+    }
+}
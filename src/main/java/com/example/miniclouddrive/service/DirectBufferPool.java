@@ -0,0 +1,59 @@
+package com.example.miniclouddrive.service;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 直接緩衝區池
+ * 直接緩衝區配置成本高且不受 GC 即時回收，因此重複使用固定數量的緩衝區；
+ * 寫入 FileChannel 時使用直接緩衝區，可省去 JDK 內部再複製到暫時直接緩衝區的一次複製
+ */
+public class DirectBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final BlockingQueue<ByteBuffer> free;
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    /**
+     * @param bufferSize 單一緩衝區大小
+     * @param maxPooled  直接緩衝區數量上限
+     */
+    public DirectBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+        this.free = new ArrayBlockingQueue<>(Math.max(1, maxPooled));
+    }
+
+    /**
+     * 取得已清空的緩衝區；直接緩衝區已全數借出時回傳一般堆積緩衝區，不阻塞呼叫端
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocated.getAndIncrement() < maxPooled) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        allocated.decrementAndGet();
+        return ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * 歸還緩衝區，堆積緩衝區直接捨棄
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            buffer.clear();
+            free.offer(buffer);
+        }
+    }
+
+    /** 已配置的直接緩衝區數量 */
+    public int allocated() {
+        return Math.min(allocated.get(), maxPooled);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+
+import java.util.List;
+
+/**
+ * 檔案異動事件
+ * 由 {@link ChangeFeedService} 在寫入變更紀錄時發布，交易提交後推送給即時訂閱的客戶端
+ *
+ * @param userId  檔案擁有者 ID
+ * @param changes 同一次異動寫入的變更（依序號排序）
+ */
+public record FileChangeEvent(Long userId, List<FileChangeResponse> changes) {
+}
@@ -0,0 +1,32 @@
+package com.example.miniclouddrive.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 下載檔案所需的資訊，條件式請求只需此資訊即可判斷是否回傳 304，不必讀取內容
+ *
+ * @param fileId       檔案 ID
+ * @param fileName     檔案名稱
+ * @param size         檔案大小（原始大小）
+ * @param contentHash  內容的 SHA-256（十六進位），未計算時為 null
+ * @param lastModified 最後更新時間
+ * @param filePath     儲存路徑
+ */
+public record FileDownload(Long fileId, String fileName, long size, String contentHash, LocalDateTime lastModified,
+        String filePath) {
+
+    /**
+     * 最後更新時間（epoch 毫秒），資料庫時間以系統時區儲存
+     */
+    public long lastModifiedMillis() {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 是否為指定內容雜湊的版本
+     */
+    public boolean hasContentHash(String hash) {
+        return contentHash != null && contentHash.equalsIgnoreCase(hash);
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.miniclouddrive.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 單一使用者的檔名 trigram 倒排索引
+ * 名稱轉小寫後前置兩個起始標記再切成 trigram，每個 trigram 對應依文件編號排序的 posting list；
+ * 查詢取所有 trigram 的 posting 交集作為候選，再以實際字串比對確認並排序。
+ * 一至兩個字元的查詢以包含起始標記的 trigram 找出前綴項目，前綴項目不足筆數時才逐筆比對。
+ * 重新命名時舊文件標記刪除、新增一筆文件，刪除的文件過多時整體重建
+ */
+public class FileNameIndex {
+
+    /** 名稱起始標記，讓前綴查詢可使用包含起始標記的 trigram */
+    private static final char START = '\u0002';
+
+    /** 索引時前置於名稱的起始標記，單一字元的前綴也有對應的 trigram */
+    private static final String PREFIX = "" + START + START;
+
+    /** 少於此長度的查詢沒有不含起始標記的 trigram 可用 */
+    private static final int GRAM = 3;
+
+    /** 每筆文件的固定記憶體估計（ID、陣列參照、字串物件標頭、對照表項目） */
+    private static final int DOC_OVERHEAD_BYTES = 128;
+
+    /** 每個相異 trigram 的固定記憶體估計（對照表項目與 posting 物件） */
+    private static final int GRAM_OVERHEAD_BYTES = 80;
+
+    /** 排名：完全相同 < 前綴 < 單字開頭 < 其他子字串 */
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_WORD = 2;
+    private static final int RANK_SUBSTRING = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] fileIds = new long[16];
+    private String[] names = new String[16];
+    private int docCount;
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private final Map<Long, Integer> docByFileId = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private long estimatedBytes;
+
+    /**
+     * 查詢結果
+     *
+     * @param fileId 檔案 ID
+     * @param rank   排名類別（數字越小越相關）
+     */
+    public record Hit(long fileId, int rank) {
+    }
+
+    /**
+     * 新增或更新項目名稱；名稱未變更時不做任何事
+     */
+    public void upsert(long fileId, String name) {
+        String normalized = normalize(name);
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByFileId.get(fileId);
+            if (existing != null) {
+                if (names[existing].equals(normalized)) {
+                    return;
+                }
+                tombstone(existing);
+            }
+            addDocument(fileId, normalized);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long fileId) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByFileId.remove(fileId);
+            if (existing != null) {
+                tombstone(existing);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查詢名稱包含關鍵字的項目，依排名、名稱長度排序
+     *
+     * @param query 關鍵字（不分大小寫）
+     * @param limit 回傳筆數上限
+     */
+    public List<Hit> search(String query, int limit) {
+        String term = normalize(query);
+        if (term.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // 堆積頂端為目前最不相關的結果，超過筆數時移除
+        Comparator<int[]> relevance = Comparator.<int[]>comparingInt(entry -> entry[1])
+                .thenComparingInt(entry -> names[entry[0]].length())
+                .thenComparing(entry -> names[entry[0]]);
+        PriorityQueue<int[]> top = new PriorityQueue<>(relevance.reversed());
+
+        lock.readLock().lock();
+        try {
+            if (term.length() < GRAM) {
+                // 前綴項目的排名一定優先於其他位置，足夠筆數時不必逐筆比對
+                for (int doc : candidates(PREFIX + term)) {
+                    collect(doc, term, top, limit, relevance);
+                }
+                if (top.size() < limit) {
+                    top.clear();
+                    for (int doc = 0; doc < docCount; doc++) {
+                        collect(doc, term, top, limit, relevance);
+                    }
+                }
+            } else {
+                for (int doc : candidates(term)) {
+                    collect(doc, term, top, limit, relevance);
+                }
+            }
+
+            List<int[]> ranked = new ArrayList<>(top);
+            ranked.sort(relevance);
+            List<Hit> hits = new ArrayList<>(ranked.size());
+            for (int[] entry : ranked) {
+                hits.add(new Hit(fileIds[entry[0]], entry[1]));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByFileId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 估計的記憶體用量（bytes）
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(int doc, String term, PriorityQueue<int[]> top, int limit, Comparator<int[]> relevance) {
+        if (deleted.get(doc)) {
+            return;
+        }
+        int rank = rank(names[doc], term);
+        if (rank < 0) {
+            return;
+        }
+        int[] entry = { doc, rank };
+        if (top.size() < limit) {
+            top.offer(entry);
+        } else if (relevance.compare(entry, top.peek()) < 0) {
+            // 已有足夠結果時，只有比目前最不相關者更相關才放入
+            top.poll();
+            top.offer(entry);
+        }
+    }
+
+    /**
+     * 所有 trigram 的 posting 交集，從最短的 posting 開始
+     */
+    private int[] candidates(String term) {
+        long[] grams = grams(term);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        int[] result = Arrays.copyOf(lists[0].docs, lists[0].size);
+        int resultSize = result.length;
+        for (int i = 1; i < lists.length && resultSize > 0; i++) {
+            resultSize = intersect(result, resultSize, lists[i]);
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    /**
+     * 以二分搜尋將 result 與較長的 posting 取交集，結果寫回 result
+     */
+    private static int intersect(int[] result, int resultSize, Postings other) {
+        int size = 0;
+        int from = 0;
+        for (int i = 0; i < resultSize && from < other.size; i++) {
+            int found = Arrays.binarySearch(other.docs, from, other.size, result[i]);
+            if (found >= 0) {
+                result[size++] = result[i];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 名稱不包含關鍵字時回傳 -1
+     */
+    private static int rank(String name, String term) {
+        int index = name.indexOf(term);
+        if (index < 0) {
+            return -1;
+        }
+        if (index == 0) {
+            return name.length() == term.length() ? RANK_EXACT : RANK_PREFIX;
+        }
+        while (index > 0) {
+            if (!Character.isLetterOrDigit(name.charAt(index - 1))) {
+                return RANK_WORD;
+            }
+            index = name.indexOf(term, index + 1);
+        }
+        return RANK_SUBSTRING;
+    }
+
+    private void addDocument(long fileId, String name) {
+        if (docCount == fileIds.length) {
+            int capacity = fileIds.length * 2;
+            fileIds = Arrays.copyOf(fileIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        int doc = docCount++;
+        fileIds[doc] = fileId;
+        names[doc] = name;
+        docByFileId.put(fileId, doc);
+        estimatedBytes += DOC_OVERHEAD_BYTES + 2L * name.length();
+
+        for (long gram : grams(PREFIX + name)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                list = new Postings();
+                postings.put(gram, list);
+                estimatedBytes += GRAM_OVERHEAD_BYTES;
+            }
+            estimatedBytes += list.add(doc);
+        }
+    }
+
+    private void tombstone(int doc) {
+        deleted.set(doc);
+        deletedCount++;
+    }
+
+    /**
+     * 刪除的文件超過一半時，只以存活的文件重建
+     */
+    private void compactIfNeeded() {
+        if (deletedCount < 1024 || deletedCount * 2 < docCount) {
+            return;
+        }
+        long[] liveIds = new long[docCount - deletedCount];
+        String[] liveNames = new String[liveIds.length];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (!deleted.get(doc)) {
+                liveIds[live] = fileIds[doc];
+                liveNames[live++] = names[doc];
+            }
+        }
+
+        fileIds = new long[Math.max(16, live)];
+        names = new String[fileIds.length];
+        docCount = 0;
+        deleted.clear();
+        deletedCount = 0;
+        docByFileId.clear();
+        postings.clear();
+        estimatedBytes = 0;
+        for (int i = 0; i < live; i++) {
+            addDocument(liveIds[i], liveNames[i]);
+        }
+    }
+
+    /**
+     * 相異的 trigram，每個字元佔 16 bits 組成一個 long
+     */
+    private static long[] grams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 依文件編號遞增排序的 posting list（文件編號只會遞增配發）
+     */
+    private static final class Postings {
+
+        int[] docs = new int[4];
+        int size;
+
+        /**
+         * @return 新增的記憶體估計（bytes）
+         */
+        long add(int doc) {
+            long grown = 0;
+            if (size == docs.length) {
+                int capacity = docs.length + (docs.length >> 1);
+                grown = 4L * (capacity - docs.length);
+                docs = Arrays.copyOf(docs, capacity);
+            }
+            docs[size++] = doc;
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.SearchProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.repository.FileNameView;
+import com.example.miniclouddrive.repository.FileRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * 檔名搜尋服務
+ * 每位使用者的 {@link FileNameIndex} 在第一次搜尋時從資料庫建立，之後依交易提交後的檔案異動事件增量更新；
+ * 所有索引共用一個記憶體預算（見 {@link PerUserCache}），超過時釋放最久未搜尋的使用者索引，下次搜尋時重建。
+ * 索引停用或單一使用者的索引超過預算時，改以資料庫 LIKE 查詢，超過預算的使用者在一段時間後重新嘗試建立索引
+ */
+@Service
+public class FileSearchService {
+
+    private final FileRepository fileRepository;
+    private final SearchProperties searchProperties;
+
+    private final PerUserCache<FileNameIndex> indexes;
+
+    public FileSearchService(FileRepository fileRepository, SearchProperties searchProperties) {
+        this(fileRepository, searchProperties, System::nanoTime);
+    }
+
+    FileSearchService(FileRepository fileRepository, SearchProperties searchProperties, LongSupplier nanoClock) {
+        this.fileRepository = fileRepository;
+        this.searchProperties = searchProperties;
+        this.indexes = new PerUserCache<>("檔名索引", nanoClock) {
+            @Override
+            protected FileNameIndex create() {
+                return new FileNameIndex();
+            }
+
+            @Override
+            protected long loadAfter(Long userId, long afterId, FileNameIndex index) {
+                return loadNames(userId, afterId, index);
+            }
+
+            @Override
+            protected void apply(FileNameIndex index, FileChangeResponse change) {
+                if (change.getChangeType() == ChangeType.DELETED) {
+                    index.remove(change.getFileId());
+                } else {
+                    index.upsert(change.getFileId(), change.getName());
+                }
+            }
+
+            @Override
+            protected long estimatedBytes(FileNameIndex index) {
+                return index.estimatedBytes();
+            }
+
+            @Override
+            protected long maxBytes() {
+                return searchProperties.getMaxMemory().toBytes();
+            }
+
+            @Override
+            protected Duration oversizedRetry() {
+                return searchProperties.getOversizedRetry();
+            }
+        };
+    }
+
+    /**
+     * 搜尋名稱包含關鍵字的項目（不分大小寫），依相關性排序：
+     * 名稱完全相同、前綴相符、單字開頭相符、其他位置相符，同類別中名稱較短者優先
+     *
+     * @param userId 使用者 ID
+     * @param query  關鍵字
+     * @param limit  回傳筆數（null 使用預設值）
+     * @return 依相關性排序的項目
+     */
+    public List<FileEntity> search(Long userId, String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "搜尋關鍵字不能為空");
+        }
+        int size = limit == null ? searchProperties.getDefaultLimit() : limit;
+        if (size < 1 || size > searchProperties.getMaxLimit()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "limit 需介於 1 與 " + searchProperties.getMaxLimit() + " 之間");
+        }
+
+        FileNameIndex index = searchProperties.isIndexEnabled() ? indexes.get(userId) : null;
+        if (index == null) {
+            return searchDatabase(userId, query, size);
+        }
+
+        List<Long> ids = index.search(query, size).stream()
+                .map(FileNameIndex.Hit::fileId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // 以資料庫確認仍存在，並依索引的排名排序
+        Map<Long, FileEntity> found = fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(ids, userId).stream()
+                .collect(Collectors.toMap(FileEntity::getId, Function.identity()));
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * 交易提交後更新已載入的索引
+     * 刪除與還原資料夾只記錄子樹根，無法得知子孫項目，直接釋放該使用者的索引
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFileChange(FileChangeEvent event) {
+        if (!indexes.isLoaded(event.userId())) {
+            return;
+        }
+        boolean subtreeChanged = event.changes().stream()
+                .anyMatch(change -> (change.getChangeType() == ChangeType.DELETED
+                        || change.getChangeType() == ChangeType.RESTORED)
+                        && change.getType() == FileType.FOLDER);
+        if (subtreeChanged) {
+            indexes.invalidate(event.userId());
+            return;
+        }
+        indexes.apply(event.userId(), event.changes());
+    }
+
+    public int indexedUsers() {
+        return indexes.size();
+    }
+
+    /**
+     * 所有已建立索引的記憶體估計（bytes）
+     */
+    public long estimatedBytes() {
+        return indexes.estimatedBytes();
+    }
+
+    /**
+     * 讀取下一批名稱放入索引
+     *
+     * @return 這批最後一筆的 ID；沒有更多資料時回傳 -1
+     */
+    private long loadNames(Long userId, long afterId, FileNameIndex index) {
+        int batchSize = searchProperties.getBuildBatchSize();
+        List<FileNameView> rows = fileRepository.findNamesAfter(userId, afterId, PageRequest.of(0, batchSize));
+        for (FileNameView row : rows) {
+            index.upsert(row.getId(), row.getName());
+        }
+        return rows.size() < batchSize ? -1 : rows.get(rows.size() - 1).getId();
+    }
+
+    private List<FileEntity> searchDatabase(Long userId, String query, int limit) {
+        String escaped = query.strip().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return fileRepository.searchByName(userId, "%" + escaped + "%", PageRequest.of(0, limit));
+    }
+}
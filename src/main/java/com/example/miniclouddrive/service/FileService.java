@@ -1,26 +1,57 @@
 package com.example.miniclouddrive.service;
 
+import com.example.miniclouddrive.config.TrashProperties;
+import com.example.miniclouddrive.dto.request.CheckExistsRequest;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
 import com.example.miniclouddrive.dto.response.CreateFolderResponse;
+import com.example.miniclouddrive.dto.response.FileExistenceResponse;
 import com.example.miniclouddrive.dto.response.FileResponse;
 import com.example.miniclouddrive.dto.response.FileUploadResponse;
+import com.example.miniclouddrive.dto.response.JobResponse;
+import com.example.miniclouddrive.dto.response.StorageUsageResponse;
+import com.example.miniclouddrive.dto.response.TrashItemResponse;
 import com.example.miniclouddrive.entity.FileEntity;
 import com.example.miniclouddrive.entity.User;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.ExistenceStatus;
 import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.BusinessException;
 import com.example.miniclouddrive.exception.FileAlreadyExistsException;
 import com.example.miniclouddrive.exception.FileStorageException;
 import com.example.miniclouddrive.exception.InsufficientStorageException;
+import com.example.miniclouddrive.exception.InvalidFileException;
 import com.example.miniclouddrive.exception.InvalidFolderException;
 import com.example.miniclouddrive.repository.FileRepository;
+import com.example.miniclouddrive.repository.StoredFileView;
 import com.example.miniclouddrive.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * 檔案管理服務
@@ -35,6 +66,16 @@ public class FileService {
     private final FileRepository fileRepository;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final JobService jobService;
+    private final ChangeFeedService changeFeedService;
+    private final FileSearchService fileSearchService;
+    private final ContentIndexService contentIndexService;
+    private final FolderNamespaceService folderNamespaceService;
+    private final FolderRollupService folderRollupService;
+    private final TrashProperties trashProperties;
+
+    /** 背景刪除資料夾時每批軟刪除的項目數 */
+    private static final int DELETE_BATCH_SIZE = 500;
 
     /**
      * 上傳檔案
@@ -42,8 +83,7 @@ public class FileService {
     @Transactional
     public FileUploadResponse uploadFile(MultipartFile file, Long folderId, Integer duplicateAction, Long userId) {
         // ... (保持原樣)
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+        User user = findUserForUpload(userId, duplicateAction);
 
         checkStorageQuota(user, file.getSize());
 
@@ -53,11 +93,341 @@ public class FileService {
         Optional<FileEntity> existingFile = fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull(
                 originalFilename, parentFolder, userId);
 
+        FileUploadResponse response = existingFile.isPresent()
+                ? handleDuplicateFile(file, existingFile.get(), parentFolder, duplicateAction, userId)
+                : saveNewFile(file, parentFolder, userId);
+        bumpChildrenVersion(userId, parentFolder);
+        return response;
+    }
+
+    /**
+     * 上傳前檢查（尚未讀取上傳內容）
+     * 以客戶端宣告的大小與參數提早驗證配額、目標資料夾與同名衝突，檢查規則與 uploadFile 相同；
+     * 未提供的項目略過，讀取內容後 uploadFile 仍會再檢查一次
+     * 
+     * @param fileName        檔案名稱（null 表示未提供）
+     * @param folderId        目標資料夾 ID（null 表示根目錄）
+     * @param duplicateAction 重複檔案處理方式
+     * @param declaredSize    宣告的檔案大小（負數表示未提供）
+     * @param userId          當前使用者 ID
+     */
+    public void preflightUpload(String fileName, Long folderId, Integer duplicateAction, long declaredSize,
+            Long userId) {
+        if (declaredSize >= 0) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+            checkStorageQuota(user, declaredSize);
+        }
+
+        FileEntity parentFolder = validateAndGetFolder(folderId, userId);
+
+        if (fileName != null && duplicateAction == null) {
+            fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull(fileName, parentFolder, userId)
+                    .ifPresent(existing -> {
+                        throw new FileAlreadyExistsException(
+                                existing.getId(),
+                                existing.getName(),
+                                existing.getCreatedAt());
+                    });
+        }
+    }
+
+    /**
+     * 規劃批次上傳（尚未寫入任何內容）
+     * 同名項目以單一查詢取得，依 duplicateAction 決定每個檔案要新增、覆蓋、加後綴或標記失敗；
+     * 整批的總大小只做一次配額檢查，超過配額時整批拒絕
+     * 
+     * @param files           上傳的檔案
+     * @param folderId        目標資料夾 ID（null 表示根目錄）
+     * @param duplicateAction 重複檔案處理方式：null=該檔案失敗, 0=覆蓋, 1=自動加後綴
+     * @param userId          當前使用者 ID
+     * @return 與 files 順序相同的上傳項目
+     */
+    public List<BatchUploadItem> planBatchUpload(List<MultipartFile> files, Long folderId, Integer duplicateAction,
+            Long userId) {
+        if (duplicateAction != null && duplicateAction != 0 && duplicateAction != 1) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "無效的 duplicateAction 值: " + duplicateAction);
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+        FileEntity parentFolder = validateAndGetFolder(folderId, userId);
+
+        List<BatchUploadItem> items = new ArrayList<>(files.size());
+        Set<String> names = new LinkedHashSet<>();
+        for (MultipartFile file : files) {
+            BatchUploadItem item = new BatchUploadItem(file);
+            String name = item.getOriginalName();
+            if (name == null || name.isBlank()) {
+                item.fail(ApiReturnCode.INVALID_PARAM, "檔案名稱不能為空");
+            } else {
+                names.add(name);
+            }
+            items.add(item);
+        }
+
+        Map<String, FileEntity> existingByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (!names.isEmpty()) {
+            for (FileEntity existing : fileRepository.findByParentAndNameIn(parentFolder, userId, names)) {
+                existingByName.putIfAbsent(existing.getName(), existing);
+            }
+        }
+
+        // 已被本批次前面項目使用的名稱
+        Set<String> reservedNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        long totalSize = 0;
+        for (BatchUploadItem item : items) {
+            if (item.isFailed()) {
+                continue;
+            }
+            String name = item.getOriginalName();
+            FileEntity existing = existingByName.get(name);
+            boolean reserved = reservedNames.contains(name);
+
+            if (existing == null && !reserved) {
+                item.plan(name, null);
+            } else if (duplicateAction == null) {
+                item.fail(ApiReturnCode.FILE_ALREADY_EXISTS, "檔案已存在: " + name);
+            } else if (duplicateAction == 1) {
+                item.plan(generateUniqueFilename(name, parentFolder, userId, reservedNames), null);
+            } else if (!reserved && existing.getType() == FileType.FILE) {
+                item.plan(name, existing);
+            } else {
+                item.fail(ApiReturnCode.FILE_ALREADY_EXISTS, "無法覆蓋: " + name);
+            }
+
+            if (!item.isFailed()) {
+                reservedNames.add(item.getTargetName());
+                totalSize += item.getFile().getSize();
+            }
+        }
+
+        checkStorageQuota(user, totalSize);
+        return items;
+    }
+
+    /**
+     * 寫入批次上傳的資料庫記錄
+     * 先鎖定使用者列再重新檢查配額，同一使用者同時進行的批次上傳在此序列化，不會一起超出配額；
+     * 規劃階段載入的覆蓋目標已脫離交易，在此重新載入，規劃後已被刪除、重新命名、搬移或覆蓋的目標改為失敗，
+     * 不會以舊狀態寫回；所有記錄在同一交易中寫入
+     * 
+     * @param items    已寫入儲存層的上傳項目（失敗的項目會略過）
+     * @param folderId 目標資料夾 ID（null 表示根目錄）
+     * @param userId   當前使用者 ID
+     */
+    @Transactional
+    public void saveBatchUpload(List<BatchUploadItem> items, Long folderId, Long userId) {
+        User user = userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+        FileEntity parentFolder = validateAndGetFolder(folderId, userId);
+        reloadOverwriteTargets(items, parentFolder, userId);
+
+        List<BatchUploadItem> storedItems = items.stream()
+                .filter(item -> !item.isFailed())
+                .toList();
+        checkStorageQuota(user, storedItems.stream().mapToLong(item -> item.getFile().getSize()).sum());
+
+        List<FileEntity> entities = new ArrayList<>(storedItems.size());
+        for (BatchUploadItem item : storedItems) {
+            StoredContent stored = item.getStored();
+            FileEntity entity = item.getExisting();
+            if (entity == null) {
+                entity = FileEntity.builder()
+                        .name(item.getTargetName())
+                        .type(FileType.FILE)
+                        .parent(parentFolder)
+                        .ownerId(userId)
+                        .build();
+            } else {
+                folderRollupService.add(userId, entity.getAncestorPath(),
+                        item.getFile().getSize() - entity.getSize(), 0);
+            }
+            entity.setSize(item.getFile().getSize());
+            entity.setStoredSize(stored.storedSize());
+            entity.setFilePath(stored.filePath());
+            entity.setContentHash(stored.contentHash());
+            entities.add(entity);
+        }
+
+        List<FileEntity> saved = fileRepository.saveAll(entities);
+        List<FileEntity> created = new ArrayList<>();
+        List<FileEntity> overwritten = new ArrayList<>();
+        for (int i = 0; i < storedItems.size(); i++) {
+            storedItems.get(i).saved(saved.get(i));
+            (storedItems.get(i).getExisting() == null ? created : overwritten).add(saved.get(i));
+            releaseAfterCommit(storedItems.get(i).getReplacedFilePath());
+        }
+        created.forEach(file -> folderRollupService.itemAdded(userId, file));
+        if (!saved.isEmpty()) {
+            changeFeedService.record(userId, ChangeType.CREATED, created);
+            changeFeedService.record(userId, ChangeType.UPDATED, overwritten);
+            bumpChildrenVersion(userId, parentFolder);
+        }
+        log.info("批次上傳完成: userId={}, folderId={}, saved={}, failed={}",
+                userId, folderId, saved.size(), items.size() - saved.size());
+    }
+
+    /**
+     * 在寫入交易中重新載入批次上傳的覆蓋目標，並確認仍是規劃時的同一個檔案與內容
+     */
+    private void reloadOverwriteTargets(List<BatchUploadItem> items, FileEntity parentFolder, Long userId) {
+        Set<Long> targetIds = new HashSet<>();
+        for (BatchUploadItem item : items) {
+            if (!item.isFailed() && item.getExisting() != null) {
+                targetIds.add(item.getExisting().getId());
+            }
+        }
+        if (targetIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, FileEntity> current = new HashMap<>();
+        fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(targetIds, userId)
+                .forEach(file -> current.put(file.getId(), file));
+        String expectedAncestorPath = parentFolder == null ? FileEntity.ROOT_PATH : parentFolder.getChildAncestorPath();
+        for (BatchUploadItem item : items) {
+            if (item.isFailed() || item.getExisting() == null) {
+                continue;
+            }
+            FileEntity planned = item.getExisting();
+            FileEntity target = current.get(planned.getId());
+            if (target == null
+                    || !target.getName().equals(planned.getName())
+                    || !target.getAncestorPath().equals(expectedAncestorPath)
+                    || !Objects.equals(target.getFilePath(), item.getReplacedFilePath())) {
+                item.fail(ApiReturnCode.FILE_ALREADY_EXISTS, "覆蓋目標已變更，請重新上傳: " + item.getTargetName());
+            } else {
+                item.plan(item.getTargetName(), target);
+            }
+        }
+    }
+
+    /**
+     * 為已寫入儲存層的內容建立檔案記錄（例如分段上傳組合完成的檔案）
+     * 配額、目標資料夾與同名處理規則與 uploadFile 相同
+     * 
+     * @param fileName        檔案名稱
+     * @param folderId        目標資料夾 ID（null 表示根目錄）
+     * @param duplicateAction 重複檔案處理方式：null=拒絕, 0=覆蓋, 1=自動加後綴
+     * @param size            檔案大小
+     * @param stored          已寫入儲存層的內容
+     * @param userId          當前使用者 ID
+     * @return 上傳結果
+     */
+    @Transactional
+    public FileUploadResponse registerStoredFile(String fileName, Long folderId, Integer duplicateAction, long size,
+            StoredContent stored, Long userId) {
+        User user = findUserForUpload(userId, duplicateAction);
+        checkStorageQuota(user, size);
+
+        FileEntity parentFolder = validateAndGetFolder(folderId, userId);
+        Optional<FileEntity> existingFile = fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull(
+                fileName, parentFolder, userId);
+
+        FileEntity fileEntity = null;
+        String name = fileName;
+        String replacedFilePath = null;
         if (existingFile.isPresent()) {
-            return handleDuplicateFile(file, existingFile.get(), parentFolder, duplicateAction, userId);
+            FileEntity existing = existingFile.get();
+            if (duplicateAction == null) {
+                throw new FileAlreadyExistsException(existing.getId(), existing.getName(), existing.getCreatedAt());
+            } else if (duplicateAction == 0) {
+                fileEntity = existing;
+                replacedFilePath = existing.getFilePath();
+            } else if (duplicateAction == 1) {
+                name = generateUniqueFilename(fileName, parentFolder, userId);
+            } else {
+                throw new IllegalArgumentException("無效的 duplicateAction 值: " + duplicateAction);
+            }
         }
 
-        return saveNewFile(file, parentFolder, userId);
+        if (fileEntity == null) {
+            fileEntity = FileEntity.builder()
+                    .name(name)
+                    .type(FileType.FILE)
+                    .parent(parentFolder)
+                    .ownerId(userId)
+                    .build();
+        } else {
+            folderRollupService.add(userId, fileEntity.getAncestorPath(), size - fileEntity.getSize(), 0);
+        }
+        fileEntity.setSize(size);
+        fileEntity.setStoredSize(stored.storedSize());
+        fileEntity.setFilePath(stored.filePath());
+        fileEntity.setContentHash(stored.contentHash());
+        ChangeType changeType = fileEntity.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+        FileEntity savedFile = fileRepository.save(fileEntity);
+        if (changeType == ChangeType.CREATED) {
+            folderRollupService.itemAdded(userId, savedFile);
+        }
+        changeFeedService.record(userId, changeType, savedFile);
+        bumpChildrenVersion(userId, parentFolder);
+        releaseAfterCommit(replacedFilePath);
+
+        log.info("檔案上傳成功: userId={}, fileId={}, fileName={}", userId, savedFile.getId(), savedFile.getName());
+        return buildResponse(savedFile);
+    }
+
+    /**
+     * 批次檢查檔案是否已存在
+     * 以單一查詢取得目標資料夾中所有同名項目，逐一判斷為不存在、內容相同或衝突，
+     * 讓同步客戶端在上傳前一次取得所有衝突，不必逐一上傳後收到 409
+     * 
+     * @param folderId 目標資料夾 ID（null 表示根目錄）
+     * @param items    待檢查的檔案（名稱，以及選填的大小與 SHA-256）
+     * @param userId   當前使用者 ID
+     * @return 與 items 順序相同的檢查結果
+     */
+    public List<FileExistenceResponse> checkExists(Long folderId, List<CheckExistsRequest.Item> items,
+            Long userId) {
+        FileEntity parentFolder = validateAndGetFolder(folderId, userId);
+
+        Set<String> names = new LinkedHashSet<>();
+        for (CheckExistsRequest.Item item : items) {
+            names.add(item.getName());
+        }
+
+        // 名稱比對由資料庫定序決定（預設不分大小寫），查詢結果以同樣方式對應回請求項目
+        Map<String, FileEntity> existingByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (FileEntity existing : fileRepository.findByParentAndNameIn(parentFolder, userId, names)) {
+            existingByName.putIfAbsent(existing.getName(), existing);
+        }
+
+        List<FileExistenceResponse> results = new ArrayList<>(items.size());
+        for (CheckExistsRequest.Item item : items) {
+            FileEntity existing = existingByName.get(item.getName());
+            if (existing == null) {
+                results.add(FileExistenceResponse.builder()
+                        .name(item.getName())
+                        .status(ExistenceStatus.NEW)
+                        .build());
+                continue;
+            }
+            results.add(FileExistenceResponse.builder()
+                    .name(item.getName())
+                    .status(isIdentical(item, existing) ? ExistenceStatus.IDENTICAL : ExistenceStatus.CONFLICT)
+                    .existingFileId(existing.getId())
+                    .existingFileName(existing.getName())
+                    .uploadTime(existing.getCreatedAt())
+                    .existingSize(existing.getSize())
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * 既有檔案與待檢查檔案是否內容相同：需提供 SHA-256 且與既有檔案一致，有提供大小時大小也須一致
+     */
+    private boolean isIdentical(CheckExistsRequest.Item item, FileEntity existing) {
+        if (existing.getType() != FileType.FILE || item.getSha256() == null || existing.getContentHash() == null) {
+            return false;
+        }
+        if (item.getSize() != null && !item.getSize().equals(existing.getSize())) {
+            return false;
+        }
+        return item.getSha256().equalsIgnoreCase(existing.getContentHash());
     }
 
     // ... (其他的依舊) ...
@@ -97,6 +467,8 @@ public class FileService {
         // 4. 更新資料夾名稱
         folder.setName(newName);
         fileRepository.save(folder);
+        changeFeedService.record(userId, ChangeType.RENAMED, folder);
+        bumpChildrenVersion(userId, folder.getParent());
 
         log.info("資料夾重新命名成功: userId={}, folderId={}, oldName={}, newName={}",
                 userId, folder.getId(), oldName, newName);
@@ -136,6 +508,9 @@ public class FileService {
                 .build();
 
         FileEntity savedFolder = fileRepository.save(folder);
+        folderRollupService.itemAdded(userId, savedFolder);
+        changeFeedService.record(userId, ChangeType.CREATED, savedFolder);
+        bumpChildrenVersion(userId, parentFolder);
         log.info("資料夾建立成功: userId={}, folderId={}, folderName={}", userId, savedFolder.getId(), savedFolder.getName());
 
         return CreateFolderResponse.builder()
@@ -146,23 +521,459 @@ public class FileService {
     }
 
     /**
-     * 刪除資料夾（軟刪除）
-     * 遞迴刪除資料夾及其所有子項目
+     * 申請刪除資料夾
+     * 驗證資料夾後建立背景工作，實際刪除由 worker 執行 {@link #deleteFolder(Long, Long, JobProgress)}
      * 
      * @param folderId 資料夾 ID
      * @param userId   當前使用者 ID
+     * @return 背景工作狀態
      */
     @Transactional
-    public void deleteFolder(Long folderId, Long userId) {
+    public JobResponse requestFolderDelete(Long folderId, Long userId) {
+        FileEntity folder = fileRepository
+                .findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(folderId, userId, FileType.FOLDER)
+                .orElseThrow(() -> new InvalidFolderException(folderId));
+
+        return jobService.enqueue(JobType.FOLDER_DELETE, userId, folder.getId());
+    }
+
+    /**
+     * 刪除資料夾（軟刪除）
+     * 依祖先路徑分批軟刪除子樹，每批獨立提交，最後才刪除資料夾本身；
+     * 中斷後重新執行只會處理尚未刪除的項目
+     * 
+     * @param folderId 資料夾 ID
+     * @param userId   當前使用者 ID
+     * @param progress 進度回報
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deleteFolder(Long folderId, Long userId, JobProgress progress) {
         // 1. 查詢資料夾並驗證權限
         FileEntity folder = fileRepository
                 .findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(folderId, userId, FileType.FOLDER)
                 .orElseThrow(() -> new InvalidFolderException(folderId));
 
-        // 2. 遞迴刪除所有子項目
-        deleteRecursively(folder);
+        // 2. 分批軟刪除所有子孫項目
+        String prefix = folder.getChildAncestorPath();
+        long total = fileRepository.countDescendants(userId, prefix) + 1;
+        long processed = 0;
+        progress.update(processed, total);
+
+        List<Long> batch;
+        while (!(batch = fileRepository.findDescendantIds(userId, prefix, PageRequest.of(0, DELETE_BATCH_SIZE)))
+                .isEmpty()) {
+            processed += fileRepository.softDeleteByIds(batch, LocalDateTime.now(), folder.getId());
+            progress.update(processed, total);
+        }
+
+        // 3. 軟刪除資料夾本身（實體檔案保留以便未來恢復）
+        //    各步驟獨立提交，先寫入變更紀錄：中斷後重新執行最多重複記錄一次刪除，不會遺漏
+        changeFeedService.record(userId, ChangeType.DELETED, folder);
+        folder.setDeletedAt(LocalDateTime.now());
+        folder.setTrashRootId(folder.getId());
+        fileRepository.save(folder);
+        // 重新讀取子樹統計，包含刪除期間仍寫入子樹的異動
+        folderRollupService.itemRemoved(userId, fileRepository.findById(folder.getId()).orElse(folder));
+        bumpChildrenVersion(userId, folder.getParent());
+        progress.update(total, total);
+
+        log.info("資料夾刪除成功: userId={}, folderId={}, folderName={}, items={}",
+                userId, folder.getId(), folder.getName(), total);
+    }
 
-        log.info("資料夾刪除成功: userId={}, folderId={}, folderName={}", userId, folder.getId(), folder.getName());
+    /**
+     * 查詢回收筒列表
+     * 只列出被刪除的子樹根，子孫項目隨子樹根一起還原或永久刪除
+     * 
+     * @param userId 當前使用者 ID
+     * @param page   分頁頁碼
+     * @param size   每頁筆數
+     * @return 回收筒項目分頁，最近刪除的排在前面
+     */
+    public Page<TrashItemResponse> getTrash(Long userId, int page, int size) {
+        return fileRepository.findTrash(userId, PageRequest.of(page, size))
+                .map(this::buildTrashItemResponse);
+    }
+
+    /**
+     * 從回收筒還原
+     * 同一次刪除的整個子樹以單一 UPDATE 還原，不需逐層走訪；原資料夾已不存在時還原到根目錄，
+     * 子樹的祖先路徑同樣以單一 UPDATE 改寫。同名衝突依目標資料夾各以一次查詢檢查，衝突時自動加後綴。
+     * 已申請永久刪除的項目可能已刪除部分子樹，拒絕還原；檢查時鎖定使用者列，與永久刪除的申請序列化
+     * 
+     * @param ids    回收筒項目 ID
+     * @param userId 當前使用者 ID
+     * @return 還原後的項目
+     */
+    @Transactional
+    public List<FileResponse> restoreTrash(List<Long> ids, Long userId) {
+        // 1. 驗證回收筒項目，並確認沒有未完成的永久刪除工作
+        User user = userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+        List<FileEntity> roots = findTrashRoots(ids, userId);
+        Set<Long> restoring = new HashSet<>();
+        roots.forEach(root -> restoring.add(root.getId()));
+        Set<Long> purging = jobService.findUnfinishedTargets(JobType.TRASH_PURGE, restoring);
+        if (!purging.isEmpty()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "項目正在永久刪除中，無法還原: " + purging.iterator().next());
+        }
+
+        // 2. 檢查配額（回收筒中的項目不計入已使用空間）
+        long totalSize = 0;
+        for (FileEntity root : roots) {
+            totalSize += root.getSize() + root.getTreeSize();
+        }
+        checkStorageQuota(user, totalSize);
+
+        // 3. 原資料夾仍存在（或在同一次還原中）時還原到原處，否則連同子樹改掛到根目錄
+        Set<Long> parentIds = new HashSet<>();
+        roots.stream()
+                .filter(root -> root.getParent() != null)
+                .forEach(root -> parentIds.add(root.getParent().getId()));
+        Set<Long> activeParentIds = new HashSet<>(restoring);
+        if (!parentIds.isEmpty()) {
+            fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(parentIds, userId)
+                    .forEach(parent -> activeParentIds.add(parent.getId()));
+        }
+        for (FileEntity root : roots) {
+            if (root.getParent() == null || activeParentIds.contains(root.getParent().getId())) {
+                continue;
+            }
+            String oldPrefix = root.getChildAncestorPath();
+            String newPrefix = FileEntity.ROOT_PATH + root.getId() + "/";
+            if (root.getType() == FileType.FOLDER) {
+                fileRepository.rewriteAncestorPaths(userId, oldPrefix, newPrefix);
+                // 同一次還原中位於此子樹內的其他項目，同步改寫已載入實體的祖先路徑
+                roots.stream()
+                        .filter(other -> other.getAncestorPath().startsWith(oldPrefix))
+                        .forEach(other -> other.setAncestorPath(
+                                newPrefix + other.getAncestorPath().substring(oldPrefix.length())));
+            }
+            root.setParent(null);
+            root.setAncestorPath(FileEntity.ROOT_PATH);
+        }
+
+        // 4. 依目標資料夾一次查詢同名項目；父資料夾在同一次還原中的項目不會與其他項目衝突
+        Map<Long, List<FileEntity>> byTarget = new LinkedHashMap<>();
+        List<FileEntity> targets = new ArrayList<>();
+        for (FileEntity root : roots) {
+            Long targetId = root.getParent() == null ? null : root.getParent().getId();
+            if (!byTarget.containsKey(targetId)) {
+                targets.add(root.getParent());
+            }
+            byTarget.computeIfAbsent(targetId, key -> new ArrayList<>()).add(root);
+        }
+        for (FileEntity target : targets) {
+            if (target != null && restoring.contains(target.getId())) {
+                continue;
+            }
+            List<FileEntity> items = byTarget.get(target == null ? null : target.getId());
+            Set<String> names = new HashSet<>();
+            items.forEach(item -> names.add(item.getName()));
+            // 與資料庫定序一致，只差大小寫的名稱同樣視為衝突
+            Set<String> occupied = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            fileRepository.findByParentAndNameIn(target, userId, names)
+                    .forEach(existing -> occupied.add(existing.getName()));
+            for (FileEntity item : items) {
+                if (occupied.contains(item.getName())) {
+                    item.setName(generateUniqueFilename(item.getName(), target, userId, occupied));
+                }
+                occupied.add(item.getName());
+            }
+        }
+
+        // 5. 以單一 UPDATE 還原所有子樹，再寫回子樹根的名稱與位置
+        fileRepository.restoreTrash(userId, restoring);
+        for (FileEntity root : roots) {
+            root.setDeletedAt(null);
+            root.setTrashRootId(null);
+        }
+        fileRepository.saveAll(roots);
+        roots.forEach(root -> folderRollupService.itemAdded(userId, root));
+        changeFeedService.record(userId, ChangeType.RESTORED, roots);
+        bumpChildrenVersion(userId, targets);
+
+        log.info("還原成功: userId={}, ids={}", userId, restoring);
+
+        return roots.stream()
+                .map(this::buildFileResponse)
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * 申請永久刪除回收筒項目
+     * 每個項目建立一個背景工作，實際刪除由 worker 執行 {@link #purgeTrash(Long, Long, JobProgress)}；
+     * 鎖定使用者列，與還原序列化（見 restoreTrash）
+     * 
+     * @param ids    回收筒項目 ID
+     * @param userId 當前使用者 ID
+     * @return 各項目的背景工作狀態
+     */
+    @Transactional
+    public List<JobResponse> requestTrashPurge(List<Long> ids, Long userId) {
+        userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+        return findTrashRoots(ids, userId).stream()
+                .map(root -> jobService.enqueue(JobType.TRASH_PURGE, userId, root.getId()))
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * 永久刪除回收筒項目
+     * 由最深的項目開始分批刪除資料庫記錄，每批獨立提交並在批次間暫停，避免大量刪除佔滿資料庫與儲存層；
+     * 不再被任何記錄引用的實體檔案隨之刪除。最後才刪除子樹根本身，中斷後重新執行只會處理剩餘的項目
+     * 
+     * @param rootId   回收筒項目 ID
+     * @param userId   使用者 ID
+     * @param progress 進度回報
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void purgeTrash(Long rootId, Long userId, JobProgress progress) {
+        FileEntity root = fileRepository.findTrashRoots(List.of(rootId), userId).stream()
+                .findFirst()
+                .orElseThrow(() -> new InvalidFileException(rootId));
+
+        String prefix = root.getChildAncestorPath();
+        long total = fileRepository.countDeletedDescendants(userId, prefix) + 1;
+        long processed = 0;
+        progress.update(processed, total);
+
+        PageRequest batchRequest = PageRequest.of(0, trashProperties.getPurgeBatchSize());
+        List<StoredFileView> batch;
+        while (!(batch = fileRepository.findDeletedDescendants(userId, prefix, batchRequest)).isEmpty()) {
+            List<Long> ids = new ArrayList<>();
+            Set<String> filePaths = new HashSet<>();
+            for (StoredFileView item : batch) {
+                ids.add(item.getId());
+                if (item.getFilePath() != null) {
+                    filePaths.add(item.getFilePath());
+                }
+            }
+            // 同一批中的父子項目先解除參照，再以單一 DELETE 刪除
+            fileRepository.detachParents(ids);
+            processed += fileRepository.purgeByIds(ids);
+            releaseUnreferenced(filePaths);
+            progress.update(processed, total);
+            pauseBetweenBatches();
+        }
+
+        // 變更紀錄已在移入回收筒時寫入，永久刪除不再記錄
+        fileRepository.purgeByIds(List.of(root.getId()));
+        if (root.getFilePath() != null) {
+            releaseUnreferenced(Set.of(root.getFilePath()));
+        }
+        progress.update(total, total);
+
+        log.info("永久刪除成功: userId={}, fileId={}, fileName={}, items={}",
+                userId, root.getId(), root.getName(), total);
+    }
+
+    /**
+     * 查詢使用者的多個回收筒項目，任一項目不存在即拋出例外
+     */
+    private List<FileEntity> findTrashRoots(List<Long> ids, Long userId) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        List<FileEntity> roots = fileRepository.findTrashRoots(distinctIds, userId);
+        if (roots.size() != distinctIds.size()) {
+            roots.forEach(root -> distinctIds.remove(root.getId()));
+            throw new InvalidFileException(distinctIds.iterator().next());
+        }
+        return roots;
+    }
+
+    /**
+     * 刪除不再被任何記錄（含回收筒中的記錄）引用的實體檔案
+     */
+    private void releaseUnreferenced(Set<String> filePaths) {
+        if (filePaths.isEmpty()) {
+            return;
+        }
+        Set<String> unreferenced = new HashSet<>(filePaths);
+        fileRepository.findReferencedFilePaths(filePaths).forEach(unreferenced::remove);
+        for (String filePath : unreferenced) {
+            try {
+                fileStorageService.delete(filePath);
+            } catch (IOException e) {
+                log.warn("刪除實體檔案失敗: {}", filePath, e);
+            }
+        }
+    }
+
+    private void pauseBetweenBatches() {
+        long delay = trashProperties.getPurgeBatchDelay().toMillis();
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("永久刪除已中斷", e);
+        }
+    }
+
+    /**
+     * 複製檔案/資料夾
+     * 只複製資料庫記錄，新記錄與來源共用同一份實體檔案，不重新寫入任何內容；
+     * 日後任一方被覆蓋時才會寫入新的實體檔案（見 replaceExistingFile）
+     * 
+     * @param ids             要複製的檔案/資料夾 ID
+     * @param targetFolderId  目標資料夾 ID（null 表示根目錄）
+     * @param duplicateAction 同名處理方式：null=拒絕複製, 1=自動加後綴
+     * @param userId          當前使用者 ID
+     * @return 複製後的最上層項目
+     */
+    @Transactional
+    public List<FileResponse> copyFiles(List<Long> ids, Long targetFolderId, Integer duplicateAction, Long userId) {
+        if (duplicateAction != null && duplicateAction != 1) {
+            throw new IllegalArgumentException("無效的 duplicateAction 值: " + duplicateAction);
+        }
+
+        // 1. 驗證目標資料夾與來源項目
+        FileEntity targetFolder = validateAndGetFolder(targetFolderId, userId);
+        List<FileEntity> sources = findOwnedItems(ids, userId);
+
+        // 2. 資料夾不可複製到自身或其子資料夾
+        checkNotIntoOwnSubtree(sources, targetFolder, "無法將資料夾複製到自身或其子資料夾中");
+
+        // 3. 以祖先路徑一次載入每個資料夾的完整子樹，並檢查配額
+        List<FileEntity> descendants = new ArrayList<>();
+        long totalSize = 0;
+        for (FileEntity source : sources) {
+            totalSize += source.getSize();
+            if (source.getType() == FileType.FOLDER) {
+                descendants.addAll(fileRepository.findDescendants(userId, source.getChildAncestorPath()));
+            }
+        }
+        for (FileEntity descendant : descendants) {
+            totalSize += descendant.getSize();
+        }
+        // 鎖定使用者列，與覆蓋序列化：覆蓋在提交後檢查舊內容的引用數時，不會漏算尚未提交的副本
+        User user = userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+        checkStorageQuota(user, totalSize);
+
+        // 4. 建立最上層項目的副本，處理同名衝突
+        Map<Long, FileEntity> copies = new HashMap<>();
+        List<FileEntity> topLevelCopies = new ArrayList<>();
+        for (FileEntity source : sources) {
+            String name = source.getName();
+            Optional<FileEntity> existing = fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull(
+                    name, targetFolder, userId);
+            if (existing.isPresent()) {
+                if (duplicateAction == null) {
+                    throw new FileAlreadyExistsException(
+                            existing.get().getId(),
+                            existing.get().getName(),
+                            existing.get().getCreatedAt());
+                }
+                name = generateUniqueFilename(name, targetFolder, userId);
+            }
+            FileEntity copy = fileRepository.save(copyOf(source, name, targetFolder));
+            copies.put(source.getId(), copy);
+            topLevelCopies.add(copy);
+        }
+
+        // 5. 複製子孫項目；依深度排序，父資料夾的副本必定先於子項目寫入
+        List<FileEntity> descendantCopies = new ArrayList<>();
+        for (FileEntity source : descendants) {
+            FileEntity copy = copyOf(source, source.getName(), copies.get(source.getParent().getId()));
+            copies.put(source.getId(), copy);
+            descendantCopies.add(copy);
+        }
+        fileRepository.saveAll(descendantCopies);
+        topLevelCopies.forEach(copy -> folderRollupService.itemAdded(userId, copy));
+        List<FileEntity> allCopies = new ArrayList<>(topLevelCopies);
+        allCopies.addAll(descendantCopies);
+        changeFeedService.record(userId, ChangeType.CREATED, allCopies);
+        bumpChildrenVersion(userId, targetFolder);
+
+        log.info("複製成功: userId={}, sourceIds={}, targetFolderId={}, copiedItems={}",
+                userId, ids, targetFolderId, copies.size());
+
+        return topLevelCopies.stream()
+                .map(this::buildFileResponse)
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * 搬移檔案/資料夾
+     * 循環檢查只比對祖先路徑前綴，同名衝突以單一查詢檢查，子樹的祖先路徑以一次批次更新改寫，
+     * 因此執行成本與子樹大小無關
+     * 
+     * @param ids             要搬移的檔案/資料夾 ID
+     * @param targetFolderId  目標資料夾 ID（null 表示根目錄）
+     * @param duplicateAction 同名處理方式：null=拒絕搬移, 1=自動加後綴
+     * @param userId          當前使用者 ID
+     * @return 搬移後的項目
+     */
+    @Transactional
+    public List<FileResponse> moveFiles(List<Long> ids, Long targetFolderId, Integer duplicateAction, Long userId) {
+        if (duplicateAction != null && duplicateAction != 1) {
+            throw new IllegalArgumentException("無效的 duplicateAction 值: " + duplicateAction);
+        }
+
+        // 1. 驗證目標資料夾與來源項目
+        FileEntity targetFolder = validateAndGetFolder(targetFolderId, userId);
+        List<FileEntity> sources = findOwnedItems(ids, userId);
+
+        // 2. 資料夾不可搬移到自身或其子資料夾
+        checkNotIntoOwnSubtree(sources, targetFolder, "無法將資料夾搬移到自身或其子資料夾中");
+
+        // 3. 已在目標資料夾中的項目不需搬移；位於另一個來源資料夾子樹中的項目隨該資料夾一起搬移
+        String targetPrefix = targetFolder == null ? FileEntity.ROOT_PATH : targetFolder.getChildAncestorPath();
+        List<FileEntity> toMove = withoutNestedSources(sources).stream()
+                .filter(source -> !source.getAncestorPath().equals(targetPrefix))
+                .collect(java.util.stream.Collectors.toList());
+
+        // 4. 一次查詢目標資料夾中的同名項目，並檢查搬移項目彼此間的同名衝突（與資料庫定序一致，不分大小寫）
+        Map<String, FileEntity> occupied = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (!toMove.isEmpty()) {
+            Set<String> names = new HashSet<>();
+            toMove.forEach(source -> names.add(source.getName()));
+            fileRepository.findByParentAndNameIn(targetFolder, userId, names)
+                    .forEach(existing -> occupied.put(existing.getName(), existing));
+        }
+
+        List<FileEntity> changedParents = new ArrayList<>();
+        changedParents.add(targetFolder);
+        for (FileEntity source : toMove) {
+            changedParents.add(source.getParent());
+            FileEntity existing = occupied.get(source.getName());
+            if (existing != null) {
+                if (duplicateAction == null) {
+                    throw new FileAlreadyExistsException(
+                            existing.getId(),
+                            existing.getName(),
+                            existing.getCreatedAt());
+                }
+                source.setName(generateUniqueFilename(source.getName(), targetFolder, userId, occupied.keySet()));
+            }
+            occupied.put(source.getName(), source);
+
+            // 5. 改寫子樹的祖先路徑（單一 UPDATE），再更新項目本身；子樹統計從原祖先移到新祖先
+            folderRollupService.itemRemoved(userId, source);
+            if (source.getType() == FileType.FOLDER) {
+                fileRepository.rewriteAncestorPaths(userId, source.getChildAncestorPath(),
+                        targetPrefix + source.getId() + "/");
+            }
+            source.setParent(targetFolder);
+            source.setAncestorPath(targetPrefix);
+            folderRollupService.itemAdded(userId, source);
+        }
+        fileRepository.saveAll(toMove);
+        if (!toMove.isEmpty()) {
+            changeFeedService.record(userId, ChangeType.MOVED, toMove);
+            bumpChildrenVersion(userId, changedParents);
+        }
+
+        log.info("搬移成功: userId={}, ids={}, targetFolderId={}, movedItems={}",
+                userId, ids, targetFolderId, toMove.size());
+
+        return sources.stream()
+                .map(this::buildFileResponse)
+                .collect(java.util.stream.Collectors.toList());
     }
 
     /**
@@ -174,29 +985,93 @@ public class FileService {
      */
 
     /**
-     * 遞迴軟刪除資料夾及其子項目
+     * 查詢使用者擁有的多個項目，任一項目不存在即拋出例外
      */
-    private void deleteRecursively(FileEntity entity) {
-        // 如果是資料夾，先刪除所有子項目
-        if (entity.getType() == FileType.FOLDER) {
-            java.util.List<FileEntity> children = fileRepository.findByParentAndDeletedAtIsNull(entity);
-            for (FileEntity child : children) {
-                deleteRecursively(child);
+    private List<FileEntity> findOwnedItems(List<Long> ids, Long userId) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        List<FileEntity> items = fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(distinctIds, userId);
+        if (items.size() != distinctIds.size()) {
+            items.forEach(item -> distinctIds.remove(item.getId()));
+            throw new InvalidFileException(distinctIds.iterator().next());
+        }
+        return items;
+    }
+
+    /**
+     * 檢查資料夾不會被放進自身或其子資料夾
+     * 目標的子項目祖先路徑若以來源資料夾的子項目祖先路徑為前綴，即表示目標位於來源子樹中
+     */
+    private void checkNotIntoOwnSubtree(List<FileEntity> sources, FileEntity targetFolder, String message) {
+        if (targetFolder == null) {
+            return;
+        }
+        String targetPrefix = targetFolder.getChildAncestorPath();
+        for (FileEntity source : sources) {
+            if (source.getType() == FileType.FOLDER && targetPrefix.startsWith(source.getChildAncestorPath())) {
+                throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), message);
             }
         }
+    }
 
-        // 軟刪除當前項目
-        entity.setDeletedAt(java.time.LocalDateTime.now());
-        fileRepository.save(entity);
+    /**
+     * 排除位於另一個來源資料夾子樹中的項目
+     * 子樹的祖先路徑以批次更新改寫，已載入的子孫實體不會同步，若再個別處理會以舊路徑改寫並重複扣減統計
+     */
+    private List<FileEntity> withoutNestedSources(List<FileEntity> sources) {
+        List<String> folderPrefixes = sources.stream()
+                .filter(source -> source.getType() == FileType.FOLDER)
+                .map(FileEntity::getChildAncestorPath)
+                .collect(java.util.stream.Collectors.toList());
+        return sources.stream()
+                .filter(source -> folderPrefixes.stream().noneMatch(source.getAncestorPath()::startsWith))
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    /**
+     * 建立複製用的新記錄（共用實體檔案路徑）
+     */
+    private FileEntity copyOf(FileEntity source, String name, FileEntity parent) {
+        return FileEntity.builder()
+                .name(name)
+                .type(source.getType())
+                .size(source.getSize())
+                .treeSize(source.getTreeSize())
+                .descendantCount(source.getDescendantCount())
+                .storedSize(source.getStoredSize())
+                .filePath(source.getFilePath())
+                .contentHash(source.getContentHash())
+                .parent(parent)
+                .ownerId(source.getOwnerId())
+                .build();
+    }
+
+    /**
+     * 查詢儲存空間使用量
+     * 
+     * @param userId 使用者 ID
+     * @return 配額、邏輯使用量與實際佔用空間
+     */
+    public StorageUsageResponse getStorageUsage(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+
+        return StorageUsageResponse.builder()
+                .quota(user.getStorageQuota())
+                .usedSize(fileRepository.calculateUsedStorageByOwnerId(userId))
+                .storedSize(fileRepository.calculateStoredBytesByOwnerId(userId))
+                .build();
+    }
 
-        // 如果是檔案，也可以選擇刪除實體檔案（這裡保留檔案以便未來恢復）
-        // if (entity.getType() == FileType.FILE && entity.getFilePath() != null) {
-        // try {
-        // fileStorageService.delete(entity.getFilePath());
-        // } catch (IOException e) {
-        // log.warn("刪除實體檔案失敗: {}", entity.getFilePath(), e);
-        // }
-        // }
+    /**
+     * 查詢剩餘的儲存配額
+     * 
+     * @param userId 使用者 ID
+     * @return 剩餘配額（bytes）
+     */
+    public long getRemainingQuota(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+        return user.getStorageQuota() - fileRepository.calculateUsedStorageByOwnerId(userId);
     }
 
     /**
@@ -252,18 +1127,19 @@ public class FileService {
      */
     private FileUploadResponse replaceExistingFile(MultipartFile file, FileEntity existingFile, Long userId) {
         try {
-            // 刪除舊的實體檔案
-            if (existingFile.getFilePath() != null) {
-                fileStorageService.delete(existingFile.getFilePath());
-            }
-
-            // 儲存新檔案
-            String filePath = fileStorageService.store(file, userId);
+            // 先儲存新檔案，舊的實體檔案於交易提交後才刪除
+            String replacedFilePath = existingFile.getFilePath();
+            StoredContent stored = storeContent(file, userId);
 
             // 更新資料庫記錄
-            existingFile.setFilePath(filePath);
+            folderRollupService.add(userId, existingFile.getAncestorPath(), file.getSize() - existingFile.getSize(), 0);
+            existingFile.setFilePath(stored.filePath());
             existingFile.setSize(file.getSize());
+            existingFile.setStoredSize(stored.storedSize());
+            existingFile.setContentHash(stored.contentHash());
             FileEntity savedFile = fileRepository.save(existingFile);
+            changeFeedService.record(userId, ChangeType.UPDATED, savedFile);
+            releaseAfterCommit(replacedFilePath);
 
             return buildResponse(savedFile);
         } catch (IOException e) {
@@ -271,6 +1147,48 @@ public class FileService {
         }
     }
 
+    /**
+     * 取得上傳的使用者；覆蓋時鎖定使用者列，與複製序列化（見 releaseAfterCommit）
+     */
+    private User findUserForUpload(Long userId, Integer duplicateAction) {
+        Optional<User> user = Integer.valueOf(0).equals(duplicateAction)
+                ? userRepository.findByIdForUpdate(userId)
+                : userRepository.findById(userId);
+        return user.orElseThrow(() -> new IllegalStateException("使用者不存在"));
+    }
+
+    /**
+     * 交易提交後刪除被覆蓋的舊內容；提交後重新計算引用數，仍被複製產生的其他記錄引用則保留（copy-on-write）
+     * 覆蓋與複製都鎖定使用者列，不會有尚未提交的副本引用舊內容而漏算；
+     * 新內容先寫入、舊內容提交後才刪除，寫入失敗或交易回滾時原記錄仍指向完整的舊內容。不在交易中呼叫時立即檢查
+     */
+    private void releaseAfterCommit(String filePath) {
+        if (filePath == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseIfUnreferenced(filePath);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseIfUnreferenced(filePath);
+            }
+        });
+    }
+
+    private void releaseIfUnreferenced(String filePath) {
+        if (fileRepository.countByFilePath(filePath) > 0) {
+            return;
+        }
+        try {
+            fileStorageService.delete(filePath);
+        } catch (IOException e) {
+            log.warn("刪除被覆蓋的檔案失敗: {}", filePath, e);
+        }
+    }
+
     /**
      * 儲存檔案並自動加後綴
      */
@@ -280,19 +1198,23 @@ public class FileService {
 
         try {
             // 儲存實體檔案
-            String filePath = fileStorageService.store(file, userId);
+            StoredContent stored = storeContent(file, userId);
 
             // 建立資料庫記錄
             FileEntity fileEntity = FileEntity.builder()
                     .name(newFilename)
                     .type(FileType.FILE)
                     .size(file.getSize())
-                    .filePath(filePath)
+                    .storedSize(stored.storedSize())
+                    .filePath(stored.filePath())
+                    .contentHash(stored.contentHash())
                     .parent(parentFolder)
                     .ownerId(userId)
                     .build();
 
             FileEntity savedFile = fileRepository.save(fileEntity);
+            folderRollupService.itemAdded(userId, savedFile);
+            changeFeedService.record(userId, ChangeType.CREATED, savedFile);
             return buildResponse(savedFile);
         } catch (IOException e) {
             throw new FileStorageException("儲存檔案失敗: " + e.getMessage(), e);
@@ -304,6 +1226,14 @@ public class FileService {
      * 例如：report.pdf -> report(1).pdf -> report(2).pdf
      */
     private String generateUniqueFilename(String originalFilename, FileEntity parentFolder, Long userId) {
+        return generateUniqueFilename(originalFilename, parentFolder, userId, Set.of());
+    }
+
+    /**
+     * 產生唯一的檔案名稱，並避開同一批次中已保留的名稱
+     */
+    private String generateUniqueFilename(String originalFilename, FileEntity parentFolder, Long userId,
+            Set<String> reservedNames) {
         String baseName;
         String extension;
 
@@ -320,8 +1250,9 @@ public class FileService {
         String newFilename = baseName + "(" + counter + ")" + extension;
 
         // 持續檢查直到找到不重複的檔名
-        while (fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull(newFilename, parentFolder, userId)
-                .isPresent()) {
+        while (reservedNames.contains(newFilename)
+                || fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull(newFilename, parentFolder, userId)
+                        .isPresent()) {
             counter++;
             newFilename = baseName + "(" + counter + ")" + extension;
         }
@@ -335,19 +1266,23 @@ public class FileService {
     private FileUploadResponse saveNewFile(MultipartFile file, FileEntity parentFolder, Long userId) {
         try {
             // 儲存實體檔案
-            String filePath = fileStorageService.store(file, userId);
+            StoredContent stored = storeContent(file, userId);
 
             // 建立資料庫記錄
             FileEntity fileEntity = FileEntity.builder()
                     .name(file.getOriginalFilename())
                     .type(FileType.FILE)
                     .size(file.getSize())
-                    .filePath(filePath)
+                    .storedSize(stored.storedSize())
+                    .filePath(stored.filePath())
+                    .contentHash(stored.contentHash())
                     .parent(parentFolder)
                     .ownerId(userId)
                     .build();
 
             FileEntity savedFile = fileRepository.save(fileEntity);
+            folderRollupService.itemAdded(userId, savedFile);
+            changeFeedService.record(userId, ChangeType.CREATED, savedFile);
             log.info("檔案上傳成功: userId={}, fileId={}, fileName={}", userId, savedFile.getId(), savedFile.getName());
 
             return buildResponse(savedFile);
@@ -356,6 +1291,14 @@ public class FileService {
         }
     }
 
+    /**
+     * 儲存上傳內容並計算內容雜湊
+     */
+    private StoredContent storeContent(MultipartFile file, Long userId) throws IOException {
+        return StoredContent.store(fileStorageService, file.getInputStream(), file.getOriginalFilename(),
+                file.getSize(), userId);
+    }
+
     /**
      * 建立回應 DTO
      */
@@ -368,6 +1311,79 @@ public class FileService {
                 .build();
     }
 
+    /**
+     * 查詢下載檔案所需的資訊（不讀取內容）
+     * 
+     * @param fileId 檔案 ID
+     * @param userId 使用者 ID
+     * @return 檔案名稱、大小、內容雜湊與最後更新時間
+     */
+    public FileDownload getFileDownload(Long fileId, Long userId) {
+        FileEntity file = fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(fileId, userId, FileType.FILE)
+                .orElseThrow(() -> new InvalidFileException(fileId));
+        return new FileDownload(file.getId(), file.getName(), file.getSize(), file.getContentHash(),
+                file.getUpdatedAt(), file.getFilePath());
+    }
+
+    /**
+     * 載入檔案內容
+     * 
+     * @param download 由 {@link #getFileDownload(Long, Long)} 取得的檔案資訊
+     * @return 檔案內容
+     */
+    public Resource loadContent(FileDownload download) {
+        try {
+            return fileStorageService.load(download.filePath(), download.size());
+        } catch (IOException e) {
+            throw new FileStorageException("讀取檔案失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 查詢資料夾列表的版本，只以主鍵查詢單一欄位，不查詢列表內容
+     * 
+     * @param userId   使用者 ID
+     * @param folderId 資料夾 ID（null 表示根目錄）
+     * @return 子項目版本，資料夾內任何子項目異動後即改變
+     */
+    public long getListingVersion(Long userId, Long folderId) {
+        if (folderId == null) {
+            return userRepository.findRootVersion(userId)
+                    .orElseThrow(() -> new IllegalStateException("使用者不存在"));
+        }
+        return fileRepository.findChildrenVersion(folderId, userId)
+                .orElseThrow(() -> new InvalidFolderException(folderId));
+    }
+
+    /**
+     * 遞增父資料夾的子項目版本，使其列表的 ETag 失效
+     * 版本欄位不會由實體寫回（updatable = false），之後儲存的實體不會覆蓋遞增後的版本
+     */
+    private void bumpChildrenVersion(Long userId, FileEntity parentFolder) {
+        bumpChildrenVersion(userId, Collections.singletonList(parentFolder));
+    }
+
+    /**
+     * 遞增多個父資料夾的子項目版本（null 表示使用者的根目錄）
+     */
+    private void bumpChildrenVersion(Long userId, Collection<FileEntity> parentFolders) {
+        Set<Long> folderIds = new HashSet<>();
+        boolean root = false;
+        for (FileEntity parentFolder : parentFolders) {
+            if (parentFolder == null) {
+                root = true;
+            } else {
+                folderIds.add(parentFolder.getId());
+            }
+        }
+        if (root) {
+            userRepository.incrementRootVersion(userId);
+        }
+        if (!folderIds.isEmpty()) {
+            fileRepository.incrementChildrenVersion(folderIds);
+        }
+    }
+
     /**
      * 查詢檔案列表
      * 
@@ -396,12 +1412,74 @@ public class FileService {
         return new PageImpl<>(responseList, pageable, filePage.getTotalElements());
     }
 
+    /**
+     * 依名稱搜尋檔案與資料夾
+     * 
+     * @param userId 使用者 ID
+     * @param query  關鍵字（不分大小寫的子字串）
+     * @param limit  回傳筆數（null 使用預設值）
+     * @return 依相關性排序的搜尋結果
+     */
+    public List<FileResponse> searchFiles(Long userId, String query, Integer limit) {
+        return fileSearchService.search(userId, query, limit).stream()
+                .map(this::buildFileResponse)
+                .toList();
+    }
+
+    /**
+     * 搜尋文字類檔案的內容
+     * 
+     * @param userId 使用者 ID
+     * @param query  關鍵字（多個關鍵字需全部出現）
+     * @param limit  回傳筆數（null 使用預設值）
+     * @return 依相關性排序的搜尋結果
+     */
+    public List<FileResponse> searchContent(Long userId, String query, Integer limit) {
+        return contentIndexService.search(userId, query, limit).stream()
+                .map(this::buildFileResponse)
+                .toList();
+    }
+
+    /**
+     * 依路徑（例如 /docs/2025/report.pdf）取得檔案或資料夾
+     * 
+     * @param userId 使用者 ID
+     * @param path   由根目錄開始、以 / 分隔的路徑
+     * @return 路徑指向的項目
+     */
+    public FileResponse resolvePath(Long userId, String path) {
+        return buildFileResponse(folderNamespaceService.resolve(userId, path));
+    }
+
+    /**
+     * 建立垃圾桶列表用的回應 DTO；資料夾的大小與項目數為刪除當下的子樹統計，並附上刪除時間
+     */
+    private TrashItemResponse buildTrashItemResponse(FileEntity fileEntity) {
+        boolean folder = fileEntity.getType() == FileType.FOLDER;
+        return TrashItemResponse.builder()
+                .fileId(fileEntity.getId())
+                .fileName(fileEntity.getName())
+                .type(fileEntity.getType())
+                .size(folder ? fileEntity.getTreeSize() : fileEntity.getSize())
+                .itemCount(folder ? fileEntity.getDescendantCount() : null)
+                .parentId(fileEntity.getParent() == null ? null : fileEntity.getParent().getId())
+                .deletedAt(fileEntity.getDeletedAt())
+                .build();
+    }
+
+    /**
+     * 建立列表用的回應 DTO；資料夾的大小與項目數取自增量維護的子樹統計，不需額外查詢
+     */
     private FileResponse buildFileResponse(FileEntity fileEntity) {
+        boolean folder = fileEntity.getType() == FileType.FOLDER;
         return FileResponse.builder()
                 .fileId(fileEntity.getId())
                 .fileName(fileEntity.getName())
-                .size(fileEntity.getSize())
+                .type(fileEntity.getType())
+                .size(folder ? fileEntity.getTreeSize() : fileEntity.getSize())
+                .itemCount(folder ? fileEntity.getDescendantCount() : null)
                 .uploadTime(fileEntity.getCreatedAt())
+                .contentHash(fileEntity.getContentHash())
                 .build();
     }
 }
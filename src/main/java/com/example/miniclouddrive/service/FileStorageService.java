@@ -4,6 +4,9 @@ import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * 檔案儲存服務介面
@@ -19,7 +22,39 @@ public interface FileStorageService {
      * @return 檔案儲存路徑
      * @throws IOException 檔案 I/O 錯誤
      */
-    String store(MultipartFile file, Long userId) throws IOException;
+    default String store(MultipartFile file, Long userId) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return store(inputStream, file.getOriginalFilename(), file.getSize(), userId);
+        }
+    }
+
+    /**
+     * 以串流方式儲存檔案
+     * 
+     * @param inputStream      檔案內容（由呼叫端負責關閉）
+     * @param originalFilename 原始檔名
+     * @param size             檔案大小，未知時為 -1
+     * @param userId           使用者 ID（用於建立使用者專屬目錄）
+     * @return 檔案儲存路徑
+     * @throws IOException 檔案 I/O 錯誤
+     */
+    String store(InputStream inputStream, String originalFilename, long size, Long userId) throws IOException;
+
+    /**
+     * 以本機暫存檔儲存（例如分段上傳組合完成的檔案）
+     * 預設以串流方式讀取後儲存；可直接移動檔案的實作應覆寫此方法，省去再複製一次內容
+     * 
+     * @param source           暫存檔（呼叫後可能已被移走，剩餘的暫存檔由呼叫端清理）
+     * @param originalFilename 原始檔名
+     * @param userId           使用者 ID（用於建立使用者專屬目錄）
+     * @return 檔案儲存路徑
+     * @throws IOException 檔案 I/O 錯誤
+     */
+    default String store(Path source, String originalFilename, Long userId) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            return store(inputStream, originalFilename, Files.size(source), userId);
+        }
+    }
 
     /**
      * 載入檔案
@@ -30,6 +65,19 @@ public interface FileStorageService {
      */
     Resource load(String filePath) throws IOException;
 
+    /**
+     * 載入已知大小的檔案
+     * 裝飾器可依大小決定是否快取、回報內容長度，不必先讀取（或解壓縮）內容；預設忽略大小
+     * 
+     * @param filePath 檔案路徑
+     * @param size     檔案大小（解壓縮後的原始大小），未知時為 -1
+     * @return 檔案資源
+     * @throws IOException 檔案 I/O 錯誤
+     */
+    default Resource load(String filePath, long size) throws IOException {
+        return load(filePath);
+    }
+
     /**
      * 刪除檔案
      * 
@@ -37,4 +85,13 @@ public interface FileStorageService {
      * @throws IOException 檔案 I/O 錯誤
      */
     void delete(String filePath) throws IOException;
+
+    /**
+     * 取得檔案實際佔用的儲存空間（壓縮後的大小）
+     * 
+     * @param filePath 檔案路徑
+     * @return 實際佔用空間（bytes）
+     * @throws IOException 檔案 I/O 錯誤
+     */
+    long getStoredSize(String filePath) throws IOException;
 }
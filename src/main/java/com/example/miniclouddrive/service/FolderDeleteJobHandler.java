@@ -0,0 +1,34 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.entity.Job;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.InvalidFolderException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 刪除資料夾的背景工作處理器
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FolderDeleteJobHandler implements JobHandler {
+
+    private final FileService fileService;
+
+    @Override
+    public JobType getType() {
+        return JobType.FOLDER_DELETE;
+    }
+
+    @Override
+    public void execute(Job job, JobProgress progress) {
+        try {
+            fileService.deleteFolder(job.getTargetId(), job.getOwnerId(), progress);
+        } catch (InvalidFolderException e) {
+            // 前一次執行已刪除完成，但在回報結果前中斷
+            log.info("資料夾已不存在，視為刪除完成: jobId={}, folderId={}", job.getId(), job.getTargetId());
+        }
+    }
+}
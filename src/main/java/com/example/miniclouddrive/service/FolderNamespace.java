@@ -0,0 +1,209 @@
+package com.example.miniclouddrive.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 單一使用者的資料夾命名空間（以路徑片段為邊的 trie）
+ * 每個節點只保存資料夾 ID、名稱與依名稱排序的子節點陣列，以二分搜尋逐層比對路徑片段，
+ * 名稱比對與資料庫定序一致，不分大小寫；
+ * 解析任意深度的路徑不需查詢資料庫。只包含資料夾，檔案數量不影響記憶體用量
+ */
+public class FolderNamespace {
+
+    /** 每個節點的固定記憶體估計（節點物件、ID 對照表項目、父節點的子節點陣列欄位） */
+    private static final int NODE_OVERHEAD_BYTES = 96;
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node(0);
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private long estimatedBytes;
+
+    /**
+     * 新增資料夾，或更新資料夾的名稱與上層資料夾
+     * 上層資料夾尚未加入時先建立佔位節點，因此可依任意順序加入
+     *
+     * @param folderId 資料夾 ID
+     * @param name     名稱
+     * @param parentId 上層資料夾 ID（null 表示根目錄）
+     */
+    public void put(long folderId, String name, Long parentId) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodeFor(folderId);
+            Node parent = parentId == null ? root : nodeFor(parentId);
+            if (node.parent == parent && name.equals(node.name)) {
+                return;
+            }
+            if (node.parent != null) {
+                node.parent.removeChild(node);
+            }
+            if (node.name != null) {
+                estimatedBytes -= 2L * node.name.length();
+            }
+            node.name = name;
+            estimatedBytes += 2L * name.length();
+            parent.addChild(node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除資料夾及其下所有子資料夾
+     */
+    public void remove(long folderId) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.get(folderId);
+            if (node == null) {
+                return;
+            }
+            if (node.parent != null) {
+                node.parent.removeChild(node);
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(node);
+            while (!pending.isEmpty()) {
+                Node current = pending.pop();
+                for (int i = 0; i < current.childCount; i++) {
+                    pending.push(current.children[i]);
+                }
+                nodes.remove(current.id);
+                estimatedBytes -= NODE_OVERHEAD_BYTES + (current.name == null ? 0 : 2L * current.name.length());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 由根目錄逐層比對路徑片段
+     *
+     * @param segments 路徑片段
+     * @return 相符的資料夾 ID，依深度排列；長度小於片段數時代表從該片段起不是已知的資料夾
+     */
+    public long[] lookup(List<String> segments) {
+        lock.readLock().lock();
+        try {
+            long[] chain = new long[segments.size()];
+            Node current = root;
+            for (int i = 0; i < segments.size(); i++) {
+                current = current.child(segments.get(i));
+                if (current == null) {
+                    return Arrays.copyOf(chain, i);
+                }
+                chain[i] = current.id;
+            }
+            return chain;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 估計的記憶體用量（bytes）
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node nodeFor(long folderId) {
+        Node node = nodes.get(folderId);
+        if (node == null) {
+            node = new Node(folderId);
+            nodes.put(folderId, node);
+            estimatedBytes += NODE_OVERHEAD_BYTES;
+        }
+        return node;
+    }
+
+    private static final class Node {
+
+        final long id;
+        /** 佔位節點（尚未加入的上層資料夾）為 null */
+        String name;
+        Node parent;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+
+        Node(long id) {
+            this.id = id;
+        }
+
+        Node child(String name) {
+            int index = indexOf(name);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            int index = indexOf(child.name);
+            int insertAt = index >= 0 ? index : -index - 1;
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount + (childCount >> 1) + 1));
+            }
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            children[insertAt] = child;
+            childCount++;
+            child.parent = this;
+        }
+
+        void removeChild(Node child) {
+            int index = indexOf(child.name);
+            if (index < 0 || children[index] != child) {
+                // 同名的子節點（並行重新命名的過渡狀態）時逐一比對
+                index = 0;
+                while (index < childCount && children[index] != child) {
+                    index++;
+                }
+            }
+            if (index < childCount) {
+                System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+                children[--childCount] = null;
+            }
+            child.parent = null;
+        }
+
+        /**
+         * 依名稱（不分大小寫）二分搜尋子節點，找不到時回傳 -(插入位置) - 1
+         */
+        private int indexOf(String name) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = String.CASE_INSENSITIVE_ORDER.compare(children[mid].name, name);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.NamespaceProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import com.example.miniclouddrive.repository.FileRepository;
+import com.example.miniclouddrive.repository.FolderNameView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * 以路徑（例如 /docs/2025/report.pdf）定位檔案與資料夾
+ * 每位使用者的 {@link FolderNamespace} 在第一次解析路徑時從資料庫建立，之後依交易提交後的檔案異動事件增量更新，
+ * 資料夾部分完全在記憶體中比對，不論路徑深度只需一次資料庫查詢取得最後的項目；
+ * 查詢結果的祖先路徑或名稱與命名空間不一致時視為命名空間過期，釋放後改為逐層查詢。
+ * 異動事件只來自本節點，命名空間超過有效期限後重新建立，其他節點的異動最多延遲此期限才會反映。
+ * 所有命名空間共用一個記憶體預算（見 {@link PerUserCache}），超過時釋放最久未使用的使用者命名空間
+ */
+@Service
+@Slf4j
+public class FolderNamespaceService {
+
+    private final FileRepository fileRepository;
+    private final NamespaceProperties properties;
+
+    private final PerUserCache<FolderNamespace> namespaces;
+
+    public FolderNamespaceService(FileRepository fileRepository, NamespaceProperties properties) {
+        this(fileRepository, properties, System::nanoTime);
+    }
+
+    FolderNamespaceService(FileRepository fileRepository, NamespaceProperties properties, LongSupplier nanoClock) {
+        this.fileRepository = fileRepository;
+        this.properties = properties;
+        this.namespaces = new PerUserCache<>("資料夾命名空間", nanoClock) {
+            @Override
+            protected FolderNamespace create() {
+                return new FolderNamespace();
+            }
+
+            @Override
+            protected long loadAfter(Long userId, long afterId, FolderNamespace namespace) {
+                return loadFolders(userId, afterId, namespace);
+            }
+
+            @Override
+            protected void apply(FolderNamespace namespace, FileChangeResponse change) {
+                if (change.getChangeType() == ChangeType.DELETED) {
+                    namespace.remove(change.getFileId());
+                } else {
+                    namespace.put(change.getFileId(), change.getName(), change.getParentId());
+                }
+            }
+
+            @Override
+            protected long estimatedBytes(FolderNamespace namespace) {
+                return namespace.estimatedBytes();
+            }
+
+            @Override
+            protected long maxBytes() {
+                return properties.getMaxMemory().toBytes();
+            }
+
+            @Override
+            protected Duration ttl() {
+                return properties.getTtl();
+            }
+
+            @Override
+            protected Duration oversizedRetry() {
+                return properties.getOversizedRetry();
+            }
+        };
+    }
+
+    /**
+     * 解析路徑
+     *
+     * @param userId 使用者 ID
+     * @param path   以 / 分隔的路徑，由根目錄開始
+     * @return 路徑指向的檔案或資料夾
+     */
+    public FileEntity resolve(Long userId, String path) {
+        List<String> segments = parse(path);
+        FolderNamespace namespace = properties.isEnabled() ? namespaces.get(userId) : null;
+        if (namespace == null) {
+            return resolveDatabase(userId, path, segments);
+        }
+
+        long[] chain = namespace.lookup(segments);
+        if (chain.length < segments.size() - 1) {
+            // 中間的片段不是已知的資料夾
+            throw notFound(path);
+        }
+
+        Optional<FileEntity> found;
+        int folderDepth;
+        if (chain.length == segments.size()) {
+            found = fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(chain[chain.length - 1], userId);
+            folderDepth = chain.length - 1;
+        } else {
+            FileEntity parent = chain.length == 0 ? null : fileRepository.getReferenceById(chain[chain.length - 1]);
+            found = fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull(
+                    segments.get(segments.size() - 1), parent, userId);
+            if (found.isEmpty()) {
+                throw notFound(path);
+            }
+            folderDepth = chain.length;
+        }
+
+        if (found.isEmpty() || !ancestorPath(chain, folderDepth).equals(found.get().getAncestorPath())
+                || !found.get().getName().equalsIgnoreCase(segments.get(segments.size() - 1))) {
+            log.debug("資料夾命名空間與資料庫不一致，重新建立: userId={}", userId);
+            namespaces.invalidate(userId, namespace);
+            return resolveDatabase(userId, path, segments);
+        }
+        return found.get();
+    }
+
+    /**
+     * 交易提交後更新已載入的命名空間，只處理資料夾的異動
+     * 刪除資料夾只記錄子樹根，移除子樹根即一併移除所有子資料夾；
+     * 還原資料夾同樣只記錄子樹根，無法得知還原的子資料夾，直接釋放該使用者的命名空間
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFileChange(FileChangeEvent event) {
+        if (!namespaces.isLoaded(event.userId())) {
+            return;
+        }
+        boolean folderRestored = event.changes().stream()
+                .anyMatch(change -> change.getChangeType() == ChangeType.RESTORED
+                        && change.getType() == FileType.FOLDER);
+        if (folderRestored) {
+            namespaces.invalidate(event.userId());
+            return;
+        }
+        namespaces.apply(event.userId(), event.changes().stream()
+                .filter(change -> change.getType() == FileType.FOLDER)
+                .toList());
+    }
+
+    public int loadedUsers() {
+        return namespaces.size();
+    }
+
+    /**
+     * 所有已建立命名空間的記憶體估計（bytes）
+     */
+    public long estimatedBytes() {
+        return namespaces.estimatedBytes();
+    }
+
+    private List<String> parse(String path) {
+        List<String> segments = new ArrayList<>();
+        if (path != null) {
+            for (String segment : path.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.equals(".") || segment.equals("..")) {
+                    throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "路徑不能包含 . 或 ..");
+                }
+                segments.add(segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "路徑不能為空");
+        }
+        if (segments.size() > properties.getMaxDepth()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "路徑最多 " + properties.getMaxDepth() + " 層");
+        }
+        return segments;
+    }
+
+    /**
+     * 讀取下一批資料夾放入命名空間
+     *
+     * @return 這批最後一筆的 ID；沒有更多資料時回傳 -1
+     */
+    private long loadFolders(Long userId, long afterId, FolderNamespace namespace) {
+        int batchSize = properties.getBuildBatchSize();
+        List<FolderNameView> rows = fileRepository.findFoldersAfter(userId, afterId, PageRequest.of(0, batchSize));
+        for (FolderNameView row : rows) {
+            namespace.put(row.getId(), row.getName(), row.getParentId());
+        }
+        return rows.size() < batchSize ? -1 : rows.get(rows.size() - 1).getId();
+    }
+
+    /**
+     * 逐層查詢資料庫（命名空間停用、超過記憶體預算或不一致時使用）
+     */
+    private FileEntity resolveDatabase(Long userId, String path, List<String> segments) {
+        FileEntity current = null;
+        for (int i = 0; i < segments.size(); i++) {
+            if (current != null && current.getType() != FileType.FOLDER) {
+                throw notFound(path);
+            }
+            current = fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull(segments.get(i), current, userId)
+                    .orElseThrow(() -> notFound(path));
+        }
+        return current;
+    }
+
+    /**
+     * 依命名空間比對出的資料夾組出預期的祖先路徑，用來確認查詢結果與命名空間一致
+     */
+    private static String ancestorPath(long[] chain, int depth) {
+        StringBuilder builder = new StringBuilder(FileEntity.ROOT_PATH);
+        for (int i = 0; i < depth; i++) {
+            builder.append(chain[i]).append('/');
+        }
+        return builder.toString();
+    }
+
+    private static InvalidFileException notFound(String path) {
+        return new InvalidFileException("找不到路徑: " + path);
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.PathCacheProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.dto.response.BreadcrumbResponse;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import com.example.miniclouddrive.repository.FileRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * 完整路徑（麵包屑）查詢
+ * 每個項目的祖先路徑（ancestorPath）已列出所有祖先資料夾的 ID，
+ * 因此任意深度的路徑只需以單一 IN 查詢取得祖先名稱，不需逐層載入 parent；
+ * 解析出的資料夾路徑依資料夾快取，重新命名、搬移或刪除資料夾時使包含該資料夾的路徑失效
+ */
+@Service
+public class FolderPathService {
+
+    private final FileRepository fileRepository;
+    private final PathCacheProperties properties;
+    private final LongSupplier nanoClock;
+
+    /** 資料夾 ID -> 由根目錄到該資料夾（含）的路徑，依存取順序淘汰 */
+    private final LinkedHashMap<Long, CachedPath> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 每次失效時遞增；載入前後不一致代表載入期間有異動，載入結果不放入快取 */
+    private long generation;
+
+    public FolderPathService(FileRepository fileRepository, PathCacheProperties properties) {
+        this(fileRepository, properties, System::nanoTime);
+    }
+
+    FolderPathService(FileRepository fileRepository, PathCacheProperties properties, LongSupplier nanoClock) {
+        this.fileRepository = fileRepository;
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 查詢單一項目的完整路徑
+     *
+     * @param fileId 檔案或資料夾 ID
+     * @param userId 使用者 ID
+     * @return 由根目錄往下排列的路徑（最後一個節點為項目本身）
+     */
+    public List<BreadcrumbResponse> getPath(Long fileId, Long userId) {
+        FileEntity item = fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(fileId, userId)
+                .orElseThrow(() -> new InvalidFileException(fileId));
+        return resolve(List.of(item), userId).get(fileId);
+    }
+
+    /**
+     * 批次查詢多個項目（例如一頁搜尋結果）的完整路徑，所有未快取的祖先以單一查詢取得
+     *
+     * @param ids    檔案或資料夾 ID
+     * @param userId 使用者 ID
+     * @return 項目 ID -> 路徑；不存在或無權限的項目不會出現在結果中
+     */
+    public Map<Long, List<BreadcrumbResponse>> getPaths(Collection<Long> ids, Long userId) {
+        if (ids.size() > properties.getMaxBatchSize()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "單次最多查詢 " + properties.getMaxBatchSize() + " 個項目的路徑");
+        }
+        return resolve(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(ids, userId), userId);
+    }
+
+    /**
+     * 資料夾重新命名、搬移、刪除或還原（可能改名或改掛到根目錄）後，使包含該資料夾的所有路徑失效
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFileChange(FileChangeEvent event) {
+        Set<Long> changedFolders = event.changes().stream()
+                .filter(change -> change.getType() == FileType.FOLDER)
+                .filter(change -> change.getChangeType() == ChangeType.RENAMED
+                        || change.getChangeType() == ChangeType.MOVED
+                        || change.getChangeType() == ChangeType.DELETED
+                        || change.getChangeType() == ChangeType.RESTORED)
+                .map(FileChangeResponse::getFileId)
+                .collect(Collectors.toSet());
+        if (changedFolders.isEmpty()) {
+            return;
+        }
+        synchronized (cache) {
+            generation++;
+            cache.values().removeIf(cached -> cached.path.stream()
+                    .anyMatch(crumb -> changedFolders.contains(crumb.getId())));
+        }
+    }
+
+    public int cachedFolders() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private Map<Long, List<BreadcrumbResponse>> resolve(List<FileEntity> items, Long userId) {
+        long loadGeneration;
+        synchronized (cache) {
+            loadGeneration = generation;
+        }
+
+        // 1. 依上層資料夾分組，先從快取取得
+        Map<Long, List<BreadcrumbResponse>> folderPaths = new HashMap<>();
+        Map<Long, List<Long>> uncached = new HashMap<>();
+        for (FileEntity item : items) {
+            List<Long> ancestorIds = parseAncestorIds(item.getAncestorPath());
+            if (ancestorIds.isEmpty()) {
+                continue;
+            }
+            Long parentId = ancestorIds.get(ancestorIds.size() - 1);
+            if (!folderPaths.containsKey(parentId) && !uncached.containsKey(parentId)) {
+                List<BreadcrumbResponse> cached = getCached(parentId);
+                if (cached != null) {
+                    folderPaths.put(parentId, cached);
+                } else {
+                    uncached.put(parentId, ancestorIds);
+                }
+            }
+        }
+
+        // 2. 未快取的祖先以單一查詢取得名稱，並快取沿途每一層資料夾的路徑
+        if (!uncached.isEmpty()) {
+            Set<Long> ancestorIds = new HashSet<>();
+            uncached.values().forEach(ancestorIds::addAll);
+            Map<Long, FileEntity> ancestors = fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(ancestorIds, userId)
+                    .stream()
+                    .collect(Collectors.toMap(FileEntity::getId, Function.identity()));
+
+            Map<Long, List<BreadcrumbResponse>> loaded = new HashMap<>();
+            for (Map.Entry<Long, List<Long>> entry : uncached.entrySet()) {
+                List<BreadcrumbResponse> path = new ArrayList<>();
+                for (Long ancestorId : entry.getValue()) {
+                    FileEntity ancestor = ancestors.get(ancestorId);
+                    if (ancestor == null) {
+                        // 祖先已刪除（刪除資料夾進行中），不快取不完整的路徑
+                        path = null;
+                        break;
+                    }
+                    path.add(toBreadcrumb(ancestor));
+                    loaded.putIfAbsent(ancestorId, List.copyOf(path));
+                }
+                folderPaths.put(entry.getKey(), path == null ? List.of() : List.copyOf(path));
+            }
+            putCached(loaded, loadGeneration);
+        }
+
+        // 3. 組合每個項目的路徑
+        Map<Long, List<BreadcrumbResponse>> result = new LinkedHashMap<>();
+        for (FileEntity item : items) {
+            List<Long> ancestorIds = parseAncestorIds(item.getAncestorPath());
+            List<BreadcrumbResponse> path = new ArrayList<>(ancestorIds.isEmpty() ? List.of()
+                    : folderPaths.get(ancestorIds.get(ancestorIds.size() - 1)));
+            path.add(toBreadcrumb(item));
+            result.put(item.getId(), path);
+        }
+        return result;
+    }
+
+    private List<BreadcrumbResponse> getCached(Long folderId) {
+        synchronized (cache) {
+            CachedPath cached = cache.get(folderId);
+            if (cached == null) {
+                return null;
+            }
+            if (nanoClock.getAsLong() - cached.loadedAt > properties.getTtl().toNanos()) {
+                cache.remove(folderId);
+                return null;
+            }
+            return cached.path;
+        }
+    }
+
+    private void putCached(Map<Long, List<BreadcrumbResponse>> paths, long loadGeneration) {
+        long now = nanoClock.getAsLong();
+        synchronized (cache) {
+            if (generation != loadGeneration) {
+                return;
+            }
+            paths.forEach((folderId, path) -> cache.put(folderId, new CachedPath(path, now)));
+            while (cache.size() > properties.getMaxEntries()) {
+                Long eldest = cache.keySet().iterator().next();
+                cache.remove(eldest);
+            }
+        }
+    }
+
+    /**
+     * 將祖先路徑（例如 /3/8/）解析為由根目錄往下排列的祖先 ID
+     */
+    static List<Long> parseAncestorIds(String ancestorPath) {
+        if (ancestorPath == null || ancestorPath.length() <= FileEntity.ROOT_PATH.length()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String segment : ancestorPath.substring(1).split("/")) {
+            ids.add(Long.valueOf(segment));
+        }
+        return ids;
+    }
+
+    private static BreadcrumbResponse toBreadcrumb(FileEntity entity) {
+        return BreadcrumbResponse.builder()
+                .id(entity.getId())
+                .name(entity.getName())
+                .build();
+    }
+
+    private record CachedPath(List<BreadcrumbResponse> path, long loadedAt) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.repository.FileRepository;
+import com.example.miniclouddrive.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 資料夾子樹大小與項目數的增量維護
+ * 項目新增、覆蓋、刪除或搬移時，變化量套用到祖先路徑上的每個資料夾；
+ * 同一交易中的變化量先依資料夾合併（搬移時共同祖先的增減互相抵銷），提交前才一次寫入，
+ * 變化量相同的資料夾以單一 UPDATE 更新。不在交易中呼叫時立即寫入
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FolderRollupService {
+
+    private final FileRepository fileRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * 項目已加入（新增、複製或搬入）：祖先資料夾加上項目本身與其子樹的大小及項目數
+     */
+    public void itemAdded(Long userId, FileEntity item) {
+        add(userId, item.getAncestorPath(), subtreeSize(item), subtreeCount(item));
+    }
+
+    /**
+     * 項目已移除（刪除或搬出）；需在改寫項目的祖先路徑前呼叫
+     */
+    public void itemRemoved(Long userId, FileEntity item) {
+        add(userId, item.getAncestorPath(), -subtreeSize(item), -subtreeCount(item));
+    }
+
+    /**
+     * 將變化量套用到祖先路徑上的每個資料夾
+     *
+     * @param userId       使用者 ID
+     * @param ancestorPath 異動項目的祖先路徑（根目錄下的項目沒有祖先，不做任何事）
+     * @param sizeDelta    大小的變化量（bytes）
+     * @param countDelta   項目數的變化量
+     */
+    public void add(Long userId, String ancestorPath, long sizeDelta, long countDelta) {
+        List<Long> folderIds = FolderPathService.parseAncestorIds(ancestorPath);
+        if (folderIds.isEmpty() || (sizeDelta == 0 && countDelta == 0)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingRollups pending = new PendingRollups(userId);
+            pending.add(folderIds, sizeDelta, countDelta);
+            flush(pending);
+            return;
+        }
+        pendingFor(userId).add(folderIds, sizeDelta, countDelta);
+    }
+
+    private PendingRollups pendingFor(Long userId) {
+        @SuppressWarnings("unchecked")
+        Map<Long, PendingRollups> byUser = (Map<Long, PendingRollups>) TransactionSynchronizationManager.getResource(this);
+        if (byUser == null) {
+            Map<Long, PendingRollups> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    created.values().forEach(FolderRollupService.this::flush);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(FolderRollupService.this);
+                }
+            });
+            byUser = created;
+        }
+        return byUser.computeIfAbsent(userId, PendingRollups::new);
+    }
+
+    /**
+     * 寫入合併後的變化量
+     * 所有資料夾的變化量相同時（新增、刪除等單一位置的異動）以單一 UPDATE 寫入，
+     * 否則依資料夾 ID 遞增逐一寫入，並行交易以相同順序鎖定資料列
+     */
+    private void flush(PendingRollups pending) {
+        Map<Long, long[]> deltas = pending.nonZero();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<List<Long>, List<Long>> groups = new HashMap<>();
+        deltas.forEach((folderId, delta) ->
+                groups.computeIfAbsent(List.of(delta[0], delta[1]), key -> new ArrayList<>()).add(folderId));
+        if (groups.size() == 1) {
+            Map.Entry<List<Long>, List<Long>> group = groups.entrySet().iterator().next();
+            fileRepository.addToRollups(group.getValue(), group.getKey().get(0), group.getKey().get(1));
+        } else {
+            deltas.forEach((folderId, delta) -> fileRepository.addToRollups(List.of(folderId), delta[0], delta[1]));
+        }
+        // 最上層資料夾的大小顯示在根目錄列表中
+        userRepository.incrementRootVersion(pending.userId);
+        log.debug("已更新資料夾統計: userId={}, folders={}", pending.userId, deltas.size());
+    }
+
+    private static long subtreeSize(FileEntity item) {
+        return item.getSize() + (item.getTreeSize() == null ? 0 : item.getTreeSize());
+    }
+
+    private static long subtreeCount(FileEntity item) {
+        return 1 + (item.getDescendantCount() == null ? 0 : item.getDescendantCount());
+    }
+
+    /**
+     * 單一使用者在交易中累積的變化量，資料夾 ID -> {大小, 項目數}
+     */
+    private static final class PendingRollups {
+
+        final Long userId;
+        final TreeMap<Long, long[]> deltas = new TreeMap<>();
+
+        PendingRollups(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(List<Long> folderIds, long sizeDelta, long countDelta) {
+            for (Long folderId : folderIds) {
+                long[] delta = deltas.computeIfAbsent(folderId, key -> new long[2]);
+                delta[0] += sizeDelta;
+                delta[1] += countDelta;
+            }
+        }
+
+        /** 依資料夾 ID 遞增排列，略過增減已互相抵銷的資料夾 */
+        Map<Long, long[]> nonZero() {
+            Map<Long, long[]> result = new LinkedHashMap<>();
+            deltas.forEach((folderId, delta) -> {
+                if (delta[0] != 0 || delta[1] != 0) {
+                    result.put(folderId, delta);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.entity.Job;
+import com.example.miniclouddrive.enums.JobType;
+
+/**
+ * 背景工作處理器
+ * 工作可能因節點停止而重新執行，實作需可安全地重複執行（冪等）
+ */
+public interface JobHandler {
+
+    /**
+     * 處理的工作類型
+     */
+    JobType getType();
+
+    /**
+     * 執行工作，拋出例外表示本次執行失敗
+     */
+    void execute(Job job, JobProgress progress);
+}
@@ -0,0 +1,12 @@
+package com.example.miniclouddrive.service;
+
+/**
+ * 工作租約遺失例外
+ * 續約失敗（例如節點長時間停頓）導致工作已被其他 worker 接手時拋出，原 worker 應立即停止
+ */
+public class JobLeaseLostException extends RuntimeException {
+
+    public JobLeaseLostException(Long jobId) {
+        super("工作租約已遺失: jobId=" + jobId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.miniclouddrive.service;
+
+/**
+ * 背景工作進度回報
+ * 回報時若發現租約已被其他 worker 接手，會拋出 {@link JobLeaseLostException} 中止執行
+ */
+@FunctionalInterface
+public interface JobProgress {
+
+    /** 不回報進度的實作，供同步呼叫使用 */
+    JobProgress NONE = (processedItems, totalItems) -> {
+    };
+
+    void update(long processedItems, long totalItems);
+}
@@ -0,0 +1,100 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.dto.response.JobResponse;
+import com.example.miniclouddrive.entity.Job;
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.JobNotFoundException;
+import com.example.miniclouddrive.repository.JobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 背景工作服務
+ * 負責建立工作與查詢進度，實際執行由 {@link JobWorker} 負責
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobService {
+
+    private final JobRepository jobRepository;
+
+    /**
+     * 建立背景工作
+     * 
+     * @param type     工作類型
+     * @param ownerId  發起工作的使用者 ID
+     * @param targetId 工作目標 ID
+     * @return 工作狀態
+     */
+    @Transactional
+    public JobResponse enqueue(JobType type, Long ownerId, Long targetId) {
+        Job job = jobRepository.save(Job.builder()
+                .type(type)
+                .status(JobStatus.PENDING)
+                .ownerId(ownerId)
+                .targetId(targetId)
+                .build());
+
+        log.info("建立背景工作: jobId={}, type={}, userId={}, targetId={}", job.getId(), type, ownerId, targetId);
+
+        return toResponse(job);
+    }
+
+    /**
+     * 查詢已有未完成工作（等待中或執行中）的目標，避免重複建立相同的工作
+     * 
+     * @param type      工作類型
+     * @param targetIds 工作目標 ID
+     * @return 已有未完成工作的目標 ID
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> findUnfinishedTargets(JobType type, Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jobRepository.findUnfinishedTargetIds(type, targetIds));
+    }
+
+    /**
+     * 查詢背景工作狀態
+     * 
+     * @param jobId  工作 ID
+     * @param userId 當前使用者 ID
+     * @return 工作狀態
+     */
+    @Transactional(readOnly = true)
+    public JobResponse getJob(Long jobId, Long userId) {
+        return jobRepository.findByIdAndOwnerId(jobId, userId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new JobNotFoundException(jobId));
+    }
+
+    private JobResponse toResponse(Job job) {
+        Integer progress = null;
+        if (job.getStatus() == JobStatus.SUCCEEDED) {
+            progress = 100;
+        } else if (job.getTotalItems() != null && job.getTotalItems() > 0) {
+            progress = (int) Math.min(100, job.getProcessedItems() * 100 / job.getTotalItems());
+        }
+
+        return JobResponse.builder()
+                .jobId(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .processedItems(job.getProcessedItems())
+                .totalItems(job.getTotalItems())
+                .progress(progress)
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
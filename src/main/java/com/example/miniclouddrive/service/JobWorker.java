@@ -0,0 +1,196 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.JobProperties;
+import com.example.miniclouddrive.entity.Job;
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.repository.JobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 背景工作 worker
+ * 定期租用待執行的工作交給固定大小的執行緒池處理，並定期續約；
+ * 租約以資料庫條件式 UPDATE 取得，多個節點可同時執行而不會重複處理同一工作；
+ * 續約使用專用的執行緒，不與其他定期工作共用排程器，長時間的定期工作不會使租約逾時
+ */
+@Component
+@Slf4j
+public class JobWorker {
+
+    private final JobRepository jobRepository;
+    private final JobProperties jobProperties;
+    private final Map<JobType, JobHandler> handlers = new EnumMap<>(JobType.class);
+    private final Map<Long, Job> running = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final ScheduledExecutorService heartbeatScheduler;
+    private final String workerId;
+
+    public JobWorker(JobRepository jobRepository, List<JobHandler> jobHandlers, JobProperties jobProperties) {
+        this.jobRepository = jobRepository;
+        this.jobProperties = jobProperties;
+        jobHandlers.forEach(handler -> handlers.put(handler.getType(), handler));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(jobProperties.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workerId = resolveHostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = jobProperties.getHeartbeatInterval().toMillis();
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 租用待執行的工作
+     * 每位使用者租約有效的執行中工作數不超過上限（由租用的 UPDATE 條件保證），避免單一使用者佔滿 worker
+     */
+    @Scheduled(fixedDelayString = "${job.poll-interval:PT2S}")
+    public void poll() {
+        int freeSlots = jobProperties.getWorkerThreads() - running.size();
+        if (freeSlots <= 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // 多取一些候選，跳過已達上限的使用者後仍能填滿空閒執行緒
+        List<Job> candidates = jobRepository.findClaimable(now, PageRequest.of(0, freeSlots * 4));
+        // 本輪已達上限的使用者，不再嘗試租用其其他工作
+        Set<Long> saturatedOwners = new HashSet<>();
+
+        for (Job job : candidates) {
+            if (freeSlots == 0) {
+                break;
+            }
+
+            // 租約逾時且重試次數已用盡：不再重新執行
+            if (job.getStatus() == JobStatus.RUNNING && job.getAttempts() >= jobProperties.getMaxAttempts()) {
+                jobRepository.release(job.getId(), job.getLeaseOwner(), JobStatus.FAILED,
+                        "執行逾時且已達重試上限", now, now);
+                continue;
+            }
+
+            if (saturatedOwners.contains(job.getOwnerId())) {
+                continue;
+            }
+
+            LocalDateTime leaseExpiresAt = now.plus(jobProperties.getLeaseDuration());
+            if (jobRepository.tryLease(job.getId(), job.getOwnerId(), jobProperties.getPerUserConcurrency(),
+                    workerId, leaseExpiresAt, now) == 1) {
+                freeSlots--;
+                running.put(job.getId(), job);
+                executor.execute(() -> run(job));
+            } else {
+                // 已被其他 worker 租用，或使用者已達上限；後者在本輪內不會改變
+                saturatedOwners.add(job.getOwnerId());
+            }
+        }
+    }
+
+    /**
+     * 續約執行中的工作（於專用執行緒執行）
+     */
+    void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime leaseExpiresAt = LocalDateTime.now().plus(jobProperties.getLeaseDuration());
+            int renewed = jobRepository.renewLeases(running.keySet(), workerId, leaseExpiresAt);
+            if (renewed < running.size()) {
+                log.warn("部分工作續約失敗: workerId={}, running={}, renewed={}", workerId, running.size(), renewed);
+            }
+        } catch (RuntimeException e) {
+            // 例外會取消後續排程，記錄後於下次間隔重試
+            log.error("工作續約失敗: workerId={}", workerId, e);
+        }
+    }
+
+    /**
+     * 停止接受新工作並等待執行中的工作結束（等待期間持續續約）；未結束的工作於租約到期後由其他節點接手
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } finally {
+            heartbeatScheduler.shutdownNow();
+        }
+    }
+
+    private void run(Job job) {
+        Long jobId = job.getId();
+        try {
+            JobHandler handler = handlers.get(job.getType());
+            if (handler == null) {
+                throw new IllegalStateException("沒有對應的工作處理器: " + job.getType());
+            }
+
+            handler.execute(job, (processedItems, totalItems) -> {
+                if (jobRepository.updateProgress(jobId, workerId, processedItems, totalItems,
+                        LocalDateTime.now()) == 0) {
+                    throw new JobLeaseLostException(jobId);
+                }
+            });
+
+            LocalDateTime now = LocalDateTime.now();
+            jobRepository.release(jobId, workerId, JobStatus.SUCCEEDED, null, now, now);
+            log.info("背景工作完成: jobId={}, type={}", jobId, job.getType());
+        } catch (JobLeaseLostException e) {
+            log.warn("背景工作租約遺失，停止執行: jobId={}", jobId);
+        } catch (Exception e) {
+            // job 為租用前讀取的快照，本次執行次數需再加一
+            boolean exhausted = job.getAttempts() + 1 >= jobProperties.getMaxAttempts();
+            LocalDateTime now = LocalDateTime.now();
+            jobRepository.release(jobId, workerId, exhausted ? JobStatus.FAILED : JobStatus.PENDING,
+                    abbreviate(e.getMessage()), exhausted ? now : null, now);
+            log.error("背景工作執行失敗: jobId={}, type={}, willRetry={}", jobId, job.getType(), !exhausted, e);
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.LiveEventsProperties;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.enums.ChangeType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 即時事件推送（Server-Sent Events）
+ * 訂閱以非同步請求保持連線，閒置時不佔用執行緒；交易提交後只把事件放入各連線的有界佇列，
+ * 由共用的少量執行緒送出，發布端不會被慢速的客戶端阻塞。
+ * 佇列已滿代表客戶端跟不上，此時送出 resync 事件並關閉連線，客戶端改以變更紀錄 API 補齊後重新訂閱
+ */
+@Service
+@Slf4j
+public class LiveEventBroadcaster {
+
+    static final String EVENT_READY = "ready";
+    static final String EVENT_CHANGES = "changes";
+    static final String EVENT_RESYNC = "resync";
+
+    private final ChangeFeedService changeFeedService;
+    private final LiveEventsProperties properties;
+    private final Executor dispatcher;
+    private final ExecutorService ownedExecutor;
+
+    private final Map<Long, Deque<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    public LiveEventBroadcaster(ChangeFeedService changeFeedService, LiveEventsProperties properties) {
+        this.changeFeedService = changeFeedService;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.ownedExecutor = Executors.newFixedThreadPool(properties.getDispatchThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "live-events-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = ownedExecutor;
+    }
+
+    LiveEventBroadcaster(ChangeFeedService changeFeedService, LiveEventsProperties properties, Executor dispatcher) {
+        this.changeFeedService = changeFeedService;
+        this.properties = properties;
+        this.dispatcher = dispatcher;
+        this.ownedExecutor = null;
+    }
+
+    /**
+     * 訂閱使用者的檔案異動
+     * 連線建立後先送出 ready 事件，附帶目前的游標；收到 resync 事件時以最後處理的游標呼叫變更紀錄 API 補齊
+     *
+     * @param userId    使用者 ID
+     * @param folderIds 只接收這些資料夾的異動（空集合且 root 為 false 時接收所有異動）
+     * @param root      是否接收根目錄的異動
+     */
+    public SseEmitter subscribe(Long userId, Set<Long> folderIds, boolean root) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscription subscription = new Subscription(userId, emitter, folderIds, root, properties.getQueueCapacity());
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(e -> unregister(subscription));
+
+        // 先註冊再讀取游標：游標之後提交的異動都會推送到此連線，不會遺漏
+        register(subscription);
+        long cursor = changeFeedService.currentCursor(userId);
+        enqueue(subscription, SseEmitter.event().name(EVENT_READY).id(Long.toString(cursor)).data(cursor));
+        return emitter;
+    }
+
+    /**
+     * 交易提交後推送異動；交易回滾的異動不會送出
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFileChange(FileChangeEvent event) {
+        Deque<Subscription> userSubscriptions = subscriptions.get(event.userId());
+        if (userSubscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : userSubscriptions) {
+            List<FileChangeResponse> matched = event.changes().stream()
+                    .filter(subscription::matches)
+                    .toList();
+            if (!matched.isEmpty()) {
+                long lastSeq = matched.get(matched.size() - 1).getSeq();
+                enqueue(subscription, SseEmitter.event().name(EVENT_CHANGES).id(Long.toString(lastSeq)).data(matched));
+            }
+        }
+    }
+
+    /**
+     * 定期送出心跳，讓反向代理保持連線，並及早移除已斷線的客戶端
+     */
+    @Scheduled(fixedDelayString = "${live-events.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        for (Deque<Subscription> userSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : userSubscriptions) {
+                enqueue(subscription, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    public int activeSubscriptions() {
+        return subscriptions.values().stream().mapToInt(Collection::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(Subscription::close));
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    private void register(Subscription subscription) {
+        Deque<Subscription> userSubscriptions = subscriptions.computeIfAbsent(subscription.userId,
+                key -> new ConcurrentLinkedDeque<>());
+        userSubscriptions.addLast(subscription);
+        // 超過上限時關閉最舊的連線（多半是已關閉卻未正常斷線的分頁）
+        while (userSubscriptions.size() > properties.getMaxSubscriptionsPerUser()) {
+            Subscription oldest = userSubscriptions.pollFirst();
+            if (oldest != null) {
+                oldest.close();
+            }
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        subscription.closed = true;
+        subscriptions.computeIfPresent(subscription.userId, (key, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    /**
+     * 放入連線的佇列並排程送出；佇列已滿時標記為落後，由送出的執行緒通知客戶端重新同步
+     */
+    void enqueue(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (subscription.closed) {
+            return;
+        }
+        if (!subscription.queue.offer(event)) {
+            subscription.overflowed = true;
+        }
+        if (subscription.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscription));
+        }
+    }
+
+    /**
+     * 同一連線同時只有一個執行緒送出，事件依放入順序送達
+     */
+    private void drain(Subscription subscription) {
+        do {
+            if (subscription.overflowed) {
+                resync(subscription);
+                return;
+            }
+            SseEmitter.SseEventBuilder event;
+            while (!subscription.closed && (event = subscription.queue.poll()) != null) {
+                try {
+                    subscription.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("推送事件失敗，關閉連線: userId={}", subscription.userId, e);
+                    subscription.close();
+                    unregister(subscription);
+                    return;
+                }
+                if (subscription.overflowed) {
+                    resync(subscription);
+                    return;
+                }
+            }
+            subscription.scheduled.set(false);
+            // 釋放排程後再次檢查，避免遺漏釋放前剛放入的事件
+        } while (!subscription.closed && !subscription.queue.isEmpty()
+                && subscription.scheduled.compareAndSet(false, true));
+    }
+
+    private void resync(Subscription subscription) {
+        log.debug("客戶端跟不上事件速度，要求重新同步: userId={}", subscription.userId);
+        subscription.queue.clear();
+        try {
+            subscription.emitter.send(SseEmitter.event().name(EVENT_RESYNC).data(""));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("送出 resync 事件失敗: userId={}", subscription.userId, e);
+        }
+        subscription.close();
+        unregister(subscription);
+    }
+
+    static final class Subscription {
+
+        final Long userId;
+        final SseEmitter emitter;
+        final Set<Long> folderIds;
+        final boolean root;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean overflowed;
+        volatile boolean closed;
+
+        Subscription(Long userId, SseEmitter emitter, Set<Long> folderIds, boolean root, int queueCapacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.folderIds = Set.copyOf(folderIds);
+            this.root = root;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        /**
+         * 是否為訂閱範圍內的異動
+         * 搬移只記錄新位置，無法得知是否移出已訂閱的資料夾，因此一律送出
+         */
+        boolean matches(FileChangeResponse change) {
+            if (folderIds.isEmpty() && !root) {
+                return true;
+            }
+            if (change.getChangeType() == ChangeType.MOVED) {
+                return true;
+            }
+            // 已訂閱的資料夾本身被重新命名或刪除，或其中的項目有異動
+            Long parentId = change.getParentId();
+            return folderIds.contains(change.getFileId())
+                    || (parentId == null ? root : folderIds.contains(parentId));
+        }
+
+        void close() {
+            closed = true;
+            emitter.complete();
+        }
+    }
+}
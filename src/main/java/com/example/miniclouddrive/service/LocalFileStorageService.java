@@ -8,14 +8,19 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.UUID;
 
 /**
@@ -29,6 +34,7 @@ public class LocalFileStorageService implements FileStorageService {
 
     private final FileStorageProperties fileStorageProperties;
     private Path rootLocation;
+    private DirectBufferPool bufferPool;
 
     /**
      * 初始化儲存目錄
@@ -36,6 +42,9 @@ public class LocalFileStorageService implements FileStorageService {
     @PostConstruct
     public void init() {
         this.rootLocation = Paths.get(fileStorageProperties.getUploadDir()).toAbsolutePath().normalize();
+        FileStorageProperties.TransferBuffer transferBuffer = fileStorageProperties.getTransferBuffer();
+        this.bufferPool = new DirectBufferPool(Math.toIntExact(transferBuffer.getSize().toBytes()),
+                transferBuffer.getPoolSize());
         try {
             Files.createDirectories(rootLocation);
         } catch (IOException e) {
@@ -44,9 +53,48 @@ public class LocalFileStorageService implements FileStorageService {
     }
 
     @Override
-    public String store(MultipartFile file, Long userId) throws IOException {
+    public String store(InputStream inputStream, String filename, long size, Long userId) throws IOException {
+        String relativePath = newRelativePath(filename, userId);
+        Path target = rootLocation.resolve(relativePath);
+
+        // 以池化的直接緩衝區將內容寫入檔案通道；寫入失敗（含中途被中斷的上傳）時不留下不完整的檔案
+        ByteBuffer buffer = bufferPool.acquire();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // 不關閉 source：關閉會一併關閉 inputStream，而 inputStream 由呼叫端負責關閉
+            ReadableByteChannel source = Channels.newChannel(inputStream);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return relativePath;
+    }
+
+    /**
+     * 暫存檔與儲存目錄位於同一檔案系統時只需重新命名，不複製內容
+     */
+    @Override
+    public String store(Path source, String filename, Long userId) throws IOException {
+        String relativePath = newRelativePath(filename, userId);
+        Files.move(source, rootLocation.resolve(relativePath), StandardCopyOption.REPLACE_EXISTING);
+        return relativePath;
+    }
+
+    /**
+     * 驗證檔名並產生新的儲存路徑（相對於 rootLocation），同時建立使用者專屬目錄
+     */
+    private String newRelativePath(String filename, Long userId) throws IOException {
         // 取得原始檔名並清理
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
+        String originalFilename = StringUtils.cleanPath(filename);
 
         // 驗證檔名
         if (originalFilename.isEmpty()) {
@@ -60,14 +108,8 @@ public class LocalFileStorageService implements FileStorageService {
         String uniqueFilename = UUID.randomUUID().toString() + "_" + originalFilename;
 
         // 建立使用者專屬目錄
-        Path userDir = rootLocation.resolve(userId.toString());
-        Files.createDirectories(userDir);
+        Files.createDirectories(rootLocation.resolve(userId.toString()));
 
-        // 儲存檔案
-        Path targetLocation = userDir.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-        // 回傳相對路徑（相對於 rootLocation）
         return userId + "/" + uniqueFilename;
     }
 
@@ -92,4 +134,9 @@ public class LocalFileStorageService implements FileStorageService {
         Path file = rootLocation.resolve(filePath).normalize();
         Files.deleteIfExists(file);
     }
+
+    @Override
+    public long getStoredSize(String filePath) throws IOException {
+        return Files.size(rootLocation.resolve(filePath).normalize());
+    }
 }
@@ -0,0 +1,233 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.concurrency.BandwidthLimiter;
+import com.example.miniclouddrive.config.FileStorageProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.dto.response.FileUploadResponse;
+import com.example.miniclouddrive.dto.response.MultipartUploadResponse;
+import com.example.miniclouddrive.dto.response.UploadPartResponse;
+import com.example.miniclouddrive.entity.MultipartUpload;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.FileStorageException;
+import com.example.miniclouddrive.exception.InsufficientStorageException;
+import com.example.miniclouddrive.exception.MultipartUploadNotFoundException;
+import com.example.miniclouddrive.repository.MultipartUploadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分段上傳服務（類似 S3 Multipart Upload）
+ * 開始上傳 → 並行上傳編號分段 → 完成時組合分段並透過 FileService 建立檔案記錄；
+ * 單一 TCP 連線受延遲限制時，客戶端可同時以多條連線上傳不同分段；
+ * 已暫存的分段計入使用者配額，每位使用者同時進行中的上傳數亦有上限
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MultipartUploadService {
+
+    /** 每次清除的逾期上傳數 */
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    private final MultipartUploadRepository multipartUploadRepository;
+    private final MultipartUploadStore multipartUploadStore;
+    private final FileStorageService fileStorageService;
+    private final FileService fileService;
+    private final FileStorageProperties fileStorageProperties;
+    private final BandwidthLimiter bandwidthLimiter;
+
+    /**
+     * 開始分段上傳
+     * 配額（有提供大小時）、目標資料夾與同名衝突在開始時即檢查，完成時會再檢查一次
+     */
+    public MultipartUploadResponse initiate(String fileName, Long folderId, Integer duplicateAction, Long size,
+            Long userId) {
+        if (duplicateAction != null && duplicateAction != 0 && duplicateAction != 1) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "無效的 duplicateAction 值: " + duplicateAction);
+        }
+        FileStorageProperties.Multipart multipart = fileStorageProperties.getMultipart();
+        if (multipartUploadRepository.countByOwnerIdAndExpiresAtAfter(userId, LocalDateTime.now())
+                >= multipart.getMaxOpenUploads()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "進行中的分段上傳已達上限 " + multipart.getMaxOpenUploads() + " 筆，請先完成或取消");
+        }
+        fileService.preflightUpload(fileName, folderId, duplicateAction, size == null ? -1 : size, userId);
+
+        MultipartUpload upload = multipartUploadRepository.save(MultipartUpload.builder()
+                .ownerId(userId)
+                .folderId(folderId)
+                .fileName(fileName)
+                .duplicateAction(duplicateAction)
+                .declaredSize(size)
+                .expiresAt(LocalDateTime.now().plus(multipart.getTtl()))
+                .build());
+
+        return MultipartUploadResponse.builder()
+                .uploadId(upload.getId())
+                .fileName(upload.getFileName())
+                .maxPartSize(multipart.getMaxPartSize().toBytes())
+                .maxParts(multipart.getMaxParts())
+                .expiresAt(upload.getExpiresAt())
+                .build();
+    }
+
+    /**
+     * 上傳單一分段，同一編號重複上傳時取代舊內容
+     * 已暫存的分段計入配額：寫入前先預留一個分段的上限，已使用空間加上所有分段上傳的暫存量不得超過配額，
+     * 寫入後再依實際大小調整。並行上傳的分段彼此都看得到對方的預留量，合計不會超過配額
+     */
+    public UploadPartResponse uploadPart(Long uploadId, int partNumber, InputStream inputStream, Long userId) {
+        FileStorageProperties.Multipart multipart = fileStorageProperties.getMultipart();
+        checkPartNumber(partNumber, multipart.getMaxParts());
+        findActive(uploadId, userId);
+
+        long maxPartSize = multipart.getMaxPartSize().toBytes();
+        long delta = 0;
+        multipartUploadRepository.addStagedBytes(uploadId, maxPartSize);
+        try {
+            // 同一編號重複上傳時，新分段取代舊分段的暫存量
+            long previousSize = multipartUploadStore.partSize(uploadId, partNumber);
+            long stagedByOthers = multipartUploadRepository.sumStagedBytesByOwnerId(userId) - maxPartSize - previousSize;
+            long allowance = fileService.getRemainingQuota(userId) - stagedByOthers;
+            if (allowance <= 0) {
+                throw new InsufficientStorageException(1L, 0L);
+            }
+            long limit = Math.min(maxPartSize, allowance);
+
+            long size;
+            try {
+                // 分段直接寫入暫存區，不經過 FileStorageService，頻寬限制需在此套用
+                size = multipartUploadStore.writePart(uploadId, partNumber,
+                        bandwidthLimiter.throttle(inputStream, userId, BandwidthLimiter.Direction.UPLOAD), limit);
+            } catch (BusinessException e) {
+                if (limit < maxPartSize) {
+                    throw new InsufficientStorageException(limit + 1, limit);
+                }
+                throw e;
+            }
+            delta = size - previousSize;
+            return UploadPartResponse.builder()
+                    .partNumber(partNumber)
+                    .size(size)
+                    .build();
+        } catch (IOException e) {
+            throw new FileStorageException("儲存分段失敗: " + e.getMessage(), e);
+        } finally {
+            multipartUploadRepository.addStagedBytes(uploadId, delta - maxPartSize);
+        }
+    }
+
+    /**
+     * 完成分段上傳：組合分段、移入儲存層並建立檔案記錄
+     * 建立記錄失敗（例如同名衝突）時保留分段，修正後可再次完成
+     */
+    public FileUploadResponse complete(Long uploadId, List<Integer> partNumbers, Long userId) {
+        FileStorageProperties.Multipart multipart = fileStorageProperties.getMultipart();
+        for (int i = 0; i < partNumbers.size(); i++) {
+            checkPartNumber(partNumbers.get(i), multipart.getMaxParts());
+            if (i > 0 && partNumbers.get(i) <= partNumbers.get(i - 1)) {
+                throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "分段編號需遞增排列");
+            }
+        }
+        MultipartUpload upload = findActive(uploadId, userId);
+
+        StoredContent stored;
+        long size;
+        Path assembled = null;
+        try {
+            assembled = multipartUploadStore.assemble(uploadId, partNumbers);
+            size = Files.size(assembled);
+            String filePath = fileStorageService.store(assembled, upload.getFileName(), userId);
+            // 組合時不經過應用程式，因此不計算內容雜湊
+            stored = new StoredContent(filePath, fileStorageService.getStoredSize(filePath), null);
+        } catch (IOException e) {
+            throw new FileStorageException("組合分段失敗: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(assembled);
+        }
+
+        FileUploadResponse response;
+        try {
+            response = fileService.registerStoredFile(upload.getFileName(), upload.getFolderId(),
+                    upload.getDuplicateAction(), size, stored, userId);
+        } catch (RuntimeException e) {
+            try {
+                fileStorageService.delete(stored.filePath());
+            } catch (IOException deleteError) {
+                log.warn("刪除未建立記錄的檔案失敗: {}", stored.filePath(), deleteError);
+            }
+            throw e;
+        }
+
+        discard(upload);
+        return response;
+    }
+
+    /**
+     * 取消分段上傳並刪除已上傳的分段
+     */
+    public void abort(Long uploadId, Long userId) {
+        MultipartUpload upload = multipartUploadRepository.findByIdAndOwnerId(uploadId, userId)
+                .orElseThrow(() -> new MultipartUploadNotFoundException(uploadId));
+        discard(upload);
+    }
+
+    /**
+     * 清除逾期未完成的分段上傳
+     */
+    @Scheduled(fixedDelayString = "${file.multipart.cleanup-interval:PT10M}")
+    public void cleanupExpired() {
+        List<MultipartUpload> expired;
+        do {
+            expired = multipartUploadRepository.findByExpiresAtBefore(LocalDateTime.now(),
+                    PageRequest.of(0, CLEANUP_BATCH_SIZE));
+            expired.forEach(this::discard);
+            if (!expired.isEmpty()) {
+                log.info("已清除逾期的分段上傳: {} 筆", expired.size());
+            }
+        } while (expired.size() == CLEANUP_BATCH_SIZE);
+    }
+
+    private MultipartUpload findActive(Long uploadId, Long userId) {
+        return multipartUploadRepository.findByIdAndOwnerIdAndExpiresAtAfter(uploadId, userId, LocalDateTime.now())
+                .orElseThrow(() -> new MultipartUploadNotFoundException(uploadId));
+    }
+
+    private void discard(MultipartUpload upload) {
+        try {
+            multipartUploadStore.delete(upload.getId());
+        } catch (IOException e) {
+            log.warn("刪除分段暫存失敗: uploadId={}", upload.getId(), e);
+        }
+        multipartUploadRepository.delete(upload);
+    }
+
+    private static void checkPartNumber(int partNumber, int maxParts) {
+        if (partNumber < 1 || partNumber > maxParts) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "分段編號需介於 1 與 " + maxParts + " 之間");
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("刪除暫存檔失敗: {}", path, e);
+        }
+    }
+}
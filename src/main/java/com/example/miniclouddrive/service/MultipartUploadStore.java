@@ -0,0 +1,144 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.FileStorageException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 分段上傳暫存區
+ * 各分段獨立寫入暫存目錄，完成時以 FileChannel.transferTo 依序組合（由核心直接複製，不經過應用程式緩衝區）
+ * 暫存路徑結構：{uploadDir}/multipart/{uploadId}/{partNumber}.part，與儲存目錄位於同一檔案系統，
+ * 組合完成的檔案可直接移入儲存目錄
+ */
+@Service
+@RequiredArgsConstructor
+public class MultipartUploadStore {
+
+    private static final String STAGING_DIR = "multipart";
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageProperties fileStorageProperties;
+    private Path stagingDir;
+
+    @PostConstruct
+    public void init() {
+        this.stagingDir = Paths.get(fileStorageProperties.getUploadDir()).toAbsolutePath().normalize()
+                .resolve(STAGING_DIR);
+        try {
+            Files.createDirectories(stagingDir);
+        } catch (IOException e) {
+            throw new FileStorageException("無法建立分段上傳暫存目錄: " + stagingDir, e);
+        }
+    }
+
+    /**
+     * 寫入分段；先寫入暫存檔再原子性地改名，重複上傳同一編號時取代舊內容，組合時不會讀到寫到一半的分段
+     * 
+     * @param uploadId    上傳 ID
+     * @param partNumber  分段編號
+     * @param inputStream 分段內容（由呼叫端負責關閉）
+     * @param maxPartSize 分段大小上限
+     * @return 分段大小
+     */
+    public long writePart(Long uploadId, int partNumber, InputStream inputStream, long maxPartSize)
+            throws IOException {
+        Path uploadDir = uploadDir(uploadId);
+        Files.createDirectories(uploadDir);
+        Path temp = Files.createTempFile(uploadDir, partNumber + "-", ".tmp");
+        try {
+            long written = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    written += read;
+                    if (written > maxPartSize) {
+                        throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                                "分段大小超過上限: " + maxPartSize + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            Files.move(temp, partPath(uploadId, partNumber), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 查詢已上傳分段的大小
+     * 
+     * @return 分段大小，尚未上傳時為 0
+     */
+    public long partSize(Long uploadId, int partNumber) throws IOException {
+        Path part = partPath(uploadId, partNumber);
+        return Files.isRegularFile(part) ? Files.size(part) : 0;
+    }
+
+    /**
+     * 依序組合分段為單一檔案
+     * 
+     * @param uploadId    上傳 ID
+     * @param partNumbers 分段編號（依組合順序）
+     * @return 組合完成的暫存檔
+     */
+    public Path assemble(Long uploadId, List<Integer> partNumbers) throws IOException {
+        for (Integer partNumber : partNumbers) {
+            if (!Files.isRegularFile(partPath(uploadId, partNumber))) {
+                throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "分段尚未上傳: " + partNumber);
+            }
+        }
+
+        Path assembled = Files.createTempFile(uploadDir(uploadId), "assembled-", ".tmp");
+        try (FileChannel target = FileChannel.open(assembled, StandardOpenOption.WRITE)) {
+            for (Integer partNumber : partNumbers) {
+                try (FileChannel part = FileChannel.open(partPath(uploadId, partNumber), StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = part.size();
+                    // transferTo 單次可能只傳輸部分內容，需重複呼叫直到完成
+                    while (position < size) {
+                        position += part.transferTo(position, size - position, target);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(assembled);
+            throw e;
+        }
+        return assembled;
+    }
+
+    /**
+     * 刪除上傳的所有分段與組合暫存檔
+     */
+    public void delete(Long uploadId) throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir(uploadId));
+    }
+
+    private Path uploadDir(Long uploadId) {
+        return stagingDir.resolve(uploadId.toString());
+    }
+
+    private Path partPath(Long uploadId, int partNumber) {
+        return uploadDir(uploadId).resolve(partNumber + PART_SUFFIX);
+    }
+}
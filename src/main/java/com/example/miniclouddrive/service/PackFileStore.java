@@ -0,0 +1,311 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import com.example.miniclouddrive.entity.PackBlob;
+import com.example.miniclouddrive.exception.FileStorageException;
+import com.example.miniclouddrive.repository.PackBlobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 小檔案打包儲存
+ * 將小檔案依序附加（append-only）到大型打包檔中，以 pack_blobs 資料表記錄位置
+ * 儲存路徑結構：{uploadDir}/packs/pack-{packId}.dat，對外回傳的路徑為 pack/{blobId}
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PackFileStore {
+
+    /** 打包資料的路徑前綴 */
+    public static final String PATH_PREFIX = "pack/";
+
+    private static final String PACK_DIR = "packs";
+    private static final String PACK_SUFFIX = ".dat";
+    private static final String RETIRED_SUFFIX = ".retired";
+
+    private final FileStorageProperties fileStorageProperties;
+    private final PackBlobRepository packBlobRepository;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private Path packDir;
+    private long activePackId;
+    private FileChannel activeChannel;
+
+    /**
+     * 初始化打包目錄，並沿用編號最大的打包檔作為寫入目標
+     */
+    @PostConstruct
+    public void init() {
+        this.packDir = Paths.get(fileStorageProperties.getUploadDir()).toAbsolutePath().normalize().resolve(PACK_DIR);
+        try {
+            Files.createDirectories(packDir);
+            long maxPackId = 0;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(packDir, "pack-*" + PACK_SUFFIX)) {
+                for (Path pack : stream) {
+                    maxPackId = Math.max(maxPackId, parsePackId(pack));
+                }
+            }
+            openActivePack(Math.max(maxPackId, 1));
+        } catch (IOException e) {
+            throw new FileStorageException("無法建立打包目錄: " + packDir, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+        }
+    }
+
+    /**
+     * 判斷路徑是否指向打包資料
+     */
+    public static boolean isPackPath(String filePath) {
+        return filePath != null && filePath.startsWith(PATH_PREFIX);
+    }
+
+    /**
+     * 附加資料到目前的打包檔
+     *
+     * @param data 檔案內容
+     * @return 打包資料路徑（pack/{blobId}）
+     */
+    public String append(byte[] data) throws IOException {
+        long[] location = appendRaw(data);
+        PackBlob blob = packBlobRepository.save(PackBlob.builder()
+                .packId(location[0])
+                .offset(location[1])
+                .length((long) data.length)
+                .build());
+        return PATH_PREFIX + blob.getId();
+    }
+
+    /**
+     * 讀取打包資料
+     */
+    public byte[] read(String filePath) throws IOException {
+        PackBlob blob = findBlob(filePath);
+        return readAt(blob.getPackId(), blob.getOffset(), blob.getLength());
+    }
+
+    /**
+     * 取得打包資料長度
+     */
+    public long length(String filePath) {
+        return findBlob(filePath).getLength();
+    }
+
+    /**
+     * 刪除打包資料的索引，實際空間於壓實時回收
+     */
+    public void delete(String filePath) {
+        packBlobRepository.deleteById(parseBlobId(filePath));
+    }
+
+    /**
+     * 壓實打包檔
+     * 已刪除（或交易回滾而未登記）的資料比例超過門檻時，將存活資料搬到目前的打包檔並移除舊檔
+     * 資料寫入打包檔後才在上傳交易中登記，尚未提交的資料查不到，因此保留時間（retired-grace-period）
+     * 內寫入過的打包檔不壓實；舊檔先改名為 .retired，壓實前已查得舊位置的讀取改從舊檔讀取，
+     * 超過保留時間且已無資料引用時才真正刪除
+     */
+    @Scheduled(fixedDelayString = "${file.pack.compaction-interval:PT10M}")
+    public void compact() {
+        deleteRetiredPacks();
+
+        long activePackId = currentPackId();
+        long writtenBefore = System.currentTimeMillis()
+                - fileStorageProperties.getPack().getRetiredGracePeriod().toMillis();
+        Map<Long, Long> liveBytes = new HashMap<>();
+        for (Object[] row : packBlobRepository.sumLiveBytesGroupByPackId()) {
+            liveBytes.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+
+        double threshold = fileStorageProperties.getPack().getCompactionThreshold();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(packDir, "pack-*" + PACK_SUFFIX)) {
+            for (Path pack : stream) {
+                long packId = parsePackId(pack);
+                if (packId == activePackId || Files.getLastModifiedTime(pack).toMillis() > writtenBefore) {
+                    continue;
+                }
+                long totalBytes = Files.size(pack);
+                long garbageBytes = totalBytes - liveBytes.getOrDefault(packId, 0L);
+                if (totalBytes > 0 && (double) garbageBytes / totalBytes >= threshold) {
+                    compactPack(packId, pack);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("打包檔壓實失敗: {}", packDir, e);
+        }
+    }
+
+    private void compactPack(long packId, Path pack) throws IOException {
+        int relocated = relocateBlobs(packId);
+        Path retired = retiredPath(packId);
+        Files.move(pack, retired);
+        // 改名保留原本的修改時間，以淘汰時間作為保留期限的起點
+        Files.setLastModifiedTime(retired, FileTime.fromMillis(System.currentTimeMillis()));
+        log.info("打包檔壓實完成: packId={}, relocatedBlobs={}", packId, relocated);
+    }
+
+    /**
+     * 將打包檔內仍被引用的資料搬到目前的打包檔
+     *
+     * @return 搬移筆數
+     */
+    private int relocateBlobs(long packId) throws IOException {
+        List<PackBlob> blobs = packBlobRepository.findByPackId(packId);
+        for (PackBlob blob : blobs) {
+            byte[] data = readAt(packId, blob.getOffset(), blob.getLength());
+            long[] location = appendRaw(data);
+            packBlobRepository.relocate(blob.getId(), packId, location[0], location[1]);
+        }
+        return blobs.size();
+    }
+
+    /**
+     * 刪除超過保留時間的淘汰檔
+     * 淘汰後才提交的上傳仍引用舊檔時先搬移資料，下一輪確認已無引用再刪除
+     */
+    private void deleteRetiredPacks() {
+        long retiredBefore = System.currentTimeMillis()
+                - fileStorageProperties.getPack().getRetiredGracePeriod().toMillis();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(packDir, "*" + RETIRED_SUFFIX)) {
+            for (Path retired : stream) {
+                if (Files.getLastModifiedTime(retired).toMillis() > retiredBefore) {
+                    continue;
+                }
+                long packId = parseRetiredPackId(retired);
+                if (packBlobRepository.existsByPackId(packId)) {
+                    log.warn("已淘汰的打包檔仍有資料引用，搬移後於下一輪刪除: packId={}, relocatedBlobs={}",
+                            packId, relocateBlobs(packId));
+                } else {
+                    Files.deleteIfExists(retired);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("刪除已淘汰的打包檔失敗: {}", packDir, e);
+        }
+    }
+
+    /**
+     * 寫入資料到目前的打包檔，必要時切換新檔
+     *
+     * @return [packId, offset]
+     */
+    private long[] appendRaw(byte[] data) throws IOException {
+        long maxPackSize = fileStorageProperties.getPack().getMaxPackSize().toBytes();
+        appendLock.lock();
+        try {
+            long offset = activeChannel.size();
+            if (offset > 0 && offset + data.length > maxPackSize) {
+                activeChannel.close();
+                openActivePack(activePackId + 1);
+                offset = 0;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                position += activeChannel.write(buffer, position);
+            }
+            return new long[] { activePackId, offset };
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private long currentPackId() {
+        appendLock.lock();
+        try {
+            return activePackId;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private byte[] readAt(long packId, long offset, long length) throws IOException {
+        byte[] data = new byte[Math.toIntExact(length)];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try (FileChannel channel = openForRead(packId)) {
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new FileStorageException("打包檔內容不完整: packId=" + packId);
+                }
+                position += read;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 開啟打包檔供讀取；已被壓實淘汰時改開啟保留期間內的舊檔
+     * 檔案改名是原子操作，兩者之一必定存在（保留期限已過除外）
+     */
+    private FileChannel openForRead(long packId) throws IOException {
+        try {
+            return FileChannel.open(packPath(packId), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return FileChannel.open(retiredPath(packId), StandardOpenOption.READ);
+        }
+    }
+
+    private void openActivePack(long packId) throws IOException {
+        this.activeChannel = FileChannel.open(packPath(packId),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.activePackId = packId;
+    }
+
+    private PackBlob findBlob(String filePath) {
+        return packBlobRepository.findById(parseBlobId(filePath))
+                .orElseThrow(() -> new FileStorageException("找不到檔案: " + filePath));
+    }
+
+    private Path packPath(long packId) {
+        return packDir.resolve(String.format("pack-%08d%s", packId, PACK_SUFFIX));
+    }
+
+    private Path retiredPath(long packId) {
+        return packDir.resolve(String.format("pack-%08d%s%s", packId, PACK_SUFFIX, RETIRED_SUFFIX));
+    }
+
+    private static long parsePackId(Path pack) {
+        String name = pack.getFileName().toString();
+        return Long.parseLong(name.substring("pack-".length(), name.length() - PACK_SUFFIX.length()));
+    }
+
+    private static long parseRetiredPackId(Path retired) {
+        String name = retired.getFileName().toString();
+        return parsePackId(retired.resolveSibling(name.substring(0, name.length() - RETIRED_SUFFIX.length())));
+    }
+
+    private static Long parseBlobId(String filePath) {
+        try {
+            return Long.valueOf(filePath.substring(PATH_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new FileStorageException("無效的檔案路徑: " + filePath, e);
+        }
+    }
+}
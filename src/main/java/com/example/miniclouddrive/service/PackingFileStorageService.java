@@ -0,0 +1,79 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 小檔案打包儲存裝飾器
+ * 小於門檻的檔案寫入 {@link PackFileStore}，其餘檔案交給下層儲存服務
+ */
+@RequiredArgsConstructor
+public class PackingFileStorageService implements FileStorageService {
+
+    private final FileStorageService delegate;
+    private final PackFileStore packFileStore;
+    private final FileStorageProperties.Pack packProperties;
+
+    @Override
+    public String store(InputStream inputStream, String originalFilename, long size, Long userId) throws IOException {
+        long threshold = packProperties.getThreshold().toBytes();
+        if (!packProperties.isEnabled() || size > threshold) {
+            return delegate.store(inputStream, originalFilename, size, userId);
+        }
+
+        // 大小未知時最多先讀取 threshold + 1 bytes 判斷是否為小檔案
+        byte[] head = inputStream.readNBytes(Math.toIntExact(threshold + 1));
+        if (head.length <= threshold) {
+            return packFileStore.append(head);
+        }
+        return delegate.store(new SequenceInputStream(new ByteArrayInputStream(head), inputStream),
+                originalFilename, size, userId);
+    }
+
+    @Override
+    public String store(Path source, String originalFilename, Long userId) throws IOException {
+        if (!packProperties.isEnabled() || Files.size(source) > packProperties.getThreshold().toBytes()) {
+            return delegate.store(source, originalFilename, userId);
+        }
+        return FileStorageService.super.store(source, originalFilename, userId);
+    }
+
+    @Override
+    public Resource load(String filePath) throws IOException {
+        return load(filePath, -1);
+    }
+
+    @Override
+    public Resource load(String filePath, long size) throws IOException {
+        if (PackFileStore.isPackPath(filePath)) {
+            return new ByteArrayResource(packFileStore.read(filePath), filePath);
+        }
+        return delegate.load(filePath, size);
+    }
+
+    @Override
+    public void delete(String filePath) throws IOException {
+        if (PackFileStore.isPackPath(filePath)) {
+            packFileStore.delete(filePath);
+            return;
+        }
+        delegate.delete(filePath);
+    }
+
+    @Override
+    public long getStoredSize(String filePath) throws IOException {
+        if (PackFileStore.isPackPath(filePath)) {
+            return packFileStore.length(filePath);
+        }
+        return delegate.getStoredSize(filePath);
+    }
+}
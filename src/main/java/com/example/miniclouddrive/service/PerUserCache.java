@@ -0,0 +1,235 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 每位使用者一份、第一次使用時才從資料庫建立的記憶體結構（檔名索引、資料夾命名空間）
+ * 同一使用者同時只有一個請求負責建立，其餘請求等待建立完成；建立期間提交的異動先暫存，建立完成後依序套用。
+ * 所有使用者共用一個記憶體預算，超過時釋放最久未使用的項目；單一使用者建立時即超過預算者，
+ * 在 {@link #oversizedRetry()} 期間內不再建立（呼叫端改查資料庫），期限過後重新嘗試
+ *
+ * @param <T> 記憶體結構
+ */
+@Slf4j
+abstract class PerUserCache<T> {
+
+    private final String name;
+    private final LongSupplier nanoClock;
+
+    private final Map<Long, Entry<T>> entries = new ConcurrentHashMap<>();
+    /** 超過記憶體預算的使用者與判定的時間（nanoTime） */
+    private final Map<Long, Long> oversizedUsers = new ConcurrentHashMap<>();
+    private final AtomicLong accessClock = new AtomicLong();
+
+    protected PerUserCache(String name, LongSupplier nanoClock) {
+        this.name = name;
+        this.nanoClock = nanoClock;
+    }
+
+    /** 建立空的結構 */
+    protected abstract T create();
+
+    /**
+     * 讀取 ID 大於 afterId 的下一批資料放入結構
+     *
+     * @return 這批最後一筆的 ID；沒有更多資料時回傳 -1
+     */
+    protected abstract long loadAfter(Long userId, long afterId, T target);
+
+    /** 套用一筆交易提交後的異動；重複套用同一異動不影響結果 */
+    protected abstract void apply(T target, FileChangeResponse change);
+
+    /** 結構的記憶體估計（bytes） */
+    protected abstract long estimatedBytes(T target);
+
+    /** 所有使用者共用的記憶體預算（bytes） */
+    protected abstract long maxBytes();
+
+    /** 超過預算的使用者多久後重新嘗試建立 */
+    protected abstract Duration oversizedRetry();
+
+    /** 結構的有效期限，超過後重新建立；null 表示不過期 */
+    protected Duration ttl() {
+        return null;
+    }
+
+    /**
+     * 取得使用者的結構，尚未建立或已超過有效期限時由目前的請求建立，同時使用的其他請求等待建立完成
+     *
+     * @return 結構；超過記憶體預算時回傳 null
+     */
+    public T get(Long userId) {
+        long now = nanoClock.getAsLong();
+        Long oversizedAt = oversizedUsers.get(userId);
+        if (oversizedAt != null) {
+            if (now - oversizedAt < oversizedRetry().toNanos()) {
+                return null;
+            }
+            oversizedUsers.remove(userId, oversizedAt);
+        }
+        Duration ttl = ttl();
+        Entry<T> current = entries.get(userId);
+        if (ttl != null && current != null && current.built.isDone() && now - current.createdAt > ttl.toNanos()) {
+            entries.remove(userId, current);
+        }
+
+        Entry<T> created = new Entry<>(create(), now);
+        Entry<T> existing = entries.putIfAbsent(userId, created);
+        if (existing != null) {
+            existing.built.join();
+            existing.lastAccess = accessClock.incrementAndGet();
+            return existing.usable ? existing.value : null;
+        }
+
+        try {
+            build(userId, created);
+        } catch (RuntimeException e) {
+            entries.remove(userId, created);
+            created.built.completeExceptionally(e);
+            throw e;
+        }
+        created.lastAccess = accessClock.incrementAndGet();
+        if (created.usable) {
+            enforceBudget(created);
+            return created.value;
+        }
+        return null;
+    }
+
+    /**
+     * 套用交易提交後的異動；使用者的結構尚未載入時忽略，建立中時先暫存
+     */
+    public void apply(Long userId, List<FileChangeResponse> changes) {
+        Entry<T> entry = entries.get(userId);
+        if (entry != null) {
+            changes.forEach(change -> entry.apply(this, change));
+        }
+    }
+
+    public boolean isLoaded(Long userId) {
+        return entries.containsKey(userId);
+    }
+
+    /**
+     * 釋放使用者的結構，下次使用時重新建立
+     */
+    public void invalidate(Long userId) {
+        entries.remove(userId);
+    }
+
+    /**
+     * 只在目前的結構仍是 value 時釋放，避免釋放其他請求剛重新建立的結構
+     */
+    public void invalidate(Long userId, T value) {
+        entries.computeIfPresent(userId, (key, entry) -> entry.value == value ? null : entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 所有已建立結構的記憶體估計（bytes）
+     */
+    public long estimatedBytes() {
+        return entries.values().stream()
+                .filter(entry -> entry.built.isDone())
+                .mapToLong(entry -> estimatedBytes(entry.value))
+                .sum();
+    }
+
+    /**
+     * 依 ID 分批讀取建立結構，每批之後檢查是否超過記憶體預算
+     */
+    private void build(Long userId, Entry<T> entry) {
+        long budget = maxBytes();
+        long afterId = 0;
+        do {
+            afterId = loadAfter(userId, afterId, entry.value);
+            if (estimatedBytes(entry.value) > budget) {
+                log.warn("使用者的{}超過記憶體預算，改以資料庫查詢: userId={}", name, userId);
+                oversizedUsers.put(userId, nanoClock.getAsLong());
+                entries.remove(userId, entry);
+                entry.finishBuild(this, false);
+                return;
+            }
+        } while (afterId >= 0);
+
+        entry.finishBuild(this, true);
+        log.debug("已建立{}: userId={}", name, userId);
+    }
+
+    /**
+     * 釋放最久未使用的結構，直到總用量不超過預算
+     */
+    private synchronized void enforceBudget(Entry<T> keep) {
+        long budget = maxBytes();
+        List<Map.Entry<Long, Entry<T>>> candidates = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<Long, Entry<T>> mapEntry : entries.entrySet()) {
+            Entry<T> entry = mapEntry.getValue();
+            if (entry.built.isDone() && entry.usable) {
+                total += estimatedBytes(entry.value);
+                if (entry != keep) {
+                    candidates.add(mapEntry);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong(mapEntry -> mapEntry.getValue().lastAccess));
+        for (Map.Entry<Long, Entry<T>> mapEntry : candidates) {
+            if (total <= budget) {
+                break;
+            }
+            if (entries.remove(mapEntry.getKey(), mapEntry.getValue())) {
+                total -= estimatedBytes(mapEntry.getValue().value);
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+
+        final T value;
+        final CompletableFuture<Void> built = new CompletableFuture<>();
+        /** 開始建立的時間（nanoTime），用來判斷是否超過有效期限 */
+        final long createdAt;
+        volatile boolean usable;
+        volatile long lastAccess;
+
+        /** 建立期間提交的異動，建立完成後設為 null */
+        private List<FileChangeResponse> pending = new ArrayList<>();
+
+        Entry(T value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+
+        synchronized void apply(PerUserCache<T> cache, FileChangeResponse change) {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                cache.apply(value, change);
+            }
+        }
+
+        void finishBuild(PerUserCache<T> cache, boolean usable) {
+            synchronized (this) {
+                List<FileChangeResponse> replay = pending;
+                pending = null;
+                replay.forEach(change -> cache.apply(value, change));
+            }
+            this.usable = usable;
+            built.complete(null);
+        }
+    }
+}
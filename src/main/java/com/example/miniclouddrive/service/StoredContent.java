@@ -0,0 +1,40 @@
+package com.example.miniclouddrive.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 已寫入儲存層的內容：儲存路徑、實際佔用空間與內容雜湊
+ *
+ * @param filePath    儲存路徑
+ * @param storedSize  實際佔用空間（壓縮後的大小）
+ * @param contentHash 內容的 SHA-256（十六進位）
+ */
+public record StoredContent(String filePath, long storedSize, String contentHash) {
+
+    /**
+     * 儲存內容，並在寫入的同時計算 SHA-256（不需再讀一次內容）
+     */
+    public static StoredContent store(FileStorageService fileStorageService, InputStream inputStream,
+            String originalFilename, long size, Long userId) throws IOException {
+        MessageDigest digest = newContentDigest();
+        String filePath;
+        try (InputStream digestStream = new DigestInputStream(inputStream, digest)) {
+            filePath = fileStorageService.store(digestStream, originalFilename, size, userId);
+        }
+        return new StoredContent(filePath, fileStorageService.getStoredSize(filePath),
+                HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.dto.response.FileUploadResponse;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.FileStorageException;
+import com.example.miniclouddrive.exception.InsufficientStorageException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 原始內容串流上傳服務
+ * 請求內容直接寫入儲存層，不經過 multipart 解析與暫存檔，也不受 multipart 的檔案大小上限限制；
+ * 大小以剩餘配額為上限，堆積用量與檔案大小無關
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StreamingUploadService {
+
+    private final FileService fileService;
+    private final FileStorageService fileStorageService;
+
+    /**
+     * 串流上傳檔案
+     * 
+     * @param inputStream     請求內容（由呼叫端負責關閉）
+     * @param fileName        檔案名稱
+     * @param folderId        目標資料夾 ID（null 表示根目錄）
+     * @param duplicateAction 重複檔案處理方式：null=拒絕, 0=覆蓋, 1=自動加後綴
+     * @param contentLength   Content-Length，未知時（chunked）為 -1
+     * @param userId          當前使用者 ID
+     * @return 上傳結果
+     */
+    public FileUploadResponse upload(InputStream inputStream, String fileName, Long folderId,
+            Integer duplicateAction, long contentLength, Long userId) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(), "檔案名稱不能為空");
+        }
+        if (duplicateAction != null && duplicateAction != 0 && duplicateAction != 1) {
+            throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                    "無效的 duplicateAction 值: " + duplicateAction);
+        }
+
+        // 讀取內容前先檢查，被拒絕的上傳不會傳送內容（搭配 Expect: 100-continue）
+        fileService.preflightUpload(fileName, folderId, duplicateAction, contentLength, userId);
+
+        QuotaLimitedInputStream limited = new QuotaLimitedInputStream(inputStream,
+                fileService.getRemainingQuota(userId));
+        StoredContent stored;
+        try {
+            stored = StoredContent.store(fileStorageService, limited, fileName, contentLength, userId);
+        } catch (IOException e) {
+            throw new FileStorageException("儲存檔案失敗: " + e.getMessage(), e);
+        }
+
+        try {
+            if (contentLength >= 0 && limited.getCount() != contentLength) {
+                throw new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                        "內容長度與 Content-Length 不符");
+            }
+            return fileService.registerStoredFile(fileName, folderId, duplicateAction, limited.getCount(), stored,
+                    userId);
+        } catch (RuntimeException e) {
+            try {
+                fileStorageService.delete(stored.filePath());
+            } catch (IOException deleteError) {
+                log.warn("刪除未建立記錄的檔案失敗: {}", stored.filePath(), deleteError);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 計算已讀取的位元組數，超過剩餘配額即中止讀取
+     */
+    static class QuotaLimitedInputStream extends FilterInputStream {
+
+        private final long remainingQuota;
+        private long count;
+
+        QuotaLimitedInputStream(InputStream in, long remainingQuota) {
+            super(in);
+            this.remainingQuota = remainingQuota;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                advance(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            advance(skipped);
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        private void advance(long bytes) {
+            count += bytes;
+            if (count > remainingQuota) {
+                throw new InsufficientStorageException(count, remainingQuota);
+            }
+        }
+    }
+}
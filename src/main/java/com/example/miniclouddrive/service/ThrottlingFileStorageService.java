@@ -0,0 +1,100 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.concurrency.BandwidthLimiter;
+import com.example.miniclouddrive.util.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 頻寬限制裝飾器（最外層）
+ * 寫入時依 userId 參數限制上傳速度；讀取時依目前登入的使用者限制下載速度，
+ * 背景工作等沒有登入使用者的讀取不受限制
+ */
+@RequiredArgsConstructor
+public class ThrottlingFileStorageService implements FileStorageService {
+
+    private final FileStorageService delegate;
+    private final BandwidthLimiter bandwidthLimiter;
+
+    @Override
+    public String store(InputStream inputStream, String originalFilename, long size, Long userId) throws IOException {
+        return delegate.store(bandwidthLimiter.throttle(inputStream, userId, BandwidthLimiter.Direction.UPLOAD),
+                originalFilename, size, userId);
+    }
+
+    /**
+     * 本機暫存檔的內容在上傳分段時已受限制，移入儲存層不再限制
+     */
+    @Override
+    public String store(Path source, String originalFilename, Long userId) throws IOException {
+        return delegate.store(source, originalFilename, userId);
+    }
+
+    @Override
+    public Resource load(String filePath) throws IOException {
+        return load(filePath, -1);
+    }
+
+    @Override
+    public Resource load(String filePath, long size) throws IOException {
+        Resource resource = delegate.load(filePath, size);
+        if (!SecurityUtils.isAuthenticated()) {
+            return resource;
+        }
+        return new ThrottledResource(resource, SecurityUtils.getCurrentUserId());
+    }
+
+    @Override
+    public void delete(String filePath) throws IOException {
+        delegate.delete(filePath);
+    }
+
+    @Override
+    public long getStoredSize(String filePath) throws IOException {
+        return delegate.getStoredSize(filePath);
+    }
+
+    /**
+     * 讀取內容時套用下載頻寬限制的資源
+     */
+    private class ThrottledResource extends AbstractResource {
+
+        private final Resource resource;
+        private final Long userId;
+
+        ThrottledResource(Resource resource, Long userId) {
+            this.resource = resource;
+            this.userId = userId;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return bandwidthLimiter.throttle(resource.getInputStream(), userId, BandwidthLimiter.Direction.DOWNLOAD);
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return resource.contentLength();
+        }
+
+        @Override
+        public boolean exists() {
+            return resource.exists();
+        }
+
+        @Override
+        public String getFilename() {
+            return resource.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "throttled " + resource.getDescription();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.entity.Job;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 永久刪除回收筒項目的背景工作處理器
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrashPurgeJobHandler implements JobHandler {
+
+    private final FileService fileService;
+
+    @Override
+    public JobType getType() {
+        return JobType.TRASH_PURGE;
+    }
+
+    @Override
+    public void execute(Job job, JobProgress progress) {
+        try {
+            fileService.purgeTrash(job.getTargetId(), job.getOwnerId(), progress);
+        } catch (InvalidFileException e) {
+            // 前一次執行已刪除完成但在回報結果前中斷，或項目已被還原
+            log.info("回收筒項目已不存在，視為永久刪除完成: jobId={}, fileId={}", job.getId(), job.getTargetId());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.TrashProperties;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import com.example.miniclouddrive.repository.FileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 定期清除超過保留期限的回收筒項目
+ * 只為逾期項目建立永久刪除的背景工作，實際刪除由 worker 分批執行，不佔用排程執行緒；
+ * 已有未完成工作的項目不重複建立。每次排程最多處理 sweep-batch-size 個項目，其餘留待下次排程；
+ * 工作經由 FileService 申請，與使用者的還原序列化
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrashRetentionSweeper {
+
+    private final FileRepository fileRepository;
+    private final JobService jobService;
+    private final FileService fileService;
+    private final TrashProperties trashProperties;
+
+    @Scheduled(fixedDelayString = "${trash.sweep-interval:PT1H}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(trashProperties.getRetention());
+        List<FileEntity> expired = fileRepository.findExpiredTrash(cutoff,
+                PageRequest.of(0, trashProperties.getSweepBatchSize()));
+        if (expired.isEmpty()) {
+            return;
+        }
+        Set<Long> scheduled = jobService.findUnfinishedTargets(JobType.TRASH_PURGE,
+                expired.stream().map(FileEntity::getId).toList());
+        int enqueued = 0;
+        for (FileEntity root : expired) {
+            if (scheduled.contains(root.getId())) {
+                continue;
+            }
+            try {
+                fileService.requestTrashPurge(List.of(root.getId()), root.getOwnerId());
+                enqueued++;
+            } catch (InvalidFileException e) {
+                // 查詢後已被還原或永久刪除
+                log.debug("回收筒項目已不存在，略過: fileId={}", root.getId());
+            }
+        }
+        if (enqueued > 0) {
+            log.info("已為逾期的回收筒項目建立永久刪除工作: {} 筆", enqueued);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.miniclouddrive.benchmark;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 上傳與列表 API 的負載測試（非 JUnit 測試，不會在 mvn test 中執行）
+ * 以固定數量的客戶端在指定時間內持續送出請求，輸出吞吐量與 p50 / p99 延遲；
+ * 分別以 platform thread 與 virtual thread 模式啟動伺服器後執行，即可比較兩種模式
+ * 
+ * <pre>
+ * mvn -B test-compile
+ * java -cp target/test-classes com.example.miniclouddrive.benchmark.LoadBenchmark \
+ *     url=https://localhost:8443 concurrency=200 seconds=30 size=1048576 insecure=true
+ * </pre>
+ */
+public class LoadBenchmark {
+
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    /** 帳號空間已滿，繼續上傳只會持續失敗 */
+    private static final int INSUFFICIENT_STORAGE = 507;
+
+    /** 請求失敗後的退避時間上下限 */
+    private static final long MIN_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int concurrency;
+    private final Duration duration;
+    private final byte[] payload;
+    private String token;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+
+        LoadBenchmark benchmark = new LoadBenchmark(
+                options.getOrDefault("url", "https://localhost:8443"),
+                Integer.parseInt(options.getOrDefault("concurrency", "100")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "30"))),
+                Integer.parseInt(options.getOrDefault("size", String.valueOf(1024 * 1024))),
+                Boolean.parseBoolean(options.getOrDefault("insecure", "false")));
+
+        benchmark.login();
+        benchmark.run("upload", benchmark::upload);
+        benchmark.run("list", benchmark::list);
+    }
+
+    LoadBenchmark(String baseUrl, int concurrency, Duration duration, int payloadSize, boolean insecure)
+            throws Exception {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 4)));
+        if (insecure) {
+            builder.sslContext(trustAllContext());
+        }
+        this.client = builder.build();
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.payload = new byte[payloadSize];
+        new SecureRandom().nextBytes(payload);
+    }
+
+    /**
+     * 註冊一次性帳號並取得 JWT
+     */
+    private void login() throws Exception {
+        String name = "bench" + UUID.randomUUID().toString().substring(0, 8);
+        String email = name + "@example.com";
+        String password = "Bench-" + UUID.randomUUID();
+
+        send(jsonPost("/api/auth/register",
+                "{\"username\":\"" + name + "\",\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+        HttpResponse<String> response = client.send(
+                jsonPost("/api/auth/login", "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN_PATTERN.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("登入失敗: " + response.statusCode() + " " + response.body());
+        }
+        token = matcher.group(1);
+    }
+
+    /**
+     * 每次上傳使用不重複的檔名，避免同名檔案越來越多使產生新檔名的查詢拖慢後續請求
+     */
+    private int upload() throws Exception {
+        String boundary = "----bench" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(payload.length + 512);
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"bench-" + UUID.randomUUID() + ".bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(payload);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/files/upload"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build());
+    }
+
+    private int list() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/files/list?page=0&size=20"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build());
+    }
+
+    /**
+     * 以 concurrency 個客戶端持續送出請求直到時間結束，輸出統計結果
+     * 失敗的客戶端以指數退避後重試；帳號空間已滿時所有客戶端提前停止，吞吐量以實際執行時間計算
+     */
+    private void run(String name, Call call) throws InterruptedException {
+        long begin = System.nanoTime();
+        long deadline = begin + duration.toNanos();
+        List<long[]> latencies = new ArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        AtomicBoolean storageFull = new AtomicBoolean();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            long[] samples = new long[1 << 16];
+            latencies.add(samples);
+            clients.execute(() -> {
+                int count = 0;
+                long backoff = 0;
+                while (System.nanoTime() < deadline && !storageFull.get()) {
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = call.execute();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    if (status == INSUFFICIENT_STORAGE) {
+                        storageFull.set(true);
+                        break;
+                    }
+                    if (status < 0 || status >= 400) {
+                        errors.incrementAndGet();
+                        backoff = Math.min(MAX_BACKOFF_MILLIS, Math.max(MIN_BACKOFF_MILLIS, backoff * 2));
+                        try {
+                            Thread.sleep(backoff);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        continue;
+                    }
+                    backoff = 0;
+                    if (count < samples.length - 1) {
+                        samples[++count] = System.nanoTime() - start;
+                        samples[0] = count;
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        if (storageFull.get()) {
+            System.out.printf("%-8s 帳號空間已滿，於 %.1f 秒時提前停止%n", name, seconds);
+        }
+
+        long[] all = latencies.stream()
+                .flatMapToLong(samples -> Arrays.stream(samples, 1, (int) samples[0] + 1))
+                .sorted()
+                .toArray();
+        System.out.printf("%-8s requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms%n",
+                name, all.length, errors.get(), all.length / seconds,
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest jsonPost(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /** 本機自簽憑證測試用 */
+    private static SSLContext trustAllContext() throws Exception {
+        TrustManager[] trustAll = { new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        } };
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustAll, new SecureRandom());
+        return context;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int execute() throws Exception;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.miniclouddrive.concurrency;
+
+import com.example.miniclouddrive.config.AdaptiveLimitProperties;
+import com.example.miniclouddrive.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AdaptiveLimiter 單元測試
+ * 以可控制的時鐘驅動上限的重新計算
+ */
+class AdaptiveLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private AdaptiveLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdaptiveLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(100);
+        properties.setUpdateInterval(Duration.ofSeconds(1));
+        properties.setSmoothing(1.0);
+    }
+
+    @Test
+    @DisplayName("超過上限的請求立即拒絕並計數")
+    void shouldRejectBeyondLimit() {
+        properties.setInitialLimit(2);
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties, clock::get);
+
+        limiter.acquire();
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(limiter.rejected()).isEqualTo(1);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("下游延遲上升時縮小上限")
+    void shouldShrinkLimitWhenLatencyRises() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties, clock::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.recordLatency("database", 1_000_000);
+        }
+        for (int i = 0; i < 20; i++) {
+            limiter.recordLatency("database", 20_000_000);
+        }
+
+        limiter.acquire();
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.release();
+
+        assertThat(limiter.gradient("database")).isEqualTo(0.5);
+        assertThat(limiter.getLimit()).isLessThan(10);
+    }
+
+    @Test
+    @DisplayName("延遲穩定且使用量高時放寬上限")
+    void shouldGrowLimitWhenHealthyAndBusy() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties, clock::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.recordLatency("storage", 1_000_000);
+        }
+
+        for (int i = 0; i < 8; i++) {
+            limiter.acquire();
+        }
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.release();
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("閒置時不放寬上限")
+    void shouldNotGrowLimitWhenIdle() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties, clock::get);
+        limiter.recordLatency("storage", 1_000_000);
+
+        limiter.acquire();
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.release();
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+}
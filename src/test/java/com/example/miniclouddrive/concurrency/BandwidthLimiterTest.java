@@ -0,0 +1,156 @@
+package com.example.miniclouddrive.concurrency;
+
+import com.example.miniclouddrive.config.BandwidthProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TokenBucket 與 BandwidthLimiter 單元測試
+ * 以可控制的時鐘驗證 token 的補充與預支
+ */
+class BandwidthLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Nested
+    @DisplayName("TokenBucket 測試")
+    class TokenBucketTests {
+
+        @Test
+        @DisplayName("容量內的取用不需等待，超過部分依速率計算等待時間")
+        void shouldWaitForDeficit() {
+            TokenBucket bucket = new TokenBucket(1000, 500, clock::get);
+
+            assertThat(bucket.reserve(500)).isZero();
+            assertThat(bucket.reserve(250)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(250));
+        }
+
+        @Test
+        @DisplayName("後到的取用排在欠額之後")
+        void shouldQueueBehindDebt() {
+            TokenBucket bucket = new TokenBucket(1000, 100, clock::get);
+            bucket.reserve(100);
+            bucket.reserve(100);
+
+            assertThat(bucket.reserve(100)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        @Test
+        @DisplayName("閒置期間補充的 token 不超過容量")
+        void shouldCapRefillAtCapacity() {
+            TokenBucket bucket = new TokenBucket(1000, 100, clock::get);
+            bucket.reserve(100);
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+            assertThat(bucket.reserve(100)).isZero();
+            assertThat(bucket.reserve(1)).isPositive();
+        }
+    }
+
+    @Nested
+    @DisplayName("BandwidthLimiter 測試")
+    class LimiterTests {
+
+        private BandwidthProperties properties;
+        private SimpleMeterRegistry meterRegistry;
+
+        @BeforeEach
+        void setUp() {
+            properties = new BandwidthProperties();
+            properties.setEnabled(true);
+            properties.setTiers(List.of(
+                    new BandwidthProperties.Tier(DataSize.ofGigabytes(5), DataSize.ofMegabytes(20),
+                            DataSize.ofMegabytes(8)),
+                    new BandwidthProperties.Tier(DataSize.ofGigabytes(100), DataSize.ofMegabytes(50),
+                            DataSize.ofMegabytes(16))));
+            meterRegistry = new SimpleMeterRegistry();
+        }
+
+        @Test
+        @DisplayName("依儲存配額選擇最高的符合等級")
+        void shouldSelectTierByQuota() {
+            BandwidthLimiter limiter = new BandwidthLimiter(properties, userId -> null, meterRegistry, clock::get);
+
+            assertThat(limiter.tierFor(DataSize.ofGigabytes(1).toBytes())).isSameAs(properties.getDefaultTier());
+            assertThat(limiter.tierFor(DataSize.ofGigabytes(5).toBytes())).isSameAs(properties.getTiers().get(0));
+            assertThat(limiter.tierFor(DataSize.ofGigabytes(500).toBytes())).isSameAs(properties.getTiers().get(1));
+            assertThat(limiter.tierFor(null)).isSameAs(properties.getDefaultTier());
+        }
+
+        @Test
+        @DisplayName("同一使用者的所有串流共用 bucket，並記錄傳輸量")
+        void shouldShareBucketAndRecordBytes() throws IOException {
+            BandwidthLimiter limiter = new BandwidthLimiter(properties, userId -> DataSize.ofGigabytes(5).toBytes(),
+                    meterRegistry, clock::get);
+
+            readAll(limiter.throttle(new ByteArrayInputStream(new byte[1000]), 1L, BandwidthLimiter.Direction.UPLOAD));
+            readAll(limiter.throttle(new ByteArrayInputStream(new byte[500]), 1L, BandwidthLimiter.Direction.UPLOAD));
+
+            assertThat(limiter.activeBuckets()).isEqualTo(1);
+            assertThat(meterRegistry.get("file.storage.bandwidth.bytes")
+                    .tag("user", "1").tag("direction", "upload").counter().count()).isEqualTo(1500);
+        }
+
+        @Test
+        @DisplayName("未啟用時回傳原串流")
+        void shouldPassThroughWhenDisabled() {
+            properties.setEnabled(false);
+            BandwidthLimiter limiter = new BandwidthLimiter(properties, userId -> null, meterRegistry, clock::get);
+            InputStream original = new ByteArrayInputStream(new byte[1]);
+
+            assertThat(limiter.throttle(original, 1L, BandwidthLimiter.Direction.DOWNLOAD)).isSameAs(original);
+        }
+
+        @Test
+        @DisplayName("閒置逾時的 bucket 會被釋放")
+        void shouldEvictIdleBuckets() {
+            properties.setIdleTimeout(Duration.ofMinutes(10));
+            BandwidthLimiter limiter = new BandwidthLimiter(properties, userId -> null, meterRegistry, clock::get);
+            limiter.bucket(1L, BandwidthLimiter.Direction.DOWNLOAD);
+
+            clock.addAndGet(Duration.ofMinutes(11).toNanos());
+            limiter.bucket(2L, BandwidthLimiter.Direction.DOWNLOAD);
+            limiter.evictIdle();
+
+            assertThat(limiter.activeBuckets()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("傳輸進行中的 bucket 不會因超過閒置逾時而被釋放")
+        void shouldKeepBucketOfLongTransfer() throws IOException {
+            properties.setIdleTimeout(Duration.ofMinutes(10));
+            BandwidthLimiter limiter = new BandwidthLimiter(properties, userId -> null, meterRegistry, clock::get);
+            InputStream stream = limiter.throttle(new ByteArrayInputStream(new byte[100]), 1L,
+                    BandwidthLimiter.Direction.DOWNLOAD);
+
+            for (int i = 0; i < 3; i++) {
+                clock.addAndGet(Duration.ofMinutes(6).toNanos());
+                stream.read(new byte[10]);
+                limiter.evictIdle();
+            }
+
+            assertThat(limiter.activeBuckets()).isEqualTo(1);
+        }
+
+        private void readAll(InputStream inputStream) throws IOException {
+            try (inputStream) {
+                inputStream.readAllBytes();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.miniclouddrive.concurrency;
+
+import com.example.miniclouddrive.config.BulkheadProperties;
+import com.example.miniclouddrive.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulkhead 與 BulkheadInterceptor 單元測試
+ */
+class BulkheadTest {
+
+    @Nested
+    @DisplayName("Bulkhead 測試")
+    class BulkheadTests {
+
+        @Test
+        @DisplayName("等待佇列已滿時立即拒絕")
+        void shouldRejectImmediatelyWhenQueueFull() {
+            Bulkhead bulkhead = new Bulkhead("transfer", new BulkheadProperties.Limit(1, 0, Duration.ofSeconds(30)));
+            bulkhead.acquire();
+
+            long start = System.nanoTime();
+            assertThatThrownBy(bulkhead::acquire).isInstanceOf(ServiceOverloadedException.class);
+
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+            assertThat(bulkhead.rejected()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("等待逾時時拒絕，釋放後可再取得")
+        void shouldRejectAfterWaitTimeoutAndRecoverAfterRelease() {
+            Bulkhead bulkhead = new Bulkhead("metadata", new BulkheadProperties.Limit(1, 1, Duration.ofMillis(20)));
+            bulkhead.acquire();
+
+            assertThatThrownBy(bulkhead::acquire).isInstanceOf(ServiceOverloadedException.class);
+            assertThat(bulkhead.waiting()).isZero();
+
+            bulkhead.release();
+            bulkhead.acquire();
+            assertThat(bulkhead.active()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("BulkheadInterceptor 測試")
+    class InterceptorTests {
+
+        @Test
+        @DisplayName("請求結束後釋放名額")
+        void shouldReleasePermitAfterCompletion() {
+            Bulkhead bulkhead = new Bulkhead("transfer", new BulkheadProperties.Limit(1, 0, Duration.ofMillis(20)));
+            BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead);
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            interceptor.preHandle(request, response, new Object());
+            assertThat(bulkhead.active()).isEqualTo(1);
+
+            interceptor.afterCompletion(request, response, new Object(), null);
+            assertThat(bulkhead.active()).isZero();
+        }
+
+        @Test
+        @DisplayName("被拒絕的請求不釋放其他請求的名額")
+        void shouldNotReleaseWhenRejected() {
+            Bulkhead bulkhead = new Bulkhead("transfer", new BulkheadProperties.Limit(1, 0, Duration.ofMillis(20)));
+            BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead);
+            bulkhead.acquire();
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            assertThatThrownBy(() -> interceptor.preHandle(request, response, new Object()))
+                    .isInstanceOf(ServiceOverloadedException.class);
+            interceptor.afterCompletion(request, response, new Object(), null);
+
+            assertThat(bulkhead.active()).isEqualTo(1);
+        }
+    }
+}
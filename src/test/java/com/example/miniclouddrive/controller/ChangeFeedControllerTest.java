@@ -0,0 +1,93 @@
+package com.example.miniclouddrive.controller;
+
+import com.example.miniclouddrive.dto.response.ChangeFeedResponse;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.ChangeCursorExpiredException;
+import com.example.miniclouddrive.exception.GlobalExceptionHandler;
+import com.example.miniclouddrive.service.ChangeFeedService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ChangeFeedController 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @InjectMocks
+    private ChangeFeedController changeFeedController;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(changeFeedController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("成功查詢游標之後的變更")
+    void shouldReturnChangesSinceCursor() throws Exception {
+        // Given
+        ChangeFeedResponse response = ChangeFeedResponse.builder()
+                .changes(List.of(FileChangeResponse.builder()
+                        .seq(11L)
+                        .fileId(101L)
+                        .changeType(ChangeType.RENAMED)
+                        .type(FileType.FOLDER)
+                        .name("新名稱")
+                        .build()))
+                .cursor(11L)
+                .hasMore(false)
+                .build();
+
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            when(changeFeedService.getChanges(USER_ID, 10L, null)).thenReturn(response);
+
+            // When & Then
+            mockMvc.perform(get("/api/changes").param("cursor", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.cursor").value(11))
+                    .andExpect(jsonPath("$.data.changes[0].changeType").value("RENAMED"))
+                    .andExpect(jsonPath("$.data.hasMore").value(false));
+        }
+    }
+
+    @Test
+    @DisplayName("游標過期時回傳 410")
+    void shouldReturnGoneWhenCursorExpired() throws Exception {
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            when(changeFeedService.getChanges(USER_ID, 3L, null)).thenThrow(new ChangeCursorExpiredException(3L));
+
+            // When & Then
+            mockMvc.perform(get("/api/changes").param("cursor", "3"))
+                    .andExpect(status().isGone())
+                    .andExpect(jsonPath("$.rtnCode").value("1011"));
+        }
+    }
+}
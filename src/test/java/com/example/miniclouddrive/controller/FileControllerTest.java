@@ -1,13 +1,28 @@
 package com.example.miniclouddrive.controller;
 
+import com.example.miniclouddrive.dto.request.CheckExistsRequest;
+import com.example.miniclouddrive.dto.request.CopyFilesRequest;
 import com.example.miniclouddrive.dto.request.CreateFolderRequest;
 import com.example.miniclouddrive.dto.request.DeleteFolderRequest;
+import com.example.miniclouddrive.dto.request.MoveFilesRequest;
 import com.example.miniclouddrive.dto.request.RenameFolderRequest;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
 import com.example.miniclouddrive.dto.response.CreateFolderResponse;
+import com.example.miniclouddrive.dto.response.JobResponse;
+import com.example.miniclouddrive.enums.ExistenceStatus;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.BusinessException;
 import com.example.miniclouddrive.exception.FileAlreadyExistsException;
 import com.example.miniclouddrive.exception.GlobalExceptionHandler;
+import com.example.miniclouddrive.exception.InvalidFileException;
 import com.example.miniclouddrive.exception.InvalidFolderException;
+import com.example.miniclouddrive.service.BatchUploadService;
+import com.example.miniclouddrive.service.FileDownload;
 import com.example.miniclouddrive.service.FileService;
+import com.example.miniclouddrive.service.FolderPathService;
+import com.example.miniclouddrive.service.StreamingUploadService;
 import com.example.miniclouddrive.util.SecurityUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,12 +34,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.example.miniclouddrive.dto.response.BatchUploadItemResponse;
+import com.example.miniclouddrive.dto.response.BatchUploadResponse;
+import com.example.miniclouddrive.dto.response.BreadcrumbResponse;
+import com.example.miniclouddrive.dto.response.FileExistenceResponse;
 import com.example.miniclouddrive.dto.response.FileResponse;
+import com.example.miniclouddrive.dto.response.FileUploadResponse;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -47,6 +70,15 @@ class FileControllerTest {
     @Mock
     private FileService fileService;
 
+    @Mock
+    private BatchUploadService batchUploadService;
+
+    @Mock
+    private StreamingUploadService streamingUploadService;
+
+    @Mock
+    private FolderPathService folderPathService;
+
     @InjectMocks
     private FileController fileController;
 
@@ -139,23 +171,31 @@ class FileControllerTest {
     class DeleteFolderTests {
 
         @Test
-        @DisplayName("成功刪除資料夾")
+        @DisplayName("成功建立刪除資料夾工作")
         void shouldDeleteFolderSuccessfully() throws Exception {
             // Given
             DeleteFolderRequest request = new DeleteFolderRequest(FOLDER_ID);
+            JobResponse job = JobResponse.builder()
+                    .jobId(7L)
+                    .type(JobType.FOLDER_DELETE)
+                    .status(JobStatus.PENDING)
+                    .processedItems(0L)
+                    .build();
 
             try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
                 securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
-                doNothing().when(fileService).deleteFolder(FOLDER_ID, USER_ID);
+                when(fileService.requestFolderDelete(FOLDER_ID, USER_ID)).thenReturn(job);
 
                 // When & Then
                 mockMvc.perform(post("/api/files/deleteFolder")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                        .andExpect(status().isOk())
-                        .andExpect(jsonPath("$.rtnCode").value("0000"));
+                        .andExpect(status().isAccepted())
+                        .andExpect(jsonPath("$.rtnCode").value("0000"))
+                        .andExpect(jsonPath("$.data.jobId").value(7))
+                        .andExpect(jsonPath("$.data.status").value("PENDING"));
 
-                verify(fileService).deleteFolder(FOLDER_ID, USER_ID);
+                verify(fileService).requestFolderDelete(FOLDER_ID, USER_ID);
             }
         }
 
@@ -167,7 +207,7 @@ class FileControllerTest {
 
             try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
                 securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
-                doThrow(new InvalidFolderException(999L)).when(fileService).deleteFolder(999L, USER_ID);
+                when(fileService.requestFolderDelete(999L, USER_ID)).thenThrow(new InvalidFolderException(999L));
 
                 // When & Then
                 mockMvc.perform(post("/api/files/deleteFolder")
@@ -305,5 +345,507 @@ class FileControllerTest {
                 verify(fileService).getFileList(USER_ID, folderId, page, size);
             }
         }
+
+        @Test
+        @DisplayName("回應帶有依資料夾版本產生的 ETag")
+        void shouldReturnETagFromFolderVersion() throws Exception {
+            // Given
+            Long folderId = 1L;
+            Page<FileResponse> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.getListingVersion(USER_ID, folderId)).thenReturn(7L);
+                when(fileService.getFileList(USER_ID, folderId, 0, 10)).thenReturn(emptyPage);
+
+                // When & Then
+                mockMvc.perform(get("/api/files/list")
+                        .param("folderId", String.valueOf(folderId)))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "W/\"" + USER_ID + "-1-7\""));
+            }
+        }
+
+        @Test
+        @DisplayName("If-None-Match 符合目前版本時回傳 304，不查詢列表")
+        void shouldReturnNotModifiedWhenVersionUnchanged() throws Exception {
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                // Given
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.getListingVersion(USER_ID, null)).thenReturn(3L);
+
+                // When & Then
+                mockMvc.perform(get("/api/files/list")
+                        .header("If-None-Match", "W/\"" + USER_ID + "-root-3\""))
+                        .andExpect(status().isNotModified())
+                        .andExpect(content().string(""));
+
+                verify(fileService, never()).getFileList(any(), any(), anyInt(), anyInt());
+            }
+        }
+
+        @Test
+        @DisplayName("版本改變後重新回傳列表")
+        void shouldReturnListWhenVersionChanged() throws Exception {
+            Page<FileResponse> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                // Given
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.getListingVersion(USER_ID, null)).thenReturn(4L);
+                when(fileService.getFileList(USER_ID, null, 0, 10)).thenReturn(emptyPage);
+
+                // When & Then
+                mockMvc.perform(get("/api/files/list")
+                        .header("If-None-Match", "W/\"" + USER_ID + "-root-3\""))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "W/\"" + USER_ID + "-root-4\""));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/files/copy 測試")
+    class CopyFilesTests {
+
+        @Test
+        @DisplayName("成功複製檔案")
+        void shouldCopyFilesSuccessfully() throws Exception {
+            // Given
+            CopyFilesRequest request = new CopyFilesRequest(List.of(101L), FOLDER_ID, 1);
+            FileResponse copied = FileResponse.builder()
+                    .fileId(201L)
+                    .fileName("test(1).txt")
+                    .size(1024L)
+                    .build();
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.copyFiles(List.of(101L), FOLDER_ID, 1, USER_ID)).thenReturn(List.of(copied));
+
+                // When & Then
+                mockMvc.perform(post("/api/files/copy")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data[0].fileId").value(201))
+                        .andExpect(jsonPath("$.data[0].fileName").value("test(1).txt"));
+            }
+        }
+
+        @Test
+        @DisplayName("複製失敗 - 未指定項目")
+        void shouldReturnBadRequestWhenIdsEmpty() throws Exception {
+            // Given
+            CopyFilesRequest request = new CopyFilesRequest(List.of(), FOLDER_ID, null);
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+
+                // When & Then
+                mockMvc.perform(post("/api/files/copy")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isBadRequest());
+
+                verify(fileService, never()).copyFiles(any(), any(), any(), any());
+            }
+        }
+
+        @Test
+        @DisplayName("複製失敗 - 來源不存在")
+        void shouldReturnNotFoundWhenSourceNotExists() throws Exception {
+            // Given
+            CopyFilesRequest request = new CopyFilesRequest(List.of(999L), null, null);
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.copyFiles(List.of(999L), null, null, USER_ID))
+                        .thenThrow(new InvalidFileException(999L));
+
+                // When & Then
+                mockMvc.perform(post("/api/files/copy")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isNotFound());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/files/move - 搬移檔案/資料夾")
+    class MoveFilesTests {
+
+        @Test
+        @DisplayName("成功搬移檔案")
+        void shouldMoveFilesSuccessfully() throws Exception {
+            // Given
+            MoveFilesRequest request = new MoveFilesRequest(List.of(101L), FOLDER_ID, null);
+            FileResponse moved = FileResponse.builder()
+                    .fileId(101L)
+                    .fileName("test.txt")
+                    .size(1024L)
+                    .build();
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.moveFiles(List.of(101L), FOLDER_ID, null, USER_ID)).thenReturn(List.of(moved));
+
+                // When & Then
+                mockMvc.perform(post("/api/files/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data[0].fileId").value(101))
+                        .andExpect(jsonPath("$.data[0].fileName").value("test.txt"));
+            }
+        }
+
+        @Test
+        @DisplayName("搬移失敗 - 資料夾搬移到自身子資料夾")
+        void shouldReturnBadRequestWhenMovingIntoOwnDescendant() throws Exception {
+            // Given
+            MoveFilesRequest request = new MoveFilesRequest(List.of(FOLDER_ID), 101L, null);
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.moveFiles(List.of(FOLDER_ID), 101L, null, USER_ID))
+                        .thenThrow(new BusinessException(ApiReturnCode.INVALID_PARAM.getCode(),
+                                "無法將資料夾搬移到自身或其子資料夾中"));
+
+                // When & Then
+                mockMvc.perform(post("/api/files/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isBadRequest());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/files/exists - 批次檢查檔案是否存在")
+    class CheckExistsTests {
+
+        @Test
+        @DisplayName("回傳每個檔名的檢查結果")
+        void shouldReturnExistenceResults() throws Exception {
+            // Given
+            List<CheckExistsRequest.Item> items = List.of(
+                    new CheckExistsRequest.Item("a.txt", null, null),
+                    new CheckExistsRequest.Item("b.txt", null, null));
+            CheckExistsRequest request = new CheckExistsRequest(FOLDER_ID, items);
+            List<FileExistenceResponse> results = List.of(
+                    FileExistenceResponse.builder().name("a.txt").status(ExistenceStatus.NEW).build(),
+                    FileExistenceResponse.builder().name("b.txt").status(ExistenceStatus.CONFLICT)
+                            .existingFileId(101L).existingFileName("b.txt").build());
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.checkExists(FOLDER_ID, items, USER_ID)).thenReturn(results);
+
+                // When & Then
+                mockMvc.perform(post("/api/files/exists")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data[0].status").value("NEW"))
+                        .andExpect(jsonPath("$.data[1].status").value("CONFLICT"))
+                        .andExpect(jsonPath("$.data[1].existingFileId").value(101));
+            }
+        }
+
+        @Test
+        @DisplayName("檢查失敗 - 項目為空")
+        void shouldReturnBadRequestWhenItemsEmpty() throws Exception {
+            // Given
+            CheckExistsRequest request = new CheckExistsRequest(FOLDER_ID, List.of());
+
+            // When & Then
+            mockMvc.perform(post("/api/files/exists")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+
+            verify(fileService, never()).checkExists(any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/files/upload/batch - 批次上傳")
+    class BatchUploadTests {
+
+        @Test
+        @DisplayName("回傳各檔案的上傳結果")
+        void shouldReturnPerItemResults() throws Exception {
+            // Given
+            MockMultipartFile first = new MockMultipartFile("files", "a.txt", "text/plain", "a".getBytes());
+            MockMultipartFile second = new MockMultipartFile("files", "b.txt", "text/plain", "b".getBytes());
+            BatchUploadResponse response = BatchUploadResponse.builder()
+                    .succeeded(1)
+                    .failed(1)
+                    .items(List.of(
+                            BatchUploadItemResponse.builder().originalName("a.txt").success(true).fileId(201L).build(),
+                            BatchUploadItemResponse.builder().originalName("b.txt").success(false)
+                                    .errorCode(ApiReturnCode.FILE_ALREADY_EXISTS.getCode()).build()))
+                    .build();
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(batchUploadService.uploadFiles(argThat(files -> files.size() == 2), eq(FOLDER_ID), isNull(),
+                        eq(USER_ID))).thenReturn(response);
+
+                // When & Then
+                mockMvc.perform(multipart("/api/files/upload/batch")
+                        .file(first)
+                        .file(second)
+                        .param("folderId", String.valueOf(FOLDER_ID)))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.succeeded").value(1))
+                        .andExpect(jsonPath("$.data.items[0].fileId").value(201))
+                        .andExpect(jsonPath("$.data.items[1].success").value(false))
+                        .andExpect(jsonPath("$.data.items[1].errorCode").value("1006"));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("PUT /api/files/content - 串流上傳")
+    class UploadContentTests {
+
+        @Test
+        @DisplayName("以請求內容與查詢參數上傳")
+        void shouldUploadRawBody() throws Exception {
+            // Given
+            byte[] content = "raw content".getBytes();
+            FileUploadResponse response = FileUploadResponse.builder()
+                    .fileId(201L)
+                    .fileName("raw.bin")
+                    .size((long) content.length)
+                    .build();
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(streamingUploadService.upload(any(), eq("raw.bin"), eq(FOLDER_ID), isNull(),
+                        eq((long) content.length), eq(USER_ID))).thenReturn(response);
+
+                // When & Then
+                mockMvc.perform(put("/api/files/content")
+                        .param("name", "raw.bin")
+                        .param("folderId", String.valueOf(FOLDER_ID))
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.fileId").value(201))
+                        .andExpect(jsonPath("$.data.size").value(content.length));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/files/search 測試")
+    class SearchTests {
+
+        @Test
+        @DisplayName("回傳依相關性排序的搜尋結果")
+        void shouldReturnSearchResults() throws Exception {
+            // Given
+            List<FileResponse> results = List.of(
+                    FileResponse.builder().fileId(101L).fileName("report.pdf").size(10L).build(),
+                    FileResponse.builder().fileId(102L).fileName("annual report.docx").size(20L).build());
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.searchFiles(USER_ID, "report", 10)).thenReturn(results);
+
+                // When & Then
+                mockMvc.perform(get("/api/files/search")
+                        .param("q", "report")
+                        .param("limit", "10"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data[0].fileName").value("report.pdf"))
+                        .andExpect(jsonPath("$.data[1].fileId").value(102));
+            }
+        }
+
+        @Test
+        @DisplayName("回傳內容搜尋結果")
+        void shouldReturnContentSearchResults() throws Exception {
+            // Given
+            List<FileResponse> results = List.of(
+                    FileResponse.builder().fileId(101L).fileName("notes.md").size(10L).build());
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.searchContent(USER_ID, "revenue", null)).thenReturn(results);
+
+                // When & Then
+                mockMvc.perform(get("/api/files/search/content")
+                        .param("q", "revenue"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data[0].fileName").value("notes.md"));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("完整路徑查詢測試")
+    class PathTests {
+
+        @Test
+        @DisplayName("回傳由根目錄往下排列的路徑")
+        void shouldReturnPath() throws Exception {
+            // Given
+            List<BreadcrumbResponse> path = List.of(
+                    BreadcrumbResponse.builder().id(3L).name("專案").build(),
+                    BreadcrumbResponse.builder().id(8L).name("設計").build(),
+                    BreadcrumbResponse.builder().id(20L).name("spec.md").build());
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(folderPathService.getPath(20L, USER_ID)).thenReturn(path);
+
+                // When & Then
+                mockMvc.perform(get("/api/files/20/path"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data[0].name").value("專案"))
+                        .andExpect(jsonPath("$.data[2].id").value(20));
+            }
+        }
+
+        @Test
+        @DisplayName("依路徑取得項目")
+        void shouldResolvePath() throws Exception {
+            // Given
+            FileResponse result = FileResponse.builder()
+                    .fileId(20L).fileName("report.pdf").type(FileType.FILE).size(10L).build();
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.resolvePath(USER_ID, "/docs/2025/report.pdf")).thenReturn(result);
+
+                // When & Then
+                mockMvc.perform(get("/api/files/resolve")
+                        .param("path", "/docs/2025/report.pdf"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.fileId").value(20))
+                        .andExpect(jsonPath("$.data.type").value("FILE"));
+            }
+        }
+
+        @Test
+        @DisplayName("路徑不存在時回傳 404")
+        void shouldReturn404WhenPathNotFound() throws Exception {
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.resolvePath(USER_ID, "/missing"))
+                        .thenThrow(new InvalidFileException("找不到路徑: /missing"));
+
+                // When & Then
+                mockMvc.perform(get("/api/files/resolve")
+                        .param("path", "/missing"))
+                        .andExpect(status().isNotFound());
+            }
+        }
+
+        @Test
+        @DisplayName("批次查詢回傳項目 ID 對應的路徑")
+        void shouldReturnPathsForIds() throws Exception {
+            // Given
+            Map<Long, List<BreadcrumbResponse>> paths = Map.of(
+                    20L, List.of(BreadcrumbResponse.builder().id(20L).name("a.txt").build()));
+
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(folderPathService.getPaths(List.of(20L, 21L), USER_ID)).thenReturn(paths);
+
+                // When & Then
+                mockMvc.perform(post("/api/files/paths")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [20, 21]}"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data['20'][0].name").value("a.txt"));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/files/{fileId}/download 與內容定址下載")
+    class DownloadTests {
+
+        private static final String HASH = "a".repeat(64);
+
+        private FileDownload download() {
+            return new FileDownload(101L, "report.pdf", 5L, HASH, LocalDateTime.of(2026, 1, 2, 3, 4, 5),
+                    "1/report.pdf");
+        }
+
+        @Test
+        @DisplayName("回傳內容並帶有強 ETag、Last-Modified 與需重新驗證的快取設定")
+        void shouldDownloadWithValidators() throws Exception {
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                // Given
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.getFileDownload(101L, USER_ID)).thenReturn(download());
+                when(fileService.loadContent(any())).thenReturn(new ByteArrayResource("hello".getBytes()));
+
+                // When & Then
+                mockMvc.perform(get("/api/files/101/download"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"" + HASH + "\""))
+                        .andExpect(header().exists("Last-Modified"))
+                        .andExpect(header().string("Cache-Control", "no-cache, private"))
+                        .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                        .andExpect(content().bytes("hello".getBytes()));
+            }
+        }
+
+        @Test
+        @DisplayName("If-None-Match 符合內容雜湊時回傳 304，不讀取內容")
+        void shouldReturnNotModifiedForMatchingETag() throws Exception {
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                // Given
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.getFileDownload(101L, USER_ID)).thenReturn(download());
+
+                // When & Then
+                mockMvc.perform(get("/api/files/101/download")
+                        .header("If-None-Match", "\"" + HASH + "\""))
+                        .andExpect(status().isNotModified());
+
+                verify(fileService, never()).loadContent(any());
+            }
+        }
+
+        @Test
+        @DisplayName("內容定址網址標記為 immutable，且只允許瀏覽器快取")
+        void shouldServeContentAddressedUrlAsImmutable() throws Exception {
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                // Given
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.getFileDownload(101L, USER_ID)).thenReturn(download());
+                when(fileService.loadContent(any())).thenReturn(new ByteArrayResource("hello".getBytes()));
+
+                // When & Then
+                mockMvc.perform(get("/api/files/101/content/" + HASH))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Cache-Control", "max-age=31536000, private, immutable"));
+            }
+        }
+
+        @Test
+        @DisplayName("內容已被覆蓋（雜湊不符）時回傳 404")
+        void shouldRejectStaleContentHash() throws Exception {
+            try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+                // Given
+                securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+                when(fileService.getFileDownload(101L, USER_ID)).thenReturn(download());
+
+                // When & Then
+                mockMvc.perform(get("/api/files/101/content/" + "b".repeat(64)))
+                        .andExpect(status().isNotFound());
+
+                verify(fileService, never()).loadContent(any());
+            }
+        }
     }
 }
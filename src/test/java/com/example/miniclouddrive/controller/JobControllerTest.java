@@ -0,0 +1,85 @@
+package com.example.miniclouddrive.controller;
+
+import com.example.miniclouddrive.dto.response.JobResponse;
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.GlobalExceptionHandler;
+import com.example.miniclouddrive.exception.JobNotFoundException;
+import com.example.miniclouddrive.service.JobService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * JobController 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class JobControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private JobService jobService;
+
+    @InjectMocks
+    private JobController jobController;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(jobController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("成功查詢工作進度")
+    void shouldReturnJobProgress() throws Exception {
+        // Given
+        JobResponse job = JobResponse.builder()
+                .jobId(7L)
+                .type(JobType.FOLDER_DELETE)
+                .status(JobStatus.RUNNING)
+                .processedItems(500L)
+                .totalItems(1000L)
+                .progress(50)
+                .build();
+
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            when(jobService.getJob(7L, USER_ID)).thenReturn(job);
+
+            // When & Then
+            mockMvc.perform(get("/api/jobs/7"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.status").value("RUNNING"))
+                    .andExpect(jsonPath("$.data.progress").value(50));
+        }
+    }
+
+    @Test
+    @DisplayName("查詢失敗 - 工作不存在或不屬於該使用者")
+    void shouldReturnNotFoundWhenJobNotExists() throws Exception {
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            when(jobService.getJob(999L, USER_ID)).thenThrow(new JobNotFoundException(999L));
+
+            // When & Then
+            mockMvc.perform(get("/api/jobs/999"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
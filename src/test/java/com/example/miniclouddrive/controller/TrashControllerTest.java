@@ -0,0 +1,152 @@
+package com.example.miniclouddrive.controller;
+
+import com.example.miniclouddrive.dto.request.TrashItemsRequest;
+import com.example.miniclouddrive.dto.response.FileResponse;
+import com.example.miniclouddrive.dto.response.JobResponse;
+import com.example.miniclouddrive.dto.response.TrashItemResponse;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.GlobalExceptionHandler;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import com.example.miniclouddrive.service.FileService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * TrashController 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class TrashControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private FileService fileService;
+
+    @InjectMocks
+    private TrashController trashController;
+
+    private ObjectMapper objectMapper;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        mockMvc = MockMvcBuilders.standaloneSetup(trashController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("成功查詢回收筒列表")
+    void shouldListTrash() throws Exception {
+        // Given
+        TrashItemResponse item = TrashItemResponse.builder()
+                .fileId(20L).fileName("專案").type(FileType.FOLDER).size(300L).itemCount(4L).parentId(3L).build();
+
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            when(fileService.getTrash(USER_ID, 0, 10))
+                    .thenReturn(new PageImpl<>(List.of(item), PageRequest.of(0, 10), 1));
+
+            // When & Then
+            mockMvc.perform(get("/api/trash"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.content[0].fileId").value(20))
+                    .andExpect(jsonPath("$.data.content[0].itemCount").value(4));
+        }
+    }
+
+    @Test
+    @DisplayName("成功還原，回傳還原後的項目")
+    void shouldRestore() throws Exception {
+        // Given
+        FileResponse restored = FileResponse.builder().fileId(20L).fileName("專案(1)").type(FileType.FOLDER).build();
+
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            when(fileService.restoreTrash(List.of(20L), USER_ID)).thenReturn(List.of(restored));
+
+            // When & Then
+            mockMvc.perform(post("/api/trash/restore")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TrashItemsRequest(List.of(20L)))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data[0].fileName").value("專案(1)"));
+        }
+    }
+
+    @Test
+    @DisplayName("還原失敗 - 項目不在回收筒中")
+    void shouldReturn404WhenNotInTrash() throws Exception {
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            when(fileService.restoreTrash(List.of(99L), USER_ID)).thenThrow(new InvalidFileException(99L));
+
+            // When & Then
+            mockMvc.perform(post("/api/trash/restore")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TrashItemsRequest(List.of(99L)))))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Test
+    @DisplayName("永久刪除回傳 202 與背景工作")
+    void shouldEnqueuePurgeJobs() throws Exception {
+        // Given
+        JobResponse job = JobResponse.builder().jobId(7L).type(JobType.TRASH_PURGE).status(JobStatus.PENDING).build();
+
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            when(fileService.requestTrashPurge(List.of(20L), USER_ID)).thenReturn(List.of(job));
+
+            // When & Then
+            mockMvc.perform(post("/api/trash/purge")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TrashItemsRequest(List.of(20L)))))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.data[0].jobId").value(7))
+                    .andExpect(jsonPath("$.data[0].type").value("TRASH_PURGE"));
+        }
+    }
+
+    @Test
+    @DisplayName("未指定項目時回傳 400")
+    void shouldRejectEmptyIds() throws Exception {
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+
+            // When & Then
+            mockMvc.perform(post("/api/trash/purge")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TrashItemsRequest(List.of()))))
+                    .andExpect(status().isBadRequest());
+
+            verify(fileService, never()).requestTrashPurge(any(), any());
+        }
+    }
+}
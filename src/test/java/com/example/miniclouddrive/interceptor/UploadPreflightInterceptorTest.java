@@ -0,0 +1,132 @@
+package com.example.miniclouddrive.interceptor;
+
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.InsufficientStorageException;
+import com.example.miniclouddrive.service.FileService;
+import com.example.miniclouddrive.util.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UploadPreflightInterceptor 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class UploadPreflightInterceptorTest {
+
+    @Mock
+    private FileService fileService;
+
+    private UploadPreflightInterceptor interceptor;
+
+    private static final Long USER_ID = 1L;
+    private static final long MAX_CONTENT_LENGTH = 50L * 1024 * 1024;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new UploadPreflightInterceptor(fileService, MAX_CONTENT_LENGTH);
+    }
+
+    @Test
+    @DisplayName("以宣告大小與查詢參數進行檢查")
+    void shouldCheckDeclaredSizeAndQueryParameters() {
+        // Given
+        MockHttpServletRequest request = uploadRequest(2048);
+        request.setQueryString("folderId=100&duplicateAction=1");
+        request.addHeader(UploadPreflightInterceptor.DECLARED_SIZE_HEADER, "1000");
+        request.addHeader(UploadPreflightInterceptor.FILE_NAME_HEADER, "%E5%A0%B1%E5%91%8A.pdf");
+
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+
+            // When
+            interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+            // Then
+            verify(fileService).preflightUpload("報告.pdf", 100L, 1, 1000L, USER_ID);
+        }
+    }
+
+    @Test
+    @DisplayName("未宣告大小時以 Content-Length 扣除 multipart 額外長度估計")
+    void shouldEstimateSizeFromContentLength() {
+        // Given
+        long contentLength = 5 * 1024 * 1024;
+        MockHttpServletRequest request = uploadRequest(contentLength);
+
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+
+            // When
+            interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+            // Then
+            verify(fileService).preflightUpload(isNull(), isNull(), isNull(),
+                    eq(contentLength - UploadPreflightInterceptor.MULTIPART_OVERHEAD), eq(USER_ID));
+        }
+    }
+
+    @Test
+    @DisplayName("Content-Length 超過上限時直接拒絕，不查詢資料庫")
+    void shouldRejectOversizedRequestImmediately() {
+        MockHttpServletRequest request = uploadRequest(MAX_CONTENT_LENGTH + 1);
+
+        assertThatThrownBy(() -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+
+        verifyNoInteractions(fileService);
+    }
+
+    @Test
+    @DisplayName("配額不足時拒絕")
+    void shouldPropagateQuotaRejection() {
+        // Given
+        MockHttpServletRequest request = uploadRequest(2048);
+        request.addHeader(UploadPreflightInterceptor.DECLARED_SIZE_HEADER, "1000");
+
+        try (MockedStatic<SecurityUtils> securityMock = mockStatic(SecurityUtils.class)) {
+            securityMock.when(SecurityUtils::getCurrentUserId).thenReturn(USER_ID);
+            doThrow(new InsufficientStorageException(1000L, 10L))
+                    .when(fileService).preflightUpload(isNull(), isNull(), isNull(), eq(1000L), eq(USER_ID));
+
+            // When & Then
+            assertThatThrownBy(() -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()))
+                    .isInstanceOf(InsufficientStorageException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("查詢參數格式錯誤時回傳參數錯誤")
+    void shouldRejectMalformedParameter() {
+        MockHttpServletRequest request = uploadRequest(2048);
+        request.setQueryString("folderId=abc");
+
+        assertThatThrownBy(() -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    /**
+     * 只有標頭、尚未送出內容的上傳請求
+     */
+    private static MockHttpServletRequest uploadRequest(long contentLength) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/files/upload") {
+            @Override
+            public long getContentLengthLong() {
+                return contentLength;
+            }
+        };
+        request.setContentType("multipart/form-data; boundary=test");
+        return request;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.miniclouddrive.security;
+
+import com.example.miniclouddrive.concurrency.Bulkhead;
+import com.example.miniclouddrive.config.BulkheadProperties;
+import com.example.miniclouddrive.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * BulkheadPasswordEncoder 單元測試
+ */
+class BulkheadPasswordEncoderTest {
+
+    @Test
+    @DisplayName("名額未滿時委派給下層編碼器")
+    void shouldDelegateWhenPermitAvailable() {
+        BulkheadPasswordEncoder encoder = new BulkheadPasswordEncoder(new PlainEncoder(null, null), bcrypt(1));
+
+        assertThat(encoder.encode("secret")).isEqualTo("plain:secret");
+        assertThat(encoder.matches("secret", "plain:secret")).isTrue();
+    }
+
+    @Test
+    @DisplayName("名額已滿且等待逾時時拒絕")
+    void shouldRejectWhenSaturated() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BulkheadPasswordEncoder encoder = new BulkheadPasswordEncoder(new PlainEncoder(entered, release), bcrypt(1));
+
+        Thread holder = new Thread(() -> encoder.encode("slow"));
+        holder.start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> encoder.matches("secret", "plain:secret"))
+                    .isInstanceOf(ServiceOverloadedException.class);
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private static Bulkhead bcrypt(int maxConcurrent) {
+        return new Bulkhead("bcrypt", new BulkheadProperties.Limit(maxConcurrent, Integer.MAX_VALUE,
+                Duration.ofMillis(50)));
+    }
+
+    /**
+     * 可選擇在編碼時停住的測試用編碼器
+     */
+    private record PlainEncoder(CountDownLatch entered, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (entered != null) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "plain:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return ("plain:" + rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
+import com.example.miniclouddrive.dto.response.BatchUploadResponse;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * BatchUploadService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchUploadServiceTest {
+
+    @Mock
+    private FileService fileService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    private BatchUploadService batchUploadService;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.getBatchUpload().setMaxFiles(3);
+        batchUploadService = new BatchUploadService(fileService, fileStorageService, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batchUploadService.shutdown();
+    }
+
+    @Test
+    @DisplayName("個別檔案寫入失敗時其餘檔案仍完成上傳")
+    void shouldReportPerItemFailure() throws IOException {
+        // Given
+        MultipartFile good = new MockMultipartFile("files", "good.txt", "text/plain", "ok".getBytes());
+        MultipartFile bad = new MockMultipartFile("files", "bad.txt", "text/plain", "no".getBytes());
+        List<MultipartFile> files = List.of(good, bad);
+        when(fileService.planBatchUpload(files, null, null, USER_ID)).thenAnswer(invocation -> planned(files));
+        when(fileStorageService.store(any(InputStream.class), eq("good.txt"), eq(2L), eq(USER_ID)))
+                .thenReturn("1/good.txt");
+        when(fileStorageService.store(any(InputStream.class), eq("bad.txt"), eq(2L), eq(USER_ID)))
+                .thenThrow(new IOException("disk full"));
+        doAnswer(invocation -> {
+            List<BatchUploadItem> items = invocation.getArgument(0);
+            items.stream()
+                    .filter(item -> !item.isFailed())
+                    .forEach(item -> item.saved(FileEntity.builder().id(201L).name(item.getTargetName()).build()));
+            return null;
+        }).when(fileService).saveBatchUpload(anyList(), isNull(), eq(USER_ID));
+
+        // When
+        BatchUploadResponse response = batchUploadService.uploadFiles(files, null, null, USER_ID);
+
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getItems().get(0).getFileId()).isEqualTo(201L);
+        assertThat(response.getItems().get(1).getErrorCode()).isEqualTo(ApiReturnCode.FILE_STORAGE_ERROR.getCode());
+    }
+
+    @Test
+    @DisplayName("資料庫寫入失敗時刪除已寫入的內容")
+    void shouldDiscardStoredContentWhenSaveFails() throws IOException {
+        // Given
+        MultipartFile file = new MockMultipartFile("files", "a.txt", "text/plain", "a".getBytes());
+        List<MultipartFile> files = List.of(file);
+        when(fileService.planBatchUpload(files, null, null, USER_ID)).thenAnswer(invocation -> planned(files));
+        when(fileStorageService.store(any(InputStream.class), eq("a.txt"), eq(1L), eq(USER_ID))).thenReturn("1/a.txt");
+        doThrow(new IllegalStateException("db down")).when(fileService).saveBatchUpload(anyList(), isNull(), eq(USER_ID));
+
+        // When & Then
+        assertThatThrownBy(() -> batchUploadService.uploadFiles(files, null, null, USER_ID))
+                .isInstanceOf(IllegalStateException.class);
+        verify(fileStorageService).delete("1/a.txt");
+    }
+
+    @Test
+    @DisplayName("寫入資料庫時才失敗的項目刪除已寫入的內容")
+    void shouldDiscardContentOfItemsFailedWhileSaving() throws IOException {
+        // Given
+        MultipartFile file = new MockMultipartFile("files", "a.txt", "text/plain", "a".getBytes());
+        List<MultipartFile> files = List.of(file);
+        FileEntity existing = FileEntity.builder().id(201L).name("a.txt").filePath("1/old_a.txt").build();
+        when(fileService.planBatchUpload(files, null, 0, USER_ID)).thenAnswer(invocation -> {
+            BatchUploadItem item = new BatchUploadItem(file);
+            item.plan("a.txt", existing);
+            return List.of(item);
+        });
+        when(fileStorageService.store(any(InputStream.class), eq("a.txt"), eq(1L), eq(USER_ID))).thenReturn("1/new_a.txt");
+        doAnswer(invocation -> {
+            List<BatchUploadItem> items = invocation.getArgument(0);
+            items.get(0).fail(ApiReturnCode.FILE_ALREADY_EXISTS, "覆蓋目標已變更，請重新上傳: a.txt");
+            return null;
+        }).when(fileService).saveBatchUpload(anyList(), isNull(), eq(USER_ID));
+
+        // When
+        BatchUploadResponse response = batchUploadService.uploadFiles(files, null, 0, USER_ID);
+
+        // Then
+        assertThat(response.getFailed()).isEqualTo(1);
+        verify(fileStorageService).delete("1/new_a.txt");
+        verify(fileStorageService, never()).delete("1/old_a.txt");
+    }
+
+    @Test
+    @DisplayName("超過單批檔案數上限時拒絕")
+    void shouldRejectTooManyFiles() {
+        // Given
+        List<MultipartFile> files = List.of(
+                new MockMultipartFile("files", "1.txt", "text/plain", new byte[0]),
+                new MockMultipartFile("files", "2.txt", "text/plain", new byte[0]),
+                new MockMultipartFile("files", "3.txt", "text/plain", new byte[0]),
+                new MockMultipartFile("files", "4.txt", "text/plain", new byte[0]));
+
+        // When & Then
+        assertThatThrownBy(() -> batchUploadService.uploadFiles(files, null, null, USER_ID))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(fileService);
+    }
+
+    private static List<BatchUploadItem> planned(List<MultipartFile> files) {
+        return files.stream()
+                .map(file -> {
+                    BatchUploadItem item = new BatchUploadItem(file);
+                    item.plan(file.getOriginalFilename(), null);
+                    return item;
+                })
+                .toList();
+    }
+}
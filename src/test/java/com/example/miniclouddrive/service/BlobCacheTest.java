@@ -0,0 +1,158 @@
+package com.example.miniclouddrive.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * BlobCache 與 CachingFileStorageService 單元測試
+ */
+class BlobCacheTest {
+
+    @Nested
+    @DisplayName("BlobCache 測試")
+    class CacheTests {
+
+        @Test
+        @DisplayName("放入後可命中並計入命中率")
+        void shouldHitAfterPut() {
+            BlobCache cache = new BlobCache(1024, 256);
+
+            assertThat(cache.get("a")).isNull();
+            assertThat(cache.put("a", new byte[] { 1, 2, 3 })).isTrue();
+
+            ByteBuffer cached = cache.get("a");
+            assertThat(cached).isNotNull();
+            assertThat(cached.isDirect()).isTrue();
+            assertThat(cached.remaining()).isEqualTo(3);
+            assertThat(cache.hitRatio()).isEqualTo(0.5);
+            assertThat(cache.residentBytes()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("超過單項上限的內容不快取")
+        void shouldRejectOversizedEntry() {
+            BlobCache cache = new BlobCache(1024, 16);
+
+            assertThat(cache.put("big", new byte[17])).isFalse();
+            assertThat(cache.residentBytes()).isZero();
+        }
+
+        @Test
+        @DisplayName("預算不足時，冷門的新項目不會擠掉熱門項目")
+        void shouldNotAdmitColdEntryOverHotEntry() {
+            BlobCache cache = new BlobCache(100, 100);
+            cache.put("hot", new byte[80]);
+            for (int i = 0; i < 5; i++) {
+                cache.get("hot");
+            }
+
+            cache.get("cold");
+            assertThat(cache.put("cold", new byte[50])).isFalse();
+            assertThat(cache.get("hot")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("預算不足時，較熱門的新項目淘汰最久未使用的項目")
+        void shouldEvictColderEntryForHotterCandidate() {
+            BlobCache cache = new BlobCache(100, 100);
+            cache.put("old", new byte[80]);
+            for (int i = 0; i < 5; i++) {
+                cache.get("new");
+            }
+
+            assertThat(cache.put("new", new byte[50])).isTrue();
+            assertThat(cache.get("old")).isNull();
+            assertThat(cache.residentBytes()).isEqualTo(50);
+        }
+
+        @Test
+        @DisplayName("失效後不再命中")
+        void shouldInvalidateEntry() {
+            BlobCache cache = new BlobCache(1024, 256);
+            cache.put("a", new byte[10]);
+
+            cache.invalidate("a");
+
+            assertThat(cache.get("a")).isNull();
+            assertThat(cache.residentBytes()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("CachingFileStorageService 測試")
+    @ExtendWith(MockitoExtension.class)
+    class DecoratorTests {
+
+        @Mock
+        private FileStorageService delegate;
+
+        @Test
+        @DisplayName("第二次讀取由快取提供，不再呼叫下層")
+        void shouldServeSecondLoadFromCache() throws IOException {
+            CachingFileStorageService storage = new CachingFileStorageService(delegate, new BlobCache(1024, 256));
+            when(delegate.load("1/a.txt", 5L)).thenReturn(new ByteArrayResource("hello".getBytes()));
+
+            storage.load("1/a.txt", 5L);
+            Resource second = storage.load("1/a.txt", 5L);
+
+            verify(delegate, times(1)).load("1/a.txt", 5L);
+            try (InputStream inputStream = second.getInputStream()) {
+                assertThat(inputStream.readAllBytes()).isEqualTo("hello".getBytes());
+            }
+        }
+
+        @Test
+        @DisplayName("刪除時使快取失效")
+        void shouldInvalidateOnDelete() throws IOException {
+            BlobCache cache = new BlobCache(1024, 256);
+            CachingFileStorageService storage = new CachingFileStorageService(delegate, cache);
+            when(delegate.load("1/a.txt", -1L)).thenReturn(new ByteArrayResource("hello".getBytes()));
+            storage.load("1/a.txt");
+
+            storage.delete("1/a.txt");
+
+            assertThat(cache.size()).isZero();
+            verify(delegate).delete("1/a.txt");
+        }
+
+        @Test
+        @DisplayName("已知大小超過單項上限時直接交給下層，不讀取內容")
+        void shouldPassThroughLargeContentWithoutReading() throws IOException {
+            CachingFileStorageService storage = new CachingFileStorageService(delegate, new BlobCache(1024, 256));
+            Resource large = mock(Resource.class);
+            when(delegate.load("z/1/big.log", 4096L)).thenReturn(large);
+
+            Resource loaded = storage.load("z/1/big.log", 4096L);
+
+            assertThat(loaded).isSameAs(large);
+            verify(large, never()).getInputStream();
+        }
+
+        @Test
+        @DisplayName("大小未知時以實際佔用空間排除大檔案，不讀取內容")
+        void shouldUseStoredSizeWhenSizeUnknown() throws IOException {
+            CachingFileStorageService storage = new CachingFileStorageService(delegate, new BlobCache(1024, 256));
+            Resource large = mock(Resource.class);
+            when(delegate.getStoredSize("1/big.bin")).thenReturn(4096L);
+            when(delegate.load("1/big.bin", -1L)).thenReturn(large);
+
+            Resource loaded = storage.load("1/big.bin");
+
+            assertThat(loaded).isSameAs(large);
+            verify(large, never()).getInputStream();
+        }
+    }
+}
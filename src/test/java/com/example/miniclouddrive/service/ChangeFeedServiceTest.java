@@ -0,0 +1,202 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.ChangeFeedProperties;
+import com.example.miniclouddrive.dto.response.ChangeFeedResponse;
+import com.example.miniclouddrive.entity.FileChange;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.ChangeCursorExpiredException;
+import com.example.miniclouddrive.repository.FileChangeRepository;
+import com.example.miniclouddrive.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ChangeFeedService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    @Mock
+    private FileChangeRepository fileChangeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ChangeFeedService changeFeedService;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new ChangeFeedService(fileChangeRepository, userRepository, new ChangeFeedProperties(),
+                eventPublisher);
+    }
+
+    private static FileChange change(long seq, long fileId) {
+        return FileChange.builder()
+                .ownerId(USER_ID)
+                .seq(seq)
+                .fileId(fileId)
+                .changeType(ChangeType.CREATED)
+                .type(FileType.FILE)
+                .name("file-" + fileId)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("record 測試")
+    class RecordTests {
+
+        @Test
+        @DisplayName("以單一 UPDATE 配發連續序號並記錄異動後的狀態")
+        @SuppressWarnings("unchecked")
+        void shouldAssignConsecutiveSequenceNumbers() {
+            // Given
+            FileEntity folder = FileEntity.builder().id(50L).type(FileType.FOLDER).name("docs").build();
+            FileEntity a = FileEntity.builder().id(101L).type(FileType.FILE).name("a.txt").size(3L).parent(folder)
+                    .build();
+            FileEntity b = FileEntity.builder().id(102L).type(FileType.FILE).name("b.txt").size(4L).build();
+            when(userRepository.findChangeSeq(USER_ID)).thenReturn(Optional.of(12L));
+
+            // When
+            changeFeedService.record(USER_ID, ChangeType.MOVED, List.of(a, b));
+
+            // Then
+            verify(userRepository).incrementChangeSeq(USER_ID, 2);
+            ArgumentCaptor<List<FileChange>> captor = ArgumentCaptor.forClass(List.class);
+            verify(fileChangeRepository).saveAll(captor.capture());
+            List<FileChange> changes = captor.getValue();
+            assertThat(changes).extracting(FileChange::getSeq).containsExactly(11L, 12L);
+            assertThat(changes.get(0).getParentId()).isEqualTo(50L);
+            assertThat(changes.get(1).getParentId()).isNull();
+            assertThat(changes).allMatch(change -> change.getChangeType() == ChangeType.MOVED);
+
+            ArgumentCaptor<FileChangeEvent> eventCaptor = ArgumentCaptor.forClass(FileChangeEvent.class);
+            verify(eventPublisher).publishEvent(eventCaptor.capture());
+            assertThat(eventCaptor.getValue().userId()).isEqualTo(USER_ID);
+            assertThat(eventCaptor.getValue().changes()).extracting("seq").containsExactly(11L, 12L);
+        }
+
+        @Test
+        @DisplayName("沒有異動項目時不配發序號")
+        void shouldSkipEmptyChanges() {
+            changeFeedService.record(USER_ID, ChangeType.CREATED, List.of());
+
+            verifyNoInteractions(userRepository, fileChangeRepository, eventPublisher);
+        }
+    }
+
+    @Nested
+    @DisplayName("getChanges 測試")
+    class GetChangesTests {
+
+        @Test
+        @DisplayName("未提供游標時只回傳目前的游標")
+        void shouldReturnCurrentCursorForInitialSync() {
+            // Given
+            when(userRepository.findChangeSeq(USER_ID)).thenReturn(Optional.of(42L));
+
+            // When
+            ChangeFeedResponse response = changeFeedService.getChanges(USER_ID, null, null);
+
+            // Then
+            assertThat(response.getCursor()).isEqualTo(42L);
+            assertThat(response.getChanges()).isEmpty();
+            assertThat(response.isHasMore()).isFalse();
+            verifyNoInteractions(fileChangeRepository);
+        }
+
+        @Test
+        @DisplayName("超過每頁筆數時回傳最後一筆的序號作為游標")
+        void shouldPaginateByLastReturnedSeq() {
+            // Given
+            when(userRepository.findChangeSeq(USER_ID)).thenReturn(Optional.of(30L));
+            when(fileChangeRepository.findMinSeq(USER_ID)).thenReturn(1L);
+            when(fileChangeRepository.findLatestChanges(USER_ID, 10L, 30L, PageRequest.of(0, 3)))
+                    .thenReturn(List.of(change(12, 101), change(15, 102), change(20, 103)));
+
+            // When
+            ChangeFeedResponse response = changeFeedService.getChanges(USER_ID, 10L, 2);
+
+            // Then
+            assertThat(response.getChanges()).hasSize(2);
+            assertThat(response.getCursor()).isEqualTo(15L);
+            assertThat(response.isHasMore()).isTrue();
+        }
+
+        @Test
+        @DisplayName("最後一頁回傳目前的游標")
+        void shouldReturnCurrentCursorOnLastPage() {
+            // Given
+            when(userRepository.findChangeSeq(USER_ID)).thenReturn(Optional.of(30L));
+            when(fileChangeRepository.findMinSeq(USER_ID)).thenReturn(1L);
+            when(fileChangeRepository.findLatestChanges(eq(USER_ID), eq(10L), eq(30L), any()))
+                    .thenReturn(List.of(change(28, 101)));
+
+            // When
+            ChangeFeedResponse response = changeFeedService.getChanges(USER_ID, 10L, null);
+
+            // Then
+            assertThat(response.getChanges()).extracting("fileId").containsExactly(101L);
+            assertThat(response.getCursor()).isEqualTo(30L);
+            assertThat(response.isHasMore()).isFalse();
+        }
+
+        @Test
+        @DisplayName("游標之後的紀錄已被清除時拋出游標過期例外")
+        void shouldRejectExpiredCursor() {
+            // Given
+            when(userRepository.findChangeSeq(USER_ID)).thenReturn(Optional.of(100L));
+            when(fileChangeRepository.findMinSeq(USER_ID)).thenReturn(50L);
+
+            // When & Then
+            assertThatThrownBy(() -> changeFeedService.getChanges(USER_ID, 10L, null))
+                    .isInstanceOf(ChangeCursorExpiredException.class);
+        }
+
+        @Test
+        @DisplayName("所有紀錄皆已清除且游標落後時拋出游標過期例外")
+        void shouldRejectCursorWhenAllChangesPurged() {
+            // Given
+            when(userRepository.findChangeSeq(USER_ID)).thenReturn(Optional.of(100L));
+            when(fileChangeRepository.findMinSeq(USER_ID)).thenReturn(null);
+
+            // When & Then
+            assertThatThrownBy(() -> changeFeedService.getChanges(USER_ID, 99L, null))
+                    .isInstanceOf(ChangeCursorExpiredException.class);
+        }
+
+        @Test
+        @DisplayName("游標大於目前序號時拋出參數錯誤")
+        void shouldRejectCursorFromTheFuture() {
+            // Given
+            when(userRepository.findChangeSeq(USER_ID)).thenReturn(Optional.of(5L));
+
+            // When & Then
+            assertThatThrownBy(() -> changeFeedService.getChanges(USER_ID, 6L, null))
+                    .isInstanceOf(BusinessException.class);
+        }
+    }
+}
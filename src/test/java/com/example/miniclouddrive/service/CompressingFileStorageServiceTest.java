@@ -0,0 +1,132 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CompressingFileStorageService 單元測試
+ * 以實際的 LocalFileStorageService 作為下層儲存
+ */
+class CompressingFileStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageProperties.Compression compressionProperties;
+    private CompressingFileStorageService compressingFileStorageService;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(tempDir.toString());
+        LocalFileStorageService localFileStorageService = new LocalFileStorageService(properties);
+        localFileStorageService.init();
+
+        compressionProperties = properties.getCompression();
+        compressionProperties.setEnabled(true);
+        compressingFileStorageService = new CompressingFileStorageService(localFileStorageService,
+                compressionProperties);
+    }
+
+    @Test
+    @DisplayName("可壓縮的文字內容以壓縮形式儲存，讀取時還原")
+    void shouldCompressTextContent() throws IOException {
+        byte[] content = "timestamp,level,message\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+        MockMultipartFile file = new MockMultipartFile("file", "app.csv", "text/csv", content);
+
+        String storedPath = compressingFileStorageService.store(file, USER_ID);
+
+        assertThat(storedPath).startsWith(CompressingFileStorageService.PATH_PREFIX);
+        assertThat(compressingFileStorageService.getStoredSize(storedPath)).isLessThan(content.length / 5);
+        assertThat(readAll(compressingFileStorageService.load(storedPath))).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("已知原始大小時直接回報內容長度，不需解壓縮")
+    void shouldReportKnownContentLength() throws IOException {
+        byte[] content = "timestamp,level,message\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+        String storedPath = compressingFileStorageService.store(
+                new MockMultipartFile("file", "app.csv", "text/csv", content), USER_ID);
+
+        Resource resource = compressingFileStorageService.load(storedPath, content.length);
+
+        assertThat(resource.contentLength()).isEqualTo(content.length);
+        assertThat(compressingFileStorageService.load(storedPath).contentLength()).isEqualTo(content.length);
+    }
+
+    @Test
+    @DisplayName("已壓縮格式依 magic bytes 略過壓縮")
+    void shouldSkipAlreadyCompressedContent() throws IOException {
+        byte[] content = new byte[4096];
+        byte[] pngHeader = { (byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A };
+        System.arraycopy(pngHeader, 0, content, 0, pngHeader.length);
+        MockMultipartFile file = new MockMultipartFile("file", "image.png", "image/png", content);
+
+        String storedPath = compressingFileStorageService.store(file, USER_ID);
+
+        assertThat(storedPath).doesNotStartWith(CompressingFileStorageService.PATH_PREFIX);
+        assertThat(compressingFileStorageService.getStoredSize(storedPath)).isEqualTo(content.length);
+    }
+
+    @Test
+    @DisplayName("壓縮效益不足時儲存原始內容")
+    void shouldStoreRawWhenCompressionDoesNotHelp() throws IOException {
+        byte[] content = new byte[8192];
+        new Random(42).nextBytes(content);
+        MockMultipartFile file = new MockMultipartFile("file", "random.bin", "application/octet-stream", content);
+
+        String storedPath = compressingFileStorageService.store(file, USER_ID);
+
+        assertThat(storedPath).doesNotStartWith(CompressingFileStorageService.PATH_PREFIX);
+        assertThat(readAll(compressingFileStorageService.load(storedPath))).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("超過記憶體壓縮上限的內容以串流方式壓縮")
+    void shouldStreamCompressLargeContent() throws IOException {
+        compressionProperties.setInMemoryLimit(DataSize.ofBytes(1024));
+        byte[] content = "{\"key\":\"value\"}\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+        String storedPath = compressingFileStorageService.store(
+                new ByteArrayInputStream(content), "data.json", content.length, USER_ID);
+
+        assertThat(storedPath).startsWith(CompressingFileStorageService.PATH_PREFIX);
+        assertThat(readAll(compressingFileStorageService.load(storedPath))).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("刪除壓縮檔案時移除下層實體檔案")
+    void shouldDeleteCompressedFile() throws IOException {
+        byte[] content = "hello hello hello hello hello hello".repeat(20).getBytes(StandardCharsets.UTF_8);
+        String storedPath = compressingFileStorageService.store(
+                new MockMultipartFile("file", "a.txt", "text/plain", content), USER_ID);
+
+        compressingFileStorageService.delete(storedPath);
+
+        assertThat(tempDir.resolve(storedPath.substring(CompressingFileStorageService.PATH_PREFIX.length())))
+                .doesNotExist();
+    }
+
+    private static byte[] readAll(Resource resource) throws IOException {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
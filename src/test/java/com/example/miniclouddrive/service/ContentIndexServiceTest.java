@@ -0,0 +1,210 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.ContentSearchProperties;
+import com.example.miniclouddrive.entity.FileChange;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.repository.FileChangeRepository;
+import com.example.miniclouddrive.repository.FileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ContentIndexService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class ContentIndexServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @Mock
+    private FileChangeRepository fileChangeRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @TempDir
+    Path indexDir;
+
+    private ContentSearchProperties properties;
+    private ContentIndexService contentIndexService;
+
+    /** 模擬資料庫中目前的檔案 */
+    private final Map<Long, FileEntity> files = new HashMap<>();
+
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new ContentSearchProperties();
+        properties.setIndexDir(indexDir.toString());
+        properties.setWorkerThreads(1);
+        contentIndexService = openService();
+
+        lenient().when(fileRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(files.get(invocation.<Long>getArgument(0))));
+        lenient().when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), anyLong()))
+                .thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    Long ownerId = invocation.getArgument(1);
+                    return files.values().stream()
+                            .filter(f -> ids.contains(f.getId()) && f.getOwnerId().equals(ownerId)
+                                    && f.getDeletedAt() == null)
+                            .toList();
+                });
+    }
+
+    private ContentIndexService openService() throws IOException {
+        ContentIndexService service = new ContentIndexService(fileRepository, fileChangeRepository,
+                fileStorageService, properties, new SimpleMeterRegistry());
+        service.open();
+        return service;
+    }
+
+    private static FileChange change(Long id, Long fileId, LocalDateTime createdAt) {
+        return FileChange.builder().id(id).ownerId(USER_ID).seq(id).fileId(fileId).type(FileType.FILE)
+                .changeType(ChangeType.CREATED).name("readme.md").createdAt(createdAt).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        contentIndexService.close();
+    }
+
+    private void storeFile(Long id, Long ownerId, String name, String content) throws IOException {
+        String filePath = ownerId + "/" + id + "-" + content.hashCode();
+        files.put(id, FileEntity.builder().id(id).ownerId(ownerId).name(name).type(FileType.FILE)
+                .filePath(filePath).build());
+        lenient().when(fileStorageService.load(eq(filePath), anyLong()))
+                .thenReturn(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<Long> search(Long userId, String query) throws IOException {
+        contentIndexService.refresh();
+        return contentIndexService.search(userId, query, null).stream().map(FileEntity::getId).toList();
+    }
+
+    @Test
+    @DisplayName("索引文字檔內容，只搜尋得到自己的檔案")
+    void shouldIndexTextContentPerOwner() throws IOException {
+        storeFile(10L, USER_ID, "notes.md", "Quarterly revenue grew in the northern region");
+        storeFile(11L, OTHER_USER_ID, "other.txt", "revenue report for another tenant");
+        contentIndexService.reindex(10L);
+        contentIndexService.reindex(11L);
+
+        assertThat(search(USER_ID, "revenue")).containsExactly(10L);
+        assertThat(search(USER_ID, "northern REVENUE")).containsExactly(10L);
+        assertThat(search(USER_ID, "revenue tenant")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("覆蓋後以新內容重新索引")
+    void shouldReindexOverwrittenContent() throws IOException {
+        storeFile(10L, USER_ID, "todo.txt", "buy milk");
+        contentIndexService.reindex(10L);
+
+        storeFile(10L, USER_ID, "todo.txt", "write tests");
+        contentIndexService.reindex(10L);
+
+        assertThat(search(USER_ID, "milk")).isEmpty();
+        assertThat(search(USER_ID, "tests")).containsExactly(10L);
+    }
+
+    @Test
+    @DisplayName("刪除後從索引移除")
+    void shouldRemoveDeletedFile() throws IOException {
+        storeFile(10L, USER_ID, "secret.txt", "launch codes");
+        contentIndexService.reindex(10L);
+
+        files.get(10L).setDeletedAt(LocalDateTime.now());
+        contentIndexService.reindex(10L);
+
+        assertThat(search(USER_ID, "launch")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("非文字類的副檔名與二進位內容不索引")
+    void shouldSkipNonTextFiles() throws IOException {
+        storeFile(10L, USER_ID, "photo.jpg", "looks like text");
+        storeFile(11L, USER_ID, "data.txt", "looks\0like binary");
+        contentIndexService.reindex(10L);
+        contentIndexService.reindex(11L);
+
+        assertThat(search(USER_ID, "looks")).isEmpty();
+        verify(fileStorageService, never()).load(eq(files.get(10L).getFilePath()), anyLong());
+    }
+
+    @Test
+    @DisplayName("讀取變更紀錄（含其他節點的異動）後在背景執行緒更新索引")
+    void shouldIndexChangesFromChangeFeed() throws Exception {
+        storeFile(10L, USER_ID, "readme.md", "background indexing works");
+        when(fileChangeRepository.findAfterId(eq(0L), any()))
+                .thenReturn(List.of(change(1L, 10L, LocalDateTime.now())));
+
+        contentIndexService.catchUp();
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        List<Long> results;
+        do {
+            Thread.sleep(20);
+            results = search(USER_ID, "background");
+        } while (results.isEmpty() && System.nanoTime() < deadline);
+        assertThat(results).containsExactly(10L);
+    }
+
+    @Test
+    @DisplayName("檢查點只推進到已提交的變更，並隨索引寫入磁碟供重新啟動後繼續")
+    void shouldPersistCheckpointOfSettledChanges() throws IOException {
+        // 變更 1 已超過 catch-up-lag，變更 2 剛寫入，之前可能仍有尚未提交的變更
+        when(fileChangeRepository.findAfterId(eq(0L), any())).thenReturn(List.of(
+                change(1L, 10L, LocalDateTime.now().minusMinutes(5)),
+                change(2L, 11L, LocalDateTime.now())));
+
+        contentIndexService.catchUp();
+        contentIndexService.catchUp();
+        verify(fileChangeRepository).findAfterId(eq(1L), any());
+
+        // 第一次寫入磁碟記錄上次的檢查點（0），第二次才記錄 1
+        contentIndexService.commit();
+        contentIndexService.commit();
+        contentIndexService.close();
+
+        contentIndexService = openService();
+        contentIndexService.catchUp();
+        verify(fileChangeRepository, times(2)).findAfterId(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("關鍵字為空時拋出參數錯誤")
+    void shouldRejectBlankQuery() {
+        assertThatThrownBy(() -> contentIndexService.search(USER_ID, " ", null))
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.miniclouddrive.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DirectBufferPool 單元測試
+ */
+class DirectBufferPoolTest {
+
+    @Test
+    @DisplayName("歸還的直接緩衝區會被清空後重複使用")
+    void shouldReuseReleasedBuffer() {
+        DirectBufferPool pool = new DirectBufferPool(16, 2);
+
+        ByteBuffer first = pool.acquire();
+        first.put((byte) 1);
+        pool.release(first);
+        ByteBuffer second = pool.acquire();
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.isDirect()).isTrue();
+        assertThat(second.position()).isZero();
+        assertThat(pool.allocated()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("直接緩衝區全數借出時改用堆積緩衝區，不超過上限")
+    void shouldFallBackToHeapWhenExhausted() {
+        DirectBufferPool pool = new DirectBufferPool(16, 1);
+
+        ByteBuffer direct = pool.acquire();
+        ByteBuffer heap = pool.acquire();
+        pool.release(heap);
+
+        assertThat(direct.isDirect()).isTrue();
+        assertThat(heap.isDirect()).isFalse();
+        assertThat(pool.allocated()).isEqualTo(1);
+    }
+}
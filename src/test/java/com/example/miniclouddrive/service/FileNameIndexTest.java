@@ -0,0 +1,115 @@
+package com.example.miniclouddrive.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FileNameIndex 單元測試
+ */
+class FileNameIndexTest {
+
+    private static List<Long> ids(List<FileNameIndex.Hit> hits) {
+        return hits.stream().map(FileNameIndex.Hit::fileId).toList();
+    }
+
+    @Test
+    @DisplayName("子字串查詢不分大小寫，依完全相同、前綴、單字開頭、其他位置排序")
+    void shouldRankBySubstringPosition() {
+        FileNameIndex index = new FileNameIndex();
+        index.upsert(1, "myreport.txt");
+        index.upsert(2, "Annual Report.pdf");
+        index.upsert(3, "report");
+        index.upsert(4, "Report-2024.xlsx");
+        index.upsert(5, "notes.txt");
+
+        assertThat(ids(index.search("REPORT", 10))).containsExactly(3L, 4L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("少於三個字元的查詢同樣支援子字串")
+    void shouldSupportShortQueries() {
+        FileNameIndex index = new FileNameIndex();
+        index.upsert(1, "a.txt");
+        index.upsert(2, "data.csv");
+        index.upsert(3, "b.txt");
+
+        assertThat(ids(index.search("a", 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("短查詢的前綴項目足夠時只回傳前綴項目，單一字元名稱也可完全相同")
+    void shouldUsePrefixGramsForShortQueries() {
+        FileNameIndex index = new FileNameIndex();
+        index.upsert(1, "data.csv");
+        index.upsert(2, "a");
+        index.upsert(3, "ab.txt");
+        index.upsert(4, "abc.txt");
+
+        assertThat(ids(index.search("a", 3))).containsExactly(2L, 3L, 4L);
+        assertThat(ids(index.search("ab", 1))).containsExactly(3L);
+        assertThat(ids(index.search("a", 10))).containsExactly(2L, 3L, 4L, 1L);
+    }
+
+    @Test
+    @DisplayName("重新命名後只能以新名稱查到")
+    void shouldReindexRenamedItem() {
+        FileNameIndex index = new FileNameIndex();
+        index.upsert(1, "draft.docx");
+
+        index.upsert(1, "final.docx");
+
+        assertThat(index.search("draft", 10)).isEmpty();
+        assertThat(ids(index.search("final", 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("刪除後查不到")
+    void shouldRemoveItem() {
+        FileNameIndex index = new FileNameIndex();
+        index.upsert(1, "secret.txt");
+
+        index.remove(1);
+
+        assertThat(index.search("secret", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("只回傳最相關的前幾筆")
+    void shouldLimitResults() {
+        FileNameIndex index = new FileNameIndex();
+        for (int i = 0; i < 100; i++) {
+            index.upsert(i, "photo-" + i + ".jpg");
+        }
+        index.upsert(1000, "photo");
+
+        List<FileNameIndex.Hit> hits = index.search("photo", 3);
+
+        assertThat(hits).hasSize(3);
+        assertThat(hits.get(0).fileId()).isEqualTo(1000L);
+    }
+
+    @Test
+    @DisplayName("大量刪除後重建索引仍可正確查詢，且釋放記憶體")
+    void shouldCompactAfterManyRemovals() {
+        FileNameIndex index = new FileNameIndex();
+        for (int i = 0; i < 4000; i++) {
+            index.upsert(i, "file-" + i + ".bin");
+        }
+        long before = index.estimatedBytes();
+
+        for (int i = 0; i < 3000; i++) {
+            index.remove(i);
+        }
+
+        assertThat(index.size()).isEqualTo(1000);
+        assertThat(index.estimatedBytes()).isLessThan(before);
+        assertThat(ids(index.search("file-3999", 10))).containsExactly(3999L);
+        assertThat(index.search("file-10.bin", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.SearchProperties;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.repository.FileNameView;
+import com.example.miniclouddrive.repository.FileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FileSearchService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class FileSearchServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    private SearchProperties searchProperties;
+    private FileSearchService fileSearchService;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        searchProperties = new SearchProperties();
+        fileSearchService = new FileSearchService(fileRepository, searchProperties);
+    }
+
+    private record NameRow(Long id, String name) implements FileNameView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static FileEntity file(Long id, String name) {
+        return FileEntity.builder().id(id).name(name).type(FileType.FILE).ownerId(USER_ID).build();
+    }
+
+    private static FileChangeResponse change(ChangeType changeType, FileType type, Long fileId, String name) {
+        return FileChangeResponse.builder().changeType(changeType).type(type).fileId(fileId).name(name).build();
+    }
+
+    /** 依 ID 從資料庫回傳仍存在的項目（順序與索引排名無關） */
+    private void stubExisting(FileEntity... files) {
+        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), eq(USER_ID)))
+                .thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    return List.of(files).stream().filter(f -> ids.contains(f.getId())).toList();
+                });
+    }
+
+    @Nested
+    @DisplayName("索引搜尋測試")
+    class IndexTests {
+
+        @Test
+        @DisplayName("第一次搜尋時建立索引，之後的搜尋不再讀取全部名稱")
+        void shouldBuildIndexOnceAndRankResults() {
+            // Given
+            when(fileRepository.findNamesAfter(eq(USER_ID), eq(0L), any()))
+                    .thenReturn(List.of(new NameRow(10L, "q3 budget.xlsx"), new NameRow(11L, "budget")));
+            stubExisting(file(10L, "q3 budget.xlsx"), file(11L, "budget"));
+
+            // When
+            List<FileEntity> first = fileSearchService.search(USER_ID, "budget", null);
+            List<FileEntity> second = fileSearchService.search(USER_ID, "budg", null);
+
+            // Then
+            assertThat(first).extracting(FileEntity::getId).containsExactly(11L, 10L);
+            assertThat(second).extracting(FileEntity::getId).containsExactly(11L, 10L);
+            verify(fileRepository, times(1)).findNamesAfter(eq(USER_ID), anyLong(), any());
+            assertThat(fileSearchService.indexedUsers()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("交易提交後的異動事件增量更新已載入的索引")
+        void shouldApplyChangeEvents() {
+            // Given
+            when(fileRepository.findNamesAfter(eq(USER_ID), eq(0L), any()))
+                    .thenReturn(List.of(new NameRow(10L, "old-name.txt")));
+            stubExisting(file(10L, "new-name.txt"), file(12L, "name-list.csv"));
+            fileSearchService.search(USER_ID, "name", null);
+
+            // When
+            fileSearchService.onFileChange(new FileChangeEvent(USER_ID, List.of(
+                    change(ChangeType.RENAMED, FileType.FILE, 10L, "new-name.txt"),
+                    change(ChangeType.CREATED, FileType.FILE, 12L, "name-list.csv"))));
+
+            // Then
+            assertThat(fileSearchService.search(USER_ID, "new-name", null))
+                    .extracting(FileEntity::getId).containsExactly(10L);
+            assertThat(fileSearchService.search(USER_ID, "old-name", null)).isEmpty();
+            assertThat(fileSearchService.search(USER_ID, "list", null))
+                    .extracting(FileEntity::getId).containsExactly(12L);
+        }
+
+        @Test
+        @DisplayName("刪除資料夾時釋放索引，下次搜尋重新建立")
+        void shouldDropIndexWhenFolderDeleted() {
+            // Given
+            when(fileRepository.findNamesAfter(eq(USER_ID), eq(0L), any()))
+                    .thenReturn(List.of(new NameRow(10L, "docs")));
+            stubExisting(file(10L, "docs"));
+            fileSearchService.search(USER_ID, "docs", null);
+
+            // When
+            fileSearchService.onFileChange(new FileChangeEvent(USER_ID,
+                    List.of(change(ChangeType.DELETED, FileType.FOLDER, 10L, "docs"))));
+
+            // Then
+            assertThat(fileSearchService.indexedUsers()).isZero();
+        }
+
+        @Test
+        @DisplayName("未載入索引的使用者的異動事件直接忽略")
+        void shouldIgnoreEventsForUnloadedUsers() {
+            fileSearchService.onFileChange(new FileChangeEvent(USER_ID,
+                    List.of(change(ChangeType.CREATED, FileType.FILE, 10L, "a.txt"))));
+
+            assertThat(fileSearchService.indexedUsers()).isZero();
+            verifyNoInteractions(fileRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("資料庫查詢測試")
+    class DatabaseFallbackTests {
+
+        @Test
+        @DisplayName("索引停用時以跳脫萬用字元的 LIKE 樣式查詢")
+        void shouldQueryDatabaseWhenIndexDisabled() {
+            // Given
+            searchProperties.setIndexEnabled(false);
+            when(fileRepository.searchByName(eq(USER_ID), eq("%50\\%\\_off%"), any()))
+                    .thenReturn(List.of(file(10L, "50%_OFF.png")));
+
+            // When
+            List<FileEntity> results = fileSearchService.search(USER_ID, "50%_OFF", null);
+
+            // Then
+            assertThat(results).extracting(FileEntity::getId).containsExactly(10L);
+            verify(fileRepository, never()).findNamesAfter(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("索引超過記憶體預算時改以資料庫查詢，重試期限內不再嘗試建立")
+        void shouldFallBackWhenIndexExceedsBudget() {
+            // Given
+            searchProperties.setMaxMemory(DataSize.ofBytes(64));
+            when(fileRepository.findNamesAfter(eq(USER_ID), eq(0L), any()))
+                    .thenReturn(List.of(new NameRow(10L, "large.bin")));
+            when(fileRepository.searchByName(eq(USER_ID), eq("%large%"), any()))
+                    .thenReturn(List.of(file(10L, "large.bin")));
+
+            // When
+            fileSearchService.search(USER_ID, "large", null);
+            List<FileEntity> results = fileSearchService.search(USER_ID, "large", null);
+
+            // Then
+            assertThat(results).extracting(FileEntity::getId).containsExactly(10L);
+            verify(fileRepository, times(1)).findNamesAfter(eq(USER_ID), anyLong(), any());
+            assertThat(fileSearchService.indexedUsers()).isZero();
+        }
+
+        @Test
+        @DisplayName("索引超過記憶體預算的使用者在重試期限過後重新建立索引")
+        void shouldRetryOversizedUserAfterRetryPeriod() {
+            // Given
+            long[] now = {0};
+            fileSearchService = new FileSearchService(fileRepository, searchProperties, () -> now[0]);
+            searchProperties.setMaxMemory(DataSize.ofBytes(64));
+            when(fileRepository.findNamesAfter(eq(USER_ID), eq(0L), any()))
+                    .thenReturn(List.of(new NameRow(10L, "large.bin")));
+            when(fileRepository.searchByName(eq(USER_ID), eq("%large%"), any()))
+                    .thenReturn(List.of(file(10L, "large.bin")));
+            when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(List.of(10L), USER_ID))
+                    .thenReturn(List.of(file(10L, "large.bin")));
+
+            // When
+            fileSearchService.search(USER_ID, "large", null);
+            searchProperties.setMaxMemory(DataSize.ofMegabytes(1));
+            now[0] += searchProperties.getOversizedRetry().toNanos() - 1;
+            fileSearchService.search(USER_ID, "large", null);
+            now[0] += 1;
+            List<FileEntity> results = fileSearchService.search(USER_ID, "large", null);
+
+            // Then
+            assertThat(results).extracting(FileEntity::getId).containsExactly(10L);
+            verify(fileRepository, times(2)).findNamesAfter(eq(USER_ID), anyLong(), any());
+            verify(fileRepository, times(2)).searchByName(eq(USER_ID), eq("%large%"), any());
+            assertThat(fileSearchService.indexedUsers()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("關鍵字為空時拋出參數錯誤")
+    void shouldRejectBlankQuery() {
+        assertThatThrownBy(() -> fileSearchService.search(USER_ID, "  ", null))
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -1,27 +1,59 @@
 package com.example.miniclouddrive.service;
 
+import com.example.miniclouddrive.config.TrashProperties;
+import com.example.miniclouddrive.dto.request.CheckExistsRequest;
+import com.example.miniclouddrive.dto.response.ApiReturnCode;
 import com.example.miniclouddrive.dto.response.CreateFolderResponse;
+import com.example.miniclouddrive.dto.response.FileExistenceResponse;
+import com.example.miniclouddrive.dto.response.FileResponse;
+import com.example.miniclouddrive.dto.response.JobResponse;
 import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.entity.User;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.ExistenceStatus;
 import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.BusinessException;
 import com.example.miniclouddrive.exception.FileAlreadyExistsException;
+import com.example.miniclouddrive.exception.FileStorageException;
+import com.example.miniclouddrive.exception.InsufficientStorageException;
+import com.example.miniclouddrive.exception.InvalidFileException;
 import com.example.miniclouddrive.exception.InvalidFolderException;
 import com.example.miniclouddrive.repository.FileRepository;
+import com.example.miniclouddrive.repository.StoredFileView;
 import com.example.miniclouddrive.repository.UserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -40,6 +72,30 @@ class FileServiceTest {
         @Mock
         private FileStorageService fileStorageService;
 
+        @Mock
+        private JobService jobService;
+
+        @Mock
+        private ChangeFeedService changeFeedService;
+
+        @Mock
+        private FileSearchService fileSearchService;
+
+        @Mock
+        private ContentIndexService contentIndexService;
+
+        @Mock
+        private FolderNamespaceService folderNamespaceService;
+
+        @Mock
+        private FolderRollupService folderRollupService;
+
+        @Spy
+        private TrashProperties trashProperties = new TrashProperties();
+
+        @Captor
+        private ArgumentCaptor<List<FileEntity>> entityListCaptor;
+
         @InjectMocks
         private FileService fileService;
 
@@ -78,6 +134,8 @@ class FileServiceTest {
                         assertThat(response.getParentId()).isNull();
 
                         verify(fileRepository).save(any(FileEntity.class));
+                        verify(changeFeedService).record(USER_ID, ChangeType.CREATED, savedFolder);
+                        verify(userRepository).incrementRootVersion(USER_ID);
                 }
 
                 @Test
@@ -162,6 +220,30 @@ class FileServiceTest {
         @DisplayName("deleteFolder 測試")
         class DeleteFolderTests {
 
+                @Test
+                @DisplayName("成功建立刪除工作")
+                void shouldEnqueueFolderDeleteJob() {
+                        // Given
+                        FileEntity folder = FileEntity.builder()
+                                        .id(FOLDER_ID)
+                                        .name("待刪除資料夾")
+                                        .type(FileType.FOLDER)
+                                        .ownerId(USER_ID)
+                                        .build();
+                        JobResponse job = JobResponse.builder().jobId(7L).status(JobStatus.PENDING).build();
+
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(
+                                        FOLDER_ID, USER_ID, FileType.FOLDER)).thenReturn(Optional.of(folder));
+                        when(jobService.enqueue(JobType.FOLDER_DELETE, USER_ID, FOLDER_ID)).thenReturn(job);
+
+                        // When
+                        JobResponse response = fileService.requestFolderDelete(FOLDER_ID, USER_ID);
+
+                        // Then
+                        assertThat(response.getJobId()).isEqualTo(7L);
+                        verify(fileRepository, never()).softDeleteByIds(any(), any(), any());
+                }
+
                 @Test
                 @DisplayName("成功刪除空資料夾")
                 void shouldDeleteEmptyFolder() {
@@ -170,52 +252,56 @@ class FileServiceTest {
                                         .id(FOLDER_ID)
                                         .name("待刪除資料夾")
                                         .type(FileType.FOLDER)
+                                        .ancestorPath("/")
                                         .ownerId(USER_ID)
                                         .build();
 
                         when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(
                                         FOLDER_ID, USER_ID, FileType.FOLDER)).thenReturn(Optional.of(folder));
-                        when(fileRepository.findByParentAndDeletedAtIsNull(folder)).thenReturn(Collections.emptyList());
+                        when(fileRepository.findDescendantIds(eq(USER_ID), eq("/100/"), any()))
+                                        .thenReturn(Collections.emptyList());
 
                         // When
-                        fileService.deleteFolder(FOLDER_ID, USER_ID);
+                        fileService.deleteFolder(FOLDER_ID, USER_ID, JobProgress.NONE);
 
                         // Then
                         verify(fileRepository).save(folder);
+                        verify(fileRepository, never()).softDeleteByIds(any(), any(), any());
                         assertThat(folder.getDeletedAt()).isNotNull();
+                        assertThat(folder.getTrashRootId()).isEqualTo(FOLDER_ID);
+                        verify(changeFeedService).record(USER_ID, ChangeType.DELETED, folder);
+                        verify(folderRollupService).itemRemoved(USER_ID, folder);
                 }
 
                 @Test
-                @DisplayName("成功刪除資料夾及其子項目")
-                void shouldDeleteFolderWithChildren() {
+                @DisplayName("成功刪除資料夾及其子樹 - 分批軟刪除並回報進度")
+                void shouldDeleteFolderSubtreeInBatches() {
                         // Given
                         FileEntity folder = FileEntity.builder()
                                         .id(FOLDER_ID)
                                         .name("父資料夾")
                                         .type(FileType.FOLDER)
+                                        .ancestorPath("/")
                                         .ownerId(USER_ID)
                                         .build();
-
-                        FileEntity childFile = FileEntity.builder()
-                                        .id(101L)
-                                        .name("子檔案.txt")
-                                        .type(FileType.FILE)
-                                        .parent(folder)
-                                        .ownerId(USER_ID)
-                                        .build();
+                        List<long[]> updates = new ArrayList<>();
 
                         when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(
                                         FOLDER_ID, USER_ID, FileType.FOLDER)).thenReturn(Optional.of(folder));
-                        when(fileRepository.findByParentAndDeletedAtIsNull(folder))
-                                        .thenReturn(java.util.List.of(childFile));
+                        when(fileRepository.countDescendants(USER_ID, "/100/")).thenReturn(2L);
+                        when(fileRepository.findDescendantIds(eq(USER_ID), eq("/100/"), any()))
+                                        .thenReturn(List.of(101L, 102L))
+                                        .thenReturn(Collections.emptyList());
+                        when(fileRepository.softDeleteByIds(eq(List.of(101L, 102L)), any(), eq(FOLDER_ID))).thenReturn(2);
 
                         // When
-                        fileService.deleteFolder(FOLDER_ID, USER_ID);
+                        fileService.deleteFolder(FOLDER_ID, USER_ID,
+                                        (processed, total) -> updates.add(new long[] { processed, total }));
 
                         // Then
-                        verify(fileRepository, times(2)).save(any(FileEntity.class));
                         assertThat(folder.getDeletedAt()).isNotNull();
-                        assertThat(childFile.getDeletedAt()).isNotNull();
+                        assertThat(updates).extracting(update -> update[0]).containsExactly(0L, 2L, 3L);
+                        assertThat(updates).allSatisfy(update -> assertThat(update[1]).isEqualTo(3L));
                 }
 
                 @Test
@@ -228,10 +314,10 @@ class FileServiceTest {
                                         invalidFolderId, USER_ID, FileType.FOLDER)).thenReturn(Optional.empty());
 
                         // When & Then
-                        assertThatThrownBy(() -> fileService.deleteFolder(invalidFolderId, USER_ID))
+                        assertThatThrownBy(() -> fileService.requestFolderDelete(invalidFolderId, USER_ID))
                                         .isInstanceOf(InvalidFolderException.class);
 
-                        verify(fileRepository, never()).save(any());
+                        verifyNoInteractions(jobService);
                 }
         }
 
@@ -337,4 +423,1130 @@ class FileServiceTest {
                         verify(fileRepository, never()).save(any());
                 }
         }
+
+        @Nested
+        @DisplayName("copyFiles 測試")
+        class CopyFilesTests {
+
+                @Test
+                @DisplayName("成功複製資料夾子樹 - 新記錄共用實體檔案")
+                void shouldCopySubtreeSharingStoredFiles() {
+                        // Given
+                        FileEntity folder = FileEntity.builder()
+                                        .id(FOLDER_ID)
+                                        .name("專案")
+                                        .type(FileType.FOLDER)
+                                        .size(0L)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity child = FileEntity.builder()
+                                        .id(101L)
+                                        .name("報告.pdf")
+                                        .type(FileType.FILE)
+                                        .size(1024L)
+                                        .filePath("1/uuid_報告.pdf")
+                                        .parent(folder)
+                                        .ownerId(USER_ID)
+                                        .build();
+                        User user = User.builder().id(USER_ID).storageQuota(10_000L).build();
+
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of(folder));
+                        when(fileRepository.findDescendants(USER_ID, "/100/"))
+                                        .thenReturn(List.of(child));
+                        when(userRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("專案", null, USER_ID))
+                                        .thenReturn(Optional.of(folder));
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("專案(1)", null, USER_ID))
+                                        .thenReturn(Optional.empty());
+                        when(fileRepository.save(any(FileEntity.class))).thenAnswer(inv -> {
+                                FileEntity entity = inv.getArgument(0);
+                                entity.setId(200L);
+                                return entity;
+                        });
+                        when(fileRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+                        // When
+                        List<FileResponse> response = fileService.copyFiles(List.of(FOLDER_ID), null, 1, USER_ID);
+
+                        // Then
+                        assertThat(response).hasSize(1);
+                        assertThat(response.get(0).getFileName()).isEqualTo("專案(1)");
+
+                        verify(fileRepository).saveAll(entityListCaptor.capture());
+                        FileEntity childCopy = entityListCaptor.getValue().get(0);
+                        assertThat(childCopy.getFilePath()).isEqualTo("1/uuid_報告.pdf");
+                        assertThat(childCopy.getParent().getId()).isEqualTo(200L);
+                        verifyNoInteractions(fileStorageService);
+                }
+
+                @Test
+                @DisplayName("複製失敗 - 資料夾不可複製到自身子資料夾")
+                void shouldRejectCopyIntoOwnDescendant() {
+                        // Given
+                        FileEntity folder = FileEntity.builder()
+                                        .id(FOLDER_ID)
+                                        .name("父資料夾")
+                                        .type(FileType.FOLDER)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity subFolder = FileEntity.builder()
+                                        .id(101L)
+                                        .name("子資料夾")
+                                        .type(FileType.FOLDER)
+                                        .parent(folder)
+                                        .ancestorPath("/100/")
+                                        .ownerId(USER_ID)
+                                        .build();
+
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(101L, USER_ID, FileType.FOLDER))
+                                        .thenReturn(Optional.of(subFolder));
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of(folder));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.copyFiles(List.of(FOLDER_ID), 101L, null, USER_ID))
+                                        .isInstanceOf(BusinessException.class);
+
+                        verify(fileRepository, never()).save(any());
+                }
+
+                @Test
+                @DisplayName("複製失敗 - 來源不存在")
+                void shouldThrowExceptionWhenSourceNotFound() {
+                        // Given
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of());
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.copyFiles(List.of(999L), null, null, USER_ID))
+                                        .isInstanceOf(InvalidFileException.class);
+                }
+        }
+
+        @Nested
+        @DisplayName("moveFiles 測試")
+        class MoveFilesTests {
+
+                @Test
+                @DisplayName("成功搬移資料夾 - 以單一批次更新改寫子樹路徑")
+                void shouldMoveFolderRewritingSubtreePaths() {
+                        // Given
+                        FileEntity target = FileEntity.builder()
+                                        .id(PARENT_FOLDER_ID)
+                                        .name("封存")
+                                        .type(FileType.FOLDER)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity folder = FileEntity.builder()
+                                        .id(FOLDER_ID)
+                                        .name("專案")
+                                        .type(FileType.FOLDER)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(PARENT_FOLDER_ID, USER_ID,
+                                        FileType.FOLDER)).thenReturn(Optional.of(target));
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of(folder));
+                        when(fileRepository.findByParentAndNameIn(eq(target), eq(USER_ID), any()))
+                                        .thenReturn(List.of());
+
+                        // When
+                        List<FileResponse> response = fileService.moveFiles(List.of(FOLDER_ID), PARENT_FOLDER_ID,
+                                        null, USER_ID);
+
+                        // Then
+                        assertThat(response).hasSize(1);
+                        assertThat(folder.getParent()).isSameAs(target);
+                        assertThat(folder.getAncestorPath()).isEqualTo("/50/");
+                        verify(fileRepository).rewriteAncestorPaths(USER_ID, "/100/", "/50/100/");
+                        verify(fileRepository, never()).findDescendants(any(), any());
+                        verify(changeFeedService).record(USER_ID, ChangeType.MOVED, List.of(folder));
+                        // 目標資料夾與原本所在的根目錄列表皆已變更
+                        verify(fileRepository).incrementChildrenVersion(Set.of(PARENT_FOLDER_ID));
+                        verify(userRepository).incrementRootVersion(USER_ID);
+                }
+
+                @Test
+                @DisplayName("搬移時子樹統計從原祖先移到新祖先")
+                void shouldMoveRollupsBetweenAncestors() {
+                        // Given
+                        FileEntity target = FileEntity.builder()
+                                        .id(PARENT_FOLDER_ID)
+                                        .name("封存")
+                                        .type(FileType.FOLDER)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity file = FileEntity.builder()
+                                        .id(101L)
+                                        .name("a.txt")
+                                        .type(FileType.FILE)
+                                        .size(10L)
+                                        .ancestorPath("/7/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        List<String> removedFrom = new ArrayList<>();
+                        List<String> addedTo = new ArrayList<>();
+
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(PARENT_FOLDER_ID, USER_ID,
+                                        FileType.FOLDER)).thenReturn(Optional.of(target));
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of(file));
+                        when(fileRepository.findByParentAndNameIn(eq(target), eq(USER_ID), any()))
+                                        .thenReturn(List.of());
+                        doAnswer(invocation -> removedFrom.add(file.getAncestorPath()))
+                                        .when(folderRollupService).itemRemoved(USER_ID, file);
+                        doAnswer(invocation -> addedTo.add(file.getAncestorPath()))
+                                        .when(folderRollupService).itemAdded(USER_ID, file);
+
+                        // When
+                        fileService.moveFiles(List.of(101L), PARENT_FOLDER_ID, null, USER_ID);
+
+                        // Then
+                        assertThat(removedFrom).containsExactly("/7/");
+                        assertThat(addedTo).containsExactly("/50/");
+                }
+
+                @Test
+                @DisplayName("同時搬移資料夾與其子項目時，子項目隨資料夾一起搬移")
+                void shouldSkipSourcesNestedUnderAnotherSource() {
+                        // Given
+                        FileEntity target = FileEntity.builder()
+                                        .id(PARENT_FOLDER_ID)
+                                        .name("封存")
+                                        .type(FileType.FOLDER)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity folder = FileEntity.builder()
+                                        .id(FOLDER_ID)
+                                        .name("專案")
+                                        .type(FileType.FOLDER)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity child = FileEntity.builder()
+                                        .id(101L)
+                                        .name("子資料夾")
+                                        .type(FileType.FOLDER)
+                                        .parent(folder)
+                                        .ancestorPath("/100/")
+                                        .ownerId(USER_ID)
+                                        .build();
+
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(PARENT_FOLDER_ID, USER_ID,
+                                        FileType.FOLDER)).thenReturn(Optional.of(target));
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of(folder, child));
+                        when(fileRepository.findByParentAndNameIn(eq(target), eq(USER_ID), any()))
+                                        .thenReturn(List.of());
+
+                        // When
+                        List<FileResponse> response = fileService.moveFiles(List.of(FOLDER_ID, 101L),
+                                        PARENT_FOLDER_ID, null, USER_ID);
+
+                        // Then
+                        assertThat(response).hasSize(2);
+                        assertThat(child.getParent()).isSameAs(folder);
+                        verify(fileRepository).rewriteAncestorPaths(USER_ID, "/100/", "/50/100/");
+                        verify(fileRepository, never()).rewriteAncestorPaths(USER_ID, "/100/101/", "/50/101/");
+                        verify(folderRollupService, never()).itemRemoved(USER_ID, child);
+                        verify(changeFeedService).record(USER_ID, ChangeType.MOVED, List.of(folder));
+                }
+
+                @Test
+                @DisplayName("搬移失敗 - 同名比對不分大小寫")
+                void shouldTreatNamesDifferingOnlyInCaseAsConflict() {
+                        // Given
+                        FileEntity file = FileEntity.builder()
+                                        .id(101L)
+                                        .name("a.txt")
+                                        .type(FileType.FILE)
+                                        .ancestorPath("/100/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity existing = FileEntity.builder()
+                                        .id(102L)
+                                        .name("A.TXT")
+                                        .type(FileType.FILE)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of(file));
+                        when(fileRepository.findByParentAndNameIn(eq(null), eq(USER_ID), any()))
+                                        .thenReturn(List.of(existing));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.moveFiles(List.of(101L), null, null, USER_ID))
+                                        .isInstanceOf(FileAlreadyExistsException.class);
+                }
+
+                @Test
+                @DisplayName("搬移失敗 - 資料夾不可搬移到自身子資料夾")
+                void shouldRejectMoveIntoOwnDescendant() {
+                        // Given
+                        FileEntity folder = FileEntity.builder()
+                                        .id(FOLDER_ID)
+                                        .name("父資料夾")
+                                        .type(FileType.FOLDER)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity grandChild = FileEntity.builder()
+                                        .id(102L)
+                                        .name("孫資料夾")
+                                        .type(FileType.FOLDER)
+                                        .ancestorPath("/100/101/")
+                                        .ownerId(USER_ID)
+                                        .build();
+
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(102L, USER_ID, FileType.FOLDER))
+                                        .thenReturn(Optional.of(grandChild));
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of(folder));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.moveFiles(List.of(FOLDER_ID), 102L, null, USER_ID))
+                                        .isInstanceOf(BusinessException.class);
+
+                        verify(fileRepository, never()).rewriteAncestorPaths(any(), any(), any());
+                }
+
+                @Test
+                @DisplayName("搬移失敗 - 目標已有同名項目且未指定處理方式")
+                void shouldThrowExceptionWhenNameConflicts() {
+                        // Given
+                        FileEntity file = FileEntity.builder()
+                                        .id(101L)
+                                        .name("a.txt")
+                                        .type(FileType.FILE)
+                                        .ancestorPath("/100/")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity existing = FileEntity.builder()
+                                        .id(102L)
+                                        .name("a.txt")
+                                        .type(FileType.FILE)
+                                        .ancestorPath("/")
+                                        .ownerId(USER_ID)
+                                        .build();
+
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(any(), eq(USER_ID)))
+                                        .thenReturn(List.of(file));
+                        when(fileRepository.findByParentAndNameIn(eq(null), eq(USER_ID), any()))
+                                        .thenReturn(List.of(existing));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.moveFiles(List.of(101L), null, null, USER_ID))
+                                        .isInstanceOf(FileAlreadyExistsException.class);
+
+                        verify(fileRepository, never()).saveAll(anyList());
+                }
+        }
+
+        @Nested
+        @DisplayName("getFileDownload 測試")
+        class FileDownloadTests {
+
+                @Test
+                @DisplayName("回傳內容雜湊與最後更新時間")
+                void shouldReturnDownloadInfo() throws IOException {
+                        // Given
+                        LocalDateTime updatedAt = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+                        FileEntity file = FileEntity.builder()
+                                        .id(200L)
+                                        .name("a.txt")
+                                        .type(FileType.FILE)
+                                        .size(3L)
+                                        .filePath("1/a.txt")
+                                        .contentHash("ab".repeat(32))
+                                        .updatedAt(updatedAt)
+                                        .ownerId(USER_ID)
+                                        .build();
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(200L, USER_ID,
+                                        FileType.FILE)).thenReturn(Optional.of(file));
+
+                        // When
+                        FileDownload download = fileService.getFileDownload(200L, USER_ID);
+
+                        // Then
+                        assertThat(download.contentHash()).isEqualTo("ab".repeat(32));
+                        assertThat(download.lastModified()).isEqualTo(updatedAt);
+                        assertThat(download.hasContentHash("AB".repeat(32))).isTrue();
+                        verify(fileStorageService, never()).load(any(), anyLong());
+                }
+
+                @Test
+                @DisplayName("檔案不存在時拋出例外")
+                void shouldRejectMissingFile() {
+                        // Given
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(200L, USER_ID,
+                                        FileType.FILE)).thenReturn(Optional.empty());
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.getFileDownload(200L, USER_ID))
+                                        .isInstanceOf(InvalidFileException.class);
+                }
+        }
+
+        @Nested
+        @DisplayName("getListingVersion 測試")
+        class ListingVersionTests {
+
+                @Test
+                @DisplayName("根目錄以使用者的根目錄版本判斷")
+                void shouldReturnRootVersion() {
+                        // Given
+                        when(userRepository.findRootVersion(USER_ID)).thenReturn(Optional.of(5L));
+
+                        // When
+                        long version = fileService.getListingVersion(USER_ID, null);
+
+                        // Then
+                        assertThat(version).isEqualTo(5L);
+                        verify(fileRepository, never()).findFiles(any(), any(), any());
+                }
+
+                @Test
+                @DisplayName("資料夾不存在時拋出例外")
+                void shouldRejectMissingFolder() {
+                        // Given
+                        when(fileRepository.findChildrenVersion(FOLDER_ID, USER_ID)).thenReturn(Optional.empty());
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.getListingVersion(USER_ID, FOLDER_ID))
+                                        .isInstanceOf(InvalidFolderException.class);
+                }
+        }
+
+        @Nested
+        @DisplayName("preflightUpload 測試")
+        class PreflightUploadTests {
+
+                @Test
+                @DisplayName("宣告大小超過剩餘配額時拒絕")
+                void shouldRejectWhenDeclaredSizeExceedsQuota() {
+                        // Given
+                        User user = User.builder().id(USER_ID).storageQuota(1000L).build();
+                        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(900L);
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.preflightUpload("a.txt", null, null, 200L, USER_ID))
+                                        .isInstanceOf(InsufficientStorageException.class);
+                }
+
+                @Test
+                @DisplayName("目標資料夾不存在時拒絕")
+                void shouldRejectWhenFolderNotFound() {
+                        // Given
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(999L, USER_ID, FileType.FOLDER))
+                                        .thenReturn(Optional.empty());
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.preflightUpload(null, 999L, null, -1L, USER_ID))
+                                        .isInstanceOf(InvalidFolderException.class);
+
+                        verifyNoInteractions(userRepository);
+                }
+
+                @Test
+                @DisplayName("同名檔案已存在且未指定處理方式時拒絕")
+                void shouldRejectWhenNameConflicts() {
+                        // Given
+                        FileEntity existing = FileEntity.builder()
+                                        .id(101L)
+                                        .name("a.txt")
+                                        .type(FileType.FILE)
+                                        .ownerId(USER_ID)
+                                        .build();
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("a.txt", null, USER_ID))
+                                        .thenReturn(Optional.of(existing));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.preflightUpload("a.txt", null, null, -1L, USER_ID))
+                                        .isInstanceOf(FileAlreadyExistsException.class);
+                }
+
+                @Test
+                @DisplayName("指定自動加後綴時不檢查同名")
+                void shouldSkipNameCheckWithDuplicateAction() {
+                        // When
+                        fileService.preflightUpload("a.txt", null, 1, -1L, USER_ID);
+
+                        // Then
+                        verify(fileRepository, never()).findByNameAndParentAndOwnerIdAndDeletedAtIsNull(any(), any(),
+                                        any());
+                }
+        }
+
+        @Nested
+        @DisplayName("uploadFile 覆蓋測試")
+        class OverwriteTests {
+
+                @Test
+                @DisplayName("覆蓋共用實體檔案的記錄時保留舊檔案（copy-on-write）")
+                void shouldKeepSharedStoredFileOnOverwrite() throws IOException {
+                        // Given
+                        MockMultipartFile file = new MockMultipartFile("file", "a.txt", "text/plain", "new".getBytes());
+                        FileEntity existing = FileEntity.builder()
+                                        .id(101L)
+                                        .name("a.txt")
+                                        .type(FileType.FILE)
+                                        .size(3L)
+                                        .filePath("1/shared_a.txt")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        User user = User.builder().id(USER_ID).storageQuota(10_000L).build();
+
+                        when(userRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("a.txt", null, USER_ID))
+                                        .thenReturn(Optional.of(existing));
+                        when(fileRepository.countByFilePath("1/shared_a.txt")).thenReturn(2L);
+                        when(fileStorageService.store(any(InputStream.class), eq("a.txt"), eq(3L), eq(USER_ID)))
+                                        .thenReturn("1/new_a.txt");
+                        when(fileRepository.save(existing)).thenReturn(existing);
+
+                        // When
+                        fileService.uploadFile(file, null, 0, USER_ID);
+
+                        // Then
+                        verify(fileStorageService, never()).delete("1/shared_a.txt");
+                        assertThat(existing.getFilePath()).isEqualTo("1/new_a.txt");
+                }
+
+                @Test
+                @DisplayName("新內容寫入失敗時保留舊檔案，原記錄仍指向完整內容")
+                void shouldKeepOldStoredFileWhenStoreFails() throws IOException {
+                        // Given
+                        MockMultipartFile file = new MockMultipartFile("file", "a.txt", "text/plain", "new".getBytes());
+                        FileEntity existing = FileEntity.builder()
+                                        .id(101L)
+                                        .name("a.txt")
+                                        .type(FileType.FILE)
+                                        .size(3L)
+                                        .filePath("1/old_a.txt")
+                                        .ownerId(USER_ID)
+                                        .build();
+                        User user = User.builder().id(USER_ID).storageQuota(10_000L).build();
+
+                        when(userRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("a.txt", null, USER_ID))
+                                        .thenReturn(Optional.of(existing));
+                        when(fileStorageService.store(any(InputStream.class), eq("a.txt"), eq(3L), eq(USER_ID)))
+                                        .thenThrow(new IOException("disk full"));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.uploadFile(file, null, 0, USER_ID))
+                                        .isInstanceOf(FileStorageException.class);
+                        verify(fileStorageService, never()).delete(anyString());
+                        assertThat(existing.getFilePath()).isEqualTo("1/old_a.txt");
+                }
+        }
+
+        @Nested
+        @DisplayName("checkExists 測試")
+        class CheckExistsTests {
+
+                private static final String SHA_A = "a".repeat(64);
+
+                @Test
+                @DisplayName("以單一查詢區分不存在、內容相同與衝突")
+                void shouldClassifyNamesWithSingleQuery() {
+                        // Given
+                        FileEntity folder = FileEntity.builder().id(FOLDER_ID).type(FileType.FOLDER).build();
+                        FileEntity same = FileEntity.builder().id(201L).name("same.txt").type(FileType.FILE)
+                                        .size(10L).contentHash(SHA_A).build();
+                        FileEntity changed = FileEntity.builder().id(202L).name("changed.txt").type(FileType.FILE)
+                                        .size(10L).contentHash("b".repeat(64)).build();
+                        when(fileRepository.findByIdAndOwnerIdAndTypeAndDeletedAtIsNull(FOLDER_ID, USER_ID,
+                                        FileType.FOLDER)).thenReturn(Optional.of(folder));
+                        when(fileRepository.findByParentAndNameIn(eq(folder), eq(USER_ID), any()))
+                                        .thenReturn(List.of(same, changed));
+
+                        List<CheckExistsRequest.Item> items = List.of(
+                                        new CheckExistsRequest.Item("new.txt", 10L, SHA_A),
+                                        new CheckExistsRequest.Item("same.txt", 10L, SHA_A.toUpperCase()),
+                                        new CheckExistsRequest.Item("changed.txt", 10L, SHA_A));
+
+                        // When
+                        List<FileExistenceResponse> results = fileService.checkExists(FOLDER_ID, items, USER_ID);
+
+                        // Then
+                        assertThat(results).extracting(FileExistenceResponse::getStatus).containsExactly(
+                                        ExistenceStatus.NEW, ExistenceStatus.IDENTICAL, ExistenceStatus.CONFLICT);
+                        assertThat(results.get(2).getExistingFileId()).isEqualTo(202L);
+                        verify(fileRepository, times(1)).findByParentAndNameIn(any(), any(), any());
+                }
+
+                @Test
+                @DisplayName("未提供雜湊或大小不同時視為衝突")
+                void shouldReportConflictWithoutMatchingHashAndSize() {
+                        // Given
+                        FileEntity existing = FileEntity.builder().id(201L).name("a.txt").type(FileType.FILE)
+                                        .size(10L).contentHash(SHA_A).build();
+                        when(fileRepository.findByParentAndNameIn(eq(null), eq(USER_ID), any()))
+                                        .thenReturn(List.of(existing));
+
+                        List<CheckExistsRequest.Item> items = List.of(
+                                        new CheckExistsRequest.Item("a.txt", null, null),
+                                        new CheckExistsRequest.Item("A.TXT", 11L, SHA_A));
+
+                        // When
+                        List<FileExistenceResponse> results = fileService.checkExists(null, items, USER_ID);
+
+                        // Then
+                        assertThat(results).extracting(FileExistenceResponse::getStatus)
+                                        .containsExactly(ExistenceStatus.CONFLICT, ExistenceStatus.CONFLICT);
+                }
+
+                @Test
+                @DisplayName("上傳時記錄內容的 SHA-256")
+                void shouldRecordContentHashOnUpload() throws IOException {
+                        // Given
+                        MockMultipartFile file = new MockMultipartFile("file", "a.txt", "text/plain", "abc".getBytes());
+                        User user = User.builder().id(USER_ID).storageQuota(10_000L).build();
+                        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileStorageService.store(any(InputStream.class), eq("a.txt"), eq(3L), eq(USER_ID)))
+                                        .thenAnswer(invocation -> {
+                                                invocation.getArgument(0, InputStream.class).readAllBytes();
+                                                return "1/a.txt";
+                                        });
+                        when(fileRepository.save(any(FileEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                        // When
+                        fileService.uploadFile(file, null, null, USER_ID);
+
+                        // Then
+                        ArgumentCaptor<FileEntity> captor = ArgumentCaptor.forClass(FileEntity.class);
+                        verify(fileRepository).save(captor.capture());
+                        assertThat(captor.getValue().getContentHash())
+                                        .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+                }
+        }
+
+        @Nested
+        @DisplayName("批次上傳測試")
+        class BatchUploadTests {
+
+                private User user() {
+                        return User.builder().id(USER_ID).storageQuota(10_000L).build();
+                }
+
+                @Test
+                @DisplayName("同名檔案依 duplicateAction 規劃：未指定時標記失敗，批次內重名同樣處理")
+                void shouldFailConflictingItemsWithoutAction() {
+                        // Given
+                        FileEntity existing = FileEntity.builder().id(201L).name("a.txt").type(FileType.FILE).build();
+                        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user()));
+                        when(fileRepository.findByParentAndNameIn(eq(null), eq(USER_ID), any()))
+                                        .thenReturn(List.of(existing));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+
+                        List<MultipartFile> files = List.of(
+                                        new MockMultipartFile("files", "a.txt", "text/plain", "1".getBytes()),
+                                        new MockMultipartFile("files", "b.txt", "text/plain", "2".getBytes()),
+                                        new MockMultipartFile("files", "b.txt", "text/plain", "3".getBytes()));
+
+                        // When
+                        List<BatchUploadItem> items = fileService.planBatchUpload(files, null, null, USER_ID);
+
+                        // Then
+                        assertThat(items).extracting(BatchUploadItem::isFailed).containsExactly(true, false, true);
+                        assertThat(items.get(0).getErrorCode()).isEqualTo(ApiReturnCode.FILE_ALREADY_EXISTS.getCode());
+                        assertThat(items.get(1).getTargetName()).isEqualTo("b.txt");
+                }
+
+                @Test
+                @DisplayName("覆蓋既有檔案並為批次內重名加後綴")
+                void shouldPlanOverwriteAndSuffix() {
+                        // Given
+                        FileEntity existing = FileEntity.builder().id(201L).name("a.txt").type(FileType.FILE)
+                                        .filePath("1/old_a.txt").build();
+                        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user()));
+                        when(fileRepository.findByParentAndNameIn(eq(null), eq(USER_ID), any()))
+                                        .thenReturn(List.of(existing));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+
+                        List<MultipartFile> overwriteFiles = List.of(
+                                        new MockMultipartFile("files", "a.txt", "text/plain", "1".getBytes()));
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("b(1).txt", null, USER_ID))
+                                        .thenReturn(Optional.empty());
+                        List<MultipartFile> suffixFiles = List.of(
+                                        new MockMultipartFile("files", "b.txt", "text/plain", "2".getBytes()),
+                                        new MockMultipartFile("files", "b.txt", "text/plain", "3".getBytes()));
+
+                        // When
+                        List<BatchUploadItem> overwrite = fileService.planBatchUpload(overwriteFiles, null, 0, USER_ID);
+                        List<BatchUploadItem> suffixed = fileService.planBatchUpload(suffixFiles, null, 1, USER_ID);
+
+                        // Then
+                        assertThat(overwrite.get(0).getExisting()).isSameAs(existing);
+                        assertThat(overwrite.get(0).getReplacedFilePath()).isEqualTo("1/old_a.txt");
+                        assertThat(suffixed).extracting(BatchUploadItem::getTargetName).containsExactly("b.txt", "b(1).txt");
+                }
+
+                @Test
+                @DisplayName("整批總大小超過剩餘配額時整批拒絕")
+                void shouldRejectBatchOverQuota() {
+                        // Given
+                        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user()));
+                        when(fileRepository.findByParentAndNameIn(eq(null), eq(USER_ID), any())).thenReturn(List.of());
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(9_000L);
+
+                        List<MultipartFile> files = List.of(
+                                        new MockMultipartFile("files", "a.bin", "application/octet-stream", new byte[600]),
+                                        new MockMultipartFile("files", "b.bin", "application/octet-stream", new byte[600]));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.planBatchUpload(files, null, null, USER_ID))
+                                        .isInstanceOf(InsufficientStorageException.class);
+                }
+
+                @Test
+                @DisplayName("鎖定使用者後於單一 saveAll 寫入所有成功項目")
+                void shouldSaveAllStoredItemsAtOnce() {
+                        // Given
+                        when(userRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(user()));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+                        BatchUploadItem stored = new BatchUploadItem(
+                                        new MockMultipartFile("files", "a.txt", "text/plain", "1".getBytes()));
+                        stored.plan("a.txt", null);
+                        stored.stored(new StoredContent("1/a.txt", 1L, "a".repeat(64)));
+                        BatchUploadItem failed = new BatchUploadItem(
+                                        new MockMultipartFile("files", "b.txt", "text/plain", "2".getBytes()));
+                        failed.fail(ApiReturnCode.FILE_STORAGE_ERROR, "儲存檔案失敗");
+
+                        // When
+                        fileService.saveBatchUpload(List.of(stored, failed), null, USER_ID);
+
+                        // Then
+                        verify(fileRepository, times(1)).saveAll(anyList());
+                        assertThat(stored.getSaved().getFilePath()).isEqualTo("1/a.txt");
+                        assertThat(stored.getSaved().getContentHash()).isEqualTo("a".repeat(64));
+                        assertThat(failed.getSaved()).isNull();
+                }
+
+                @Test
+                @DisplayName("覆蓋目標在交易中重新載入，寫入的是最新狀態的記錄，並刪除已無引用的舊內容")
+                void shouldOverwriteReloadedTarget() throws IOException {
+                        // Given: 規劃時載入的記錄已脫離交易
+                        FileEntity planned = FileEntity.builder().id(201L).name("a.txt").type(FileType.FILE)
+                                        .size(1L).ancestorPath("/").filePath("1/old_a.txt").build();
+                        FileEntity reloaded = FileEntity.builder().id(201L).name("a.txt").type(FileType.FILE)
+                                        .size(1L).ancestorPath("/").filePath("1/old_a.txt").build();
+                        when(userRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(user()));
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(Set.of(201L), USER_ID))
+                                        .thenReturn(List.of(reloaded));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+                        when(fileRepository.countByFilePath("1/old_a.txt")).thenReturn(0L);
+
+                        BatchUploadItem item = new BatchUploadItem(
+                                        new MockMultipartFile("files", "a.txt", "text/plain", "12".getBytes()));
+                        item.plan("a.txt", planned);
+                        item.stored(new StoredContent("1/new_a.txt", 2L, "b".repeat(64)));
+
+                        // When
+                        fileService.saveBatchUpload(List.of(item), null, USER_ID);
+
+                        // Then
+                        assertThat(item.getSaved()).isSameAs(reloaded);
+                        assertThat(reloaded.getFilePath()).isEqualTo("1/new_a.txt");
+                        verify(changeFeedService).record(USER_ID, ChangeType.UPDATED, List.of(reloaded));
+                        verify(fileStorageService).delete("1/old_a.txt");
+                }
+
+                @Test
+                @DisplayName("規劃後被刪除或重新命名的覆蓋目標改為失敗，不寫回舊狀態")
+                void shouldFailWhenOverwriteTargetChanged() {
+                        // Given
+                        FileEntity deleted = FileEntity.builder().id(201L).name("a.txt").type(FileType.FILE)
+                                        .ancestorPath("/").filePath("1/old_a.txt").build();
+                        FileEntity renamedPlanned = FileEntity.builder().id(202L).name("b.txt").type(FileType.FILE)
+                                        .ancestorPath("/").filePath("1/old_b.txt").build();
+                        FileEntity renamed = FileEntity.builder().id(202L).name("c.txt").type(FileType.FILE)
+                                        .ancestorPath("/").filePath("1/old_b.txt").build();
+                        when(userRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(user()));
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(Set.of(201L, 202L), USER_ID))
+                                        .thenReturn(List.of(renamed));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+                        BatchUploadItem first = new BatchUploadItem(
+                                        new MockMultipartFile("files", "a.txt", "text/plain", "1".getBytes()));
+                        first.plan("a.txt", deleted);
+                        first.stored(new StoredContent("1/new_a.txt", 1L, "a".repeat(64)));
+                        BatchUploadItem second = new BatchUploadItem(
+                                        new MockMultipartFile("files", "b.txt", "text/plain", "2".getBytes()));
+                        second.plan("b.txt", renamedPlanned);
+                        second.stored(new StoredContent("1/new_b.txt", 1L, "b".repeat(64)));
+
+                        // When
+                        fileService.saveBatchUpload(List.of(first, second), null, USER_ID);
+
+                        // Then
+                        assertThat(first.isFailed()).isTrue();
+                        assertThat(second.isFailed()).isTrue();
+                        assertThat(second.getErrorCode()).isEqualTo(ApiReturnCode.FILE_ALREADY_EXISTS.getCode());
+                        assertThat(renamed.getName()).isEqualTo("c.txt");
+                        assertThat(renamed.getFilePath()).isEqualTo("1/old_b.txt");
+                        verify(fileRepository).saveAll(List.of());
+                }
+        }
+
+        @Nested
+        @DisplayName("registerStoredFile 測試")
+        class RegisterStoredFileTests {
+
+                @Test
+                @DisplayName("覆蓋時改用新內容並刪除已無引用的舊內容")
+                void shouldOverwriteAndReleaseOldContent() throws IOException {
+                        // Given
+                        FileEntity existing = FileEntity.builder().id(201L).name("video.mp4").type(FileType.FILE)
+                                        .size(40L).filePath("1/old.mp4").ancestorPath("/").ownerId(USER_ID).build();
+                        when(userRepository.findByIdForUpdate(USER_ID))
+                                        .thenReturn(Optional.of(User.builder().id(USER_ID).storageQuota(10_000L).build()));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("video.mp4", null, USER_ID))
+                                        .thenReturn(Optional.of(existing));
+                        when(fileRepository.save(existing)).thenReturn(existing);
+                        when(fileRepository.countByFilePath("1/old.mp4")).thenReturn(0L);
+
+                        // When
+                        fileService.registerStoredFile("video.mp4", null, 0, 100L,
+                                        new StoredContent("1/new.mp4", 100L, null), USER_ID);
+
+                        // Then
+                        verify(folderRollupService).add(USER_ID, "/", 60L, 0L);
+                        assertThat(existing.getFilePath()).isEqualTo("1/new.mp4");
+                        assertThat(existing.getSize()).isEqualTo(100L);
+                        verify(fileStorageService).delete("1/old.mp4");
+                }
+
+                @Test
+                @DisplayName("同名檔案已存在且未指定處理方式時拒絕")
+                void shouldRejectDuplicateWithoutAction() {
+                        // Given
+                        FileEntity existing = FileEntity.builder().id(201L).name("video.mp4").type(FileType.FILE).build();
+                        when(userRepository.findById(USER_ID))
+                                        .thenReturn(Optional.of(User.builder().id(USER_ID).storageQuota(10_000L).build()));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("video.mp4", null, USER_ID))
+                                        .thenReturn(Optional.of(existing));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.registerStoredFile("video.mp4", null, null, 100L,
+                                        new StoredContent("1/new.mp4", 100L, null), USER_ID))
+                                        .isInstanceOf(FileAlreadyExistsException.class);
+                        verify(fileRepository, never()).save(any());
+                }
+        }
+
+        @Nested
+        @DisplayName("資料夾統計測試")
+        class FolderRollupTests {
+
+                @Test
+                @DisplayName("資料夾回傳子樹大小與項目數，檔案回傳自身大小")
+                void shouldReportFolderRollups() {
+                        // Given
+                        FileEntity folder = FileEntity.builder()
+                                        .id(FOLDER_ID)
+                                        .name("專案")
+                                        .type(FileType.FOLDER)
+                                        .size(0L)
+                                        .treeSize(2048L)
+                                        .descendantCount(5L)
+                                        .ownerId(USER_ID)
+                                        .build();
+                        FileEntity file = FileEntity.builder()
+                                        .id(101L)
+                                        .name("專案.txt")
+                                        .type(FileType.FILE)
+                                        .size(10L)
+                                        .treeSize(0L)
+                                        .descendantCount(0L)
+                                        .ownerId(USER_ID)
+                                        .build();
+                        when(fileSearchService.search(USER_ID, "專案", null)).thenReturn(List.of(folder, file));
+
+                        // When
+                        List<FileResponse> results = fileService.searchFiles(USER_ID, "專案", null);
+
+                        // Then
+                        assertThat(results.get(0).getSize()).isEqualTo(2048L);
+                        assertThat(results.get(0).getItemCount()).isEqualTo(5L);
+                        assertThat(results.get(1).getSize()).isEqualTo(10L);
+                        assertThat(results.get(1).getItemCount()).isNull();
+                }
+
+                @Test
+                @DisplayName("建立資料夾時上層資料夾的項目數加一")
+                void shouldCountCreatedFolder() {
+                        // Given
+                        when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("新資料夾", null, USER_ID))
+                                        .thenReturn(Optional.empty());
+                        when(fileRepository.save(any(FileEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                        // When
+                        fileService.createFolder("新資料夾", null, USER_ID);
+
+                        // Then
+                        verify(folderRollupService).itemAdded(eq(USER_ID), any(FileEntity.class));
+                }
+        }
+
+        @Nested
+        @DisplayName("回收筒測試")
+        class TrashTests {
+
+                private static final Long ROOT_ID = 200L;
+
+                private FileEntity trashedFolder(String ancestorPath, FileEntity parent) {
+                        return FileEntity.builder()
+                                        .id(ROOT_ID)
+                                        .name("報告")
+                                        .type(FileType.FOLDER)
+                                        .size(0L)
+                                        .treeSize(300L)
+                                        .descendantCount(4L)
+                                        .parent(parent)
+                                        .ancestorPath(ancestorPath)
+                                        .ownerId(USER_ID)
+                                        .deletedAt(LocalDateTime.now())
+                                        .trashRootId(ROOT_ID)
+                                        .build();
+                }
+
+                private void givenQuota(long remaining) {
+                        User user = User.builder().id(USER_ID).storageQuota(remaining).build();
+                        when(userRepository.findByIdForUpdate(USER_ID)).thenReturn(Optional.of(user));
+                        when(fileRepository.calculateUsedStorageByOwnerId(USER_ID)).thenReturn(0L);
+                }
+
+                private StoredFileView storedFile(Long id, String filePath) {
+                        return new StoredFileView() {
+                                @Override
+                                public Long getId() {
+                                        return id;
+                                }
+
+                                @Override
+                                public String getFilePath() {
+                                        return filePath;
+                                }
+                        };
+                }
+
+                @Test
+                @DisplayName("還原到原資料夾 - 子樹以單一 UPDATE 還原")
+                void shouldRestoreIntoOriginalParent() {
+                        // Given
+                        FileEntity parent = FileEntity.builder().id(PARENT_FOLDER_ID).type(FileType.FOLDER)
+                                        .ancestorPath("/").ownerId(USER_ID).build();
+                        FileEntity root = trashedFolder("/50/", parent);
+
+                        when(fileRepository.findTrashRoots(Set.of(ROOT_ID), USER_ID)).thenReturn(List.of(root));
+                        givenQuota(1000L);
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(Set.of(PARENT_FOLDER_ID), USER_ID))
+                                        .thenReturn(List.of(parent));
+                        when(fileRepository.findByParentAndNameIn(parent, USER_ID, Set.of("報告")))
+                                        .thenReturn(List.of());
+
+                        // When
+                        List<FileResponse> result = fileService.restoreTrash(List.of(ROOT_ID), USER_ID);
+
+                        // Then
+                        assertThat(result).extracting(FileResponse::getFileName).containsExactly("報告");
+                        assertThat(root.getDeletedAt()).isNull();
+                        assertThat(root.getTrashRootId()).isNull();
+                        assertThat(root.getParent()).isSameAs(parent);
+                        verify(fileRepository).restoreTrash(USER_ID, Set.of(ROOT_ID));
+                        verify(fileRepository, never()).rewriteAncestorPaths(any(), any(), any());
+                        verify(folderRollupService).itemAdded(USER_ID, root);
+                        verify(changeFeedService).record(USER_ID, ChangeType.RESTORED, List.of(root));
+                        verify(fileRepository).incrementChildrenVersion(Set.of(PARENT_FOLDER_ID));
+                }
+
+                @Test
+                @DisplayName("原資料夾已不存在時還原到根目錄，同名時自動加後綴")
+                void shouldRestoreIntoRootWithSuffixWhenParentGone() {
+                        // Given
+                        FileEntity deletedParent = FileEntity.builder().id(PARENT_FOLDER_ID).type(FileType.FOLDER)
+                                        .ancestorPath("/").ownerId(USER_ID).build();
+                        FileEntity root = trashedFolder("/50/", deletedParent);
+                        FileEntity existing = FileEntity.builder().id(300L).name("報告").ownerId(USER_ID).build();
+
+                        when(fileRepository.findTrashRoots(Set.of(ROOT_ID), USER_ID)).thenReturn(List.of(root));
+                        givenQuota(1000L);
+                        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(Set.of(PARENT_FOLDER_ID), USER_ID))
+                                        .thenReturn(List.of());
+                        when(fileRepository.findByParentAndNameIn(null, USER_ID, Set.of("報告")))
+                                        .thenReturn(List.of(existing));
+
+                        // When
+                        fileService.restoreTrash(List.of(ROOT_ID), USER_ID);
+
+                        // Then
+                        verify(fileRepository).rewriteAncestorPaths(USER_ID, "/50/200/", "/200/");
+                        assertThat(root.getParent()).isNull();
+                        assertThat(root.getAncestorPath()).isEqualTo("/");
+                        assertThat(root.getName()).isEqualTo("報告(1)");
+                        verify(fileRepository).restoreTrash(USER_ID, Set.of(ROOT_ID));
+                        verify(userRepository).incrementRootVersion(USER_ID);
+                }
+
+                @Test
+                @DisplayName("還原時只差大小寫的名稱同樣視為同名")
+                void shouldTreatNamesDifferingOnlyInCaseAsConflictOnRestore() {
+                        // Given
+                        FileEntity root = trashedFolder("/", null);
+                        root.setName("Notes");
+                        FileEntity existing = FileEntity.builder().id(300L).name("notes").ownerId(USER_ID).build();
+
+                        when(fileRepository.findTrashRoots(Set.of(ROOT_ID), USER_ID)).thenReturn(List.of(root));
+                        givenQuota(1000L);
+                        when(fileRepository.findByParentAndNameIn(null, USER_ID, Set.of("Notes")))
+                                        .thenReturn(List.of(existing));
+
+                        // When
+                        fileService.restoreTrash(List.of(ROOT_ID), USER_ID);
+
+                        // Then
+                        assertThat(root.getName()).isEqualTo("Notes(1)");
+                        verify(fileRepository).restoreTrash(USER_ID, Set.of(ROOT_ID));
+                }
+
+                @Test
+                @DisplayName("還原失敗 - 儲存空間不足")
+                void shouldRejectRestoreWhenQuotaExceeded() {
+                        // Given
+                        FileEntity root = trashedFolder("/", null);
+
+                        when(fileRepository.findTrashRoots(Set.of(ROOT_ID), USER_ID)).thenReturn(List.of(root));
+                        givenQuota(100L);
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.restoreTrash(List.of(ROOT_ID), USER_ID))
+                                        .isInstanceOf(InsufficientStorageException.class);
+                        verify(fileRepository, never()).restoreTrash(any(), any());
+                }
+
+                @Test
+                @DisplayName("還原失敗 - 項目正在永久刪除中")
+                void shouldRejectRestoreWhilePurging() {
+                        // Given
+                        FileEntity root = trashedFolder("/", null);
+
+                        when(fileRepository.findTrashRoots(Set.of(ROOT_ID), USER_ID)).thenReturn(List.of(root));
+                        when(userRepository.findByIdForUpdate(USER_ID))
+                                        .thenReturn(Optional.of(User.builder().id(USER_ID).build()));
+                        when(jobService.findUnfinishedTargets(JobType.TRASH_PURGE, Set.of(ROOT_ID)))
+                                        .thenReturn(Set.of(ROOT_ID));
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.restoreTrash(List.of(ROOT_ID), USER_ID))
+                                        .isInstanceOf(BusinessException.class)
+                                        .extracting("rtnMsg").asString().contains("永久刪除中");
+                        verify(fileRepository, never()).restoreTrash(any(), any());
+                        verify(folderRollupService, never()).itemAdded(any(), any());
+                }
+
+                @Test
+                @DisplayName("還原失敗 - 項目不在回收筒中")
+                void shouldRejectRestoreWhenNotInTrash() {
+                        // Given
+                        when(userRepository.findByIdForUpdate(USER_ID))
+                                        .thenReturn(Optional.of(User.builder().id(USER_ID).build()));
+                        when(fileRepository.findTrashRoots(Set.of(ROOT_ID), USER_ID)).thenReturn(List.of());
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.restoreTrash(List.of(ROOT_ID), USER_ID))
+                                        .isInstanceOf(InvalidFileException.class);
+                        verify(fileRepository, never()).restoreTrash(any(), any());
+                }
+
+                @Test
+                @DisplayName("永久刪除 - 每個回收筒項目建立一個背景工作")
+                void shouldEnqueuePurgeJob() {
+                        // Given
+                        FileEntity root = trashedFolder("/", null);
+                        JobResponse job = JobResponse.builder().jobId(7L).status(JobStatus.PENDING).build();
+
+                        when(fileRepository.findTrashRoots(Set.of(ROOT_ID), USER_ID)).thenReturn(List.of(root));
+                        when(jobService.enqueue(JobType.TRASH_PURGE, USER_ID, ROOT_ID)).thenReturn(job);
+                        when(userRepository.findByIdForUpdate(USER_ID))
+                                        .thenReturn(Optional.of(User.builder().id(USER_ID).build()));
+
+                        // When
+                        List<JobResponse> result = fileService.requestTrashPurge(List.of(ROOT_ID), USER_ID);
+
+                        // Then
+                        assertThat(result).extracting(JobResponse::getJobId).containsExactly(7L);
+                        verify(fileRepository, never()).purgeByIds(any());
+                }
+
+                @Test
+                @DisplayName("永久刪除 - 分批刪除子樹後刪除子樹根，只釋放不再被引用的實體檔案")
+                void shouldPurgeSubtreeInBatches() throws IOException {
+                        // Given
+                        trashProperties.setPurgeBatchDelay(Duration.ZERO);
+                        FileEntity root = trashedFolder("/", null);
+                        List<StoredFileView> batch = List.of(
+                                        storedFile(201L, "blob-a"),
+                                        storedFile(202L, "blob-shared"),
+                                        storedFile(203L, null));
+                        List<long[]> updates = new ArrayList<>();
+
+                        when(fileRepository.findTrashRoots(List.of(ROOT_ID), USER_ID)).thenReturn(List.of(root));
+                        when(fileRepository.countDeletedDescendants(USER_ID, "/200/")).thenReturn(3L);
+                        when(fileRepository.findDeletedDescendants(eq(USER_ID), eq("/200/"), any()))
+                                        .thenReturn(batch)
+                                        .thenReturn(List.of());
+                        when(fileRepository.purgeByIds(List.of(201L, 202L, 203L))).thenReturn(3);
+                        when(fileRepository.findReferencedFilePaths(Set.of("blob-a", "blob-shared")))
+                                        .thenReturn(List.of("blob-shared"));
+
+                        // When
+                        fileService.purgeTrash(ROOT_ID, USER_ID,
+                                        (processed, total) -> updates.add(new long[] { processed, total }));
+
+                        // Then
+                        InOrder inOrder = inOrder(fileRepository);
+                        inOrder.verify(fileRepository).detachParents(List.of(201L, 202L, 203L));
+                        inOrder.verify(fileRepository).purgeByIds(List.of(201L, 202L, 203L));
+                        inOrder.verify(fileRepository).purgeByIds(List.of(ROOT_ID));
+                        verify(fileStorageService).delete("blob-a");
+                        verify(fileStorageService, never()).delete("blob-shared");
+                        assertThat(updates).extracting(update -> update[0]).containsExactly(0L, 3L, 4L);
+                        verifyNoInteractions(changeFeedService);
+                }
+
+                @Test
+                @DisplayName("永久刪除失敗 - 項目已不在回收筒中")
+                void shouldRejectPurgeWhenNotInTrash() {
+                        // Given
+                        when(fileRepository.findTrashRoots(List.of(ROOT_ID), USER_ID)).thenReturn(List.of());
+
+                        // When & Then
+                        assertThatThrownBy(() -> fileService.purgeTrash(ROOT_ID, USER_ID, JobProgress.NONE))
+                                        .isInstanceOf(InvalidFileException.class);
+                        verify(fileRepository, never()).purgeByIds(any());
+                }
+        }
 }
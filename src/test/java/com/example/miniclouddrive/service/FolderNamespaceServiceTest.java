@@ -0,0 +1,384 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.NamespaceProperties;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import com.example.miniclouddrive.repository.FileRepository;
+import com.example.miniclouddrive.repository.FolderNameView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FolderNamespaceService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class FolderNamespaceServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    private NamespaceProperties properties;
+    private FolderNamespaceService folderNamespaceService;
+
+    private static final Long USER_ID = 1L;
+
+    /** 資料庫中的資料夾：/docs(1)/2025(2)/ */
+    private final FileEntity docs = folder(1L, "docs", null);
+    private final FileEntity year = folder(2L, "2025", docs);
+
+    @BeforeEach
+    void setUp() {
+        properties = new NamespaceProperties();
+        folderNamespaceService = new FolderNamespaceService(fileRepository, properties);
+    }
+
+    private record FolderRow(Long id, String name, Long parentId) implements FolderNameView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+    }
+
+    private static FileEntity folder(Long id, String name, FileEntity parent) {
+        return FileEntity.builder().id(id).name(name).type(FileType.FOLDER).ownerId(USER_ID).parent(parent)
+                .ancestorPath(parent == null ? FileEntity.ROOT_PATH : parent.getChildAncestorPath()).build();
+    }
+
+    private static FileEntity file(Long id, String name, FileEntity parent) {
+        return FileEntity.builder().id(id).name(name).type(FileType.FILE).ownerId(USER_ID).parent(parent)
+                .ancestorPath(parent == null ? FileEntity.ROOT_PATH : parent.getChildAncestorPath()).build();
+    }
+
+    private void stubFolders() {
+        when(fileRepository.findFoldersAfter(eq(USER_ID), eq(0L), any())).thenReturn(List.of(
+                new FolderRow(1L, "docs", null),
+                new FolderRow(2L, "2025", 1L)));
+    }
+
+    private static FileChangeEvent event(ChangeType changeType, FileType type, Long fileId, String name, Long parentId) {
+        return new FileChangeEvent(USER_ID, List.of(FileChangeResponse.builder()
+                .changeType(changeType).type(type).fileId(fileId).name(name).parentId(parentId).build()));
+    }
+
+    @Nested
+    @DisplayName("命名空間解析測試")
+    class NamespaceTests {
+
+        @BeforeEach
+        void setUp() {
+            stubFolders();
+        }
+
+        @Test
+        @DisplayName("檔案路徑的資料夾部分在記憶體中比對，只查詢一次最後的項目")
+        void shouldResolveFileWithOneQuery() {
+            // Given
+            FileEntity report = file(10L, "report.pdf", year);
+            when(fileRepository.getReferenceById(2L)).thenReturn(year);
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("report.pdf", year, USER_ID))
+                    .thenReturn(Optional.of(report));
+
+            // When
+            FileEntity result = folderNamespaceService.resolve(USER_ID, "/docs/2025/report.pdf");
+
+            // Then
+            assertThat(result).isSameAs(report);
+            verify(fileRepository, times(1)).findByNameAndParentAndOwnerIdAndDeletedAtIsNull(any(), any(), any());
+            verify(fileRepository, never()).findByIdAndOwnerIdAndDeletedAtIsNull(any(), any());
+        }
+
+        @Test
+        @DisplayName("資料夾路徑以 ID 查詢")
+        void shouldResolveFolderById() {
+            // Given
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(2L, USER_ID)).thenReturn(Optional.of(year));
+
+            // When
+            FileEntity result = folderNamespaceService.resolve(USER_ID, "docs/2025/");
+
+            // Then
+            assertThat(result).isSameAs(year);
+            verify(fileRepository, never()).findByNameAndParentAndOwnerIdAndDeletedAtIsNull(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("命名空間只在第一次解析時建立")
+        void shouldBuildOnce() {
+            // Given
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(anyLong(), eq(USER_ID)))
+                    .thenReturn(Optional.of(docs))
+                    .thenReturn(Optional.of(year));
+
+            // When
+            folderNamespaceService.resolve(USER_ID, "/docs");
+            folderNamespaceService.resolve(USER_ID, "/docs/2025");
+
+            // Then
+            verify(fileRepository, times(1)).findFoldersAfter(eq(USER_ID), anyLong(), any());
+            assertThat(folderNamespaceService.loadedUsers()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("中間的資料夾不存在時不查詢資料庫")
+        void shouldRejectUnknownIntermediateFolder() {
+            // When & Then
+            assertThatThrownBy(() -> folderNamespaceService.resolve(USER_ID, "/docs/2026/report.pdf"))
+                    .isInstanceOf(InvalidFileException.class);
+            verify(fileRepository, never()).findByNameAndParentAndOwnerIdAndDeletedAtIsNull(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("查詢結果與命名空間不一致時釋放命名空間並逐層查詢")
+        void shouldFallBackWhenStale() {
+            // Given: 資料夾已在其他節點搬到根目錄
+            FileEntity movedYear = folder(2L, "2025", null);
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(2L, USER_ID)).thenReturn(Optional.of(movedYear));
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("docs", null, USER_ID))
+                    .thenReturn(Optional.of(docs));
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("2025", docs, USER_ID))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> folderNamespaceService.resolve(USER_ID, "/docs/2025"))
+                    .isInstanceOf(InvalidFileException.class);
+            assertThat(folderNamespaceService.loadedUsers()).isZero();
+        }
+
+        @Test
+        @DisplayName("路徑片段不分大小寫，與資料庫查詢一致")
+        void shouldResolveCaseInsensitively() {
+            // Given
+            FileEntity report = file(10L, "report.pdf", year);
+            when(fileRepository.getReferenceById(2L)).thenReturn(year);
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("report.pdf", year, USER_ID))
+                    .thenReturn(Optional.of(report));
+
+            // When
+            FileEntity result = folderNamespaceService.resolve(USER_ID, "/DOCS/2025/report.pdf");
+
+            // Then
+            assertThat(result).isSameAs(report);
+        }
+
+        @Test
+        @DisplayName("以 ID 查得的資料夾名稱與路徑不符時視為過期並逐層查詢")
+        void shouldFallBackWhenNameDiffers() {
+            // Given: 資料夾已在其他節點重新命名
+            FileEntity renamedYear = folder(2L, "old", docs);
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(2L, USER_ID)).thenReturn(Optional.of(renamedYear));
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("docs", null, USER_ID))
+                    .thenReturn(Optional.of(docs));
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("2025", docs, USER_ID))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> folderNamespaceService.resolve(USER_ID, "/docs/2025"))
+                    .isInstanceOf(InvalidFileException.class);
+            assertThat(folderNamespaceService.loadedUsers()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("異動事件測試")
+    class ChangeEventTests {
+
+        @BeforeEach
+        void setUp() {
+            stubFolders();
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(1L, USER_ID)).thenReturn(Optional.of(docs));
+            folderNamespaceService.resolve(USER_ID, "/docs");
+        }
+
+        @Test
+        @DisplayName("新增、重新命名與搬移資料夾後依新路徑解析")
+        void shouldApplyFolderChanges() {
+            // Given
+            FileEntity archive = folder(3L, "archive", null);
+            FileEntity movedYear = folder(2L, "y2025", archive);
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(2L, USER_ID)).thenReturn(Optional.of(movedYear));
+
+            // When
+            folderNamespaceService.onFileChange(event(ChangeType.CREATED, FileType.FOLDER, 3L, "archive", null));
+            folderNamespaceService.onFileChange(event(ChangeType.RENAMED, FileType.FOLDER, 2L, "y2025", 1L));
+            folderNamespaceService.onFileChange(event(ChangeType.MOVED, FileType.FOLDER, 2L, "y2025", 3L));
+
+            // Then
+            assertThat(folderNamespaceService.resolve(USER_ID, "/archive/y2025")).isSameAs(movedYear);
+            assertThatThrownBy(() -> folderNamespaceService.resolve(USER_ID, "/docs/2025/a.txt"))
+                    .isInstanceOf(InvalidFileException.class);
+            verify(fileRepository, times(1)).findFoldersAfter(eq(USER_ID), anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("刪除資料夾後其下的路徑無法解析")
+        void shouldRemoveDeletedSubtree() {
+            // When
+            folderNamespaceService.onFileChange(event(ChangeType.DELETED, FileType.FOLDER, 1L, "docs", null));
+
+            // Then
+            assertThatThrownBy(() -> folderNamespaceService.resolve(USER_ID, "/docs/2025/report.pdf"))
+                    .isInstanceOf(InvalidFileException.class);
+            verify(fileRepository, never()).findByNameAndParentAndOwnerIdAndDeletedAtIsNull(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("檔案異動不影響命名空間")
+        void shouldIgnoreFileChanges() {
+            // When
+            folderNamespaceService.onFileChange(event(ChangeType.CREATED, FileType.FILE, 10L, "2025", 1L));
+
+            // Then: 仍解析為資料夾
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(2L, USER_ID)).thenReturn(Optional.of(year));
+            assertThat(folderNamespaceService.resolve(USER_ID, "/docs/2025")).isSameAs(year);
+        }
+    }
+
+    @Nested
+    @DisplayName("有效期限測試")
+    class TtlTests {
+
+        @Test
+        @DisplayName("命名空間超過有效期限後重新建立，反映其他節點的異動")
+        void shouldRebuildAfterTtl() {
+            // Given
+            long[] now = {0};
+            folderNamespaceService = new FolderNamespaceService(fileRepository, properties, () -> now[0]);
+            stubFolders();
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(1L, USER_ID)).thenReturn(Optional.of(docs));
+
+            // When
+            folderNamespaceService.resolve(USER_ID, "/docs");
+            now[0] += properties.getTtl().toNanos();
+            folderNamespaceService.resolve(USER_ID, "/docs");
+            now[0] += 1;
+            folderNamespaceService.resolve(USER_ID, "/docs");
+
+            // Then
+            verify(fileRepository, times(2)).findFoldersAfter(eq(USER_ID), anyLong(), any());
+            assertThat(folderNamespaceService.loadedUsers()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("資料庫查詢測試")
+    class DatabaseTests {
+
+        @Test
+        @DisplayName("停用命名空間時逐層查詢資料庫")
+        void shouldWalkDatabaseWhenDisabled() {
+            // Given
+            properties.setEnabled(false);
+            FileEntity report = file(10L, "report.pdf", year);
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("docs", null, USER_ID))
+                    .thenReturn(Optional.of(docs));
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("2025", docs, USER_ID))
+                    .thenReturn(Optional.of(year));
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("report.pdf", year, USER_ID))
+                    .thenReturn(Optional.of(report));
+
+            // When
+            FileEntity result = folderNamespaceService.resolve(USER_ID, "/docs/2025/report.pdf");
+
+            // Then
+            assertThat(result).isSameAs(report);
+            verify(fileRepository, never()).findFoldersAfter(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("超過記憶體預算時改為逐層查詢，重試期限內不再建立")
+        void shouldFallBackWhenOversized() {
+            // Given
+            properties.setMaxMemory(DataSize.ofBytes(1));
+            stubFolders();
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("docs", null, USER_ID))
+                    .thenReturn(Optional.of(docs));
+
+            // When
+            folderNamespaceService.resolve(USER_ID, "/docs");
+            folderNamespaceService.resolve(USER_ID, "/docs");
+
+            // Then
+            verify(fileRepository, times(1)).findFoldersAfter(eq(USER_ID), anyLong(), any());
+            assertThat(folderNamespaceService.loadedUsers()).isZero();
+        }
+
+        @Test
+        @DisplayName("超過記憶體預算的使用者在重試期限過後重新建立命名空間")
+        void shouldRetryOversizedUserAfterRetryPeriod() {
+            // Given
+            long[] now = {0};
+            folderNamespaceService = new FolderNamespaceService(fileRepository, properties, () -> now[0]);
+            properties.setMaxMemory(DataSize.ofBytes(1));
+            stubFolders();
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("docs", null, USER_ID))
+                    .thenReturn(Optional.of(docs));
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(1L, USER_ID)).thenReturn(Optional.of(docs));
+
+            // When
+            folderNamespaceService.resolve(USER_ID, "/docs");
+            properties.setMaxMemory(DataSize.ofMegabytes(1));
+            now[0] += properties.getOversizedRetry().toNanos() - 1;
+            folderNamespaceService.resolve(USER_ID, "/docs");
+            now[0] += 1;
+            FileEntity result = folderNamespaceService.resolve(USER_ID, "/docs");
+
+            // Then
+            assertThat(result).isSameAs(docs);
+            verify(fileRepository, times(2)).findFoldersAfter(eq(USER_ID), anyLong(), any());
+            assertThat(folderNamespaceService.loadedUsers()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("檔案不能作為中間的路徑片段")
+        void shouldRejectFileAsIntermediateSegment() {
+            // Given
+            properties.setEnabled(false);
+            FileEntity notes = file(10L, "notes.txt", null);
+            when(fileRepository.findByNameAndParentAndOwnerIdAndDeletedAtIsNull("notes.txt", null, USER_ID))
+                    .thenReturn(Optional.of(notes));
+
+            // When & Then
+            assertThatThrownBy(() -> folderNamespaceService.resolve(USER_ID, "/notes.txt/x"))
+                    .isInstanceOf(InvalidFileException.class);
+        }
+
+        @Test
+        @DisplayName("空路徑或包含 .. 時拋出例外")
+        void shouldRejectInvalidPath() {
+            assertThatThrownBy(() -> folderNamespaceService.resolve(USER_ID, "/"))
+                    .isInstanceOf(BusinessException.class);
+            assertThatThrownBy(() -> folderNamespaceService.resolve(USER_ID, "/docs/../etc"))
+                    .isInstanceOf(BusinessException.class);
+            verifyNoInteractions(fileRepository);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.miniclouddrive.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FolderNamespace 單元測試
+ */
+class FolderNamespaceTest {
+
+    private static List<String> path(String... segments) {
+        return List.of(segments);
+    }
+
+    @Test
+    @DisplayName("逐層比對路徑片段，回傳相符的資料夾 ID")
+    void shouldLookupNestedFolders() {
+        FolderNamespace namespace = new FolderNamespace();
+        namespace.put(1, "docs", null);
+        namespace.put(2, "2025", 1L);
+        namespace.put(3, "2024", 1L);
+        namespace.put(4, "photos", null);
+
+        assertThat(namespace.lookup(path("docs", "2025"))).containsExactly(1L, 2L);
+        assertThat(namespace.lookup(path("photos"))).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("不相符的片段之後停止比對")
+    void shouldStopAtFirstUnknownSegment() {
+        FolderNamespace namespace = new FolderNamespace();
+        namespace.put(1, "docs", null);
+        namespace.put(2, "2025", 1L);
+
+        assertThat(namespace.lookup(path("docs", "2025", "report.pdf"))).containsExactly(1L, 2L);
+        assertThat(namespace.lookup(path("docs", "2026", "report.pdf"))).containsExactly(1L);
+        assertThat(namespace.lookup(path("music"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("比對名稱不分大小寫，與資料庫定序一致")
+    void shouldMatchCaseInsensitively() {
+        FolderNamespace namespace = new FolderNamespace();
+        namespace.put(1, "docs", null);
+        namespace.put(2, "Reports", 1L);
+        namespace.put(3, "archive", 1L);
+
+        assertThat(namespace.lookup(path("DOCS", "reports"))).containsExactly(1L, 2L);
+        assertThat(namespace.lookup(path("Docs", "ARCHIVE"))).containsExactly(1L, 3L);
+
+        // 只改變大小寫的重新命名同樣生效
+        namespace.put(2, "REPORTS", 1L);
+        assertThat(namespace.lookup(path("docs", "reports"))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("子資料夾可先於上層資料夾加入")
+    void shouldAcceptChildBeforeParent() {
+        FolderNamespace namespace = new FolderNamespace();
+        namespace.put(5, "2025", 9L);
+
+        assertThat(namespace.lookup(path("docs", "2025"))).isEmpty();
+
+        namespace.put(9, "docs", null);
+
+        assertThat(namespace.lookup(path("docs", "2025"))).containsExactly(9L, 5L);
+        assertThat(namespace.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("重新命名與搬移後只能以新路徑找到，子資料夾一併跟隨")
+    void shouldFollowRenameAndMove() {
+        FolderNamespace namespace = new FolderNamespace();
+        namespace.put(1, "docs", null);
+        namespace.put(2, "2025", 1L);
+        namespace.put(3, "archive", null);
+
+        namespace.put(1, "documents", null);
+        assertThat(namespace.lookup(path("docs"))).isEmpty();
+        assertThat(namespace.lookup(path("documents", "2025"))).containsExactly(1L, 2L);
+
+        namespace.put(1, "documents", 3L);
+        assertThat(namespace.lookup(path("documents"))).isEmpty();
+        assertThat(namespace.lookup(path("archive", "documents", "2025"))).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    @DisplayName("移除資料夾時一併移除所有子資料夾")
+    void shouldRemoveSubtree() {
+        FolderNamespace namespace = new FolderNamespace();
+        namespace.put(1, "docs", null);
+        namespace.put(2, "2025", 1L);
+        namespace.put(3, "q1", 2L);
+        namespace.put(4, "photos", null);
+        long before = namespace.estimatedBytes();
+
+        namespace.remove(1);
+
+        assertThat(namespace.lookup(path("docs"))).isEmpty();
+        assertThat(namespace.lookup(path("photos"))).containsExactly(4L);
+        assertThat(namespace.size()).isEqualTo(1);
+        assertThat(namespace.estimatedBytes()).isLessThan(before);
+    }
+
+    @Test
+    @DisplayName("同一層有大量資料夾時仍可正確比對")
+    void shouldHandleWideFolders() {
+        FolderNamespace namespace = new FolderNamespace();
+        for (int i = 0; i < 1000; i++) {
+            namespace.put(i + 1, "folder-" + (999 - i), null);
+        }
+        namespace.remove(500);
+
+        assertThat(namespace.lookup(path("folder-0"))).containsExactly(1000L);
+        assertThat(namespace.lookup(path("folder-500"))).isEmpty();
+        assertThat(namespace.lookup(path("folder-501"))).containsExactly(499L);
+        assertThat(namespace.size()).isEqualTo(999);
+    }
+}
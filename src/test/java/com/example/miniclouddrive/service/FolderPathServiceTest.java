@@ -0,0 +1,288 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.PathCacheProperties;
+import com.example.miniclouddrive.dto.response.BreadcrumbResponse;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import com.example.miniclouddrive.repository.FileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FolderPathService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class FolderPathServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    private PathCacheProperties properties;
+    private AtomicLong clock;
+    private FolderPathService folderPathService;
+
+    private static final Long USER_ID = 1L;
+
+    /** 資料庫中的資料夾：/專案(3)/設計(8)/稿件(12)/ */
+    private final List<FileEntity> folders = new ArrayList<>(List.of(
+            folder(3L, "專案", "/"),
+            folder(8L, "設計", "/3/"),
+            folder(12L, "稿件", "/3/8/")));
+
+    /** 查詢祖先時執行，用來模擬查詢期間提交的異動 */
+    private Runnable onAncestorQuery = () -> { };
+
+    @BeforeEach
+    void setUp() {
+        properties = new PathCacheProperties();
+        clock = new AtomicLong();
+        folderPathService = new FolderPathService(fileRepository, properties, clock::get);
+    }
+
+    private static FileEntity folder(Long id, String name, String ancestorPath) {
+        return FileEntity.builder().id(id).name(name).type(FileType.FOLDER)
+                .ownerId(USER_ID).ancestorPath(ancestorPath).build();
+    }
+
+    private static FileEntity file(Long id, String name, String ancestorPath) {
+        return FileEntity.builder().id(id).name(name).type(FileType.FILE)
+                .ownerId(USER_ID).ancestorPath(ancestorPath).build();
+    }
+
+    /** 依 ID 從資料庫回傳祖先資料夾 */
+    private void stubFolders() {
+        when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), eq(USER_ID)))
+                .thenAnswer(invocation -> {
+                    onAncestorQuery.run();
+                    Collection<Long> ids = invocation.getArgument(0);
+                    return folders.stream().filter(f -> ids.contains(f.getId())).toList();
+                });
+    }
+
+    private static List<String> names(List<BreadcrumbResponse> path) {
+        return path.stream().map(BreadcrumbResponse::getName).toList();
+    }
+
+    private static FileChangeEvent event(ChangeType changeType, FileType type, Long fileId) {
+        return new FileChangeEvent(USER_ID, List.of(FileChangeResponse.builder()
+                .changeType(changeType).type(type).fileId(fileId).build()));
+    }
+
+    @Nested
+    @DisplayName("單一項目路徑測試")
+    class GetPathTests {
+
+        @Test
+        @DisplayName("深層項目的所有祖先以單一查詢取得")
+        void shouldLoadAllAncestorsInOneQuery() {
+            // Given
+            FileEntity item = file(20L, "spec.md", "/3/8/12/");
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(20L, USER_ID)).thenReturn(Optional.of(item));
+            stubFolders();
+
+            // When
+            List<BreadcrumbResponse> path = folderPathService.getPath(20L, USER_ID);
+
+            // Then
+            assertThat(names(path)).containsExactly("專案", "設計", "稿件", "spec.md");
+            verify(fileRepository, times(1)).findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), eq(USER_ID));
+        }
+
+        @Test
+        @DisplayName("根目錄的項目只包含項目本身，不查詢祖先")
+        void shouldReturnItemOnlyForRootItem() {
+            // Given
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(20L, USER_ID))
+                    .thenReturn(Optional.of(file(20L, "a.txt", "/")));
+
+            // When
+            List<BreadcrumbResponse> path = folderPathService.getPath(20L, USER_ID);
+
+            // Then
+            assertThat(names(path)).containsExactly("a.txt");
+            verify(fileRepository, never()).findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), anyLong());
+        }
+
+        @Test
+        @DisplayName("項目不存在時拋出例外")
+        void shouldThrowWhenItemNotFound() {
+            // Given
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(99L, USER_ID)).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> folderPathService.getPath(99L, USER_ID))
+                    .isInstanceOf(InvalidFileException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("快取測試")
+    class CacheTests {
+
+        @BeforeEach
+        void setUp() {
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(20L, USER_ID))
+                    .thenReturn(Optional.of(file(20L, "spec.md", "/3/8/12/")));
+            stubFolders();
+        }
+
+        @Test
+        @DisplayName("同一資料夾及其上層資料夾中的項目不再查詢祖先")
+        void shouldServeFromCache() {
+            // Given
+            when(fileRepository.findByIdAndOwnerIdAndDeletedAtIsNull(21L, USER_ID))
+                    .thenReturn(Optional.of(file(21L, "logo.png", "/3/8/")));
+            folderPathService.getPath(20L, USER_ID);
+
+            // When
+            List<BreadcrumbResponse> path = folderPathService.getPath(21L, USER_ID);
+
+            // Then: 載入 /3/8/12/ 時沿途的 /3/8/ 也已快取
+            assertThat(names(path)).containsExactly("專案", "設計", "logo.png");
+            verify(fileRepository, times(1)).findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), eq(USER_ID));
+            assertThat(folderPathService.cachedFolders()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("祖先資料夾重新命名後重新查詢")
+        void shouldInvalidateOnFolderRename() {
+            // Given
+            folderPathService.getPath(20L, USER_ID);
+            folders.set(1, folder(8L, "視覺設計", "/3/"));
+
+            // When
+            folderPathService.onFileChange(event(ChangeType.RENAMED, FileType.FOLDER, 8L));
+            List<BreadcrumbResponse> path = folderPathService.getPath(20L, USER_ID);
+
+            // Then: 只保留不包含該資料夾的 /3/ 路徑
+            assertThat(names(path)).containsExactly("專案", "視覺設計", "稿件", "spec.md");
+            verify(fileRepository, times(2)).findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), eq(USER_ID));
+        }
+
+        @Test
+        @DisplayName("檔案異動不影響快取")
+        void shouldIgnoreFileChanges() {
+            // Given
+            folderPathService.getPath(20L, USER_ID);
+
+            // When
+            folderPathService.onFileChange(event(ChangeType.RENAMED, FileType.FILE, 20L));
+
+            // Then
+            assertThat(folderPathService.cachedFolders()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("超過有效期限後重新查詢")
+        void shouldReloadAfterTtl() {
+            // Given
+            folderPathService.getPath(20L, USER_ID);
+            clock.addAndGet(properties.getTtl().plus(Duration.ofSeconds(1)).toNanos());
+
+            // When
+            folderPathService.getPath(20L, USER_ID);
+
+            // Then
+            verify(fileRepository, times(2)).findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), eq(USER_ID));
+        }
+
+        @Test
+        @DisplayName("載入期間發生失效時，載入結果不放入快取")
+        void shouldNotCacheWhenInvalidatedDuringLoad() {
+            // Given: 查詢祖先時剛好有資料夾重新命名
+            onAncestorQuery = () -> folderPathService.onFileChange(event(ChangeType.RENAMED, FileType.FOLDER, 8L));
+
+            // When
+            folderPathService.getPath(20L, USER_ID);
+
+            // Then
+            assertThat(folderPathService.cachedFolders()).isZero();
+        }
+
+        @Test
+        @DisplayName("超過上限時淘汰最久未使用的路徑")
+        void shouldEvictEldest() {
+            // Given
+            properties.setMaxEntries(2);
+
+            // When
+            folderPathService.getPath(20L, USER_ID);
+
+            // Then
+            assertThat(folderPathService.cachedFolders()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("批次路徑測試")
+    class GetPathsTests {
+
+        @Test
+        @DisplayName("多個項目的祖先合併為單一查詢，不存在的項目不回傳")
+        void shouldResolveBatchWithOneAncestorQuery() {
+            // Given
+            List<FileEntity> items = List.of(
+                    file(20L, "spec.md", "/3/8/12/"),
+                    file(21L, "logo.png", "/3/8/"),
+                    file(22L, "readme.md", "/"));
+            when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(List.of(20L, 21L, 22L, 99L), USER_ID))
+                    .thenReturn(items);
+            when(fileRepository.findByIdInAndOwnerIdAndDeletedAtIsNull(argThat(ids -> !ids.contains(20L)), eq(USER_ID)))
+                    .thenAnswer(invocation -> {
+                        Collection<Long> ids = invocation.getArgument(0);
+                        return folders.stream().filter(f -> ids.contains(f.getId())).toList();
+                    });
+
+            // When
+            Map<Long, List<BreadcrumbResponse>> paths = folderPathService.getPaths(List.of(20L, 21L, 22L, 99L), USER_ID);
+
+            // Then
+            assertThat(paths).containsOnlyKeys(20L, 21L, 22L);
+            assertThat(names(paths.get(20L))).containsExactly("專案", "設計", "稿件", "spec.md");
+            assertThat(names(paths.get(21L))).containsExactly("專案", "設計", "logo.png");
+            assertThat(names(paths.get(22L))).containsExactly("readme.md");
+            verify(fileRepository, times(2)).findByIdInAndOwnerIdAndDeletedAtIsNull(anyCollection(), eq(USER_ID));
+        }
+
+        @Test
+        @DisplayName("超過批次上限時拋出例外")
+        void shouldRejectOversizedBatch() {
+            // Given
+            properties.setMaxBatchSize(2);
+
+            // When & Then
+            assertThatThrownBy(() -> folderPathService.getPaths(List.of(1L, 2L, 3L), USER_ID))
+                    .isInstanceOf(BusinessException.class);
+            verifyNoInteractions(fileRepository);
+        }
+    }
+
+    @Test
+    @DisplayName("解析祖先路徑")
+    void shouldParseAncestorIds() {
+        assertThat(FolderPathService.parseAncestorIds("/")).isEmpty();
+        assertThat(FolderPathService.parseAncestorIds("/3/8/12/")).containsExactly(3L, 8L, 12L);
+    }
+}
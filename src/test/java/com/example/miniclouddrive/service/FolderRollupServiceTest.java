@@ -0,0 +1,155 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.repository.FileRepository;
+import com.example.miniclouddrive.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FolderRollupService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class FolderRollupServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private FolderRollupService folderRollupService;
+
+    private static final Long USER_ID = 1L;
+
+    private static FileEntity file(long size, String ancestorPath) {
+        return FileEntity.builder().id(20L).name("a.txt").type(FileType.FILE).size(size)
+                .treeSize(0L).descendantCount(0L).ancestorPath(ancestorPath).ownerId(USER_ID).build();
+    }
+
+    @Nested
+    @DisplayName("不在交易中")
+    class WithoutTransactionTests {
+
+        @Test
+        @DisplayName("立即以單一 UPDATE 更新所有祖先資料夾")
+        void shouldFlushImmediately() {
+            // When
+            folderRollupService.itemAdded(USER_ID, file(100L, "/3/8/"));
+
+            // Then
+            verify(fileRepository).addToRollups(List.of(3L, 8L), 100L, 1L);
+            verify(userRepository).incrementRootVersion(USER_ID);
+        }
+
+        @Test
+        @DisplayName("根目錄下的項目不更新任何資料夾")
+        void shouldSkipRootItems() {
+            // When
+            folderRollupService.itemAdded(USER_ID, file(100L, "/"));
+
+            // Then
+            verifyNoInteractions(fileRepository, userRepository);
+        }
+
+        @Test
+        @DisplayName("移除資料夾時扣除其子樹大小與項目數")
+        void shouldSubtractSubtree() {
+            // Given
+            FileEntity folder = FileEntity.builder().id(8L).name("專案").type(FileType.FOLDER).size(0L)
+                    .treeSize(500L).descendantCount(4L).ancestorPath("/3/").ownerId(USER_ID).build();
+
+            // When
+            folderRollupService.itemRemoved(USER_ID, folder);
+
+            // Then
+            verify(fileRepository).addToRollups(List.of(3L), -500L, -5L);
+        }
+    }
+
+    @Nested
+    @DisplayName("交易中")
+    class WithinTransactionTests {
+
+        @BeforeEach
+        void setUp() {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+
+        @AfterEach
+        void tearDown() {
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        private void commit() {
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        }
+
+        @Test
+        @DisplayName("提交前才寫入，同一資料夾的變化量合併")
+        void shouldCoalesceUntilCommit() {
+            // When
+            folderRollupService.itemAdded(USER_ID, file(100L, "/3/8/"));
+            folderRollupService.itemAdded(USER_ID, file(50L, "/3/8/"));
+            verifyNoInteractions(fileRepository);
+            commit();
+
+            // Then
+            verify(fileRepository).addToRollups(List.of(3L, 8L), 150L, 2L);
+            verify(userRepository, times(1)).incrementRootVersion(USER_ID);
+        }
+
+        @Test
+        @DisplayName("搬移時共同祖先的增減互相抵銷，其餘依資料夾 ID 遞增寫入")
+        void shouldCancelCommonAncestors() {
+            // Given
+            FileEntity moved = file(100L, "/3/8/");
+
+            // When
+            folderRollupService.itemRemoved(USER_ID, moved);
+            moved.setAncestorPath("/3/5/");
+            folderRollupService.itemAdded(USER_ID, moved);
+            commit();
+
+            // Then
+            InOrder inOrder = inOrder(fileRepository);
+            inOrder.verify(fileRepository).addToRollups(List.of(5L), 100L, 1L);
+            inOrder.verify(fileRepository).addToRollups(List.of(8L), -100L, -1L);
+            verify(fileRepository, never()).addToRollups(argThat(ids -> ids.contains(3L)), anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("完全抵銷時不寫入")
+        void shouldSkipWhenNetZero() {
+            // Given
+            FileEntity moved = file(100L, "/3/");
+
+            // When
+            folderRollupService.itemRemoved(USER_ID, moved);
+            folderRollupService.itemAdded(USER_ID, moved);
+            commit();
+
+            // Then
+            verifyNoInteractions(fileRepository, userRepository);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.JobProperties;
+import com.example.miniclouddrive.entity.Job;
+import com.example.miniclouddrive.enums.JobStatus;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * JobWorker 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class JobWorkerTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    private JobProperties jobProperties;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        jobProperties = new JobProperties();
+        jobProperties.setWorkerThreads(2);
+        jobProperties.setPerUserConcurrency(1);
+        jobProperties.setMaxAttempts(3);
+    }
+
+    @Test
+    @DisplayName("租用成功後執行工作並標記完成")
+    void shouldLeaseAndRunJob() throws InterruptedException {
+        // Given
+        Job job = pendingJob(10L, USER_ID, 0);
+        AtomicInteger executions = new AtomicInteger();
+        JobWorker worker = new JobWorker(jobRepository, List.of(handler(job0 -> executions.incrementAndGet())),
+                jobProperties);
+
+        when(jobRepository.findClaimable(any(), any())).thenReturn(List.of(job));
+        when(jobRepository.tryLease(eq(10L), eq(USER_ID), eq(1), anyString(), any(), any())).thenReturn(1);
+
+        // When
+        worker.poll();
+        worker.shutdown();
+
+        // Then
+        assertThat(executions.get()).isEqualTo(1);
+        verify(jobRepository).release(eq(10L), anyString(), eq(JobStatus.SUCCEEDED), isNull(), any(), any());
+    }
+
+    @Test
+    @DisplayName("使用者已達同時執行上限時不租用其工作")
+    void shouldSkipOwnerAtConcurrencyLimit() throws InterruptedException {
+        // Given
+        Job first = pendingJob(10L, USER_ID, 0);
+        Job second = pendingJob(11L, USER_ID, 0);
+        JobWorker worker = new JobWorker(jobRepository, List.of(handler(job -> {
+        })), jobProperties);
+
+        // 上限由租用的 UPDATE 條件檢查，其他節點已在執行該使用者的工作時租用失敗
+        when(jobRepository.findClaimable(any(), any())).thenReturn(List.of(first, second));
+        when(jobRepository.tryLease(eq(10L), eq(USER_ID), eq(1), anyString(), any(), any())).thenReturn(0);
+
+        // When
+        worker.poll();
+        worker.shutdown();
+
+        // Then
+        verify(jobRepository, never()).tryLease(eq(11L), any(), anyInt(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("續約使用專用執行緒，不受其他定期工作阻塞")
+    void shouldRenewLeasesOnDedicatedThread() throws InterruptedException {
+        // Given
+        jobProperties.setHeartbeatInterval(Duration.ofMillis(10));
+        Job job = pendingJob(10L, USER_ID, 0);
+        CountDownLatch renewed = new CountDownLatch(1);
+        JobWorker worker = new JobWorker(jobRepository, List.of(handler(job0 -> {
+            try {
+                renewed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })), jobProperties);
+
+        when(jobRepository.findClaimable(any(), any())).thenReturn(List.of(job));
+        when(jobRepository.tryLease(eq(10L), eq(USER_ID), eq(1), anyString(), any(), any())).thenReturn(1);
+        when(jobRepository.renewLeases(any(), anyString(), any())).thenAnswer(invocation -> {
+            renewed.countDown();
+            return 1;
+        });
+
+        // When: 未呼叫任何 @Scheduled 方法
+        worker.poll();
+        boolean renewedInTime = renewed.await(5, TimeUnit.SECONDS);
+        worker.shutdown();
+
+        // Then
+        assertThat(renewedInTime).isTrue();
+    }
+
+    @Test
+    @DisplayName("執行失敗且未達重試上限時回到等待狀態")
+    void shouldReturnToPendingOnFailure() throws InterruptedException {
+        // Given
+        Job job = pendingJob(10L, USER_ID, 0);
+        JobWorker worker = new JobWorker(jobRepository, List.of(handler(job0 -> {
+            throw new IllegalStateException("磁碟錯誤");
+        })), jobProperties);
+
+        when(jobRepository.findClaimable(any(), any())).thenReturn(List.of(job));
+        when(jobRepository.tryLease(eq(10L), eq(USER_ID), eq(1), anyString(), any(), any())).thenReturn(1);
+
+        // When
+        worker.poll();
+        worker.shutdown();
+
+        // Then
+        verify(jobRepository).release(eq(10L), anyString(), eq(JobStatus.PENDING), eq("磁碟錯誤"), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("最後一次執行失敗時標記為失敗")
+    void shouldFailWhenAttemptsExhausted() throws InterruptedException {
+        // Given
+        Job job = pendingJob(10L, USER_ID, 2);
+        JobWorker worker = new JobWorker(jobRepository, List.of(handler(job0 -> {
+            throw new IllegalStateException("磁碟錯誤");
+        })), jobProperties);
+
+        when(jobRepository.findClaimable(any(), any())).thenReturn(List.of(job));
+        when(jobRepository.tryLease(eq(10L), eq(USER_ID), eq(1), anyString(), any(), any())).thenReturn(1);
+
+        // When
+        worker.poll();
+        worker.shutdown();
+
+        // Then
+        verify(jobRepository).release(eq(10L), anyString(), eq(JobStatus.FAILED), eq("磁碟錯誤"), any(), any());
+    }
+
+    @Test
+    @DisplayName("回報進度時發現租約遺失則停止且不寫入結果")
+    void shouldStopWhenLeaseLost() throws InterruptedException {
+        // Given
+        Job job = pendingJob(10L, USER_ID, 0);
+        JobWorker worker = new JobWorker(jobRepository, List.of(new JobHandler() {
+            @Override
+            public JobType getType() {
+                return JobType.FOLDER_DELETE;
+            }
+
+            @Override
+            public void execute(Job job, JobProgress progress) {
+                progress.update(1, 10);
+            }
+        }), jobProperties);
+
+        when(jobRepository.findClaimable(any(), any())).thenReturn(List.of(job));
+        when(jobRepository.tryLease(eq(10L), eq(USER_ID), eq(1), anyString(), any(), any())).thenReturn(1);
+        when(jobRepository.updateProgress(eq(10L), anyString(), anyLong(), anyLong(), any())).thenReturn(0);
+
+        // When
+        worker.poll();
+        worker.shutdown();
+
+        // Then
+        verify(jobRepository, never()).release(any(), any(), any(), any(), any(), any());
+    }
+
+    private static Job pendingJob(Long id, Long ownerId, int attempts) {
+        return Job.builder()
+                .id(id)
+                .type(JobType.FOLDER_DELETE)
+                .status(JobStatus.PENDING)
+                .ownerId(ownerId)
+                .attempts(attempts)
+                .build();
+    }
+
+    private static JobHandler handler(java.util.function.Consumer<Job> action) {
+        return new JobHandler() {
+            @Override
+            public JobType getType() {
+                return JobType.FOLDER_DELETE;
+            }
+
+            @Override
+            public void execute(Job job, JobProgress progress) {
+                action.accept(job);
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.LiveEventsProperties;
+import com.example.miniclouddrive.dto.response.FileChangeResponse;
+import com.example.miniclouddrive.enums.ChangeType;
+import com.example.miniclouddrive.enums.FileType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * LiveEventBroadcaster 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class LiveEventBroadcasterTest {
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    /** 只收集送出工作，由測試決定何時執行 */
+    private final List<Runnable> pendingDispatches = new ArrayList<>();
+
+    private LiveEventsProperties properties;
+    private LiveEventBroadcaster broadcaster;
+
+    private static final Long USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LiveEventsProperties();
+        broadcaster = new LiveEventBroadcaster(changeFeedService, properties, pendingDispatches::add);
+    }
+
+    private static FileChangeResponse change(long seq, ChangeType changeType, long fileId, Long parentId) {
+        return FileChangeResponse.builder()
+                .seq(seq)
+                .fileId(fileId)
+                .changeType(changeType)
+                .type(FileType.FILE)
+                .name("file-" + fileId)
+                .parentId(parentId)
+                .build();
+    }
+
+    private void runPendingDispatches() {
+        List<Runnable> tasks = new ArrayList<>(pendingDispatches);
+        pendingDispatches.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Nested
+    @DisplayName("訂閱範圍測試")
+    class MatchTests {
+
+        @Test
+        @DisplayName("只接收已訂閱資料夾內的異動與資料夾本身的異動")
+        void shouldMatchSubscribedFolders() {
+            LiveEventBroadcaster.Subscription subscription = new LiveEventBroadcaster.Subscription(USER_ID,
+                    new SseEmitter(), Set.of(10L), false, 16);
+
+            assertThat(subscription.matches(change(1, ChangeType.CREATED, 100, 10L))).isTrue();
+            assertThat(subscription.matches(change(2, ChangeType.RENAMED, 10, null))).isTrue();
+            assertThat(subscription.matches(change(3, ChangeType.CREATED, 101, 20L))).isFalse();
+            assertThat(subscription.matches(change(4, ChangeType.DELETED, 102, null))).isFalse();
+        }
+
+        @Test
+        @DisplayName("搬移一律送出，因為無法得知是否移出已訂閱的資料夾")
+        void shouldAlwaysMatchMoves() {
+            LiveEventBroadcaster.Subscription subscription = new LiveEventBroadcaster.Subscription(USER_ID,
+                    new SseEmitter(), Set.of(10L), false, 16);
+
+            assertThat(subscription.matches(change(1, ChangeType.MOVED, 100, 20L))).isTrue();
+        }
+
+        @Test
+        @DisplayName("未指定範圍時接收所有異動")
+        void shouldMatchEverythingWithoutFilter() {
+            LiveEventBroadcaster.Subscription subscription = new LiveEventBroadcaster.Subscription(USER_ID,
+                    new SseEmitter(), Set.of(), false, 16);
+
+            assertThat(subscription.matches(change(1, ChangeType.CREATED, 100, 20L))).isTrue();
+            assertThat(subscription.matches(change(2, ChangeType.CREATED, 101, null))).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("推送測試")
+    class DispatchTests {
+
+        @Test
+        @DisplayName("連續的事件只排程一次送出工作，發布端不會等待送出")
+        void shouldScheduleSingleDrainPerSubscription() {
+            // Given
+            when(changeFeedService.currentCursor(USER_ID)).thenReturn(5L);
+            broadcaster.subscribe(USER_ID, Set.of(), false);
+
+            // When
+            broadcaster.onFileChange(new FileChangeEvent(USER_ID, List.of(change(6, ChangeType.CREATED, 100, null))));
+            broadcaster.onFileChange(new FileChangeEvent(USER_ID, List.of(change(7, ChangeType.CREATED, 101, null))));
+
+            // Then
+            assertThat(pendingDispatches).hasSize(1);
+            runPendingDispatches();
+            assertThat(broadcaster.activeSubscriptions()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("佇列已滿時要求重新同步並關閉連線")
+        void shouldDropSubscriberThatFallsBehind() {
+            // Given
+            properties.setQueueCapacity(2);
+            when(changeFeedService.currentCursor(USER_ID)).thenReturn(5L);
+            broadcaster.subscribe(USER_ID, Set.of(), false);
+
+            // When
+            for (long seq = 6; seq <= 8; seq++) {
+                broadcaster.onFileChange(new FileChangeEvent(USER_ID,
+                        List.of(change(seq, ChangeType.CREATED, 100 + seq, null))));
+            }
+            runPendingDispatches();
+
+            // Then
+            assertThat(broadcaster.activeSubscriptions()).isZero();
+        }
+
+        @Test
+        @DisplayName("其他使用者的異動不會推送")
+        void shouldIgnoreOtherUsers() {
+            // Given
+            when(changeFeedService.currentCursor(USER_ID)).thenReturn(5L);
+            broadcaster.subscribe(USER_ID, Set.of(), false);
+            runPendingDispatches();
+
+            // When
+            broadcaster.onFileChange(new FileChangeEvent(2L, List.of(change(1, ChangeType.CREATED, 100, null))));
+
+            // Then
+            assertThat(pendingDispatches).isEmpty();
+        }
+
+        @Test
+        @DisplayName("超過每位使用者的連線上限時關閉最舊的連線")
+        void shouldCloseOldestSubscriptionOverLimit() {
+            // Given
+            properties.setMaxSubscriptionsPerUser(1);
+            when(changeFeedService.currentCursor(USER_ID)).thenReturn(5L);
+
+            // When
+            broadcaster.subscribe(USER_ID, Set.of(), false);
+            broadcaster.subscribe(USER_ID, Set.of(), false);
+
+            // Then
+            assertThat(broadcaster.activeSubscriptions()).isEqualTo(1);
+        }
+    }
+}
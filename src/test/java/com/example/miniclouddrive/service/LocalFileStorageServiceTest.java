@@ -10,7 +10,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -38,6 +41,7 @@ class LocalFileStorageServiceTest {
     @BeforeEach
     void setUp() {
         when(fileStorageProperties.getUploadDir()).thenReturn(tempDir.toString());
+        when(fileStorageProperties.getTransferBuffer()).thenReturn(new FileStorageProperties.TransferBuffer());
         localFileStorageService = new LocalFileStorageService(fileStorageProperties);
         localFileStorageService.init();
     }
@@ -46,6 +50,39 @@ class LocalFileStorageServiceTest {
     @DisplayName("store 測試")
     class StoreTests {
 
+        @Test
+        @DisplayName("讀取中途失敗時不留下不完整的檔案")
+        void shouldRemovePartialFileOnReadFailure() {
+            // Given
+            InputStream failing = new SequenceInputStream(new ByteArrayInputStream(new byte[1024]),
+                    new InputStream() {
+                        @Override
+                        public int read() throws IOException {
+                            throw new IOException("connection reset");
+                        }
+                    });
+
+            // When & Then
+            assertThatThrownBy(() -> localFileStorageService.store(failing, "broken.bin", -1, USER_ID))
+                    .isInstanceOf(IOException.class);
+            assertThat(tempDir.resolve(USER_ID.toString()).toFile().list()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("以暫存檔儲存時直接移入儲存目錄")
+        void shouldMoveStagedFileIntoStorage() throws IOException {
+            // Given
+            Path staged = Files.writeString(tempDir.resolve("staged.tmp"), "assembled");
+
+            // When
+            String storedPath = localFileStorageService.store(staged, "video.mp4", USER_ID);
+
+            // Then
+            assertThat(storedPath).startsWith(USER_ID + "/").endsWith("_video.mp4");
+            assertThat(Files.readString(tempDir.resolve(storedPath))).isEqualTo("assembled");
+            assertThat(staged).doesNotExist();
+        }
+
         @Test
         @DisplayName("成功儲存檔案")
         void shouldStoreFileSuccessfully() throws IOException {
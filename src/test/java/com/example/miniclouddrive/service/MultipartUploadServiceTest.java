@@ -0,0 +1,282 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.concurrency.BandwidthLimiter;
+import com.example.miniclouddrive.config.BandwidthProperties;
+import com.example.miniclouddrive.config.FileStorageProperties;
+import com.example.miniclouddrive.dto.response.FileUploadResponse;
+import com.example.miniclouddrive.dto.response.MultipartUploadResponse;
+import com.example.miniclouddrive.entity.MultipartUpload;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.FileAlreadyExistsException;
+import com.example.miniclouddrive.exception.InsufficientStorageException;
+import com.example.miniclouddrive.exception.MultipartUploadNotFoundException;
+import com.example.miniclouddrive.repository.MultipartUploadRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * MultipartUploadService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class MultipartUploadServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private MultipartUploadRepository multipartUploadRepository;
+
+    @Mock
+    private MultipartUploadStore multipartUploadStore;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private FileService fileService;
+
+    private MultipartUploadService multipartUploadService;
+
+    private static final Long USER_ID = 1L;
+    private static final Long UPLOAD_ID = 7L;
+
+    @BeforeEach
+    void setUp() {
+        multipartUploadService = new MultipartUploadService(multipartUploadRepository, multipartUploadStore,
+                fileStorageService, fileService, new FileStorageProperties(),
+                new BandwidthLimiter(new BandwidthProperties(), userId -> null, new SimpleMeterRegistry()));
+    }
+
+    private MultipartUpload upload() {
+        return MultipartUpload.builder()
+                .id(UPLOAD_ID)
+                .ownerId(USER_ID)
+                .fileName("video.mp4")
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("initiate 測試")
+    class InitiateTests {
+
+        @Test
+        @DisplayName("檢查通過後建立上傳並設定到期時間")
+        void shouldCreateUploadAfterPreflight() {
+            // Given
+            when(multipartUploadRepository.save(any(MultipartUpload.class))).thenAnswer(invocation -> {
+                MultipartUpload upload = invocation.getArgument(0);
+                upload.setId(UPLOAD_ID);
+                return upload;
+            });
+
+            // When
+            MultipartUploadResponse response = multipartUploadService.initiate("video.mp4", null, null, 1024L, USER_ID);
+
+            // Then
+            verify(fileService).preflightUpload("video.mp4", null, null, 1024L, USER_ID);
+            assertThat(response.getUploadId()).isEqualTo(UPLOAD_ID);
+            assertThat(response.getExpiresAt()).isAfter(LocalDateTime.now().plusHours(23));
+        }
+
+        @Test
+        @DisplayName("進行中的上傳已達上限時拒絕")
+        void shouldRejectWhenTooManyOpenUploads() {
+            // Given
+            when(multipartUploadRepository.countByOwnerIdAndExpiresAtAfter(eq(USER_ID), any())).thenReturn(20L);
+
+            // When & Then
+            assertThatThrownBy(() -> multipartUploadService.initiate("video.mp4", null, null, null, USER_ID))
+                    .isInstanceOf(BusinessException.class);
+            verifyNoInteractions(fileService);
+            verify(multipartUploadRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("同名檔案已存在時不建立上傳")
+        void shouldNotCreateUploadWhenFileExists() {
+            // Given
+            doThrow(new FileAlreadyExistsException(1L, "video.mp4", LocalDateTime.now()))
+                    .when(fileService).preflightUpload("video.mp4", null, null, -1, USER_ID);
+
+            // When & Then
+            assertThatThrownBy(() -> multipartUploadService.initiate("video.mp4", null, null, null, USER_ID))
+                    .isInstanceOf(FileAlreadyExistsException.class);
+            verify(multipartUploadRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("uploadPart 測試")
+    class UploadPartTests {
+
+        @Test
+        @DisplayName("上傳不存在或已到期時拒絕")
+        void shouldRejectUnknownUpload() {
+            // Given
+            when(multipartUploadRepository.findByIdAndOwnerIdAndExpiresAtAfter(eq(UPLOAD_ID), eq(USER_ID), any()))
+                    .thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> multipartUploadService.uploadPart(UPLOAD_ID, 1,
+                    new ByteArrayInputStream(new byte[1]), USER_ID))
+                    .isInstanceOf(MultipartUploadNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("寫入前預留分段上限，寫入後依實際大小調整暫存量")
+        void shouldTrackStagedBytes() throws IOException {
+            // Given
+            long maxPartSize = new FileStorageProperties().getMultipart().getMaxPartSize().toBytes();
+            when(multipartUploadRepository.findByIdAndOwnerIdAndExpiresAtAfter(eq(UPLOAD_ID), eq(USER_ID), any()))
+                    .thenReturn(Optional.of(upload()));
+            when(multipartUploadStore.partSize(UPLOAD_ID, 1)).thenReturn(0L);
+            when(multipartUploadRepository.sumStagedBytesByOwnerId(USER_ID)).thenReturn(maxPartSize + 100L);
+            when(fileService.getRemainingQuota(USER_ID)).thenReturn(Long.MAX_VALUE / 2);
+            when(multipartUploadStore.writePart(eq(UPLOAD_ID), eq(1), any(), eq(maxPartSize))).thenReturn(30L);
+
+            // When
+            multipartUploadService.uploadPart(UPLOAD_ID, 1, new ByteArrayInputStream(new byte[30]), USER_ID);
+
+            // Then
+            verify(multipartUploadRepository).addStagedBytes(UPLOAD_ID, maxPartSize);
+            verify(multipartUploadRepository).addStagedBytes(UPLOAD_ID, 30L - maxPartSize);
+        }
+
+        @Test
+        @DisplayName("已暫存的分段加上已使用空間超過配額時拒絕，並釋放預留量")
+        void shouldRejectWhenStagedBytesExceedQuota() throws IOException {
+            // Given
+            long maxPartSize = new FileStorageProperties().getMultipart().getMaxPartSize().toBytes();
+            when(multipartUploadRepository.findByIdAndOwnerIdAndExpiresAtAfter(eq(UPLOAD_ID), eq(USER_ID), any()))
+                    .thenReturn(Optional.of(upload()));
+            // 其他上傳已暫存 1000 bytes，剩餘配額也只有 1000 bytes
+            when(multipartUploadRepository.sumStagedBytesByOwnerId(USER_ID)).thenReturn(maxPartSize + 1000L);
+            when(fileService.getRemainingQuota(USER_ID)).thenReturn(1000L);
+
+            // When & Then
+            assertThatThrownBy(() -> multipartUploadService.uploadPart(UPLOAD_ID, 1,
+                    new ByteArrayInputStream(new byte[1]), USER_ID))
+                    .isInstanceOf(InsufficientStorageException.class);
+            verify(multipartUploadStore, never()).writePart(any(), anyInt(), any(), anyLong());
+            verify(multipartUploadRepository).addStagedBytes(UPLOAD_ID, -maxPartSize);
+        }
+
+        @Test
+        @DisplayName("分段超過剩餘配額時以配額不足拒絕")
+        void shouldLimitPartToRemainingQuota() throws IOException {
+            // Given
+            long maxPartSize = new FileStorageProperties().getMultipart().getMaxPartSize().toBytes();
+            when(multipartUploadRepository.findByIdAndOwnerIdAndExpiresAtAfter(eq(UPLOAD_ID), eq(USER_ID), any()))
+                    .thenReturn(Optional.of(upload()));
+            when(multipartUploadRepository.sumStagedBytesByOwnerId(USER_ID)).thenReturn(maxPartSize);
+            when(fileService.getRemainingQuota(USER_ID)).thenReturn(10L);
+            when(multipartUploadStore.writePart(eq(UPLOAD_ID), eq(1), any(), eq(10L)))
+                    .thenThrow(new BusinessException("1001", "分段大小超過上限: 10 bytes"));
+
+            // When & Then
+            assertThatThrownBy(() -> multipartUploadService.uploadPart(UPLOAD_ID, 1,
+                    new ByteArrayInputStream(new byte[20]), USER_ID))
+                    .isInstanceOf(InsufficientStorageException.class);
+            verify(multipartUploadRepository).addStagedBytes(UPLOAD_ID, -maxPartSize);
+        }
+
+        @Test
+        @DisplayName("分段編號超出範圍時拒絕")
+        void shouldRejectInvalidPartNumber() {
+            assertThatThrownBy(() -> multipartUploadService.uploadPart(UPLOAD_ID, 0,
+                    new ByteArrayInputStream(new byte[1]), USER_ID))
+                    .isInstanceOf(BusinessException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("complete 測試")
+    class CompleteTests {
+
+        @Test
+        @DisplayName("組合分段後移入儲存層、建立記錄並清除暫存")
+        void shouldAssembleAndRegister() throws IOException {
+            // Given
+            MultipartUpload upload = upload();
+            Path assembled = Files.writeString(tempDir.resolve("assembled.tmp"), "hello world");
+            when(multipartUploadRepository.findByIdAndOwnerIdAndExpiresAtAfter(eq(UPLOAD_ID), eq(USER_ID), any()))
+                    .thenReturn(Optional.of(upload));
+            when(multipartUploadStore.assemble(UPLOAD_ID, List.of(1, 2))).thenReturn(assembled);
+            when(fileStorageService.store(assembled, "video.mp4", USER_ID)).thenReturn("1/video.mp4");
+            when(fileStorageService.getStoredSize("1/video.mp4")).thenReturn(11L);
+            FileUploadResponse registered = FileUploadResponse.builder().fileId(201L).build();
+            when(fileService.registerStoredFile(eq("video.mp4"), isNull(), isNull(), eq(11L), any(), eq(USER_ID)))
+                    .thenReturn(registered);
+
+            // When
+            FileUploadResponse response = multipartUploadService.complete(UPLOAD_ID, List.of(1, 2), USER_ID);
+
+            // Then
+            assertThat(response.getFileId()).isEqualTo(201L);
+            verify(multipartUploadStore).delete(UPLOAD_ID);
+            verify(multipartUploadRepository).delete(upload);
+        }
+
+        @Test
+        @DisplayName("建立記錄失敗時刪除已移入的檔案並保留分段")
+        void shouldKeepPartsWhenRegistrationFails() throws IOException {
+            // Given
+            Path assembled = Files.writeString(tempDir.resolve("assembled.tmp"), "hello");
+            when(multipartUploadRepository.findByIdAndOwnerIdAndExpiresAtAfter(eq(UPLOAD_ID), eq(USER_ID), any()))
+                    .thenReturn(Optional.of(upload()));
+            when(multipartUploadStore.assemble(UPLOAD_ID, List.of(1))).thenReturn(assembled);
+            when(fileStorageService.store(assembled, "video.mp4", USER_ID)).thenReturn("1/video.mp4");
+            when(fileService.registerStoredFile(any(), any(), any(), anyLong(), any(), any()))
+                    .thenThrow(new FileAlreadyExistsException(1L, "video.mp4", LocalDateTime.now()));
+
+            // When & Then
+            assertThatThrownBy(() -> multipartUploadService.complete(UPLOAD_ID, List.of(1), USER_ID))
+                    .isInstanceOf(FileAlreadyExistsException.class);
+            verify(fileStorageService).delete("1/video.mp4");
+            verify(multipartUploadStore, never()).delete(any());
+        }
+
+        @Test
+        @DisplayName("分段編號未遞增時拒絕")
+        void shouldRejectUnorderedParts() {
+            assertThatThrownBy(() -> multipartUploadService.complete(UPLOAD_ID, List.of(2, 1), USER_ID))
+                    .isInstanceOf(BusinessException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("清除逾期的分段上傳")
+    void shouldCleanupExpiredUploads() throws IOException {
+        // Given
+        MultipartUpload expired = upload();
+        when(multipartUploadRepository.findByExpiresAtBefore(any(), any())).thenReturn(List.of(expired));
+
+        // When
+        multipartUploadService.cleanupExpired();
+
+        // Then
+        verify(multipartUploadStore).delete(UPLOAD_ID);
+        verify(multipartUploadRepository).delete(expired);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import com.example.miniclouddrive.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * MultipartUploadStore 單元測試
+ */
+class MultipartUploadStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MultipartUploadStore multipartUploadStore;
+
+    private static final Long UPLOAD_ID = 7L;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(tempDir.toString());
+        multipartUploadStore = new MultipartUploadStore(properties);
+        multipartUploadStore.init();
+    }
+
+    @Test
+    @DisplayName("依指定順序組合分段，與上傳順序無關")
+    void shouldAssemblePartsInRequestedOrder() throws IOException {
+        multipartUploadStore.writePart(UPLOAD_ID, 2, stream("world"), 1024);
+        multipartUploadStore.writePart(UPLOAD_ID, 1, stream("hello "), 1024);
+
+        Path assembled = multipartUploadStore.assemble(UPLOAD_ID, List.of(1, 2));
+
+        assertThat(Files.readString(assembled)).isEqualTo("hello world");
+    }
+
+    @Test
+    @DisplayName("重複上傳同一分段時取代舊內容")
+    void shouldReplacePartOnRetry() throws IOException {
+        multipartUploadStore.writePart(UPLOAD_ID, 1, stream("broken"), 1024);
+        long size = multipartUploadStore.writePart(UPLOAD_ID, 1, stream("ok"), 1024);
+
+        Path assembled = multipartUploadStore.assemble(UPLOAD_ID, List.of(1));
+
+        assertThat(size).isEqualTo(2);
+        assertThat(Files.readString(assembled)).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("分段超過大小上限時拒絕且不留下暫存檔")
+    void shouldRejectOversizedPart() throws IOException {
+        assertThatThrownBy(() -> multipartUploadStore.writePart(UPLOAD_ID, 1, stream("too large"), 4))
+                .isInstanceOf(BusinessException.class);
+
+        try (var files = Files.list(tempDir.resolve("multipart").resolve(UPLOAD_ID.toString()))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("缺少分段時拒絕組合")
+    void shouldRejectMissingPart() throws IOException {
+        multipartUploadStore.writePart(UPLOAD_ID, 1, stream("a"), 1024);
+
+        assertThatThrownBy(() -> multipartUploadStore.assemble(UPLOAD_ID, List.of(1, 2)))
+                .isInstanceOfSatisfying(BusinessException.class,
+                        e -> assertThat(e.getRtnMsg()).isEqualTo("分段尚未上傳: 2"));
+    }
+
+    @Test
+    @DisplayName("刪除上傳的所有分段")
+    void shouldDeleteAllParts() throws IOException {
+        multipartUploadStore.writePart(UPLOAD_ID, 1, stream("a"), 1024);
+
+        multipartUploadStore.delete(UPLOAD_ID);
+
+        assertThat(tempDir.resolve("multipart").resolve(UPLOAD_ID.toString())).doesNotExist();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.FileStorageProperties;
+import com.example.miniclouddrive.entity.PackBlob;
+import com.example.miniclouddrive.exception.FileStorageException;
+import com.example.miniclouddrive.repository.PackBlobRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * PackFileStore 單元測試
+ * 以記憶體中的 Map 模擬 pack_blobs 資料表
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PackFileStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private PackBlobRepository packBlobRepository;
+
+    private final Map<Long, PackBlob> blobs = new HashMap<>();
+    private long nextId = 1;
+
+    private FileStorageProperties properties;
+    private PackFileStore packFileStore;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FileStorageProperties();
+        properties.setUploadDir(tempDir.toString());
+        properties.getPack().setMaxPackSize(DataSize.ofBytes(16));
+
+        when(packBlobRepository.save(any(PackBlob.class))).thenAnswer(inv -> {
+            PackBlob blob = inv.getArgument(0);
+            blob.setId(nextId++);
+            blobs.put(blob.getId(), blob);
+            return blob;
+        });
+        when(packBlobRepository.findById(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(blobs.get(inv.<Long>getArgument(0))));
+        when(packBlobRepository.findByPackId(anyLong())).thenAnswer(inv -> blobs.values().stream()
+                .filter(b -> b.getPackId().equals(inv.getArgument(0)))
+                .toList());
+        when(packBlobRepository.sumLiveBytesGroupByPackId()).thenAnswer(inv -> {
+            Map<Long, Long> sums = new HashMap<>();
+            blobs.values().forEach(b -> sums.merge(b.getPackId(), b.getLength(), Long::sum));
+            List<Object[]> rows = new ArrayList<>();
+            sums.forEach((packId, bytes) -> rows.add(new Object[] { packId, bytes }));
+            return rows;
+        });
+        when(packBlobRepository.relocate(anyLong(), anyLong(), anyLong(), anyLong())).thenAnswer(inv -> {
+            PackBlob blob = blobs.get(inv.<Long>getArgument(0));
+            blob.setPackId(inv.getArgument(2));
+            blob.setOffset(inv.getArgument(3));
+            return 1;
+        });
+        when(packBlobRepository.existsByPackId(anyLong())).thenAnswer(inv -> blobs.values().stream()
+                .anyMatch(b -> b.getPackId().equals(inv.getArgument(0))));
+
+        packFileStore = new PackFileStore(properties, packBlobRepository);
+        packFileStore.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        packFileStore.close();
+    }
+
+    /**
+     * 將打包檔（含淘汰檔）的修改時間往前調，模擬已超過保留時間
+     */
+    private void agePacks() throws IOException {
+        FileTime past = FileTime.fromMillis(System.currentTimeMillis() - Duration.ofHours(1).toMillis());
+        try (Stream<Path> files = Files.list(tempDir.resolve("packs"))) {
+            for (Path file : files.toList()) {
+                Files.setLastModifiedTime(file, past);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("附加後可依路徑讀回相同內容")
+    void shouldReadBackAppendedData() throws IOException {
+        String first = packFileStore.append("hello".getBytes());
+        String second = packFileStore.append("world".getBytes());
+
+        assertThat(PackFileStore.isPackPath(first)).isTrue();
+        assertThat(packFileStore.read(first)).isEqualTo("hello".getBytes());
+        assertThat(packFileStore.read(second)).isEqualTo("world".getBytes());
+        assertThat(blobs.get(2L).getOffset()).isEqualTo(5L);
+        assertThat(packFileStore.length(second)).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("超過打包檔大小上限時切換到新的打包檔")
+    void shouldRollOverToNewPack() throws IOException {
+        packFileStore.append("0123456789".getBytes());
+        String rolled = packFileStore.append("abcdefghij".getBytes());
+
+        assertThat(blobs.get(2L).getPackId()).isEqualTo(2L);
+        assertThat(blobs.get(2L).getOffset()).isZero();
+        assertThat(packFileStore.read(rolled)).isEqualTo("abcdefghij".getBytes());
+    }
+
+    @Test
+    @DisplayName("壓實後存活資料搬移至新位置，舊打包檔被淘汰")
+    void shouldCompactPackWithDeletedBlobs() throws IOException {
+        String deleted = packFileStore.append("0123456789".getBytes());
+        String live = packFileStore.append("abc".getBytes());
+        packFileStore.append("0123456789abcdef".getBytes());
+        blobs.remove(1L);
+        agePacks();
+
+        packFileStore.compact();
+
+        assertThat(blobs.get(2L).getPackId()).isNotEqualTo(1L);
+        assertThat(packFileStore.read(live)).isEqualTo("abc".getBytes());
+        assertThatThrownBy(() -> packFileStore.read(deleted))
+                .isInstanceOf(FileStorageException.class);
+        try (Stream<Path> files = Files.list(tempDir.resolve("packs"))) {
+            assertThat(files.map(p -> p.getFileName().toString()))
+                    .contains("pack-00000001.dat.retired");
+        }
+    }
+
+    @Test
+    @DisplayName("壓實前已查得舊位置的讀取，於保留期間內仍可從淘汰的打包檔讀取")
+    void shouldReadOldLocationDuringCompaction() throws IOException {
+        packFileStore.append("0123456789".getBytes());
+        String live = packFileStore.append("abc".getBytes());
+        packFileStore.append("0123456789abcdef".getBytes());
+        blobs.remove(1L);
+        // 讀取請求在壓實前查得的位置
+        PackBlob resolved = PackBlob.builder().id(2L).packId(1L).offset(10L).length(3L).build();
+        agePacks();
+
+        packFileStore.compact();
+        packFileStore.compact();
+        when(packBlobRepository.findById(2L)).thenReturn(Optional.of(resolved));
+
+        assertThat(packFileStore.read(live)).isEqualTo("abc".getBytes());
+        assertThat(tempDir.resolve("packs/pack-00000001.dat.retired")).exists();
+    }
+
+    @Test
+    @DisplayName("淘汰的打包檔超過保留時間後才刪除")
+    void shouldDeleteRetiredPackAfterGracePeriod() throws IOException {
+        packFileStore.append("0123456789".getBytes());
+        packFileStore.append("abc".getBytes());
+        packFileStore.append("0123456789abcdef".getBytes());
+        blobs.remove(1L);
+        agePacks();
+        packFileStore.compact();
+
+        agePacks();
+        packFileStore.compact();
+
+        assertThat(tempDir.resolve("packs/pack-00000001.dat.retired")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("保留時間內寫入過的打包檔不壓實，避免尚未提交的上傳被當成垃圾")
+    void shouldSkipRecentlyWrittenPack() throws IOException {
+        packFileStore.append("0123456789".getBytes());
+        packFileStore.append("0123456789abcdef".getBytes());
+        // 模擬尚未提交的上傳：資料已寫入但查不到登記
+        blobs.remove(1L);
+
+        packFileStore.compact();
+
+        assertThat(tempDir.resolve("packs/pack-00000001.dat")).exists();
+    }
+
+    @Test
+    @DisplayName("淘汰後才提交的資料先搬移，下一輪確認無引用後才刪除淘汰檔")
+    void shouldRelocateBlobCommittedAfterRetirement() throws IOException {
+        packFileStore.append("0123456789".getBytes());
+        packFileStore.append("0123456789abcdef".getBytes());
+        PackBlob late = blobs.remove(1L);
+        agePacks();
+        packFileStore.compact();
+
+        // 上傳交易在淘汰後才提交
+        blobs.put(late.getId(), late);
+        agePacks();
+        packFileStore.compact();
+
+        assertThat(late.getPackId()).isNotEqualTo(1L);
+        assertThat(packFileStore.read(PackFileStore.PATH_PREFIX + late.getId())).isEqualTo("0123456789".getBytes());
+        assertThat(tempDir.resolve("packs/pack-00000001.dat.retired")).exists();
+
+        agePacks();
+        packFileStore.compact();
+
+        assertThat(tempDir.resolve("packs/pack-00000001.dat.retired")).doesNotExist();
+    }
+}
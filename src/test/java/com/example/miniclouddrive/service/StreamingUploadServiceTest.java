@@ -0,0 +1,95 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.dto.response.FileUploadResponse;
+import com.example.miniclouddrive.exception.BusinessException;
+import com.example.miniclouddrive.exception.InsufficientStorageException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * StreamingUploadService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class StreamingUploadServiceTest {
+
+    @Mock
+    private FileService fileService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @InjectMocks
+    private StreamingUploadService streamingUploadService;
+
+    private static final Long USER_ID = 1L;
+
+    /** 模擬儲存層：讀完整個串流後回傳路徑 */
+    private void storageConsumesStream() throws IOException {
+        when(fileStorageService.store(any(InputStream.class), eq("big.bin"), anyLong(), eq(USER_ID)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(0, InputStream.class).transferTo(OutputStream.nullOutputStream());
+                    return "1/big.bin";
+                });
+    }
+
+    @Test
+    @DisplayName("成功串流上傳並以實際讀取的大小建立記錄")
+    void shouldStreamAndRegister() throws IOException {
+        // Given
+        storageConsumesStream();
+        when(fileService.getRemainingQuota(USER_ID)).thenReturn(1_000L);
+        FileUploadResponse registered = FileUploadResponse.builder().fileId(201L).build();
+        when(fileService.registerStoredFile(eq("big.bin"), isNull(), isNull(), eq(100L), any(), eq(USER_ID)))
+                .thenReturn(registered);
+
+        // When
+        FileUploadResponse response = streamingUploadService.upload(new ByteArrayInputStream(new byte[100]),
+                "big.bin", null, null, -1, USER_ID);
+
+        // Then
+        verify(fileService).preflightUpload("big.bin", null, null, -1, USER_ID);
+        assertThat(response.getFileId()).isEqualTo(201L);
+    }
+
+    @Test
+    @DisplayName("內容超過剩餘配額時中止讀取")
+    void shouldAbortWhenQuotaExceeded() throws IOException {
+        // Given
+        storageConsumesStream();
+        when(fileService.getRemainingQuota(USER_ID)).thenReturn(10L);
+
+        // When & Then
+        assertThatThrownBy(() -> streamingUploadService.upload(new ByteArrayInputStream(new byte[100]),
+                "big.bin", null, null, -1, USER_ID))
+                .isInstanceOf(InsufficientStorageException.class);
+        verify(fileService, never()).registerStoredFile(any(), any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("實際內容與 Content-Length 不符時刪除已寫入的內容")
+    void shouldRejectTruncatedBody() throws IOException {
+        // Given
+        storageConsumesStream();
+        when(fileService.getRemainingQuota(USER_ID)).thenReturn(1_000L);
+
+        // When & Then
+        assertThatThrownBy(() -> streamingUploadService.upload(new ByteArrayInputStream(new byte[50]),
+                "big.bin", null, null, 100, USER_ID))
+                .isInstanceOf(BusinessException.class);
+        verify(fileStorageService).delete("1/big.bin");
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.miniclouddrive.service;
+
+import com.example.miniclouddrive.config.TrashProperties;
+import com.example.miniclouddrive.entity.FileEntity;
+import com.example.miniclouddrive.enums.FileType;
+import com.example.miniclouddrive.enums.JobType;
+import com.example.miniclouddrive.exception.InvalidFileException;
+import com.example.miniclouddrive.repository.FileRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TrashRetentionSweeper 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class TrashRetentionSweeperTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @Mock
+    private JobService jobService;
+
+    @Mock
+    private FileService fileService;
+
+    @Spy
+    private TrashProperties trashProperties = new TrashProperties();
+
+    @InjectMocks
+    private TrashRetentionSweeper sweeper;
+
+    private static FileEntity trashed(Long id, Long ownerId) {
+        return FileEntity.builder().id(id).name("old-" + id).type(FileType.FOLDER).ownerId(ownerId)
+                .deletedAt(LocalDateTime.now().minusDays(40)).trashRootId(id).build();
+    }
+
+    @Test
+    @DisplayName("為逾期項目建立永久刪除工作，已有未完成工作者略過")
+    void shouldEnqueueExpiredItemsOnce() {
+        // Given
+        when(fileRepository.findExpiredTrash(any(), any())).thenReturn(List.of(trashed(10L, 1L), trashed(11L, 2L)));
+        when(jobService.findUnfinishedTargets(JobType.TRASH_PURGE, List.of(10L, 11L))).thenReturn(Set.of(10L));
+
+        // When
+        sweeper.purgeExpired();
+
+        // Then
+        verify(fileService).requestTrashPurge(List.of(11L), 2L);
+        verify(fileService, never()).requestTrashPurge(List.of(10L), 1L);
+    }
+
+    @Test
+    @DisplayName("查詢後已被還原的項目略過，不影響其他項目")
+    void shouldSkipItemsRestoredMeanwhile() {
+        // Given
+        when(fileRepository.findExpiredTrash(any(), any())).thenReturn(List.of(trashed(10L, 1L), trashed(11L, 2L)));
+        when(jobService.findUnfinishedTargets(JobType.TRASH_PURGE, List.of(10L, 11L))).thenReturn(Set.of());
+        when(fileService.requestTrashPurge(List.of(10L), 1L)).thenThrow(new InvalidFileException(10L));
+
+        // When
+        sweeper.purgeExpired();
+
+        // Then
+        verify(fileService).requestTrashPurge(List.of(11L), 2L);
+    }
+
+    @Test
+    @DisplayName("沒有逾期項目時不查詢背景工作")
+    void shouldSkipWhenNothingExpired() {
+        // Given
+        when(fileRepository.findExpiredTrash(any(), any())).thenReturn(List.of());
+
+        // When
+        sweeper.purgeExpired();
+
+        // Then
+        verifyNoInteractions(jobService, fileService);
+    }
+}